@@ -1,6 +1,12 @@
 package com.computacenter.yocoma.config;
 
+import com.computacenter.yocoma.domain.id.PooledLoSequenceGenerator;
+import io.jsonwebtoken.SignatureAlgorithm;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Yocoma.
@@ -9,4 +15,553 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Cache cache = new Cache();
+
+    private final Security security = new Security();
+
+    private final Search search = new Search();
+
+    private final Bulk bulk = new Bulk();
+
+    private final IdAllocation idAllocation = new IdAllocation();
+
+    private final Count count = new Count();
+
+    private final Changes changes = new Changes();
+
+    private final Push push = new Push();
+
+    private final ContactImport contactImport = new ContactImport();
+
+    private final Storage storage = new Storage();
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public IdAllocation getIdAllocation() {
+        return idAllocation;
+    }
+
+    public Count getCount() {
+        return count;
+    }
+
+    public Changes getChanges() {
+        return changes;
+    }
+
+    public Push getPush() {
+        return push;
+    }
+
+    public ContactImport getContactImport() {
+        return contactImport;
+    }
+
+    public Storage getStorage() {
+        return storage;
+    }
+
+    public static class Cache {
+
+        /**
+         * Settings of single cache regions, keyed by region name. Regions without an entry use the
+         * {@code jhipster.cache.ehcache} defaults.
+         */
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public static class Region {
+
+            private Long timeToLiveSeconds;
+
+            private Long maxEntries;
+
+            public Long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+    }
+
+    public static class Security {
+
+        /**
+         * Maximum number of verified JWTs whose authentication is kept until the token expires.
+         */
+        private long verifiedTokensMaxEntries = 10_000;
+
+        private final PasswordHashing passwordHashing = new PasswordHashing();
+
+        private final Jwt jwt = new Jwt();
+
+        public long getVerifiedTokensMaxEntries() {
+            return verifiedTokensMaxEntries;
+        }
+
+        public void setVerifiedTokensMaxEntries(long verifiedTokensMaxEntries) {
+            this.verifiedTokensMaxEntries = verifiedTokensMaxEntries;
+        }
+
+        public PasswordHashing getPasswordHashing() {
+            return passwordHashing;
+        }
+
+        public Jwt getJwt() {
+            return jwt;
+        }
+
+        public static class Jwt {
+
+            /**
+             * Algorithm signing the JWTs. The HMAC algorithms sign with the {@code jhipster.security.authentication.jwt}
+             * secret, RS256 and ES256 with key pairs generated by the application and published at
+             * {@code /.well-known/jwks.json}.
+             */
+            private SignatureAlgorithm algorithm = SignatureAlgorithm.HS512;
+
+            /**
+             * Base64 encoded AES key, of 128, 192 or 256 bits, encrypting the private keys of the key pairs in the
+             * database. Required with RS256 and ES256, and kept out of the database, e.g. in the
+             * {@code APPLICATION_SECURITY_JWT_PRIVATE_KEY_SECRET} environment variable.
+             */
+            private String privateKeySecret;
+
+            /**
+             * Age at which a key pair is replaced by a new one.
+             */
+            private Duration rotationInterval = Duration.ofDays(7);
+
+            /**
+             * Time a new key pair is published before it signs, so every node and downstream service knows it.
+             */
+            private Duration publishAhead = Duration.ofHours(1);
+
+            /**
+             * Interval of reading the key pairs created by the other nodes, and of rotating them when due.
+             */
+            private Duration refreshInterval = Duration.ofMinutes(1);
+
+            /**
+             * Whether the tokens carry the names of all authorities besides their bitmask, for the nodes of a rolling
+             * upgrade which only read the names.
+             */
+            private boolean legacyAuthorities = false;
+
+            /**
+             * Validity of the access tokens, at most that of the {@code jhipster.security.authentication.jwt} settings,
+             * which are the validity of the refresh tokens renewing them.
+             */
+            private Duration accessTokenValidity = Duration.ofMinutes(15);
+
+            /**
+             * Interval of reading the tokens revoked by the other nodes.
+             */
+            private Duration revocationRefreshInterval = Duration.ofSeconds(10);
+
+            /**
+             * Number of revoked tokens the Bloom filter in front of the revocation list is sized for, it grows beyond.
+             */
+            private int revocationExpectedEntries = 10_000;
+
+            public SignatureAlgorithm getAlgorithm() {
+                return algorithm;
+            }
+
+            public void setAlgorithm(SignatureAlgorithm algorithm) {
+                this.algorithm = algorithm;
+            }
+
+            public String getPrivateKeySecret() {
+                return privateKeySecret;
+            }
+
+            public void setPrivateKeySecret(String privateKeySecret) {
+                this.privateKeySecret = privateKeySecret;
+            }
+
+            public Duration getRotationInterval() {
+                return rotationInterval;
+            }
+
+            public void setRotationInterval(Duration rotationInterval) {
+                this.rotationInterval = rotationInterval;
+            }
+
+            public Duration getPublishAhead() {
+                return publishAhead;
+            }
+
+            public void setPublishAhead(Duration publishAhead) {
+                this.publishAhead = publishAhead;
+            }
+
+            public Duration getRefreshInterval() {
+                return refreshInterval;
+            }
+
+            public void setRefreshInterval(Duration refreshInterval) {
+                this.refreshInterval = refreshInterval;
+            }
+
+            public boolean isLegacyAuthorities() {
+                return legacyAuthorities;
+            }
+
+            public void setLegacyAuthorities(boolean legacyAuthorities) {
+                this.legacyAuthorities = legacyAuthorities;
+            }
+
+            public Duration getAccessTokenValidity() {
+                return accessTokenValidity;
+            }
+
+            public void setAccessTokenValidity(Duration accessTokenValidity) {
+                this.accessTokenValidity = accessTokenValidity;
+            }
+
+            public Duration getRevocationRefreshInterval() {
+                return revocationRefreshInterval;
+            }
+
+            public void setRevocationRefreshInterval(Duration revocationRefreshInterval) {
+                this.revocationRefreshInterval = revocationRefreshInterval;
+            }
+
+            public int getRevocationExpectedEntries() {
+                return revocationExpectedEntries;
+            }
+
+            public void setRevocationExpectedEntries(int revocationExpectedEntries) {
+                this.revocationExpectedEntries = revocationExpectedEntries;
+            }
+        }
+
+        public static class PasswordHashing {
+
+            /**
+             * Log2 of the BCrypt rounds of new hashes. Passwords hashed with fewer rounds are hashed again when their
+             * user logs in.
+             */
+            private int strength = 10;
+
+            /**
+             * Threads hashing and verifying passwords. BCrypt keeps a core busy per thread, so the other cores are left
+             * to the requests.
+             */
+            private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+            /**
+             * Hashes waiting for a thread, further logins are refused with 503 (Service Unavailable).
+             */
+            private int queueCapacity = 50;
+
+            /**
+             * Time a hash may wait for a thread, before its login is refused with 503 (Service Unavailable).
+             */
+            private Duration maxWait = Duration.ofSeconds(3);
+
+            /**
+             * Time a hash may take once it has a thread. A login waiting longer than the max-wait and this time is
+             * refused with 503 (Service Unavailable), whether its hash is still queued or running.
+             */
+            private Duration maxHashTime = Duration.ofSeconds(2);
+
+            /**
+             * Time after which a refused login may be retried, sent as Retry-After.
+             */
+            private Duration retryAfter = Duration.ofSeconds(5);
+
+            public int getStrength() {
+                return strength;
+            }
+
+            public void setStrength(int strength) {
+                this.strength = strength;
+            }
+
+            public int getThreads() {
+                return threads;
+            }
+
+            public void setThreads(int threads) {
+                this.threads = threads;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public Duration getMaxWait() {
+                return maxWait;
+            }
+
+            public void setMaxWait(Duration maxWait) {
+                this.maxWait = maxWait;
+            }
+
+            public Duration getMaxHashTime() {
+                return maxHashTime;
+            }
+
+            public void setMaxHashTime(Duration maxHashTime) {
+                this.maxHashTime = maxHashTime;
+            }
+
+            public Duration getRetryAfter() {
+                return retryAfter;
+            }
+
+            public void setRetryAfter(Duration retryAfter) {
+                this.retryAfter = retryAfter;
+            }
+        }
+    }
+
+    public static class Search {
+
+        /**
+         * Maximum number of the best ranked hits a full-text search combined with other filters, or sorted by
+         * another property than its relevance, is restricted to. Exports cover all hits.
+         */
+        private int maxHits = 1000;
+
+        public int getMaxHits() {
+            return maxHits;
+        }
+
+        public void setMaxHits(int maxHits) {
+            this.maxHits = maxHits;
+        }
+    }
+
+    public static class Bulk {
+
+        /**
+         * Number of items persisted in one transaction, best a multiple of {@code hibernate.jdbc.batch_size}.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Maximum number of items of one bulk request.
+         */
+        private int maxItems = 10_000;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxItems() {
+            return maxItems;
+        }
+
+        public void setMaxItems(int maxItems) {
+            this.maxItems = maxItems;
+        }
+    }
+
+    public static class IdAllocation {
+
+        /**
+         * Number of ids a node allocates per call of the id sequence. It is also the increment of the sequence, which
+         * Liquibase sets on startup. All nodes sharing a database have to use the same block size; it can be raised
+         * while nodes are running, but only lowered while they are stopped.
+         */
+        private int blockSize = PooledLoSequenceGenerator.DEFAULT_BLOCK_SIZE;
+
+        public int getBlockSize() {
+            return blockSize;
+        }
+
+        public void setBlockSize(int blockSize) {
+            this.blockSize = blockSize;
+        }
+    }
+
+    public static class Count {
+
+        /**
+         * Whether the count endpoints estimate the number of all entities from the PostgreSQL planner statistics
+         * instead of counting them. Filtered counts and other databases are always counted.
+         */
+        private boolean estimateUnfiltered = false;
+
+        public boolean isEstimateUnfiltered() {
+            return estimateUnfiltered;
+        }
+
+        public void setEstimateUnfiltered(boolean estimateUnfiltered) {
+            this.estimateUnfiltered = estimateUnfiltered;
+        }
+    }
+
+    public static class Changes {
+
+        /**
+         * How long the changes of the entities are kept for the syncs. A client whose last sync is older has to
+         * load all entities again.
+         */
+        private Duration retention = Duration.ofDays(30);
+
+        /**
+         * Interval of reading the changes committed by the other nodes, which bounds how long this node serves the
+         * entities they changed from its caches.
+         */
+        private Duration followInterval = Duration.ofSeconds(5);
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+
+        public Duration getFollowInterval() {
+            return followInterval;
+        }
+
+        public void setFollowInterval(Duration followInterval) {
+            this.followInterval = followInterval;
+        }
+    }
+
+    public static class Push {
+
+        /**
+         * Changes queued per subscriber. A subscriber whose queue overflows loses its pending changes and is told to
+         * resync instead.
+         */
+        private int queueCapacity = 256;
+
+        /**
+         * Clients which may subscribe at the same time, further subscriptions are refused.
+         */
+        private int maxSubscribers = 1000;
+
+        /**
+         * Time after which a subscription ends, and the client subscribes again.
+         */
+        private Duration timeout = Duration.ofMinutes(30);
+
+        /**
+         * Threads sending the queued changes to the subscribers.
+         */
+        private int threads = 4;
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getMaxSubscribers() {
+            return maxSubscribers;
+        }
+
+        public void setMaxSubscribers(int maxSubscribers) {
+            this.maxSubscribers = maxSubscribers;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+    }
+
+    public static class ContactImport {
+
+        /**
+         * Rows staged and contacts created per transaction of an import, a multiple of hibernate.jdbc.batch_size.
+         */
+        private int batchSize = 1000;
+
+        /**
+         * How long the finished imports are kept with their invalid rows, for the client polling them.
+         */
+        private Duration retention = Duration.ofDays(7);
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+    }
+
+    public static class Storage {
+
+        /**
+         * Maximum size of the images and logos. The database store reads them into memory, so its connection is
+         * released before the response is written; larger content is refused when stored.
+         */
+        private DataSize maxContentSize = DataSize.ofMegabytes(10);
+
+        public DataSize getMaxContentSize() {
+            return maxContentSize;
+        }
+
+        public void setMaxContentSize(DataSize maxContentSize) {
+            this.maxContentSize = maxContentSize;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.computacenter.yocoma.config;
+
+import com.computacenter.yocoma.management.SecurityMetersService;
+import com.computacenter.yocoma.security.jwt.TokenProvider;
+import java.time.Duration;
+import org.ehcache.config.builders.*;
+import org.ehcache.event.EventType;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.boot.info.GitProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tech.jhipster.config.JHipsterProperties;
+import tech.jhipster.config.cache.PrefixedKeyGenerator;
+
+/**
+ * Ehcache backed JCache regions for the Hibernate second-level cache, the query cache and the Spring caches.
+ * <p>
+ * Each region uses the {@code jhipster.cache.ehcache} defaults unless {@code application.cache.regions} overrides them.
+ * Statistics are enabled on every region, so Spring Boot publishes them as {@code cache.gets}, {@code cache.puts}
+ * and {@code cache.evictions} metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    private GitProperties gitProperties;
+    private BuildProperties buildProperties;
+
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+
+    private final ApplicationProperties.Cache cacheProperties;
+
+    private final ApplicationProperties.Security securityProperties;
+
+    private final SecurityMetersService securityMetersService;
+
+    public CacheConfiguration(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        SecurityMetersService securityMetersService
+    ) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.cacheProperties = applicationProperties.getCache();
+        this.securityProperties = applicationProperties.getSecurity();
+        this.securityMetersService = securityMetersService;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+
+    /**
+     * Defer puts and evictions of the Spring caches until the surrounding transaction has been committed, so an eviction
+     * cannot be undone by a concurrent read of the not yet committed state.
+     */
+    @Bean
+    public CacheManagerCustomizer<JCacheCacheManager> transactionAwareCacheManagerCustomizer() {
+        return cacheManager -> cacheManager.setTransactionAware(true);
+    }
+
+    @Bean
+    public JCacheManagerCustomizer cacheManagerCustomizer() {
+        return cm -> {
+            createCache(cm, com.computacenter.yocoma.repository.UserRepository.USERS_BY_LOGIN_CACHE);
+            createCache(cm, com.computacenter.yocoma.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, com.computacenter.yocoma.security.DomainUserDetailsService.USER_DETAILS_CACHE);
+            createCache(cm, com.computacenter.yocoma.service.CountService.COUNTS_BY_CRITERIA_CACHE);
+            createCache(cm, com.computacenter.yocoma.domain.User.class.getName());
+            createCache(cm, com.computacenter.yocoma.domain.Authority.class.getName());
+            createCache(cm, com.computacenter.yocoma.domain.User.class.getName() + ".authorities");
+            createCache(cm, com.computacenter.yocoma.domain.Contact.class.getName());
+            createCache(cm, com.computacenter.yocoma.domain.Contact.class.getName() + ".teamContacts");
+            createCache(cm, com.computacenter.yocoma.domain.Team.class.getName());
+            createCache(cm, com.computacenter.yocoma.domain.Team.class.getName() + ".teamContacts");
+            createCache(cm, com.computacenter.yocoma.domain.TeamContact.class.getName());
+            createCache(cm, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+            // Hibernate compares cached query results against these timestamps, they must not expire before the results do
+            createCache(cm, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, ExpiryPolicyBuilder.noExpiration());
+            createVerifiedTokensCache(cm);
+            // jhipster-needle-ehcache-add-entry
+        };
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        createCache(cm, cacheName, ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(timeToLiveSeconds(cacheName))));
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName, ExpiryPolicy<Object, Object> expiryPolicy) {
+        createCache(
+            cm,
+            cacheName,
+            CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(
+                    Object.class,
+                    Object.class,
+                    ResourcePoolsBuilder.heap(maxEntries(cacheName, ehcache.getMaxEntries()))
+                )
+                .withExpiry(expiryPolicy)
+        );
+    }
+
+    /**
+     * The verified tokens expire together with their token, so they are only evicted when the cache is full, which is metered.
+     */
+    private void createVerifiedTokensCache(javax.cache.CacheManager cm) {
+        String cacheName = TokenProvider.VERIFIED_TOKENS_CACHE;
+        createCache(
+            cm,
+            cacheName,
+            CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(
+                    Object.class,
+                    Object.class,
+                    ResourcePoolsBuilder.heap(maxEntries(cacheName, securityProperties.getVerifiedTokensMaxEntries()))
+                )
+                .withExpiry(new TokenProvider.VerifiedTokenExpiry())
+                .withService(
+                    CacheEventListenerConfigurationBuilder
+                        .newEventListenerConfiguration(event -> securityMetersService.trackVerifiedTokenEviction(), EventType.EVICTED)
+                        .unordered()
+                        .synchronous()
+                )
+        );
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName, CacheConfigurationBuilder<Object, Object> configuration) {
+        javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        } else {
+            cm.createCache(cacheName, Eh107Configuration.fromEhcacheCacheConfiguration(configuration.build()));
+        }
+        cm.enableStatistics(cacheName, true);
+    }
+
+    private long timeToLiveSeconds(String cacheName) {
+        ApplicationProperties.Cache.Region region = cacheProperties.getRegions().get(cacheName);
+        return region != null && region.getTimeToLiveSeconds() != null ? region.getTimeToLiveSeconds() : ehcache.getTimeToLiveSeconds();
+    }
+
+    private long maxEntries(String cacheName, long defaultMaxEntries) {
+        ApplicationProperties.Cache.Region region = cacheProperties.getRegions().get(cacheName);
+        return region != null && region.getMaxEntries() != null ? region.getMaxEntries() : defaultMaxEntries;
+    }
+
+    @Autowired(required = false)
+    public void setGitProperties(GitProperties gitProperties) {
+        this.gitProperties = gitProperties;
+    }
+
+    @Autowired(required = false)
+    public void setBuildProperties(BuildProperties buildProperties) {
+        this.buildProperties = buildProperties;
+    }
+
+    @Bean
+    public KeyGenerator keyGenerator() {
+        return new PrefixedKeyGenerator(this.gitProperties, this.buildProperties);
+    }
+}
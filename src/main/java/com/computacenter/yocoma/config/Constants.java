@@ -11,5 +11,11 @@ public final class Constants {
     public static final String SYSTEM = "system";
     public static final String DEFAULT_LANGUAGE = "de";
 
+    // Analyzers of the full-text search index, defined by the SearchAnalysisConfigurer
+    public static final String SEARCH_ANALYZER = "search";
+    public static final String SEARCH_PREFIX_ANALYZER = "search_prefix";
+    // Suffix of the fields which index every prefix of the words of a text field
+    public static final String SEARCH_PREFIX_FIELD_SUFFIX = "_prefix";
+
     private Constants() {}
 }
@@ -1,8 +1,10 @@
 package com.computacenter.yocoma.config;
 
+import com.computacenter.yocoma.domain.id.PooledLoSequenceGenerator;
 import java.sql.SQLException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -27,6 +29,18 @@ public class DatabaseConfiguration {
         this.env = env;
     }
 
+    /**
+     * Pass the block size of the id allocation to the {@link PooledLoSequenceGenerator} of the entities.
+     *
+     * @param applicationProperties the properties holding the block size.
+     * @return the customizer of the Hibernate properties.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer idAllocationHibernatePropertiesCustomizer(ApplicationProperties applicationProperties) {
+        return hibernateProperties ->
+            hibernateProperties.put(PooledLoSequenceGenerator.BLOCK_SIZE_SETTING, applicationProperties.getIdAllocation().getBlockSize());
+    }
+
     /**
      * Open the TCP port for the H2 database, so it is available remotely.
      *
@@ -1,5 +1,7 @@
 package com.computacenter.yocoma.config;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.Executor;
 import javax.sql.DataSource;
 import liquibase.integration.spring.SpringLiquibase;
@@ -24,8 +26,11 @@ public class LiquibaseConfiguration {
 
     private final Environment env;
 
-    public LiquibaseConfiguration(Environment env) {
+    private final ApplicationProperties applicationProperties;
+
+    public LiquibaseConfiguration(Environment env, ApplicationProperties applicationProperties) {
         this.env = env;
+        this.applicationProperties = applicationProperties;
     }
 
     @Bean
@@ -55,7 +60,13 @@ public class LiquibaseConfiguration {
         liquibase.setDatabaseChangeLogTable(liquibaseProperties.getDatabaseChangeLogTable());
         liquibase.setDropFirst(liquibaseProperties.isDropFirst());
         liquibase.setLabels(liquibaseProperties.getLabels());
-        liquibase.setChangeLogParameters(liquibaseProperties.getParameters());
+        Map<String, String> parameters = new HashMap<>();
+        if (liquibaseProperties.getParameters() != null) {
+            parameters.putAll(liquibaseProperties.getParameters());
+        }
+        // The increment of sequence_generator is the block size of the ids
+        parameters.put("idBlockSize", String.valueOf(applicationProperties.getIdAllocation().getBlockSize()));
+        liquibase.setChangeLogParameters(parameters);
         liquibase.setRollbackFile(liquibaseProperties.getRollbackFile());
         liquibase.setTestRollbackOnUpdate(liquibaseProperties.isTestRollbackOnUpdate());
         if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_NO_LIQUIBASE))) {
@@ -0,0 +1,33 @@
+package com.computacenter.yocoma.config;
+
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurationContext;
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurer;
+
+/**
+ * Analyzers of the full-text search index.
+ * <p>
+ * Registered through {@code hibernate.search.backend.analysis.configurer} in the {@code application.yml} file.
+ * Changing an analyzer requires the index to be rebuilt.
+ */
+public class SearchAnalysisConfigurer implements LuceneAnalysisConfigurer {
+
+    private static final String MIN_PREFIX_LENGTH = "2";
+
+    private static final String MAX_PREFIX_LENGTH = "20";
+
+    @Override
+    public void configure(LuceneAnalysisConfigurationContext context) {
+        // Case and accent insensitive words
+        context.analyzer(Constants.SEARCH_ANALYZER).custom().tokenizer("standard").tokenFilter("lowercase").tokenFilter("asciiFolding");
+        // The same words together with their prefixes, only used for indexing
+        context
+            .analyzer(Constants.SEARCH_PREFIX_ANALYZER)
+            .custom()
+            .tokenizer("standard")
+            .tokenFilter("lowercase")
+            .tokenFilter("asciiFolding")
+            .tokenFilter("edgeNGram")
+            .param("minGramSize", MIN_PREFIX_LENGTH)
+            .param("maxGramSize", MAX_PREFIX_LENGTH);
+    }
+}
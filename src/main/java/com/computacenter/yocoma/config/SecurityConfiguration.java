@@ -1,5 +1,6 @@
 package com.computacenter.yocoma.config;
 
+import com.computacenter.yocoma.management.SecurityMetersService;
 import com.computacenter.yocoma.security.*;
 import com.computacenter.yocoma.security.jwt.*;
 import org.springframework.context.annotation.Bean;
@@ -45,8 +46,9 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(ApplicationProperties applicationProperties, SecurityMetersService securityMetersService) {
+        ApplicationProperties.Security.PasswordHashing passwordHashing = applicationProperties.getSecurity().getPasswordHashing();
+        return new PooledPasswordEncoder(new BCryptPasswordEncoder(passwordHashing.getStrength()), passwordHashing, securityMetersService);
     }
 
     @Bean
@@ -89,10 +91,13 @@ public class SecurityConfiguration {
         .and()
             .authorizeRequests()
             .antMatchers("/api/authenticate").permitAll()
+            .antMatchers("/api/authenticate/refresh").permitAll()
+            .antMatchers("/api/logout").permitAll()
             .antMatchers("/api/register").permitAll()
             .antMatchers("/api/activate").permitAll()
             .antMatchers("/api/account/reset-password/init").permitAll()
             .antMatchers("/api/account/reset-password/finish").permitAll()
+            .antMatchers("/.well-known/jwks.json").permitAll()
             .antMatchers("/api/admin/**").hasAuthority(AuthoritiesConstants.ADMIN)
             .antMatchers("/api/**").authenticated()
             .antMatchers("/management/health").permitAll()
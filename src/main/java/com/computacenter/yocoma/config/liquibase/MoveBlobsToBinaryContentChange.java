@@ -0,0 +1,82 @@
+package com.computacenter.yocoma.config.liquibase;
+
+import com.computacenter.yocoma.service.storage.BinaryStore;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+/**
+ * Moves the images and logos stored in the {@code contact} and {@code team} rows into the {@code binary_content} table
+ * and records their hashes, see {@link BinaryStore}.
+ */
+public class MoveBlobsToBinaryContentChange implements CustomTaskChange {
+
+    private int moved;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        JdbcConnection connection = (JdbcConnection) database.getConnection();
+        Set<String> stored = new HashSet<>();
+        try {
+            moveBlobs(connection, "contact", "image", stored);
+            moveBlobs(connection, "team", "logo", stored);
+        } catch (DatabaseException | SQLException e) {
+            throw new CustomChangeException("Could not move images and logos to binary_content", e);
+        }
+    }
+
+    private void moveBlobs(JdbcConnection connection, String table, String column, Set<String> stored)
+        throws DatabaseException, SQLException {
+        try (
+            PreparedStatement select = connection.prepareStatement(
+                "select id, " + column + " from " + table + " where " + column + " is not null"
+            );
+            PreparedStatement insert = connection.prepareStatement("insert into binary_content (hash, content) values (?, ?)");
+            PreparedStatement update = connection.prepareStatement("update " + table + " set " + column + "_hash = ? where id = ?");
+            ResultSet rows = select.executeQuery()
+        ) {
+            while (rows.next()) {
+                byte[] content = rows.getBytes(2);
+                String hash = BinaryStore.hash(content);
+                if (stored.add(hash)) {
+                    insert.setString(1, hash);
+                    insert.setBytes(2, content);
+                    insert.executeUpdate();
+                }
+                update.setString(1, hash);
+                update.setLong(2, rows.getLong(1));
+                update.executeUpdate();
+                moved++;
+            }
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Moved " + moved + " images and logos to binary_content";
+    }
+
+    @Override
+    public void setUp() {
+        // nothing to set up
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // no resources needed
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
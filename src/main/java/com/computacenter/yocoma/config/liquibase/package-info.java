@@ -0,0 +1,4 @@
+/**
+ * Liquibase changes which cannot be expressed in the changelog alone.
+ */
+package com.computacenter.yocoma.config.liquibase;
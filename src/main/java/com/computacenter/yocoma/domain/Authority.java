@@ -6,14 +6,19 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * An authority (a security role) used by Spring Security.
  */
 @Entity
 @Table(name = "jhi_authority")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Authority implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -24,6 +29,14 @@ public class Authority implements Serializable {
     @Column(length = 50)
     private String name;
 
+    /**
+     * The bit of the authority in the authorities of the JWTs, so its users' tokens carry a bitmask instead of names.
+     */
+    @Min(0)
+    @Max(62)
+    @Column(name = "token_bit", unique = true)
+    private Integer tokenBit;
+
     public String getName() {
         return name;
     }
@@ -32,6 +45,14 @@ public class Authority implements Serializable {
         this.name = name;
     }
 
+    public Integer getTokenBit() {
+        return tokenBit;
+    }
+
+    public void setTokenBit(Integer tokenBit) {
+        this.tokenBit = tokenBit;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -53,6 +74,7 @@ public class Authority implements Serializable {
     public String toString() {
         return "Authority{" +
             "name='" + name + '\'' +
+            ", tokenBit=" + tokenBit +
             "}";
     }
 }
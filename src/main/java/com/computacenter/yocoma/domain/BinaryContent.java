@@ -0,0 +1,98 @@
+package com.computacenter.yocoma.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Binary content (images, logos) kept apart from the entity rows and addressed by the SHA-256 hash of its bytes.
+ */
+@Entity
+@Table(name = "binary_content")
+public class BinaryContent implements Serializable, Persistable<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    @Size(min = 64, max = 64)
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @NotNull
+    @Lob
+    @Column(name = "content", nullable = false)
+    private byte[] content;
+
+    @Transient
+    private boolean isPersisted;
+
+    public String getHash() {
+        return this.hash;
+    }
+
+    public BinaryContent hash(String hash) {
+        this.setHash(hash);
+        return this;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public byte[] getContent() {
+        return this.content;
+    }
+
+    public BinaryContent content(byte[] content) {
+        this.setContent(content);
+        return this;
+    }
+
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+
+    @Override
+    public String getId() {
+        return this.hash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !this.isPersisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.isPersisted = true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BinaryContent)) {
+            return false;
+        }
+        return hash != null && hash.equals(((BinaryContent) o).hash);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(hash);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BinaryContent{" +
+            "hash='" + getHash() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,137 @@
+package com.computacenter.yocoma.domain;
+
+import com.computacenter.yocoma.domain.enumeration.ThumbnailSize;
+import com.computacenter.yocoma.domain.id.PooledLoSequenceGenerator;
+import java.io.Serializable;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import org.hibernate.annotations.GenericGenerator;
+
+/**
+ * A thumbnail of a {@link BinaryContent}, itself stored as {@link BinaryContent}.
+ */
+@Entity
+@Table(name = "binary_thumbnail")
+public class BinaryThumbnail implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @GenericGenerator(name = "sequenceGenerator", strategy = PooledLoSequenceGenerator.STRATEGY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(min = 64, max = 64)
+    @Column(name = "original_hash", length = 64, nullable = false)
+    private String originalHash;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "thumbnail_size", nullable = false)
+    private ThumbnailSize thumbnailSize;
+
+    @NotNull
+    @Size(min = 64, max = 64)
+    @Column(name = "hash", length = 64, nullable = false)
+    private String hash;
+
+    @NotNull
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public BinaryThumbnail id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getOriginalHash() {
+        return this.originalHash;
+    }
+
+    public BinaryThumbnail originalHash(String originalHash) {
+        this.setOriginalHash(originalHash);
+        return this;
+    }
+
+    public void setOriginalHash(String originalHash) {
+        this.originalHash = originalHash;
+    }
+
+    public ThumbnailSize getThumbnailSize() {
+        return this.thumbnailSize;
+    }
+
+    public BinaryThumbnail thumbnailSize(ThumbnailSize thumbnailSize) {
+        this.setThumbnailSize(thumbnailSize);
+        return this;
+    }
+
+    public void setThumbnailSize(ThumbnailSize thumbnailSize) {
+        this.thumbnailSize = thumbnailSize;
+    }
+
+    public String getHash() {
+        return this.hash;
+    }
+
+    public BinaryThumbnail hash(String hash) {
+        this.setHash(hash);
+        return this;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    public BinaryThumbnail contentType(String contentType) {
+        this.setContentType(contentType);
+        return this;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BinaryThumbnail)) {
+            return false;
+        }
+        return id != null && id.equals(((BinaryThumbnail) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BinaryThumbnail{" +
+            "id=" + getId() +
+            ", originalHash='" + getOriginalHash() + "'" +
+            ", thumbnailSize='" + getThumbnailSize() + "'" +
+            ", hash='" + getHash() + "'" +
+            ", contentType='" + getContentType() + "'" +
+            "}";
+    }
+}
@@ -1,31 +1,61 @@
 package com.computacenter.yocoma.domain;
 
+import com.computacenter.yocoma.config.Constants;
+import com.computacenter.yocoma.domain.enumeration.ThumbnailSize;
+import com.computacenter.yocoma.domain.id.PooledLoSequenceGenerator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
 import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.FullTextField;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.Indexed;
 
 /**
  * A Contact.
  */
 @Entity
 @Table(name = "contact")
-public class Contact implements Serializable {
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Indexed
+public class Contact extends AbstractAuditingEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    private static final java.util.regex.Pattern NOT_PHONE_DIGIT = java.util.regex.Pattern.compile("[^0-9+]");
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GenericGenerator(name = "sequenceGenerator", strategy = PooledLoSequenceGenerator.STRATEGY)
     @Column(name = "id")
     private Long id;
 
+    @FullTextField(analyzer = Constants.SEARCH_ANALYZER)
+    @FullTextField(
+        name = "firstname" + Constants.SEARCH_PREFIX_FIELD_SUFFIX,
+        analyzer = Constants.SEARCH_PREFIX_ANALYZER,
+        searchAnalyzer = Constants.SEARCH_ANALYZER
+    )
     @NotNull
     @Column(name = "firstname", nullable = false)
     private String firstname;
 
+    @FullTextField(analyzer = Constants.SEARCH_ANALYZER)
+    @FullTextField(
+        name = "lastname" + Constants.SEARCH_PREFIX_FIELD_SUFFIX,
+        analyzer = Constants.SEARCH_PREFIX_ANALYZER,
+        searchAnalyzer = Constants.SEARCH_ANALYZER
+    )
     @NotNull
     @Column(name = "lastname", nullable = false)
     private String lastname;
@@ -37,22 +67,56 @@ public class Contact implements Serializable {
     @Column(name = "phone")
     private String phone;
 
+    /**
+     * The email imports deduplicate on, written with the email.
+     */
+    @Column(name = "normalized_email")
+    @JsonIgnore
+    private String normalizedEmail;
+
+    /**
+     * The phone imports deduplicate on, written with the phone.
+     */
+    @Column(name = "normalized_phone")
+    @JsonIgnore
+    private String normalizedPhone;
+
+    @FullTextField(analyzer = Constants.SEARCH_ANALYZER)
+    @FullTextField(
+        name = "remark" + Constants.SEARCH_PREFIX_FIELD_SUFFIX,
+        analyzer = Constants.SEARCH_PREFIX_ANALYZER,
+        searchAnalyzer = Constants.SEARCH_ANALYZER
+    )
     @Column(name = "remark")
     private String remark;
 
-    @Lob
-    @Column(name = "image")
-    private byte[] image;
+    // Only carries an upload on its way to the binary store, see ContactService.
+    // Not @Transient, as the Hibernate5Module would hide it from Jackson as well.
+    private transient byte[] image;
+
+    @Size(min = 64, max = 64)
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
 
     @Column(name = "image_content_type")
     private String imageContentType;
 
-    // FetchType.EAGER so that the teamContacts will be loaded.
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "contact")
+    // Loaded lazily; endpoints which render the memberships fetch them explicitly,
+    // see ContactRepositoryWithBagRelationships.
+    @OneToMany(mappedBy = "contact")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     // No @JsonIgnoreProperties so that "team" and "contact" will be transferred to angular.
     //@JsonIgnoreProperties(value = { "contact", "team" }, allowSetters = true)
     private Set<TeamContact> teamContacts = new HashSet<>();
 
+    /**
+     * The version of the row, incremented by every update and checked by it.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    @JsonIgnore
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -105,6 +169,7 @@ public class Contact implements Serializable {
 
     public void setEmail(String email) {
         this.email = email;
+        this.normalizedEmail = normalizeEmail(email);
     }
 
     public String getPhone() {
@@ -118,6 +183,33 @@ public class Contact implements Serializable {
 
     public void setPhone(String phone) {
         this.phone = phone;
+        this.normalizedPhone = normalizePhone(phone);
+    }
+
+    public String getNormalizedEmail() {
+        return this.normalizedEmail;
+    }
+
+    public String getNormalizedPhone() {
+        return this.normalizedPhone;
+    }
+
+    /**
+     * @param email an email.
+     * @return the email trimmed and in lower case, {@code null} if it is blank.
+     */
+    public static String normalizeEmail(String email) {
+        String normalized = email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    /**
+     * @param phone a phone number.
+     * @return the phone number without anything but its digits and plus signs, {@code null} if nothing is left.
+     */
+    public static String normalizePhone(String phone) {
+        String normalized = phone == null ? "" : NOT_PHONE_DIGIT.matcher(phone).replaceAll("");
+        return normalized.isEmpty() ? null : normalized;
     }
 
     public String getRemark() {
@@ -133,6 +225,7 @@ public class Contact implements Serializable {
         this.remark = remark;
     }
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public byte[] getImage() {
         return this.image;
     }
@@ -159,6 +252,57 @@ public class Contact implements Serializable {
         this.imageContentType = imageContentType;
     }
 
+    public String getImageHash() {
+        return this.imageHash;
+    }
+
+    public Contact imageHash(String imageHash) {
+        this.setImageHash(imageHash);
+        return this;
+    }
+
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
+    }
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public String getImageUrl() {
+        return imageUrl(this.id, this.imageHash);
+    }
+
+    /**
+     * @return the URLs of the thumbnails by their size in pixels. They contain the hash, so they can be cached forever.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Map<Integer, String> getImageThumbnailUrls() {
+        return imageThumbnailUrls(this.id, this.imageHash);
+    }
+
+    /**
+     * @param id the id of the contact.
+     * @param imageHash the hash of its image.
+     * @return the URL of the image, {@code null} if the contact has no image.
+     */
+    public static String imageUrl(Long id, String imageHash) {
+        return id == null || imageHash == null ? null : "/api/contacts/" + id + "/image";
+    }
+
+    /**
+     * @param id the id of the contact.
+     * @param imageHash the hash of its image.
+     * @return the URLs of the image thumbnails by their size in pixels, {@code null} if the contact has no image.
+     */
+    public static Map<Integer, String> imageThumbnailUrls(Long id, String imageHash) {
+        if (id == null || imageHash == null) {
+            return null;
+        }
+        Map<Integer, String> urls = new TreeMap<>();
+        for (ThumbnailSize size : ThumbnailSize.values()) {
+            urls.put(size.getPixels(), imageUrl(id, imageHash) + "/" + imageHash + "/" + size.getPixels());
+        }
+        return urls;
+    }
+
     public Set<TeamContact> getTeamContacts() {
         return this.teamContacts;
     }
@@ -190,6 +334,14 @@ public class Contact implements Serializable {
         return this;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -219,7 +371,7 @@ public class Contact implements Serializable {
             ", email='" + getEmail() + "'" +
             ", phone='" + getPhone() + "'" +
             ", remark='" + getRemark() + "'" +
-            ", image='" + getImage() + "'" +
+            ", imageHash='" + getImageHash() + "'" +
             ", imageContentType='" + getImageContentType() + "'" +
             "}";
     }
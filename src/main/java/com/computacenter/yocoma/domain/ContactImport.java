@@ -0,0 +1,174 @@
+package com.computacenter.yocoma.domain;
+
+import com.computacenter.yocoma.domain.enumeration.ContactImportFormat;
+import com.computacenter.yocoma.domain.enumeration.ContactImportStatus;
+import com.computacenter.yocoma.domain.id.PooledLoSequenceGenerator;
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import org.hibernate.annotations.GenericGenerator;
+
+/**
+ * An import of contacts from a file, which runs in the background and counts its rows as it goes.
+ */
+@Entity
+@Table(name = "contact_import")
+public class ContactImport extends AbstractAuditingEntity implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @GenericGenerator(name = "sequenceGenerator", strategy = PooledLoSequenceGenerator.STRATEGY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "format", length = 10, nullable = false)
+    private ContactImportFormat format;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 10, nullable = false)
+    private ContactImportStatus status;
+
+    @Column(name = "read_rows", nullable = false)
+    private int readRows;
+
+    @Column(name = "invalid_rows", nullable = false)
+    private int invalidRows;
+
+    @Column(name = "duplicate_rows", nullable = false)
+    private int duplicateRows;
+
+    @Column(name = "imported_rows", nullable = false)
+    private int importedRows;
+
+    @Size(max = 1000)
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    @Column(name = "finished_date")
+    private Instant finishedDate;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public ContactImport id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ContactImportFormat getFormat() {
+        return this.format;
+    }
+
+    public ContactImport format(ContactImportFormat format) {
+        this.setFormat(format);
+        return this;
+    }
+
+    public void setFormat(ContactImportFormat format) {
+        this.format = format;
+    }
+
+    public ContactImportStatus getStatus() {
+        return this.status;
+    }
+
+    public ContactImport status(ContactImportStatus status) {
+        this.setStatus(status);
+        return this;
+    }
+
+    public void setStatus(ContactImportStatus status) {
+        this.status = status;
+    }
+
+    public int getReadRows() {
+        return this.readRows;
+    }
+
+    public void setReadRows(int readRows) {
+        this.readRows = readRows;
+    }
+
+    public int getInvalidRows() {
+        return this.invalidRows;
+    }
+
+    public void setInvalidRows(int invalidRows) {
+        this.invalidRows = invalidRows;
+    }
+
+    public int getDuplicateRows() {
+        return this.duplicateRows;
+    }
+
+    public void setDuplicateRows(int duplicateRows) {
+        this.duplicateRows = duplicateRows;
+    }
+
+    public int getImportedRows() {
+        return this.importedRows;
+    }
+
+    public void setImportedRows(int importedRows) {
+        this.importedRows = importedRows;
+    }
+
+    public String getError() {
+        return this.error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Instant getFinishedDate() {
+        return this.finishedDate;
+    }
+
+    public void setFinishedDate(Instant finishedDate) {
+        this.finishedDate = finishedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ContactImport)) {
+            return false;
+        }
+        return id != null && id.equals(((ContactImport) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ContactImport{" +
+            "id=" + getId() +
+            ", format='" + getFormat() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", readRows=" + getReadRows() +
+            ", invalidRows=" + getInvalidRows() +
+            ", duplicateRows=" + getDuplicateRows() +
+            ", importedRows=" + getImportedRows() +
+            ", error='" + getError() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,126 @@
+package com.computacenter.yocoma.domain;
+
+import com.computacenter.yocoma.domain.enumeration.ContactImportRowStatus;
+import java.io.Serializable;
+
+/**
+ * A row of an import of contacts, staged in {@code contact_import_row} before it is merged into the contacts.
+ * It is written and read with plain JDBC, so that a file of any size is staged in JDBC batches.
+ */
+public class ContactImportRow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int lineNumber;
+
+    private ContactImportRowStatus status;
+
+    private String firstname;
+
+    private String lastname;
+
+    private String email;
+
+    private String phone;
+
+    private String remark;
+
+    private String errors;
+
+    public int getLineNumber() {
+        return this.lineNumber;
+    }
+
+    public ContactImportRow lineNumber(int lineNumber) {
+        this.lineNumber = lineNumber;
+        return this;
+    }
+
+    public ContactImportRowStatus getStatus() {
+        return this.status;
+    }
+
+    public ContactImportRow status(ContactImportRowStatus status) {
+        this.status = status;
+        return this;
+    }
+
+    public String getFirstname() {
+        return this.firstname;
+    }
+
+    public ContactImportRow firstname(String firstname) {
+        this.firstname = firstname;
+        return this;
+    }
+
+    public String getLastname() {
+        return this.lastname;
+    }
+
+    public ContactImportRow lastname(String lastname) {
+        this.lastname = lastname;
+        return this;
+    }
+
+    public String getEmail() {
+        return this.email;
+    }
+
+    public ContactImportRow email(String email) {
+        this.email = email;
+        return this;
+    }
+
+    public String getPhone() {
+        return this.phone;
+    }
+
+    public ContactImportRow phone(String phone) {
+        this.phone = phone;
+        return this;
+    }
+
+    public String getRemark() {
+        return this.remark;
+    }
+
+    public ContactImportRow remark(String remark) {
+        this.remark = remark;
+        return this;
+    }
+
+    /**
+     * @return the errors which make the row invalid, separated by line breaks, {@code null} for a valid row.
+     */
+    public String getErrors() {
+        return this.errors;
+    }
+
+    public ContactImportRow errors(String errors) {
+        this.errors = errors;
+        return this;
+    }
+
+    /**
+     * @return the contact the row describes.
+     */
+    public Contact toContact() {
+        return new Contact().firstname(firstname).lastname(lastname).email(email).phone(phone).remark(remark);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ContactImportRow{" +
+            "lineNumber=" + getLineNumber() +
+            ", status='" + getStatus() + "'" +
+            ", firstname='" + getFirstname() + "'" +
+            ", lastname='" + getLastname() + "'" +
+            ", email='" + getEmail() + "'" +
+            ", phone='" + getPhone() + "'" +
+            ", remark='" + getRemark() + "'" +
+            ", errors='" + getErrors() + "'" +
+            "}";
+    }
+}
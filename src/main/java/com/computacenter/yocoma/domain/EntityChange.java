@@ -0,0 +1,150 @@
+package com.computacenter.yocoma.domain;
+
+import com.computacenter.yocoma.domain.enumeration.ChangeType;
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A change of a contact, team or team contact, recorded in the same transaction as the change itself.
+ * Its id is its position in the order the changes have been committed.
+ */
+@Entity
+@Table(name = "entity_change")
+public class EntityChange implements Serializable, Persistable<Long> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 50)
+    @Column(name = "entity_type", length = 50, nullable = false)
+    private String entityType;
+
+    @NotNull
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", length = 10, nullable = false)
+    private ChangeType changeType;
+
+    @NotNull
+    @Column(name = "changed_date", nullable = false)
+    private Instant changedDate;
+
+    @Transient
+    private boolean isPersisted;
+
+    @Override
+    public Long getId() {
+        return this.id;
+    }
+
+    public EntityChange id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEntityType() {
+        return this.entityType;
+    }
+
+    public EntityChange entityType(String entityType) {
+        this.setEntityType(entityType);
+        return this;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getEntityId() {
+        return this.entityId;
+    }
+
+    public EntityChange entityId(Long entityId) {
+        this.setEntityId(entityId);
+        return this;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public ChangeType getChangeType() {
+        return this.changeType;
+    }
+
+    public EntityChange changeType(ChangeType changeType) {
+        this.setChangeType(changeType);
+        return this;
+    }
+
+    public void setChangeType(ChangeType changeType) {
+        this.changeType = changeType;
+    }
+
+    public Instant getChangedDate() {
+        return this.changedDate;
+    }
+
+    public EntityChange changedDate(Instant changedDate) {
+        this.setChangedDate(changedDate);
+        return this;
+    }
+
+    public void setChangedDate(Instant changedDate) {
+        this.changedDate = changedDate;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !this.isPersisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.isPersisted = true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EntityChange)) {
+            return false;
+        }
+        return id != null && id.equals(((EntityChange) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "EntityChange{" +
+            "id=" + getId() +
+            ", entityType='" + getEntityType() + "'" +
+            ", entityId=" + getEntityId() +
+            ", changeType='" + getChangeType() + "'" +
+            ", changedDate='" + getChangedDate() + "'" +
+            "}";
+    }
+}
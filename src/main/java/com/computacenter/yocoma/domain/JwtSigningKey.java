@@ -0,0 +1,149 @@
+package com.computacenter.yocoma.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A key pair signing the JWTs, shared by all nodes. Its id is the {@code kid} header of the tokens it signs, and its
+ * keys are stored Base64 encoded, the private key as PKCS #8 and the public key as X.509.
+ */
+@Entity
+@Table(name = "jwt_signing_key")
+public class JwtSigningKey implements Serializable, Persistable<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Size(max = 50)
+    @Column(name = "id", length = 50)
+    private String id;
+
+    @NotNull
+    @Size(max = 10)
+    @Column(name = "algorithm", length = 10, nullable = false)
+    private String algorithm;
+
+    @NotNull
+    @Size(max = 4096)
+    @Column(name = "public_key", length = 4096, nullable = false)
+    private String publicKey;
+
+    @NotNull
+    @Size(max = 4096)
+    @Column(name = "private_key", length = 4096, nullable = false)
+    private String privateKey;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @Transient
+    private boolean isPersisted;
+
+    @Override
+    public String getId() {
+        return this.id;
+    }
+
+    public JwtSigningKey id(String id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getAlgorithm() {
+        return this.algorithm;
+    }
+
+    public JwtSigningKey algorithm(String algorithm) {
+        this.setAlgorithm(algorithm);
+        return this;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getPublicKey() {
+        return this.publicKey;
+    }
+
+    public JwtSigningKey publicKey(String publicKey) {
+        this.setPublicKey(publicKey);
+        return this;
+    }
+
+    public void setPublicKey(String publicKey) {
+        this.publicKey = publicKey;
+    }
+
+    public String getPrivateKey() {
+        return this.privateKey;
+    }
+
+    public JwtSigningKey privateKey(String privateKey) {
+        this.setPrivateKey(privateKey);
+        return this;
+    }
+
+    public void setPrivateKey(String privateKey) {
+        this.privateKey = privateKey;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public JwtSigningKey createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !this.isPersisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.isPersisted = true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JwtSigningKey)) {
+            return false;
+        }
+        return id != null && id.equals(((JwtSigningKey) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "JwtSigningKey{" +
+            "id='" + getId() + "'" +
+            ", algorithm='" + getAlgorithm() + "'" +
+            ", createdDate='" + getCreatedDate() + "'" +
+            "}";
+    }
+}
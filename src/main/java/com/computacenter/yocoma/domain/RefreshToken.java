@@ -0,0 +1,211 @@
+package com.computacenter.yocoma.domain;
+
+import com.computacenter.yocoma.domain.id.PooledLoSequenceGenerator;
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import org.hibernate.annotations.GenericGenerator;
+
+/**
+ * A refresh token, renewing the access token of a user once. Only the SHA-256 hash of the token is stored.
+ * <p>
+ * The refresh tokens issued since a login form its family: each one is replaced by the next when used, and using a
+ * replaced one again revokes the whole family, as the token has been stolen by the client or from it.
+ */
+@Entity
+@Table(name = "refresh_token")
+public class RefreshToken implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @GenericGenerator(name = "sequenceGenerator", strategy = PooledLoSequenceGenerator.STRATEGY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 44)
+    @Column(name = "token_hash", length = 44, nullable = false, unique = true)
+    private String tokenHash;
+
+    @NotNull
+    @Size(max = 36)
+    @Column(name = "family", length = 36, nullable = false)
+    private String family;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private User user;
+
+    @Column(name = "remember_me", nullable = false)
+    private boolean rememberMe;
+
+    /**
+     * The id of the access token issued together with this refresh token.
+     */
+    @NotNull
+    @Size(max = 36)
+    @Column(name = "access_token_id", length = 36, nullable = false)
+    private String accessTokenId;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @NotNull
+    @Column(name = "expires_date", nullable = false)
+    private Instant expiresDate;
+
+    @Column(name = "used_date")
+    private Instant usedDate;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public RefreshToken id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTokenHash() {
+        return this.tokenHash;
+    }
+
+    public RefreshToken tokenHash(String tokenHash) {
+        this.setTokenHash(tokenHash);
+        return this;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public String getFamily() {
+        return this.family;
+    }
+
+    public RefreshToken family(String family) {
+        this.setFamily(family);
+        return this;
+    }
+
+    public void setFamily(String family) {
+        this.family = family;
+    }
+
+    public User getUser() {
+        return this.user;
+    }
+
+    public RefreshToken user(User user) {
+        this.setUser(user);
+        return this;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public boolean isRememberMe() {
+        return this.rememberMe;
+    }
+
+    public RefreshToken rememberMe(boolean rememberMe) {
+        this.setRememberMe(rememberMe);
+        return this;
+    }
+
+    public void setRememberMe(boolean rememberMe) {
+        this.rememberMe = rememberMe;
+    }
+
+    public String getAccessTokenId() {
+        return this.accessTokenId;
+    }
+
+    public RefreshToken accessTokenId(String accessTokenId) {
+        this.setAccessTokenId(accessTokenId);
+        return this;
+    }
+
+    public void setAccessTokenId(String accessTokenId) {
+        this.accessTokenId = accessTokenId;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public RefreshToken createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getExpiresDate() {
+        return this.expiresDate;
+    }
+
+    public RefreshToken expiresDate(Instant expiresDate) {
+        this.setExpiresDate(expiresDate);
+        return this;
+    }
+
+    public void setExpiresDate(Instant expiresDate) {
+        this.expiresDate = expiresDate;
+    }
+
+    public Instant getUsedDate() {
+        return this.usedDate;
+    }
+
+    public RefreshToken usedDate(Instant usedDate) {
+        this.setUsedDate(usedDate);
+        return this;
+    }
+
+    public void setUsedDate(Instant usedDate) {
+        this.usedDate = usedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RefreshToken)) {
+            return false;
+        }
+        return id != null && id.equals(((RefreshToken) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RefreshToken{" +
+            "id=" + getId() +
+            ", family='" + getFamily() + "'" +
+            ", rememberMe='" + isRememberMe() + "'" +
+            ", accessTokenId='" + getAccessTokenId() + "'" +
+            ", createdDate='" + getCreatedDate() + "'" +
+            ", expiresDate='" + getExpiresDate() + "'" +
+            ", usedDate='" + getUsedDate() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,112 @@
+package com.computacenter.yocoma.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * An access token revoked before it expires, read by all nodes. Its id is the {@code jti} claim of the token, and it is
+ * kept until the token has expired.
+ */
+@Entity
+@Table(name = "revoked_token")
+public class RevokedToken implements Serializable, Persistable<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Size(max = 36)
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @NotNull
+    @Column(name = "revoked_date", nullable = false)
+    private Instant revokedDate;
+
+    @NotNull
+    @Column(name = "expires_date", nullable = false)
+    private Instant expiresDate;
+
+    @Transient
+    private boolean isPersisted;
+
+    @Override
+    public String getId() {
+        return this.id;
+    }
+
+    public RevokedToken id(String id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Instant getRevokedDate() {
+        return this.revokedDate;
+    }
+
+    public RevokedToken revokedDate(Instant revokedDate) {
+        this.setRevokedDate(revokedDate);
+        return this;
+    }
+
+    public void setRevokedDate(Instant revokedDate) {
+        this.revokedDate = revokedDate;
+    }
+
+    public Instant getExpiresDate() {
+        return this.expiresDate;
+    }
+
+    public RevokedToken expiresDate(Instant expiresDate) {
+        this.setExpiresDate(expiresDate);
+        return this;
+    }
+
+    public void setExpiresDate(Instant expiresDate) {
+        this.expiresDate = expiresDate;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !this.isPersisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.isPersisted = true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RevokedToken)) {
+            return false;
+        }
+        return id != null && id.equals(((RevokedToken) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RevokedToken{" +
+            "id='" + getId() + "'" +
+            ", revokedDate='" + getRevokedDate() + "'" +
+            ", expiresDate='" + getExpiresDate() + "'" +
+            "}";
+    }
+}
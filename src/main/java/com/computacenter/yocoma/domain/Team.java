@@ -1,50 +1,97 @@
 package com.computacenter.yocoma.domain;
 
+import com.computacenter.yocoma.config.Constants;
+import com.computacenter.yocoma.domain.enumeration.ThumbnailSize;
+import com.computacenter.yocoma.domain.id.PooledLoSequenceGenerator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.FullTextField;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.Indexed;
 
 /**
  * A Team.
  */
 @Entity
 @Table(name = "team")
-public class Team implements Serializable {
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Indexed
+public class Team extends AbstractAuditingEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GenericGenerator(name = "sequenceGenerator", strategy = PooledLoSequenceGenerator.STRATEGY)
     @Column(name = "id")
     private Long id;
 
+    @FullTextField(analyzer = Constants.SEARCH_ANALYZER)
+    @FullTextField(
+        name = "name" + Constants.SEARCH_PREFIX_FIELD_SUFFIX,
+        analyzer = Constants.SEARCH_PREFIX_ANALYZER,
+        searchAnalyzer = Constants.SEARCH_ANALYZER
+    )
     @NotNull
     @Column(name = "name", nullable = false)
     private String name;
 
+    @FullTextField(analyzer = Constants.SEARCH_ANALYZER)
+    @FullTextField(
+        name = "motto" + Constants.SEARCH_PREFIX_FIELD_SUFFIX,
+        analyzer = Constants.SEARCH_PREFIX_ANALYZER,
+        searchAnalyzer = Constants.SEARCH_ANALYZER
+    )
     @Column(name = "motto")
     private String motto;
 
-    @Lob
-    @Column(name = "logo")
-    private byte[] logo;
+    // Only carries an upload on its way to the binary store, see TeamService.
+    // Not @Transient, as the Hibernate5Module would hide it from Jackson as well.
+    private transient byte[] logo;
+
+    @Size(min = 64, max = 64)
+    @Column(name = "logo_hash", length = 64)
+    private String logoHash;
 
     @Column(name = "logo_content_type")
     private String logoContentType;
 
+    @FullTextField(analyzer = Constants.SEARCH_ANALYZER)
+    @FullTextField(
+        name = "description" + Constants.SEARCH_PREFIX_FIELD_SUFFIX,
+        analyzer = Constants.SEARCH_PREFIX_ANALYZER,
+        searchAnalyzer = Constants.SEARCH_ANALYZER
+    )
     @Column(name = "description")
     private String description;
 
-    // FetchType.EAGER so that the teamContacts will be loaded.
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "team")
+    // Loaded lazily; endpoints which render the memberships fetch them explicitly,
+    // see TeamRepositoryWithBagRelationships.
+    @OneToMany(mappedBy = "team")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     // No @JsonIgnoreProperties so that "team" and "contact" will be transferred to angular.
     //@JsonIgnoreProperties(value = { "contact", "team" }, allowSetters = true)
     private Set<TeamContact> teamContacts = new HashSet<>();
 
+    /**
+     * The version of the row, incremented by every update and checked by it.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    @JsonIgnore
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -86,6 +133,7 @@ public class Team implements Serializable {
         this.motto = motto;
     }
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public byte[] getLogo() {
         return this.logo;
     }
@@ -112,6 +160,57 @@ public class Team implements Serializable {
         this.logoContentType = logoContentType;
     }
 
+    public String getLogoHash() {
+        return this.logoHash;
+    }
+
+    public Team logoHash(String logoHash) {
+        this.setLogoHash(logoHash);
+        return this;
+    }
+
+    public void setLogoHash(String logoHash) {
+        this.logoHash = logoHash;
+    }
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public String getLogoUrl() {
+        return logoUrl(this.id, this.logoHash);
+    }
+
+    /**
+     * @return the URLs of the thumbnails by their size in pixels. They contain the hash, so they can be cached forever.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Map<Integer, String> getLogoThumbnailUrls() {
+        return logoThumbnailUrls(this.id, this.logoHash);
+    }
+
+    /**
+     * @param id the id of the team.
+     * @param logoHash the hash of its logo.
+     * @return the URL of the logo, {@code null} if the team has no logo.
+     */
+    public static String logoUrl(Long id, String logoHash) {
+        return id == null || logoHash == null ? null : "/api/teams/" + id + "/logo";
+    }
+
+    /**
+     * @param id the id of the team.
+     * @param logoHash the hash of its logo.
+     * @return the URLs of the logo thumbnails by their size in pixels, {@code null} if the team has no logo.
+     */
+    public static Map<Integer, String> logoThumbnailUrls(Long id, String logoHash) {
+        if (id == null || logoHash == null) {
+            return null;
+        }
+        Map<Integer, String> urls = new TreeMap<>();
+        for (ThumbnailSize size : ThumbnailSize.values()) {
+            urls.put(size.getPixels(), logoUrl(id, logoHash) + "/" + logoHash + "/" + size.getPixels());
+        }
+        return urls;
+    }
+
     public String getDescription() {
         return this.description;
     }
@@ -156,6 +255,14 @@ public class Team implements Serializable {
         return this;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -182,7 +289,7 @@ public class Team implements Serializable {
             "id=" + getId() +
             ", name='" + getName() + "'" +
             ", motto='" + getMotto() + "'" +
-            ", logo='" + getLogo() + "'" +
+            ", logoHash='" + getLogoHash() + "'" +
             ", logoContentType='" + getLogoContentType() + "'" +
             ", description='" + getDescription() + "'" +
             "}";
@@ -1,11 +1,19 @@
 package com.computacenter.yocoma.domain;
 
+import com.computacenter.yocoma.config.Constants;
 import com.computacenter.yocoma.domain.enumeration.RoleType;
+import com.computacenter.yocoma.domain.id.PooledLoSequenceGenerator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.io.Serializable;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.FullTextField;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.Indexed;
 
 /**
  * The m-n-relationship between a Team and its Contacts.\nA Team can have multiple contacts.\nA Contact can belong to multiple Teams.
@@ -15,13 +23,15 @@ import javax.validation.constraints.*;
 )
 @Entity
 @Table(name = "team_contact")
-public class TeamContact implements Serializable {
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Indexed
+public class TeamContact extends AbstractAuditingEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GenericGenerator(name = "sequenceGenerator", strategy = PooledLoSequenceGenerator.STRATEGY)
     @Column(name = "id")
     private Long id;
 
@@ -37,6 +47,12 @@ public class TeamContact implements Serializable {
      * A brief name of the role the contact takes within the team
      */
     @Schema(description = "A brief name of the role the contact takes within the team", required = true)
+    @FullTextField(analyzer = Constants.SEARCH_ANALYZER)
+    @FullTextField(
+        name = "role" + Constants.SEARCH_PREFIX_FIELD_SUFFIX,
+        analyzer = Constants.SEARCH_PREFIX_ANALYZER,
+        searchAnalyzer = Constants.SEARCH_ANALYZER
+    )
     @NotNull
     @Column(name = "role", nullable = false)
     private String role;
@@ -45,17 +61,31 @@ public class TeamContact implements Serializable {
      * A more detailed description of the contact's role within the team
      */
     @Schema(description = "A more detailed description of the contact's role within the team")
+    @FullTextField(analyzer = Constants.SEARCH_ANALYZER)
+    @FullTextField(
+        name = "description" + Constants.SEARCH_PREFIX_FIELD_SUFFIX,
+        analyzer = Constants.SEARCH_PREFIX_ANALYZER,
+        searchAnalyzer = Constants.SEARCH_ANALYZER
+    )
     @Column(name = "description")
     private String description;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties(value = { "teamContacts" }, allowSetters = true)
     private Contact contact;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties(value = { "teamContacts" }, allowSetters = true)
     private Team team;
 
+    /**
+     * The version of the row, incremented by every update and checked by it.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    @JsonIgnore
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -136,6 +166,14 @@ public class TeamContact implements Serializable {
         return this;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
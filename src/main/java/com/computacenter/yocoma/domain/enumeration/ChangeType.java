@@ -0,0 +1,10 @@
+package com.computacenter.yocoma.domain.enumeration;
+
+/**
+ * The different types of change an entity can undergo.
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+}
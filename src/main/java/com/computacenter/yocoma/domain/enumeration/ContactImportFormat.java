@@ -0,0 +1,9 @@
+package com.computacenter.yocoma.domain.enumeration;
+
+/**
+ * The formats of the files contacts are imported from.
+ */
+public enum ContactImportFormat {
+    CSV,
+    VCARD,
+}
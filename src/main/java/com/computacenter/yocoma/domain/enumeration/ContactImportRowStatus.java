@@ -0,0 +1,10 @@
+package com.computacenter.yocoma.domain.enumeration;
+
+/**
+ * The outcome of a staged row of an import of contacts.
+ */
+public enum ContactImportRowStatus {
+    VALID,
+    INVALID,
+    DUPLICATE,
+}
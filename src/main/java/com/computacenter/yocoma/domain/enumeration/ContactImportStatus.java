@@ -0,0 +1,12 @@
+package com.computacenter.yocoma.domain.enumeration;
+
+/**
+ * The stages of an import of contacts.
+ */
+public enum ContactImportStatus {
+    QUEUED,
+    STAGING,
+    MERGING,
+    COMPLETED,
+    FAILED,
+}
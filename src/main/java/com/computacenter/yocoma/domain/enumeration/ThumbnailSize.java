@@ -0,0 +1,28 @@
+package com.computacenter.yocoma.domain.enumeration;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The sizes in which thumbnails of contact images and team logos are generated.
+ * A thumbnail fits into a square of the given number of pixels.
+ */
+public enum ThumbnailSize {
+    SMALL(48),
+    MEDIUM(128),
+    LARGE(512);
+
+    private final int pixels;
+
+    ThumbnailSize(int pixels) {
+        this.pixels = pixels;
+    }
+
+    public int getPixels() {
+        return pixels;
+    }
+
+    public static Optional<ThumbnailSize> ofPixels(int pixels) {
+        return Arrays.stream(values()).filter(size -> size.pixels == pixels).findFirst();
+    }
+}
@@ -0,0 +1,48 @@
+package com.computacenter.yocoma.domain.id;
+
+import java.util.Map;
+import java.util.Properties;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Sequence generator which allocates the ids in blocks, with the pooled-lo optimizer.
+ * <p>
+ * Each value of the sequence is the first id of a block, whose size is the {@value #BLOCK_SIZE_SETTING} setting, so the
+ * database is called once per block instead of once per row. The increment of the sequence has to be the block size: Hibernate refuses to
+ * start otherwise, so nodes sharing the database never allocate the same ids.
+ */
+public class PooledLoSequenceGenerator extends SequenceStyleGenerator {
+
+    /**
+     * The strategy of the {@code @GenericGenerator} of the entities.
+     */
+    public static final String STRATEGY = "com.computacenter.yocoma.domain.id.PooledLoSequenceGenerator";
+
+    /**
+     * The name of the sequence shared by the entities.
+     */
+    public static final String SEQUENCE_NAME = "sequence_generator";
+
+    /**
+     * The Hibernate setting of the number of ids allocated per call of the sequence.
+     */
+    public static final String BLOCK_SIZE_SETTING = "yocoma.id.block_size";
+
+    public static final int DEFAULT_BLOCK_SIZE = 100;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Map<?, ?> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        int blockSize = ConfigurationHelper.getInt(BLOCK_SIZE_SETTING, settings, DEFAULT_BLOCK_SIZE);
+        params.setProperty(INCREMENT_PARAM, String.valueOf(blockSize));
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        params.setProperty(SEQUENCE_PARAM, SEQUENCE_NAME);
+        super.configure(type, params, serviceRegistry);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Id generation of the JPA domain objects.
+ */
+package com.computacenter.yocoma.domain.id;
@@ -0,0 +1,89 @@
+package com.computacenter.yocoma.management;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaQuery;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+/**
+ * Meters of the query plan cache, which holds the compiled plans of the JPQL and criteria queries by their JPQL.
+ * <p>
+ * The meters read the lookups Hibernate counts in its statistics, so they only count while the statistics are enabled
+ * ({@code hibernate.generate_statistics}).
+ * <p>
+ * Hibernate does not time the compilation of a plan, so the criteria queries are created through
+ * {@link #createQuery(EntityManager, CriteriaQuery)}, which times those whose plan was missing from the cache.
+ */
+@Service
+public class QueryPlanMetersService {
+
+    public static final String QUERY_PLANS_METER_NAME = "query.plans";
+    public static final String QUERY_PLANS_METER_DESCRIPTION = "Indicates lookups of the plans of the queries in the query plan cache.";
+    public static final String QUERY_PLANS_METER_RESULT_DIMENSION = "result";
+    public static final String QUERY_PLANS_HIT_RATIO_METER_NAME = "query.plans.hit-ratio";
+    public static final String QUERY_PLANS_HIT_RATIO_METER_DESCRIPTION = "Indicates the share of queries whose plan was found in the query plan cache.";
+    public static final String QUERY_PLANS_COMPILE_TIME_METER_NAME = "query.plans.compile-time";
+    public static final String QUERY_PLANS_COMPILE_TIME_METER_DESCRIPTION =
+        "Indicates the time to render a criteria query and compile its plan, when the plan was not cached yet.";
+
+    private final Statistics statistics;
+
+    private final Timer planCompileTimer;
+
+    public QueryPlanMetersService(MeterRegistry registry, EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        FunctionCounter
+            .builder(QUERY_PLANS_METER_NAME, statistics, Statistics::getQueryPlanCacheHitCount)
+            .description(QUERY_PLANS_METER_DESCRIPTION)
+            .tag(QUERY_PLANS_METER_RESULT_DIMENSION, "hit")
+            .register(registry);
+        FunctionCounter
+            .builder(QUERY_PLANS_METER_NAME, statistics, Statistics::getQueryPlanCacheMissCount)
+            .description(QUERY_PLANS_METER_DESCRIPTION)
+            .tag(QUERY_PLANS_METER_RESULT_DIMENSION, "miss")
+            .register(registry);
+        Gauge
+            .builder(QUERY_PLANS_HIT_RATIO_METER_NAME, this, QueryPlanMetersService::planHitRatio)
+            .description(QUERY_PLANS_HIT_RATIO_METER_DESCRIPTION)
+            .register(registry);
+        this.planCompileTimer =
+            Timer.builder(QUERY_PLANS_COMPILE_TIME_METER_NAME).description(QUERY_PLANS_COMPILE_TIME_METER_DESCRIPTION).register(registry);
+    }
+
+    /**
+     * Create a criteria query, timing it if its plan had to be compiled.
+     * <p>
+     * Hibernate renders the criteria to JPQL and looks its plan up in the plan cache while the query is created, so a
+     * miss counted meanwhile means the plan has been compiled. A miss of a concurrent query may be attributed to this
+     * one, which only skews the timer while new shapes are compiled, i.e. mostly after the start.
+     *
+     * @param entityManager the entity manager creating the query.
+     * @param criteriaQuery the criteria query.
+     * @param <T> the type of the results.
+     * @return the query.
+     */
+    public <T> TypedQuery<T> createQuery(EntityManager entityManager, CriteriaQuery<T> criteriaQuery) {
+        long misses = statistics.getQueryPlanCacheMissCount();
+        long start = System.nanoTime();
+        TypedQuery<T> query = entityManager.createQuery(criteriaQuery);
+        long nanos = System.nanoTime() - start;
+        if (statistics.getQueryPlanCacheMissCount() != misses) {
+            planCompileTimer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+        return query;
+    }
+
+    private double planHitRatio() {
+        double hits = statistics.getQueryPlanCacheHitCount();
+        double lookups = hits + statistics.getQueryPlanCacheMissCount();
+        return lookups == 0 ? 0 : hits / lookups;
+    }
+}
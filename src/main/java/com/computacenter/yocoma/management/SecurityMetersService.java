@@ -1,7 +1,11 @@
 package com.computacenter.yocoma.management;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,16 +17,68 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String VERIFIED_TOKENS_METER_NAME = "security.authentication.verified-tokens";
+    public static final String VERIFIED_TOKENS_METER_DESCRIPTION = "Indicates lookups of the tokens presented by the clients in the verified token cache.";
+    public static final String VERIFIED_TOKENS_METER_RESULT_DIMENSION = "result";
+    public static final String VERIFIED_TOKENS_EVICTIONS_METER_NAME = "security.authentication.verified-tokens.evictions";
+    public static final String VERIFIED_TOKENS_EVICTIONS_METER_DESCRIPTION =
+        "Indicates verified tokens removed from the cache because it was full.";
+    public static final String VERIFIED_TOKENS_HIT_RATIO_METER_NAME = "security.authentication.verified-tokens.hit-ratio";
+    public static final String VERIFIED_TOKENS_HIT_RATIO_METER_DESCRIPTION =
+        "Indicates the share of tokens presented by the clients that were found in the verified token cache.";
+
+    public static final String PASSWORD_HASHING_WAIT_METER_NAME = "security.authentication.password-hashing.wait";
+    public static final String PASSWORD_HASHING_WAIT_METER_DESCRIPTION = "Indicates the time passwords waited for a hashing thread.";
+    public static final String PASSWORD_HASHING_TIME_METER_NAME = "security.authentication.password-hashing.time";
+    public static final String PASSWORD_HASHING_TIME_METER_DESCRIPTION = "Indicates the time to hash or verify a password.";
+    public static final String PASSWORD_HASHING_QUEUE_METER_NAME = "security.authentication.password-hashing.queue";
+    public static final String PASSWORD_HASHING_QUEUE_METER_DESCRIPTION = "Indicates the passwords waiting for a hashing thread.";
+    public static final String PASSWORD_HASHING_REJECTED_METER_NAME = "security.authentication.password-hashing.rejected";
+    public static final String PASSWORD_HASHING_REJECTED_METER_DESCRIPTION =
+        "Indicates passwords not hashed because the hashing threads were overloaded.";
+    public static final String PASSWORD_HASHING_REJECTED_METER_CAUSE_DIMENSION = "cause";
+
+    private final MeterRegistry registry;
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
+    private final Counter tokenRevokedCounter;
+    private final Counter verifiedTokenHitCounter;
+    private final Counter verifiedTokenMissCounter;
+    private final Counter verifiedTokenEvictionCounter;
+    private final Timer passwordHashingWaitTimer;
+    private final Timer passwordHashingTimer;
+    private final Counter passwordHashingQueueFullCounter;
+    private final Counter passwordHashingWaitExceededCounter;
+    private final Counter passwordHashingTimeoutCounter;
 
     public SecurityMetersService(MeterRegistry registry) {
+        this.registry = registry;
+
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+        this.tokenRevokedCounter = invalidTokensCounterForCauseBuilder("revoked").register(registry);
+
+        this.verifiedTokenHitCounter = verifiedTokensCounterForResultBuilder("hit").register(registry);
+        this.verifiedTokenMissCounter = verifiedTokensCounterForResultBuilder("miss").register(registry);
+        this.verifiedTokenEvictionCounter =
+            Counter.builder(VERIFIED_TOKENS_EVICTIONS_METER_NAME).description(VERIFIED_TOKENS_EVICTIONS_METER_DESCRIPTION).register(registry);
+        Gauge
+            .builder(VERIFIED_TOKENS_HIT_RATIO_METER_NAME, this, SecurityMetersService::verifiedTokenHitRatio)
+            .description(VERIFIED_TOKENS_HIT_RATIO_METER_DESCRIPTION)
+            .register(registry);
+
+        this.passwordHashingWaitTimer =
+            Timer.builder(PASSWORD_HASHING_WAIT_METER_NAME).description(PASSWORD_HASHING_WAIT_METER_DESCRIPTION).register(registry);
+        this.passwordHashingTimer =
+            Timer.builder(PASSWORD_HASHING_TIME_METER_NAME).description(PASSWORD_HASHING_TIME_METER_DESCRIPTION).register(registry);
+        this.passwordHashingQueueFullCounter = passwordHashingRejectedCounterForCauseBuilder("queue-full").register(registry);
+        this.passwordHashingWaitExceededCounter = passwordHashingRejectedCounterForCauseBuilder("wait-exceeded").register(registry);
+        this.passwordHashingTimeoutCounter = passwordHashingRejectedCounterForCauseBuilder("timeout").register(registry);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -33,6 +89,25 @@ public class SecurityMetersService {
             .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
     }
 
+    private Counter.Builder verifiedTokensCounterForResultBuilder(String result) {
+        return Counter
+            .builder(VERIFIED_TOKENS_METER_NAME)
+            .description(VERIFIED_TOKENS_METER_DESCRIPTION)
+            .tag(VERIFIED_TOKENS_METER_RESULT_DIMENSION, result);
+    }
+
+    private Counter.Builder passwordHashingRejectedCounterForCauseBuilder(String cause) {
+        return Counter
+            .builder(PASSWORD_HASHING_REJECTED_METER_NAME)
+            .description(PASSWORD_HASHING_REJECTED_METER_DESCRIPTION)
+            .tag(PASSWORD_HASHING_REJECTED_METER_CAUSE_DIMENSION, cause);
+    }
+
+    private double verifiedTokenHitRatio() {
+        double lookups = this.verifiedTokenHitCounter.count() + this.verifiedTokenMissCounter.count();
+        return lookups == 0 ? 0 : this.verifiedTokenHitCounter.count() / lookups;
+    }
+
     public void trackTokenInvalidSignature() {
         this.tokenInvalidSignatureCounter.increment();
     }
@@ -48,4 +123,52 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackTokenRevoked() {
+        this.tokenRevokedCounter.increment();
+    }
+
+    public void trackVerifiedTokenHit() {
+        this.verifiedTokenHitCounter.increment();
+    }
+
+    public void trackVerifiedTokenMiss() {
+        this.verifiedTokenMissCounter.increment();
+    }
+
+    public void trackVerifiedTokenEviction() {
+        this.verifiedTokenEvictionCounter.increment();
+    }
+
+    /**
+     * Report the size of the queue of the password hashing threads.
+     *
+     * @param queue the passwords waiting for a hashing thread.
+     */
+    public void monitorPasswordHashingQueue(Collection<?> queue) {
+        Gauge
+            .builder(PASSWORD_HASHING_QUEUE_METER_NAME, queue, Collection::size)
+            .description(PASSWORD_HASHING_QUEUE_METER_DESCRIPTION)
+            .register(registry);
+    }
+
+    public void trackPasswordHashingWait(long nanos) {
+        this.passwordHashingWaitTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackPasswordHashing(long nanos) {
+        this.passwordHashingTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackPasswordHashingQueueFull() {
+        this.passwordHashingQueueFullCounter.increment();
+    }
+
+    public void trackPasswordHashingWaitExceeded() {
+        this.passwordHashingWaitExceededCounter.increment();
+    }
+
+    public void trackPasswordHashingTimeout() {
+        this.passwordHashingTimeoutCounter.increment();
+    }
 }
@@ -1,9 +1,16 @@
 package com.computacenter.yocoma.repository;
 
 import com.computacenter.yocoma.domain.Authority;
+import java.util.List;
+import javax.persistence.QueryHint;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 /**
  * Spring Data JPA repository for the {@link Authority} entity.
  */
-public interface AuthorityRepository extends JpaRepository<Authority, String> {}
+public interface AuthorityRepository extends JpaRepository<Authority, String> {
+    @Override
+    @org.springframework.data.jpa.repository.QueryHints(@QueryHint(name = QueryHints.CACHEABLE, value = "true"))
+    List<Authority> findAll();
+}
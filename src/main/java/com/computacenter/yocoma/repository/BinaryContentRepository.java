@@ -0,0 +1,18 @@
+package com.computacenter.yocoma.repository;
+
+import com.computacenter.yocoma.domain.BinaryContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link BinaryContent} entity.
+ */
+@Repository
+public interface BinaryContentRepository extends BinaryContentRepositoryWithStreams, JpaRepository<BinaryContent, String> {
+    @Modifying
+    @Query("delete from BinaryContent binaryContent where binaryContent.hash = :hash")
+    int deleteByHash(@Param("hash") String hash);
+}
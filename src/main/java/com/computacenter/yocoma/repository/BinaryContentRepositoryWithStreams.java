@@ -0,0 +1,43 @@
+package com.computacenter.yocoma.repository;
+
+import java.util.Optional;
+
+/**
+ * Reads and writes the content of {@link com.computacenter.yocoma.domain.BinaryContent} with plain JDBC.
+ * <p>
+ * The content is not loaded with the entity, so its length can be read alone, and the rows are locked, so content
+ * stored by one transaction is not deleted by another one which found it unreferenced.
+ */
+public interface BinaryContentRepositoryWithStreams {
+    /**
+     * Insert content, unless it has been stored already, and lock its row until the end of the transaction.
+     *
+     * @param hash the hash of the content.
+     * @param content the bytes of the content.
+     */
+    void insertOrLock(String hash, byte[] content);
+
+    /**
+     * Lock the row of content until the end of the transaction.
+     *
+     * @param hash the hash of the content.
+     * @return whether the content exists.
+     */
+    boolean lock(String hash);
+
+    /**
+     * Find the length of content, without reading it.
+     *
+     * @param hash the hash of the content.
+     * @return the length in bytes, or empty if the content does not exist.
+     */
+    Optional<Long> findContentLength(String hash);
+
+    /**
+     * Read content into memory. PostgreSQL sends a {@code bytea} column whole, so it is not worth streaming.
+     *
+     * @param hash the hash of the content.
+     * @return the bytes, or empty if the content does not exist.
+     */
+    Optional<byte[]> findContent(String hash);
+}
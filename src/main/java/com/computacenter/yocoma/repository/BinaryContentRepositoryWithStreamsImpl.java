@@ -0,0 +1,62 @@
+package com.computacenter.yocoma.repository;
+
+import java.sql.Savepoint;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Plain JDBC implementation of {@link BinaryContentRepositoryWithStreams}.
+ */
+public class BinaryContentRepositoryWithStreamsImpl implements BinaryContentRepositoryWithStreams {
+
+    private static final String INSERT_CONTENT = "insert into binary_content (hash, content) values (?, ?)";
+
+    private static final String LOCK_CONTENT = "select hash from binary_content where hash = ? for update";
+
+    private static final String SELECT_CONTENT_LENGTH = "select length(content) from binary_content where hash = ?";
+
+    private static final String SELECT_CONTENT = "select content from binary_content where hash = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertOrLock(String hash, byte[] content) {
+        if (lock(hash)) {
+            return;
+        }
+        jdbcTemplate.execute(
+            (ConnectionCallback<Void>) connection -> {
+                // A failed statement aborts the whole transaction on PostgreSQL, unless it is rolled back to a savepoint
+                Savepoint savepoint = connection.setSavepoint();
+                try {
+                    jdbcTemplate.update(INSERT_CONTENT, hash, content);
+                    connection.releaseSavepoint(savepoint);
+                } catch (DuplicateKeyException e) {
+                    // Inserted by a concurrent transaction, which has committed meanwhile
+                    connection.rollback(savepoint);
+                    lock(hash);
+                }
+                return null;
+            }
+        );
+    }
+
+    @Override
+    public boolean lock(String hash) {
+        return !jdbcTemplate.queryForList(LOCK_CONTENT, String.class, hash).isEmpty();
+    }
+
+    @Override
+    public Optional<Long> findContentLength(String hash) {
+        return jdbcTemplate.queryForList(SELECT_CONTENT_LENGTH, Long.class, hash).stream().findFirst();
+    }
+
+    @Override
+    public Optional<byte[]> findContent(String hash) {
+        return jdbcTemplate.queryForList(SELECT_CONTENT, byte[].class, hash).stream().findFirst();
+    }
+}
@@ -0,0 +1,22 @@
+package com.computacenter.yocoma.repository;
+
+import com.computacenter.yocoma.domain.BinaryThumbnail;
+import com.computacenter.yocoma.domain.enumeration.ThumbnailSize;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link BinaryThumbnail} entity.
+ */
+@Repository
+public interface BinaryThumbnailRepository extends JpaRepository<BinaryThumbnail, Long> {
+    Optional<BinaryThumbnail> findOneByOriginalHashAndThumbnailSize(String originalHash, ThumbnailSize thumbnailSize);
+
+    List<BinaryThumbnail> findAllByOriginalHash(String originalHash);
+
+    boolean existsByOriginalHash(String originalHash);
+
+    boolean existsByHash(String hash);
+}
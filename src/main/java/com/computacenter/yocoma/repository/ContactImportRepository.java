@@ -0,0 +1,22 @@
+package com.computacenter.yocoma.repository;
+
+import com.computacenter.yocoma.domain.ContactImport;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link ContactImport} entity, and its staged rows.
+ */
+@Repository
+public interface ContactImportRepository extends ContactImportRepositoryWithRows, JpaRepository<ContactImport, Long> {
+    /**
+     * Delete the imports started before a date. Their staged rows are deleted by the database, in cascade.
+     */
+    @Modifying
+    @Query("delete from ContactImport contactImport where contactImport.createdDate < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,75 @@
+package com.computacenter.yocoma.repository;
+
+import com.computacenter.yocoma.domain.ContactImportRow;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Stages the rows of a {@link com.computacenter.yocoma.domain.ContactImport} in {@code contact_import_row}.
+ * <p>
+ * The rows are written and read with plain JDBC, in batches, and deduplicated by the database on their normalized
+ * email and phone, so an import of any size neither goes through the persistence context nor into the heap at once.
+ */
+public interface ContactImportRepositoryWithRows {
+    /**
+     * Stage rows of an import, in one JDBC batch.
+     *
+     * @param importId the id of the import.
+     * @param rows the rows, with their line numbers.
+     */
+    void insertRows(long importId, List<ContactImportRow> rows);
+
+    /**
+     * Mark the valid rows of an import as duplicates, which share their normalized email or phone with an existing
+     * contact or with a row of a lower line number.
+     *
+     * @param importId the id of the import.
+     * @return the number of duplicate rows.
+     */
+    int markDuplicateRows(long importId);
+
+    /**
+     * Mark the valid rows of an import within a range of lines as duplicates, which share their normalized email or
+     * phone with a contact. Contacts may have been created since the rows were deduplicated, by users or by other
+     * imports, so each batch is checked again right before it is merged.
+     *
+     * @param importId the id of the import.
+     * @param firstLineNumber the line number of the first row of the range.
+     * @param lastLineNumber the line number of the last row of the range.
+     * @return the line numbers of the duplicate rows within the range.
+     */
+    Set<Integer> markDuplicateRowsOfContacts(long importId, int firstLineNumber, int lastLineNumber);
+
+    /**
+     * Find the first valid rows of an import, in the order of their line numbers.
+     *
+     * @param importId the id of the import.
+     * @param limit the maximum number of rows.
+     * @return the rows.
+     */
+    List<ContactImportRow> findValidRows(long importId, int limit);
+
+    /**
+     * Delete the valid rows of an import up to a line, once they have been merged.
+     *
+     * @param importId the id of the import.
+     * @param lastLineNumber the line number of the last merged row.
+     */
+    void deleteValidRows(long importId, int lastLineNumber);
+
+    /**
+     * Find the first invalid rows of an import, with their errors.
+     *
+     * @param importId the id of the import.
+     * @param limit the maximum number of rows.
+     * @return the rows, without values.
+     */
+    List<ContactImportRow> findInvalidRows(long importId, int limit);
+
+    /**
+     * Delete the rows of an import which have been skipped as duplicates, keeping the invalid ones for the report.
+     *
+     * @param importId the id of the import.
+     */
+    void deleteDuplicateRows(long importId);
+}
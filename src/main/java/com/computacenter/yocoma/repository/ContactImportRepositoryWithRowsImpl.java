@@ -0,0 +1,133 @@
+package com.computacenter.yocoma.repository;
+
+import com.computacenter.yocoma.domain.Contact;
+import com.computacenter.yocoma.domain.ContactImportRow;
+import com.computacenter.yocoma.domain.enumeration.ContactImportRowStatus;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Plain JDBC implementation of {@link ContactImportRepositoryWithRows}.
+ */
+public class ContactImportRepositoryWithRowsImpl implements ContactImportRepositoryWithRows {
+
+    private static final String INSERT_ROW =
+        "insert into contact_import_row (import_id, line_number, status, firstname, lastname, email, phone, remark," +
+        " normalized_email, normalized_phone, errors) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // A row is a duplicate of the rows before it even if they are duplicates themselves, so the outcome of a row
+    // does not depend on the order the statements run in
+    private static final String MARK_DUPLICATES_IN_FILE =
+        "update contact_import_row r set status = 'DUPLICATE' where r.import_id = ? and r.status = 'VALID'" +
+        " and r.%1$s is not null and exists (select 1 from contact_import_row o where o.import_id = r.import_id" +
+        " and o.%1$s = r.%1$s and o.line_number < r.line_number and o.status <> 'INVALID')";
+
+    private static final String MARK_DUPLICATES_OF_CONTACTS =
+        "update contact_import_row r set status = 'DUPLICATE' where r.import_id = ? and r.status = 'VALID'" +
+        " and r.%1$s is not null and exists (select 1 from contact c where c.%1$s = r.%1$s)";
+
+    private static final String LINES_BETWEEN = " and r.line_number between ? and ?";
+
+    private static final String SELECT_DUPLICATE_LINES =
+        "select line_number from contact_import_row where import_id = ? and status = 'DUPLICATE' and line_number between ? and ?";
+
+    // Ordered like the status index, so the rows are read from it up to the limit instead of all being sorted
+    private static final String SELECT_VALID_ROWS =
+        "select line_number, status, firstname, lastname, email, phone, remark, errors from contact_import_row" +
+        " where import_id = ? and status = 'VALID' order by import_id, status, line_number limit ?";
+
+    private static final String DELETE_VALID_ROWS =
+        "delete from contact_import_row where import_id = ? and status = 'VALID' and line_number <= ?";
+
+    // Ordered like the status index as well
+    private static final String SELECT_INVALID_ROWS =
+        "select line_number, status, firstname, lastname, email, phone, remark, errors from contact_import_row" +
+        " where import_id = ? and status = 'INVALID' order by import_id, status, line_number limit ?";
+
+    private static final String DELETE_DUPLICATE_ROWS = "delete from contact_import_row where import_id = ? and status = 'DUPLICATE'";
+
+    private static final List<String> NORMALIZED_COLUMNS = List.of("normalized_email", "normalized_phone");
+
+    private static final RowMapper<ContactImportRow> ROW_MAPPER = (rs, rowNum) ->
+        new ContactImportRow()
+            .lineNumber(rs.getInt("line_number"))
+            .status(ContactImportRowStatus.valueOf(rs.getString("status")))
+            .firstname(rs.getString("firstname"))
+            .lastname(rs.getString("lastname"))
+            .email(rs.getString("email"))
+            .phone(rs.getString("phone"))
+            .remark(rs.getString("remark"))
+            .errors(rs.getString("errors"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertRows(long importId, List<ContactImportRow> rows) {
+        jdbcTemplate.batchUpdate(
+            INSERT_ROW,
+            rows,
+            rows.size(),
+            (ps, row) -> {
+                ps.setLong(1, importId);
+                ps.setInt(2, row.getLineNumber());
+                ps.setString(3, row.getStatus().name());
+                ps.setString(4, row.getFirstname());
+                ps.setString(5, row.getLastname());
+                ps.setString(6, row.getEmail());
+                ps.setString(7, row.getPhone());
+                ps.setString(8, row.getRemark());
+                ps.setString(9, Contact.normalizeEmail(row.getEmail()));
+                ps.setString(10, Contact.normalizePhone(row.getPhone()));
+                ps.setString(11, row.getErrors());
+            }
+        );
+    }
+
+    @Override
+    public int markDuplicateRows(long importId) {
+        int duplicates = 0;
+        for (String column : NORMALIZED_COLUMNS) {
+            duplicates += jdbcTemplate.update(String.format(MARK_DUPLICATES_IN_FILE, column), importId);
+            duplicates += jdbcTemplate.update(String.format(MARK_DUPLICATES_OF_CONTACTS, column), importId);
+        }
+        return duplicates;
+    }
+
+    @Override
+    public Set<Integer> markDuplicateRowsOfContacts(long importId, int firstLineNumber, int lastLineNumber) {
+        for (String column : NORMALIZED_COLUMNS) {
+            jdbcTemplate.update(
+                String.format(MARK_DUPLICATES_OF_CONTACTS, column) + LINES_BETWEEN,
+                importId,
+                firstLineNumber,
+                lastLineNumber
+            );
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(SELECT_DUPLICATE_LINES, Integer.class, importId, firstLineNumber, lastLineNumber));
+    }
+
+    @Override
+    public List<ContactImportRow> findValidRows(long importId, int limit) {
+        return jdbcTemplate.query(SELECT_VALID_ROWS, ROW_MAPPER, importId, limit);
+    }
+
+    @Override
+    public void deleteValidRows(long importId, int lastLineNumber) {
+        jdbcTemplate.update(DELETE_VALID_ROWS, importId, lastLineNumber);
+    }
+
+    @Override
+    public List<ContactImportRow> findInvalidRows(long importId, int limit) {
+        return jdbcTemplate.query(SELECT_INVALID_ROWS, ROW_MAPPER, importId, limit);
+    }
+
+    @Override
+    public void deleteDuplicateRows(long importId) {
+        jdbcTemplate.update(DELETE_DUPLICATE_ROWS, importId);
+    }
+}
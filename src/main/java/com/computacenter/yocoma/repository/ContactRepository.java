@@ -1,12 +1,49 @@
 package com.computacenter.yocoma.repository;
 
 import com.computacenter.yocoma.domain.Contact;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.QueryHint;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data SQL repository for the Contact entity.
+ *
+ * When extending this class, extend ContactRepositoryWithBagRelationships too.
+ * For more information refer to https://github.com/jhipster/generator-jhipster/issues/17990.
  */
-@SuppressWarnings("unused")
 @Repository
-public interface ContactRepository extends JpaRepository<Contact, Long>, JpaSpecificationExecutor<Contact> {}
+public interface ContactRepository
+    extends ContactRepositoryWithBagRelationships, JpaRepository<Contact, Long>, JpaSpecificationExecutor<Contact> {
+    /**
+     * The contact with its team contacts, read from the database and not from the second-level cache, so it is as current
+     * as its version.
+     */
+    @Query(
+        "select distinct contact from Contact contact left join fetch contact.teamContacts teamContact" +
+        " left join fetch teamContact.team where contact.id = :id"
+    )
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.PASS_DISTINCT_THROUGH, value = "false"))
+    Optional<Contact> findOneWithEagerRelationships(@Param("id") Long id);
+
+    @Query("select contact.imageHash from Contact contact where contact.id = :id")
+    Optional<String> findImageHashById(@Param("id") Long id);
+
+    @Query("select contact.id, contact.imageHash from Contact contact where contact.id in :ids")
+    List<Object[]> findIdAndImageHashByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * The versions and modification dates of a contact, its team contacts and their teams, in one row per team contact.
+     */
+    @Query(
+        "select contact.version, contact.lastModifiedDate, teamContact.id, teamContact.version, teamContact.lastModifiedDate," +
+        " team.id, team.version, team.lastModifiedDate from Contact contact left join contact.teamContacts teamContact" +
+        " left join teamContact.team team where contact.id = :id order by teamContact.id"
+    )
+    List<Object[]> findVersionsById(@Param("id") Long id);
+
+    boolean existsByImageHash(String imageHash);
+}
@@ -0,0 +1,20 @@
+package com.computacenter.yocoma.repository;
+
+import com.computacenter.yocoma.domain.Contact;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Page;
+
+/**
+ * Loads the lazy {@code teamContacts} of Contact entities, together with their teams, in one extra query.
+ * <p>
+ * The collection cannot be fetch-joined into paged queries, so list endpoints first load a page and then
+ * call one of these methods for the page's content.
+ */
+public interface ContactRepositoryWithBagRelationships {
+    Optional<Contact> fetchBagRelationships(Optional<Contact> contact);
+
+    List<Contact> fetchBagRelationships(List<Contact> contacts);
+
+    Page<Contact> fetchBagRelationships(Page<Contact> contacts);
+}
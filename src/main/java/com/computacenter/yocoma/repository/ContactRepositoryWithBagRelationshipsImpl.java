@@ -0,0 +1,68 @@
+package com.computacenter.yocoma.repository;
+
+import com.computacenter.yocoma.domain.Contact;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import javax.persistence.EntityManager;
+import org.hibernate.annotations.QueryHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+/**
+ * Utility repository to load bag relationships based on https://vladmihalcea.com/hibernate-multiplebagfetchexception/
+ */
+public class ContactRepositoryWithBagRelationshipsImpl implements ContactRepositoryWithBagRelationships {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Contact> fetchBagRelationships(Optional<Contact> contact) {
+        return contact.map(this::fetchTeamContacts);
+    }
+
+    @Override
+    public Page<Contact> fetchBagRelationships(Page<Contact> contacts) {
+        return new PageImpl<>(fetchBagRelationships(contacts.getContent()), contacts.getPageable(), contacts.getTotalElements());
+    }
+
+    @Override
+    public List<Contact> fetchBagRelationships(List<Contact> contacts) {
+        return Optional.of(contacts).map(this::fetchTeamContacts).orElse(Collections.emptyList());
+    }
+
+    Contact fetchTeamContacts(Contact result) {
+        return entityManager
+            .createQuery(
+                "select contact from Contact contact left join fetch contact.teamContacts teamContact " +
+                "left join fetch teamContact.team where contact is :contact",
+                Contact.class
+            )
+            .setParameter("contact", result)
+            .setHint(QueryHints.PASS_DISTINCT_THROUGH, false)
+            .getSingleResult();
+    }
+
+    List<Contact> fetchTeamContacts(List<Contact> contacts) {
+        if (contacts.isEmpty()) {
+            return contacts;
+        }
+        HashMap<Object, Integer> order = new HashMap<>();
+        IntStream.range(0, contacts.size()).forEach(index -> order.put(contacts.get(index).getId(), index));
+        List<Contact> result = entityManager
+            .createQuery(
+                "select distinct contact from Contact contact left join fetch contact.teamContacts teamContact " +
+                "left join fetch teamContact.team where contact in :contacts",
+                Contact.class
+            )
+            .setParameter("contacts", contacts)
+            .setHint(QueryHints.PASS_DISTINCT_THROUGH, false)
+            .getResultList();
+        Collections.sort(result, (o1, o2) -> Integer.compare(order.get(o1.getId()), order.get(o2.getId())));
+        return result;
+    }
+}
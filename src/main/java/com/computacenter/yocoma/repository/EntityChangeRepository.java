@@ -0,0 +1,55 @@
+package com.computacenter.yocoma.repository;
+
+import com.computacenter.yocoma.domain.EntityChange;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link EntityChange} entity.
+ * <p>
+ * The changes of a transaction are recorded by incrementing the counter by their number, which locks its row until
+ * the commit, and inserting them at the positions up to the new one. The positions are therefore contiguous and
+ * committed in ascending order.
+ */
+@Repository
+public interface EntityChangeRepository extends JpaRepository<EntityChange, Long> {
+    /**
+     * Hibernate evicts the whole second-level cache after a native update, unless it is told the tables it updates.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.NATIVE_SPACES, value = "entity_change_counter"))
+    @Query(value = "update entity_change_counter set last_position = last_position + :count where id = 1", nativeQuery = true)
+    int incrementLastPosition(@Param("count") int count);
+
+    @Query(value = "select last_position from entity_change_counter where id = 1", nativeQuery = true)
+    Long findLastPosition();
+
+    @Query("select min(change.id) from EntityChange change")
+    Optional<Long> findFirstPosition();
+
+    @Query("select max(change.id) from EntityChange change where change.changedDate < :before")
+    Optional<Long> findLastPositionBefore(@Param("before") Instant before);
+
+    /**
+     * The latest change of each entity after a position, up to another, in the order of their positions.
+     */
+    @Query(
+        "select change from EntityChange change where change.id in (" +
+        "select max(latest.id) from EntityChange latest where latest.id > :after and latest.id <= :until" +
+        " group by latest.entityType, latest.entityId) order by change.id"
+    )
+    List<EntityChange> findLatestBetween(@Param("after") long after, @Param("until") long until, Pageable pageable);
+
+    @Modifying
+    @Query("delete from EntityChange change where change.id <= :position")
+    int deleteUpTo(@Param("position") long position);
+}
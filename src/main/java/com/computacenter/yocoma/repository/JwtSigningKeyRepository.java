@@ -0,0 +1,14 @@
+package com.computacenter.yocoma.repository;
+
+import com.computacenter.yocoma.domain.JwtSigningKey;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link JwtSigningKey} entity.
+ */
+@Repository
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, String> {
+    List<JwtSigningKey> findAllByAlgorithmOrderByCreatedDateDesc(String algorithm);
+}
@@ -0,0 +1,38 @@
+package com.computacenter.yocoma.repository;
+
+import com.computacenter.yocoma.domain.RefreshToken;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link RefreshToken} entity.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    @EntityGraph(attributePaths = "user")
+    Optional<RefreshToken> findOneByTokenHash(String tokenHash);
+
+    List<RefreshToken> findAllByFamily(String family);
+
+    List<RefreshToken> findAllByUserLogin(String login);
+
+    /**
+     * Mark a refresh token as used, unless a concurrent request has used it already.
+     *
+     * @return 1 if the token has been marked, 0 if it was used before.
+     */
+    @Modifying
+    @Query("update RefreshToken token set token.usedDate = :usedDate where token.id = :id and token.usedDate is null")
+    int markUsed(@Param("id") Long id, @Param("usedDate") Instant usedDate);
+
+    @Modifying
+    @Query("delete from RefreshToken token where token.expiresDate < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
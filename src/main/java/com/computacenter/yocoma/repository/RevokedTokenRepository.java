@@ -0,0 +1,24 @@
+package com.computacenter.yocoma.repository;
+
+import com.computacenter.yocoma.domain.RevokedToken;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link RevokedToken} entity.
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    List<RevokedToken> findAllByExpiresDateAfter(Instant now);
+
+    List<RevokedToken> findAllByRevokedDateGreaterThanEqual(Instant since);
+
+    @Modifying
+    @Query("delete from RevokedToken token where token.expiresDate < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -1,12 +1,29 @@
 package com.computacenter.yocoma.repository;
 
 import com.computacenter.yocoma.domain.TeamContact;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data SQL repository for the TeamContact entity.
  */
-@SuppressWarnings("unused")
 @Repository
-public interface TeamContactRepository extends JpaRepository<TeamContact, Long>, JpaSpecificationExecutor<TeamContact> {}
+public interface TeamContactRepository extends JpaRepository<TeamContact, Long>, JpaSpecificationExecutor<TeamContact> {
+    @Query(
+        "select teamContact from TeamContact teamContact left join fetch teamContact.contact left join fetch teamContact.team where teamContact.id =:id"
+    )
+    Optional<TeamContact> findOneWithEagerRelationships(@Param("id") Long id);
+
+    /**
+     * The versions and modification dates of a team contact, its contact and its team.
+     */
+    @Query(
+        "select teamContact.version, teamContact.lastModifiedDate, contact.id, contact.version, contact.lastModifiedDate," +
+        " team.id, team.version, team.lastModifiedDate from TeamContact teamContact left join teamContact.contact contact" +
+        " left join teamContact.team team where teamContact.id = :id"
+    )
+    List<Object[]> findVersionsById(@Param("id") Long id);
+}
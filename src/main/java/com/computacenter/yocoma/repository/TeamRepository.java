@@ -1,12 +1,44 @@
 package com.computacenter.yocoma.repository;
 
 import com.computacenter.yocoma.domain.Team;
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.QueryHint;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data SQL repository for the Team entity.
+ *
+ * When extending this class, extend TeamRepositoryWithBagRelationships too.
+ * For more information refer to https://github.com/jhipster/generator-jhipster/issues/17990.
  */
-@SuppressWarnings("unused")
 @Repository
-public interface TeamRepository extends JpaRepository<Team, Long>, JpaSpecificationExecutor<Team> {}
+public interface TeamRepository extends TeamRepositoryWithBagRelationships, JpaRepository<Team, Long>, JpaSpecificationExecutor<Team> {
+    /**
+     * The team with its team contacts, read from the database and not from the second-level cache, so it is as current
+     * as its version.
+     */
+    @Query(
+        "select distinct team from Team team left join fetch team.teamContacts teamContact" +
+        " left join fetch teamContact.contact where team.id = :id"
+    )
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.PASS_DISTINCT_THROUGH, value = "false"))
+    Optional<Team> findOneWithEagerRelationships(@Param("id") Long id);
+
+    @Query("select team.logoHash from Team team where team.id = :id")
+    Optional<String> findLogoHashById(@Param("id") Long id);
+
+    /**
+     * The versions and modification dates of a team, its team contacts and their contacts, in one row per team contact.
+     */
+    @Query(
+        "select team.version, team.lastModifiedDate, teamContact.id, teamContact.version, teamContact.lastModifiedDate," +
+        " contact.id, contact.version, contact.lastModifiedDate from Team team left join team.teamContacts teamContact" +
+        " left join teamContact.contact contact where team.id = :id order by teamContact.id"
+    )
+    List<Object[]> findVersionsById(@Param("id") Long id);
+
+    boolean existsByLogoHash(String logoHash);
+}
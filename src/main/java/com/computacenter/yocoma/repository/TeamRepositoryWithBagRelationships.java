@@ -0,0 +1,20 @@
+package com.computacenter.yocoma.repository;
+
+import com.computacenter.yocoma.domain.Team;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Page;
+
+/**
+ * Loads the lazy {@code teamContacts} of Team entities, together with their contacts, in one extra query.
+ * <p>
+ * The collection cannot be fetch-joined into paged queries, so list endpoints first load a page and then
+ * call one of these methods for the page's content.
+ */
+public interface TeamRepositoryWithBagRelationships {
+    Optional<Team> fetchBagRelationships(Optional<Team> team);
+
+    List<Team> fetchBagRelationships(List<Team> teams);
+
+    Page<Team> fetchBagRelationships(Page<Team> teams);
+}
@@ -0,0 +1,32 @@
+package com.computacenter.yocoma.security;
+
+import java.time.Duration;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+/**
+ * This exception is thrown in case of a password which could not be verified because the password hashing threads are
+ * overloaded.
+ * <p>
+ * Being an {@link InternalAuthenticationServiceException}, it ends the authentication at once instead of letting the
+ * next provider try.
+ */
+public class AuthenticationOverloadedException extends InternalAuthenticationServiceException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public AuthenticationOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public AuthenticationOverloadedException(String message, Duration retryAfter, Throwable t) {
+        super(message, t);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
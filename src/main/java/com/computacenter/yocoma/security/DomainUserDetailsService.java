@@ -7,9 +7,12 @@ import java.util.stream.Collectors;
 import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
@@ -17,16 +20,33 @@ import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Authenticate a user from the database.
+ * <p>
+ * The password of a user is hashed again on login when it was hashed with fewer rounds than the configured strength.
+ * <p>
+ * The user details are cached by the login or email they were looked up with, as HTTP Basic authenticates every
+ * request of the service accounts. The {@link com.computacenter.yocoma.service.UserService} evicts them whenever the
+ * user changes, and records the change for the other nodes, which evict them once they follow it. The cache
+ * statistics are published as the {@code cache.*} metrics of the {@value #USER_DETAILS_CACHE} cache.
  */
 @Component("userDetailsService")
-public class DomainUserDetailsService implements UserDetailsService {
+public class DomainUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    public static final String USER_DETAILS_CACHE = "userDetails";
 
     private final Logger log = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
+    private final EmailValidator emailValidator = new EmailValidator();
+
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final CacheManager cacheManager;
+
+    private final Cache userDetailsCache;
+
+    public DomainUserDetailsService(UserRepository userRepository, CacheManager cacheManager) {
         this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+        this.userDetailsCache = Objects.requireNonNull(cacheManager.getCache(USER_DETAILS_CACHE));
     }
 
     @Override
@@ -34,7 +54,18 @@ public class DomainUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(final String login) {
         log.debug("Authenticating {}", login);
 
-        if (new EmailValidator().isValid(login, null)) {
+        String key = login.toLowerCase(Locale.ENGLISH);
+        UserDetails userDetails = userDetailsCache.get(key, UserDetails.class);
+        if (userDetails == null) {
+            userDetails = findUserDetails(login);
+            userDetailsCache.put(key, userDetails);
+        }
+        // Authenticating erases the password of the returned user, which must not be the cached one
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails).build();
+    }
+
+    private UserDetails findUserDetails(String login) {
+        if (emailValidator.isValid(login, null)) {
             return userRepository
                 .findOneWithAuthoritiesByEmailIgnoreCase(login)
                 .map(user -> createSpringSecurityUser(login, user))
@@ -48,6 +79,26 @@ public class DomainUserDetailsService implements UserDetailsService {
             .orElseThrow(() -> new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database"));
     }
 
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        log.debug("Upgrading the password hash of {}", userDetails.getUsername());
+        userRepository
+            .findOneByLogin(userDetails.getUsername())
+            .ifPresent(user -> {
+                user.setPassword(newPassword);
+                // The cached users hold the former hash, which would be upgraded again on the next login. The other
+                // nodes are not told: their cached details keep the former hash, which still matches, until they expire
+                Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
+                userDetailsCache.evict(user.getLogin());
+                if (user.getEmail() != null) {
+                    Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
+                    userDetailsCache.evict(user.getEmail());
+                }
+            });
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails).password(newPassword).build();
+    }
+
     private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
         if (!user.isActivated()) {
             throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
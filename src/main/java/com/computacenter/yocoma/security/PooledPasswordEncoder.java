@@ -0,0 +1,121 @@
+package com.computacenter.yocoma.security;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.management.SecurityMetersService;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} hashing and verifying the passwords on a bounded pool of threads of its own.
+ * <p>
+ * BCrypt keeps a core busy for every password, so a storm of logins would otherwise take the request threads and cores
+ * from all other requests. Here at most the configured number of passwords are hashed at once: a password finding the
+ * queue full, or waiting longer than allowed for a thread, is not hashed, and its login fails fast with an
+ * {@link AuthenticationOverloadedException}. A login is never held longer than the max-wait plus the max-hash-time:
+ * past that, its hash is cancelled and the login fails the same way.
+ */
+public class PooledPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+
+    private final SecurityMetersService securityMetersService;
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    private final long maxWaitNanos;
+
+    private final long timeoutNanos;
+
+    private final Duration retryAfter;
+
+    public PooledPasswordEncoder(
+        PasswordEncoder delegate,
+        ApplicationProperties.Security.PasswordHashing passwordHashing,
+        SecurityMetersService securityMetersService
+    ) {
+        this.delegate = delegate;
+        this.securityMetersService = securityMetersService;
+        this.maxWaitNanos = passwordHashing.getMaxWait().toNanos();
+        this.timeoutNanos = passwordHashing.getMaxWait().plus(passwordHashing.getMaxHashTime()).toNanos();
+        this.retryAfter = passwordHashing.getRetryAfter();
+        executor.setCorePoolSize(passwordHashing.getThreads());
+        executor.setMaxPoolSize(passwordHashing.getThreads());
+        executor.setQueueCapacity(passwordHashing.getQueueCapacity());
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.initialize();
+        securityMetersService.monitorPasswordHashingQueue(executor.getThreadPoolExecutor().getQueue());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hash(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hash(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T hash(Supplier<T> hashing) {
+        long submitted = System.nanoTime();
+        Future<T> result;
+        try {
+            result =
+                executor.submit(() -> {
+                    long started = System.nanoTime();
+                    securityMetersService.trackPasswordHashingWait(started - submitted);
+                    // The caller may still be waiting, but its client has most likely given up already
+                    if (started - submitted > maxWaitNanos) {
+                        securityMetersService.trackPasswordHashingWaitExceeded();
+                        throw new AuthenticationOverloadedException("Password waited too long for a hashing thread", retryAfter);
+                    }
+                    try {
+                        return hashing.get();
+                    } finally {
+                        securityMetersService.trackPasswordHashing(System.nanoTime() - started);
+                    }
+                });
+        } catch (RejectedExecutionException e) {
+            securityMetersService.trackPasswordHashingQueueFull();
+            throw new AuthenticationOverloadedException("Too many passwords waiting for a hashing thread", retryAfter, e);
+        }
+        try {
+            return result.get(timeoutNanos - (System.nanoTime() - submitted), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // A queued hash is not run anymore, a running one is interrupted, though BCrypt finishes it regardless
+            result.cancel(true);
+            securityMetersService.trackPasswordHashingTimeout();
+            throw new AuthenticationOverloadedException("Password hashing did not finish in time", retryAfter, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new AuthenticationOverloadedException("Interrupted while waiting for the password hashing", retryAfter, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,166 @@
+package com.computacenter.yocoma.security.jwt;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.domain.Authority;
+import com.computacenter.yocoma.repository.AuthorityRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+/**
+ * The authorities carried by the JWTs.
+ * <p>
+ * A token carries the authorities having a {@link Authority#getTokenBit() token bit} as a bitmask, and only the others
+ * by their names. Reading the authorities of a token returns the same interned, immutable list for every token with the
+ * same bitmask or names, so authenticating a request allocates no authorities. Tokens issued before the bitmask carry
+ * all authorities by their names, and are still read until they expire. During a rolling upgrade, the new tokens may
+ * carry all names too, for the nodes which do not read the bitmask yet.
+ */
+@Component
+public class JwtAuthorities {
+
+    public static final String AUTHORITY_BITS_KEY = "aut";
+
+    public static final String AUTHORITIES_KEY = "auth";
+
+    private final AuthorityRepository authorityRepository;
+
+    private final boolean legacyAuthorities;
+
+    /**
+     * The authorities with a token bit, read once as they only change with the Liquibase changelogs.
+     */
+    private volatile Bits bits;
+
+    private final Map<Long, List<GrantedAuthority>> authoritiesByBits = new ConcurrentHashMap<>();
+
+    private final Map<String, List<GrantedAuthority>> authoritiesByNames = new ConcurrentHashMap<>();
+
+    private final Map<String, GrantedAuthority> authorityByName = new ConcurrentHashMap<>();
+
+    public JwtAuthorities(AuthorityRepository authorityRepository, ApplicationProperties applicationProperties) {
+        this.authorityRepository = authorityRepository;
+        this.legacyAuthorities = applicationProperties.getSecurity().getJwt().isLegacyAuthorities();
+    }
+
+    /**
+     * Add the authorities to a token, as bitmask and names.
+     *
+     * @param builder the builder of the token.
+     * @param authorities the authorities of its principal.
+     */
+    public void addClaims(JwtBuilder builder, Collection<? extends GrantedAuthority> authorities) {
+        Map<String, Integer> bitByName = bits().bitByName;
+        long mask = 0;
+        StringJoiner names = new StringJoiner(",");
+        for (GrantedAuthority authority : authorities) {
+            Integer bit = bitByName.get(authority.getAuthority());
+            if (bit != null) {
+                mask |= 1L << bit;
+            }
+            if (bit == null || legacyAuthorities) {
+                names.add(authority.getAuthority());
+            }
+        }
+        if (mask != 0) {
+            builder.claim(AUTHORITY_BITS_KEY, mask);
+        }
+        if (names.length() > 0 || mask == 0) {
+            builder.claim(AUTHORITIES_KEY, names.toString());
+        }
+    }
+
+    /**
+     * Read the authorities of a token.
+     *
+     * @param claims the claims of the token.
+     * @return the interned authorities.
+     */
+    public List<GrantedAuthority> fromClaims(Claims claims) {
+        Object mask = claims.get(AUTHORITY_BITS_KEY);
+        Object names = claims.get(AUTHORITIES_KEY);
+        List<GrantedAuthority> byBits = mask instanceof Number ? byBits(((Number) mask).longValue()) : List.of();
+        List<GrantedAuthority> byNames = names != null ? byNames(names.toString()) : List.of();
+        if (byNames.isEmpty()) {
+            return byBits;
+        }
+        if (byBits.isEmpty()) {
+            return byNames;
+        }
+        // The names of legacy tokens repeat the authorities of the bitmask
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>(byBits);
+        authorities.addAll(byNames);
+        return new ArrayList<>(authorities);
+    }
+
+    private List<GrantedAuthority> byBits(long mask) {
+        // Looked up before computing, as the method reference would be allocated for every token
+        List<GrantedAuthority> authorities = authoritiesByBits.get(mask);
+        return authorities != null ? authorities : authoritiesByBits.computeIfAbsent(mask, this::decodeBits);
+    }
+
+    private List<GrantedAuthority> byNames(String names) {
+        List<GrantedAuthority> authorities = authoritiesByNames.get(names);
+        return authorities != null ? authorities : authoritiesByNames.computeIfAbsent(names, this::decodeNames);
+    }
+
+    private List<GrantedAuthority> decodeBits(long mask) {
+        Map<Integer, String> nameByBit = bits().nameByBit;
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            // Bits unknown to this node are ignored, as no authority of the tokens it accepts is granted for them
+            if ((mask & (1L << bit)) != 0 && nameByBit.containsKey(bit)) {
+                authorities.add(intern(nameByBit.get(bit)));
+            }
+        }
+        return List.copyOf(authorities);
+    }
+
+    private List<GrantedAuthority> decodeNames(String names) {
+        return Arrays
+            .stream(names.split(","))
+            .filter(name -> !name.trim().isEmpty())
+            .map(this::intern)
+            .collect(Collectors.toUnmodifiableList());
+    }
+
+    private GrantedAuthority intern(String name) {
+        return authorityByName.computeIfAbsent(name, SimpleGrantedAuthority::new);
+    }
+
+    private Bits bits() {
+        if (bits == null) {
+            synchronized (this) {
+                if (bits == null) {
+                    bits = new Bits(authorityRepository.findAll());
+                }
+            }
+        }
+        return bits;
+    }
+
+    private static final class Bits {
+
+        private final Map<String, Integer> bitByName;
+
+        private final Map<Integer, String> nameByBit;
+
+        private Bits(List<Authority> authorities) {
+            Map<String, Integer> bitByName = new HashMap<>();
+            Map<Integer, String> nameByBit = new HashMap<>();
+            for (Authority authority : authorities) {
+                if (authority.getTokenBit() != null) {
+                    bitByName.put(authority.getName(), authority.getTokenBit());
+                    nameByBit.put(authority.getTokenBit(), authority.getName());
+                }
+            }
+            this.bitByName = Map.copyOf(bitByName);
+            this.nameByBit = Map.copyOf(nameByBit);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.computacenter.yocoma.security.jwt;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.domain.JwtSigningKey;
+import com.computacenter.yocoma.repository.JwtSigningKeyRepository;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * The key pairs signing the JWTs with RS256 or ES256, identified by the {@code kid} header of the tokens.
+ * <p>
+ * The key pairs are stored in the database, so all nodes sign and verify with the same ones, and each node reads them
+ * again at every refresh. Once the newest key pair is older than the rotation interval, the next refresh creates a new
+ * one. It is published right away but only signs after the publish-ahead time, when every node and downstream service
+ * knows it. A replaced key pair still verifies until the tokens it signed have expired, and is deleted then.
+ * <p>
+ * The private keys are stored encrypted with AES-GCM, by the private key secret which is kept out of the database, and
+ * bound to the id of their key pair.
+ * <p>
+ * With an HMAC algorithm the tokens are signed with the shared secret instead, and no key pairs are kept.
+ */
+@Component
+public class JwtSigningKeys {
+
+    private final Logger log = LoggerFactory.getLogger(JwtSigningKeys.class);
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private static final String PRIVATE_KEY_CIPHER = "AES/GCM/NoPadding";
+
+    private static final int IV_LENGTH = 12;
+
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final JwtSigningKeyRepository jwtSigningKeyRepository;
+
+    private final SignatureAlgorithm algorithm;
+
+    private final Duration rotationInterval;
+
+    private final Duration publishAhead;
+
+    private final Duration maxTokenValidity;
+
+    private final SecretKey privateKeySecret;
+
+    /**
+     * The key pairs, newest first, read at the last refresh.
+     */
+    private volatile List<SigningKey> keys;
+
+    public JwtSigningKeys(
+        JwtSigningKeyRepository jwtSigningKeyRepository,
+        ApplicationProperties applicationProperties,
+        JHipsterProperties jHipsterProperties
+    ) {
+        ApplicationProperties.Security.Jwt jwt = applicationProperties.getSecurity().getJwt();
+        if (!jwt.getAlgorithm().isHmac() && !jwt.getAlgorithm().isRsa() && !jwt.getAlgorithm().isEllipticCurve()) {
+            throw new IllegalArgumentException("Unsupported JWT signature algorithm " + jwt.getAlgorithm());
+        }
+        this.jwtSigningKeyRepository = jwtSigningKeyRepository;
+        this.algorithm = jwt.getAlgorithm();
+        this.rotationInterval = jwt.getRotationInterval();
+        this.publishAhead = jwt.getPublishAhead();
+        // The access tokens are valid for the access token validity at most, whatever the session length
+        JHipsterProperties.Security.Authentication.Jwt tokens = jHipsterProperties.getSecurity().getAuthentication().getJwt();
+        Duration sessionValidity = Duration.ofSeconds(
+            Math.max(tokens.getTokenValidityInSeconds(), tokens.getTokenValidityInSecondsForRememberMe())
+        );
+        Duration accessTokenValidity = jwt.getAccessTokenValidity();
+        this.maxTokenValidity = accessTokenValidity.compareTo(sessionValidity) < 0 ? accessTokenValidity : sessionValidity;
+        this.privateKeySecret = isAsymmetric() ? privateKeySecret(jwt.getPrivateKeySecret()) : null;
+    }
+
+    private SecretKey privateKeySecret(String base64Secret) {
+        if (base64Secret == null || base64Secret.isBlank()) {
+            throw new IllegalArgumentException("application.security.jwt.private-key-secret is required with " + algorithm);
+        }
+        byte[] secret = Base64.getDecoder().decode(base64Secret.trim());
+        if (secret.length != 16 && secret.length != 24 && secret.length != 32) {
+            throw new IllegalArgumentException("application.security.jwt.private-key-secret must be an AES key of 128, 192 or 256 bits");
+        }
+        return new SecretKeySpec(secret, "AES");
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return whether the tokens are signed with key pairs, rather than with the shared secret.
+     */
+    public boolean isAsymmetric() {
+        return !algorithm.isHmac();
+    }
+
+    /**
+     * @return the key pair signing new tokens.
+     */
+    public SigningKey signingKey() {
+        Instant now = Instant.now();
+        List<SigningKey> current = keys();
+        // The newest key pair published long enough, or the first one ever created
+        return current
+            .stream()
+            .filter(key -> !key.getCreatedDate().plus(publishAhead).isAfter(now))
+            .findFirst()
+            .orElse(current.get(current.size() - 1));
+    }
+
+    /**
+     * @param kid the {@code kid} header of a token.
+     * @return the public key verifying the token.
+     * @throws SignatureException if no key pair has that id.
+     */
+    public PublicKey verificationKey(String kid) {
+        return keys()
+            .stream()
+            .filter(key -> key.getKid().equals(kid))
+            .findFirst()
+            .map(SigningKey::getPublicKey)
+            .orElseThrow(() -> new SignatureException("Unknown JWT signing key " + kid));
+    }
+
+    /**
+     * @return the public keys as a JSON Web Key Set, empty with an HMAC algorithm.
+     */
+    public Map<String, Object> jwks() {
+        List<Map<String, Object>> jwks = isAsymmetric() ? keys().stream().map(this::toJwk).collect(Collectors.toList()) : List.of();
+        return Map.of("keys", jwks);
+    }
+
+    /**
+     * Read the key pairs of all nodes, rotate them when due and delete those no token needs anymore.
+     */
+    @Scheduled(
+        initialDelayString = "${application.security.jwt.refresh-interval:PT1M}",
+        fixedDelayString = "${application.security.jwt.refresh-interval:PT1M}"
+    )
+    public void refresh() {
+        if (!isAsymmetric()) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<JwtSigningKey> stored = new ArrayList<>(
+            jwtSigningKeyRepository.findAllByAlgorithmOrderByCreatedDateDesc(algorithm.getValue())
+        );
+        if (stored.isEmpty() || stored.get(0).getCreatedDate().plus(rotationInterval).isBefore(now)) {
+            stored.add(0, jwtSigningKeyRepository.save(generate(now)));
+        }
+        for (int i = stored.size() - 1; i > 0; i--) {
+            // Tokens are signed by a key pair until its successor takes over
+            Instant replaced = stored.get(i - 1).getCreatedDate().plus(publishAhead);
+            if (replaced.plus(maxTokenValidity).isBefore(now)) {
+                log.info("Deleting the JWT signing key {}, replaced at {}", stored.get(i).getId(), replaced);
+                jwtSigningKeyRepository.delete(stored.remove(i));
+            }
+        }
+        keys = stored.stream().map(this::toSigningKey).collect(Collectors.toUnmodifiableList());
+    }
+
+    private List<SigningKey> keys() {
+        if (keys == null) {
+            synchronized (this) {
+                if (keys == null) {
+                    refresh();
+                }
+            }
+        }
+        return keys;
+    }
+
+    private JwtSigningKey generate(Instant now) {
+        KeyPair keyPair = Keys.keyPairFor(algorithm);
+        JwtSigningKey key = new JwtSigningKey()
+            .id(UUID.randomUUID().toString())
+            .algorithm(algorithm.getValue())
+            .publicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()))
+            .createdDate(now);
+        key.setPrivateKey(encryptPrivateKey(key.getId(), keyPair.getPrivate()));
+        log.info("Created the JWT signing key {}", key.getId());
+        return key;
+    }
+
+    private SigningKey toSigningKey(JwtSigningKey key) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(algorithm.isRsa() ? "RSA" : "EC");
+            PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(key.getPublicKey())));
+            PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decryptPrivateKey(key.getId(), key.getPrivateKey())));
+            return new SigningKey(key.getId(), key.getCreatedDate(), publicKey, privateKey);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid JWT signing key " + key.getId(), e);
+        }
+    }
+
+    /**
+     * Encrypt a private key, as the random IV followed by the cipher text of its PKCS #8 encoding, authenticated with
+     * the id of its key pair so that it cannot be moved to another one.
+     *
+     * @param kid the id of the key pair.
+     * @param privateKey the private key.
+     * @return the Base64 encoded encrypted private key.
+     */
+    String encryptPrivateKey(String kid, PrivateKey privateKey) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            RANDOM.nextBytes(iv);
+            Cipher cipher = privateKeyCipher(Cipher.ENCRYPT_MODE, kid, iv);
+            byte[] encrypted = cipher.doFinal(privateKey.getEncoded());
+            return Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not encrypt the JWT signing key " + kid, e);
+        }
+    }
+
+    private byte[] decryptPrivateKey(String kid, String encryptedPrivateKey) throws GeneralSecurityException {
+        byte[] encrypted = Base64.getDecoder().decode(encryptedPrivateKey);
+        Cipher cipher = privateKeyCipher(Cipher.DECRYPT_MODE, kid, Arrays.copyOf(encrypted, IV_LENGTH));
+        return cipher.doFinal(encrypted, IV_LENGTH, encrypted.length - IV_LENGTH);
+    }
+
+    private Cipher privateKeyCipher(int mode, String kid, byte[] iv) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(PRIVATE_KEY_CIPHER);
+        cipher.init(mode, privateKeySecret, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        return cipher;
+    }
+
+    private Map<String, Object> toJwk(SigningKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kid", key.getKid());
+        jwk.put("use", "sig");
+        jwk.put("alg", algorithm.getValue());
+        if (key.getPublicKey() instanceof RSAPublicKey) {
+            RSAPublicKey publicKey = (RSAPublicKey) key.getPublicKey();
+            jwk.put("kty", "RSA");
+            jwk.put("n", base64Url(publicKey.getModulus(), (publicKey.getModulus().bitLength() + 7) / 8));
+            jwk.put("e", base64Url(publicKey.getPublicExponent(), (publicKey.getPublicExponent().bitLength() + 7) / 8));
+        } else {
+            ECPublicKey publicKey = (ECPublicKey) key.getPublicKey();
+            int fieldSize = publicKey.getParams().getCurve().getField().getFieldSize();
+            int length = (fieldSize + 7) / 8;
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-" + fieldSize);
+            jwk.put("x", base64Url(publicKey.getW().getAffineX(), length));
+            jwk.put("y", base64Url(publicKey.getW().getAffineY(), length));
+        }
+        return jwk;
+    }
+
+    /**
+     * Encode an unsigned big-endian integer of a fixed length, as JSON Web Keys require.
+     */
+    private static String base64Url(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        byte[] unsigned = new byte[length];
+        int copied = Math.min(bytes.length, length);
+        System.arraycopy(bytes, bytes.length - copied, unsigned, length - copied, copied);
+        return BASE64_URL.encodeToString(unsigned);
+    }
+
+    /**
+     * A key pair and its id.
+     */
+    public static final class SigningKey {
+
+        private final String kid;
+
+        private final Instant createdDate;
+
+        private final PublicKey publicKey;
+
+        private final PrivateKey privateKey;
+
+        private SigningKey(String kid, Instant createdDate, PublicKey publicKey, PrivateKey privateKey) {
+            this.kid = kid;
+            this.createdDate = createdDate;
+            this.publicKey = publicKey;
+            this.privateKey = privateKey;
+        }
+
+        public String getKid() {
+            return kid;
+        }
+
+        public Instant getCreatedDate() {
+            return createdDate;
+        }
+
+        public PublicKey getPublicKey() {
+            return publicKey;
+        }
+
+        public PrivateKey getPrivateKey() {
+            return privateKey;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.computacenter.yocoma.security.jwt;
 
+import com.computacenter.yocoma.config.ApplicationProperties;
 import com.computacenter.yocoma.management.SecurityMetersService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
@@ -7,14 +8,18 @@ import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.ehcache.expiry.ExpiryPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
@@ -23,14 +28,22 @@ import tech.jhipster.config.JHipsterProperties;
 @Component
 public class TokenProvider {
 
-    private final Logger log = LoggerFactory.getLogger(TokenProvider.class);
+    public static final String VERIFIED_TOKENS_CACHE = "verifiedTokens";
 
-    private static final String AUTHORITIES_KEY = "auth";
+    private final Logger log = LoggerFactory.getLogger(TokenProvider.class);
 
     private static final String INVALID_JWT_TOKEN = "Invalid JWT token.";
 
     private final Key key;
 
+    private final SignatureAlgorithm signatureAlgorithm;
+
+    private final JwtSigningKeys jwtSigningKeys;
+
+    private final JwtAuthorities jwtAuthorities;
+
+    private final TokenRevocations tokenRevocations;
+
     private final JwtParser jwtParser;
 
     private final long tokenValidityInMilliseconds;
@@ -39,7 +52,20 @@ public class TokenProvider {
 
     private final SecurityMetersService securityMetersService;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
+    /**
+     * Principals of the tokens verified before, keyed by the SHA-256 hash of the token and kept until the token expires.
+     */
+    private final Cache<Object, Object> verifiedTokens;
+
+    public TokenProvider(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        SecurityMetersService securityMetersService,
+        JwtSigningKeys jwtSigningKeys,
+        JwtAuthorities jwtAuthorities,
+        TokenRevocations tokenRevocations,
+        CacheManager cacheManager
+    ) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
@@ -54,17 +80,43 @@ public class TokenProvider {
             keyBytes = secret.getBytes(StandardCharsets.UTF_8);
         }
         key = Keys.hmacShaKeyFor(keyBytes);
-        jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
-        this.tokenValidityInMilliseconds = 1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
+        this.signatureAlgorithm = jwtSigningKeys.getAlgorithm();
+        this.jwtSigningKeys = jwtSigningKeys;
+        this.jwtAuthorities = jwtAuthorities;
+        this.tokenRevocations = tokenRevocations;
+        if (jwtSigningKeys.isAsymmetric()) {
+            log.debug("Signing the JWTs with {} key pairs", signatureAlgorithm);
+            jwtParser = Jwts.parserBuilder().setSigningKeyResolver(new KeyIdResolver(jwtSigningKeys)).build();
+        } else {
+            jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+        }
+        // The validities of the JHipster settings are those of the refresh tokens, renewing the shorter access tokens
+        long accessTokenValidity = applicationProperties.getSecurity().getJwt().getAccessTokenValidity().toMillis();
+        this.tokenValidityInMilliseconds =
+            Math.min(1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds(), accessTokenValidity);
         this.tokenValidityInMillisecondsForRememberMe =
-            1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
+            Math.min(
+                1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe(),
+                accessTokenValidity
+            );
 
         this.securityMetersService = securityMetersService;
+        this.verifiedTokens = cacheManager.getCache(VERIFIED_TOKENS_CACHE);
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
-        String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(","));
+        return createToken(authentication, rememberMe, UUID.randomUUID().toString());
+    }
 
+    /**
+     * Create an access token.
+     *
+     * @param authentication the authentication of the user.
+     * @param rememberMe whether the user is remembered beyond the session.
+     * @param tokenId the {@code jti} claim of the token, revoking it.
+     * @return the token.
+     */
+    public String createToken(Authentication authentication, boolean rememberMe, String tokenId) {
         long now = (new Date()).getTime();
         Date validity;
         if (rememberMe) {
@@ -73,34 +125,68 @@ public class TokenProvider {
             validity = new Date(now + this.tokenValidityInMilliseconds);
         }
 
-        return Jwts
-            .builder()
-            .setSubject(authentication.getName())
-            .claim(AUTHORITIES_KEY, authorities)
-            .signWith(key, SignatureAlgorithm.HS512)
-            .setExpiration(validity)
-            .compact();
+        JwtBuilder builder = Jwts.builder().setId(tokenId).setSubject(authentication.getName()).setExpiration(validity);
+        jwtAuthorities.addClaims(builder, authentication.getAuthorities());
+        if (jwtSigningKeys.isAsymmetric()) {
+            JwtSigningKeys.SigningKey signingKey = jwtSigningKeys.signingKey();
+            builder.setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid()).signWith(signingKey.getPrivateKey(), signatureAlgorithm);
+        } else {
+            builder.signWith(key, signatureAlgorithm);
+        }
+        return builder.compact();
+    }
+
+    /**
+     * Validate a token and build its authentication in a single pass.
+     * Tokens verified before are not parsed again, their principal is taken from a cache until the token expires.
+     * Revoked tokens are refused even so.
+     *
+     * @param token the token presented by the client.
+     * @return the authentication, or empty if the token is not valid.
+     */
+    public Optional<Authentication> authenticate(String token) {
+        String hash = hash(token);
+        VerifiedToken verifiedToken = (VerifiedToken) this.verifiedTokens.get(hash);
+        if (verifiedToken != null) {
+            if (this.tokenRevocations.isRevoked(verifiedToken.tokenId)) {
+                this.verifiedTokens.remove(hash);
+                this.securityMetersService.trackTokenRevoked();
+                return Optional.empty();
+            }
+            this.securityMetersService.trackVerifiedTokenHit();
+        } else {
+            this.securityMetersService.trackVerifiedTokenMiss();
+            Optional<Claims> claims = parseClaims(token);
+            if (claims.isEmpty()) {
+                return Optional.empty();
+            }
+            verifiedToken = new VerifiedToken(toPrincipal(claims.get()), claims.get().getId(), claims.get().getExpiration());
+            if (verifiedToken.expiration != null) {
+                this.verifiedTokens.put(hash, verifiedToken);
+            }
+        }
+        return Optional.of(toAuthentication(verifiedToken.principal, token));
     }
 
     public Authentication getAuthentication(String token) {
         Claims claims = jwtParser.parseClaimsJws(token).getBody();
-
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
-
-        User principal = new User(claims.getSubject(), "", authorities);
-
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        return toAuthentication(toPrincipal(claims), token);
     }
 
     public boolean validateToken(String authToken) {
+        return parseClaims(authToken).isPresent();
+    }
+
+    private Optional<Claims> parseClaims(String authToken) {
         try {
-            jwtParser.parseClaimsJws(authToken);
+            Claims claims = jwtParser.parseClaimsJws(authToken).getBody();
+            if (this.tokenRevocations.isRevoked(claims.getId())) {
+                this.securityMetersService.trackTokenRevoked();
 
-            return true;
+                log.trace("Revoked JWT token {}", claims.getId());
+                return Optional.empty();
+            }
+            return Optional.of(claims);
         } catch (ExpiredJwtException e) {
             this.securityMetersService.trackTokenExpired();
 
@@ -121,6 +207,84 @@ public class TokenProvider {
             log.error("Token validation error {}", e.getMessage());
         }
 
-        return false;
+        return Optional.empty();
+    }
+
+    private User toPrincipal(Claims claims) {
+        return new User(claims.getSubject(), "", jwtAuthorities.fromClaims(claims));
+    }
+
+    private Authentication toAuthentication(User principal, String token) {
+        return new UsernamePasswordAuthenticationToken(principal, token, principal.getAuthorities());
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Resolves the public key verifying a token from its {@code kid} header.
+     */
+    private static final class KeyIdResolver extends SigningKeyResolverAdapter {
+
+        private final JwtSigningKeys jwtSigningKeys;
+
+        private KeyIdResolver(JwtSigningKeys jwtSigningKeys) {
+            this.jwtSigningKeys = jwtSigningKeys;
+        }
+
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            // A token signed with another algorithm, e.g. HMAC with the public key as secret, is refused before verifying it
+            if (!jwtSigningKeys.getAlgorithm().getValue().equals(header.getAlgorithm())) {
+                throw new SignatureException("JWT not signed with " + jwtSigningKeys.getAlgorithm());
+            }
+            if (header.getKeyId() == null) {
+                throw new SignatureException("JWT without a signing key id");
+            }
+            return jwtSigningKeys.verificationKey(header.getKeyId());
+        }
+    }
+
+    private static final class VerifiedToken {
+
+        private final User principal;
+
+        private final String tokenId;
+
+        private final Date expiration;
+
+        private VerifiedToken(User principal, String tokenId, Date expiration) {
+            this.principal = principal;
+            this.tokenId = tokenId;
+            this.expiration = expiration;
+        }
+    }
+
+    /**
+     * Expires a verified token together with the token itself, used by the {@link #VERIFIED_TOKENS_CACHE} region.
+     */
+    public static final class VerifiedTokenExpiry implements ExpiryPolicy<Object, Object> {
+
+        @Override
+        public Duration getExpiryForCreation(Object hash, Object verifiedToken) {
+            long remaining = ((VerifiedToken) verifiedToken).expiration.getTime() - System.currentTimeMillis();
+            return Duration.ofMillis(Math.max(remaining, 0));
+        }
+
+        @Override
+        public Duration getExpiryForAccess(Object hash, Supplier<?> verifiedToken) {
+            return null;
+        }
+
+        @Override
+        public Duration getExpiryForUpdate(Object hash, Supplier<?> oldVerifiedToken, Object verifiedToken) {
+            return getExpiryForCreation(hash, verifiedToken);
+        }
     }
 }
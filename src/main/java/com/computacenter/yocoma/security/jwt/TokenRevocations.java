@@ -0,0 +1,197 @@
+package com.computacenter.yocoma.security.jwt;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.domain.RevokedToken;
+import com.computacenter.yocoma.repository.RevokedTokenRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The access tokens revoked before they expire, identified by their {@code jti} claim.
+ * <p>
+ * Every authenticated request is checked against the revoked tokens, so they are held in memory: a Bloom filter answers
+ * for almost all tokens that they are not revoked, and only the few it may contain are looked up in the exact set. The
+ * tokens revoked by the other nodes are read at every refresh, and forgotten once expired.
+ */
+@Component
+public class TokenRevocations {
+
+    /**
+     * Tokens revoked by the other nodes are read again for this long, in case their transaction committed late.
+     */
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final int expectedEntries;
+
+    /**
+     * The expiry of the revoked tokens by their id.
+     */
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    /**
+     * The filter of the revoked tokens, replaced whenever tokens are forgotten or it is full.
+     */
+    private volatile BloomFilter filter;
+
+    /**
+     * The start of the last refresh, guarded by this.
+     */
+    private Instant refreshed;
+
+    public TokenRevocations(RevokedTokenRepository revokedTokenRepository, ApplicationProperties applicationProperties) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedEntries = applicationProperties.getSecurity().getJwt().getRevocationExpectedEntries();
+    }
+
+    /**
+     * @param tokenId the {@code jti} claim of a token, null for the tokens issued without one.
+     * @return whether the token has been revoked.
+     */
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && filter().mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+
+    /**
+     * Revoke a token, on this node once the transaction saving the revocation commits and on the other nodes at their
+     * next refresh. A revocation which is rolled back is not held in memory either, so all nodes keep accepting the token.
+     *
+     * @param tokenId the {@code jti} claim of the token.
+     * @param expiresDate the expiry of the token, after which it is refused anyway.
+     */
+    public void revoke(String tokenId, Instant expiresDate) {
+        revokedTokenRepository.save(new RevokedToken().id(tokenId).revokedDate(Instant.now()).expiresDate(expiresDate));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        addRevoked(tokenId, expiresDate);
+                    }
+                }
+            );
+        } else {
+            addRevoked(tokenId, expiresDate);
+        }
+    }
+
+    /**
+     * Read the tokens revoked since the last refresh, and forget those which have expired.
+     */
+    @Scheduled(
+        initialDelayString = "${application.security.jwt.revocation-refresh-interval:PT10S}",
+        fixedDelayString = "${application.security.jwt.revocation-refresh-interval:PT10S}"
+    )
+    public synchronized void refresh() {
+        Instant now = Instant.now();
+        if (refreshed == null) {
+            revokedTokenRepository.findAllByExpiresDateAfter(now).forEach(token -> revoked.put(token.getId(), token.getExpiresDate()));
+            rebuild();
+        } else {
+            revokedTokenRepository
+                .findAllByRevokedDateGreaterThanEqual(refreshed.minus(REFRESH_OVERLAP))
+                .forEach(token -> add(token.getId(), token.getExpiresDate()));
+            if (revoked.values().removeIf(expiresDate -> expiresDate.isBefore(now))) {
+                rebuild();
+            }
+        }
+        refreshed = now;
+    }
+
+    private BloomFilter filter() {
+        if (filter == null) {
+            synchronized (this) {
+                if (filter == null) {
+                    refresh();
+                }
+            }
+        }
+        return filter;
+    }
+
+    private void addRevoked(String tokenId, Instant expiresDate) {
+        filter();
+        synchronized (this) {
+            add(tokenId, expiresDate);
+        }
+    }
+
+    private void add(String tokenId, Instant expiresDate) {
+        // Added to the set before the filter, so a token the filter may contain is always found in the set
+        if (revoked.put(tokenId, expiresDate) == null) {
+            if (revoked.size() > filter.capacity) {
+                rebuild();
+            } else {
+                filter.add(tokenId);
+            }
+        }
+    }
+
+    private void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, 2 * revoked.size()));
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+
+    /**
+     * A Bloom filter of about one percent false positives at its capacity, probed with the cached hash code of the ids.
+     */
+    private static final class BloomFilter {
+
+        private static final int HASHES = 7;
+
+        private static final int BITS_PER_ENTRY = 10;
+
+        private final int capacity;
+
+        private final int bits;
+
+        private final AtomicLongArray words;
+
+        BloomFilter(int capacity) {
+            this.capacity = capacity;
+            this.bits = Math.max(Long.SIZE, capacity * BITS_PER_ENTRY);
+            this.words = new AtomicLongArray((bits + Long.SIZE - 1) / Long.SIZE);
+        }
+
+        void add(String id) {
+            int hash = id.hashCode();
+            int step = step(hash);
+            for (int i = 0; i < HASHES; i++, hash += step) {
+                int bit = Math.floorMod(hash, bits);
+                long mask = 1L << bit;
+                long word;
+                do {
+                    word = words.get(bit >>> 6);
+                } while ((word & mask) == 0 && !words.compareAndSet(bit >>> 6, word, word | mask));
+            }
+        }
+
+        boolean mightContain(String id) {
+            int hash = id.hashCode();
+            int step = step(hash);
+            for (int i = 0; i < HASHES; i++, hash += step) {
+                int bit = Math.floorMod(hash, bits);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * The second hash of the double hashing, derived from the first one as the ids only cache that.
+         */
+        private static int step(int hash) {
+            return Integer.rotateLeft(hash * 0x9E3779B9, 16) | 1;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.computacenter.yocoma.service;
+
+import com.computacenter.yocoma.domain.BinaryThumbnail;
+import com.computacenter.yocoma.domain.enumeration.ThumbnailSize;
+import com.computacenter.yocoma.repository.BinaryThumbnailRepository;
+import com.computacenter.yocoma.repository.ContactRepository;
+import com.computacenter.yocoma.repository.TeamRepository;
+import com.computacenter.yocoma.service.storage.BinaryStore;
+import com.computacenter.yocoma.service.storage.CreateThumbnailsEvent;
+import com.computacenter.yocoma.service.storage.StoredBinary;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for the binary content referenced by {@link com.computacenter.yocoma.domain.Contact#getImageHash()}
+ * and {@link com.computacenter.yocoma.domain.Team#getLogoHash()}, and for its thumbnails.
+ */
+@Service
+@Transactional
+public class BinaryContentService {
+
+    private final Logger log = LoggerFactory.getLogger(BinaryContentService.class);
+
+    private final BinaryStore binaryStore;
+
+    private final BinaryThumbnailRepository binaryThumbnailRepository;
+
+    private final ContactRepository contactRepository;
+
+    private final TeamRepository teamRepository;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public BinaryContentService(
+        BinaryStore binaryStore,
+        BinaryThumbnailRepository binaryThumbnailRepository,
+        ContactRepository contactRepository,
+        TeamRepository teamRepository,
+        ApplicationEventPublisher applicationEventPublisher
+    ) {
+        this.binaryStore = binaryStore;
+        this.binaryThumbnailRepository = binaryThumbnailRepository;
+        this.contactRepository = contactRepository;
+        this.teamRepository = teamRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * Store binary content. Its thumbnails are created asynchronously once the transaction has been committed.
+     *
+     * @param content the bytes to store.
+     * @return the hash referencing the content.
+     */
+    public String store(byte[] content) {
+        String hash = binaryStore.put(content);
+        applicationEventPublisher.publishEvent(new CreateThumbnailsEvent(hash));
+        return hash;
+    }
+
+    /**
+     * Get the binary content stored under a hash.
+     *
+     * @param hash the hash referencing the content.
+     * @param contentType the content type recorded by the referencing entity.
+     * @return the content, or empty if nothing is stored under that hash.
+     */
+    @Transactional(readOnly = true)
+    public Optional<StoredBinary> find(String hash, String contentType) {
+        return binaryStore.get(hash).map(content -> new StoredBinary(hash, contentType, content));
+    }
+
+    /**
+     * Get a thumbnail of the binary content stored under a hash.
+     * If the thumbnails have not been created yet, their creation is triggered.
+     *
+     * @param hash the hash referencing the original content.
+     * @param size the size of the thumbnail.
+     * @return the thumbnail, or empty if it does not exist (yet).
+     */
+    @Transactional(readOnly = true)
+    public Optional<StoredBinary> findThumbnail(String hash, ThumbnailSize size) {
+        Optional<BinaryThumbnail> thumbnail = binaryThumbnailRepository.findOneByOriginalHashAndThumbnailSize(hash, size);
+        if (thumbnail.isEmpty()) {
+            applicationEventPublisher.publishEvent(new CreateThumbnailsEvent(hash));
+        }
+        return thumbnail.flatMap(found -> find(found.getHash(), found.getContentType()));
+    }
+
+    /**
+     * Delete the previously referenced content and its thumbnails once no contact or team references it anymore.
+     * Must be called after the referencing entity has been changed, the check flushes that change.
+     * <p>
+     * The content is locked before it is checked, so a transaction storing it concurrently either waits for its
+     * deletion and stores it again, or has its reference seen by the check.
+     *
+     * @param previousHash the hash referenced before the change, may be {@code null}.
+     * @param currentHash the hash referenced after the change, may be {@code null}.
+     */
+    public void release(String previousHash, String currentHash) {
+        if (previousHash == null || previousHash.equals(currentHash) || !binaryStore.lock(previousHash)) {
+            return;
+        }
+        if (contactRepository.existsByImageHash(previousHash) || teamRepository.existsByLogoHash(previousHash)) {
+            log.debug("BinaryContent {} is still referenced", previousHash);
+            return;
+        }
+        List<BinaryThumbnail> thumbnails = binaryThumbnailRepository.findAllByOriginalHash(previousHash);
+        binaryThumbnailRepository.deleteAll(thumbnails);
+        deleteIfUnreferenced(previousHash);
+        thumbnails
+            .stream()
+            .map(BinaryThumbnail::getHash)
+            .filter(hash -> !hash.equals(previousHash))
+            .distinct()
+            .forEach(this::deleteIfUnreferenced);
+    }
+
+    private void deleteIfUnreferenced(String hash) {
+        if (!binaryStore.lock(hash)) {
+            return;
+        }
+        if (
+            contactRepository.existsByImageHash(hash) || teamRepository.existsByLogoHash(hash) || binaryThumbnailRepository.existsByHash(hash)
+        ) {
+            log.debug("BinaryContent {} is still referenced", hash);
+            return;
+        }
+        binaryStore.delete(hash);
+    }
+}
@@ -0,0 +1,206 @@
+package com.computacenter.yocoma.service;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.service.dto.BulkItemResultDTO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for bulk requests, which saves or deletes many items of one entity in few transactions.
+ * <p>
+ * All items are validated before any of them is saved or deleted. The valid items are processed in chunks, one
+ * transaction per chunk, so their statements are sent in JDBC batches and the persistence context does not grow with
+ * the request. If a chunk fails, its items are processed again one by one, so only the failing items are reported as
+ * failed.
+ */
+@Service
+public class BulkService {
+
+    private final Logger log = LoggerFactory.getLogger(BulkService.class);
+
+    private final EntityManager entityManager;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    public BulkService(
+        EntityManager entityManager,
+        Validator validator,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = applicationProperties.getBulk().getChunkSize();
+    }
+
+    /**
+     * Validate all items, then save the valid ones in chunks.
+     *
+     * @param items the items to save.
+     * @param idGetter the getter of the id of an item, {@code null} for a new item.
+     * @param check the checks of an item in addition to its bean validation constraints, returning the errors found.
+     * @param operation the operation saving one item, called within the transaction of its chunk.
+     * @param <T> the type of the items.
+     * @return the result of each item, in the order of the items.
+     */
+    public <T> List<BulkItemResultDTO> saveAll(
+        List<T> items,
+        Function<T, Long> idGetter,
+        Function<T, List<String>> check,
+        BulkOperation<T> operation
+    ) {
+        // A rolled back chunk may have assigned ids to new items, so the requested ids are kept aside
+        Long[] requestedIds = items.stream().map(idGetter).toArray(Long[]::new);
+        BulkItemResultDTO[] results = new BulkItemResultDTO[items.size()];
+        List<Integer> valid = new ArrayList<>();
+        for (int index = 0; index < items.size(); index++) {
+            T item = items.get(index);
+            List<String> errors = validator
+                .validate(item)
+                .stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.toCollection(ArrayList::new));
+            errors.addAll(check.apply(item));
+            if (errors.isEmpty()) {
+                valid.add(index);
+            } else {
+                results[index] = BulkItemResultDTO.invalid(index, requestedIds[index], errors);
+            }
+        }
+        runInChunks(items, requestedIds, valid, results, operation);
+        log.debug("Saved {} of {} items", valid.size(), items.size());
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Check that all ids exist, then delete the existing ones in chunks.
+     *
+     * @param entityClass the entity the ids belong to.
+     * @param ids the ids of the entities to delete.
+     * @param delete the deletion of one entity, called within the transaction of its chunk.
+     * @return the result of each id, in the order of the ids.
+     */
+    public List<BulkItemResultDTO> deleteAll(Class<?> entityClass, List<Long> ids, Consumer<Long> delete) {
+        Long[] requestedIds = ids.toArray(Long[]::new);
+        BulkItemResultDTO[] results = new BulkItemResultDTO[ids.size()];
+        Set<Long> existingIds = findExistingIds(entityClass, ids);
+        List<Integer> valid = new ArrayList<>();
+        for (int index = 0; index < ids.size(); index++) {
+            Long id = ids.get(index);
+            if (id == null) {
+                results[index] = BulkItemResultDTO.invalid(index, null, List.of("id must not be null"));
+            } else if (!existingIds.contains(id)) {
+                results[index] = BulkItemResultDTO.invalid(index, id, List.of("id " + id + " does not exist"));
+            } else {
+                valid.add(index);
+            }
+        }
+        runInChunks(
+            ids,
+            requestedIds,
+            valid,
+            results,
+            (index, id, requestedId) -> {
+                delete.accept(id);
+                return BulkItemResultDTO.deleted(index, id);
+            }
+        );
+        log.debug("Deleted {} of {} items", valid.size(), ids.size());
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Run the operation on the valid items, one transaction per chunk. If a chunk fails, its items are run again one by
+     * one.
+     */
+    private <T> void runInChunks(
+        List<T> items,
+        Long[] requestedIds,
+        List<Integer> valid,
+        BulkItemResultDTO[] results,
+        BulkOperation<T> operation
+    ) {
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + chunkSize, valid.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    chunk.forEach(index -> results[index] = operation.save(index, items.get(index), requestedIds[index]))
+                );
+            } catch (RuntimeException e) {
+                log.warn("Could not process a chunk of {} items, processing them one by one: {}", chunk.size(), e.getMessage());
+                chunk.forEach(index -> results[index] = runOne(index, items.get(index), requestedIds[index], operation));
+            }
+        }
+    }
+
+    private <T> BulkItemResultDTO runOne(int index, T item, Long requestedId, BulkOperation<T> operation) {
+        try {
+            return transactionTemplate.execute(status -> operation.save(index, item, requestedId));
+        } catch (RuntimeException e) {
+            log.debug("Could not process item {} of a bulk request", index, e);
+            return BulkItemResultDTO.failed(index, requestedId, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        }
+    }
+
+    /**
+     * Find which of the given ids exist, in one query.
+     *
+     * @param entityClass the entity the ids belong to.
+     * @param ids the ids to look for, {@code null} ids are ignored.
+     * @return the ids which exist.
+     */
+    public Set<Long> findExistingIds(Class<?> entityClass, Collection<Long> ids) {
+        Set<Long> requested = ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (requested.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(
+            entityManager
+                .createQuery("select e.id from " + entityClass.getSimpleName() + " e where e.id in :ids", Long.class)
+                .setParameter("ids", requested)
+                .getResultList()
+        );
+    }
+
+    /**
+     * The saving of one item of a bulk request.
+     *
+     * @param <T> the type of the items.
+     */
+    @FunctionalInterface
+    public interface BulkOperation<T> {
+        /**
+         * Save an item, creating it if it was requested without an id.
+         *
+         * @param index the position of the item in the request.
+         * @param item the item to save.
+         * @param requestedId the id the item was requested with, which its id may no longer be.
+         * @return the result of the item.
+         */
+        BulkItemResultDTO save(int index, T item, Long requestedId);
+    }
+}
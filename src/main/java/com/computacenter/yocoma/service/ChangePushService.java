@@ -0,0 +1,112 @@
+package com.computacenter.yocoma.service;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.domain.User;
+import com.computacenter.yocoma.service.dto.PushedChangeDTO;
+import com.computacenter.yocoma.service.event.EntityChangedEvent;
+import com.computacenter.yocoma.service.push.ChangeSubscription;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Service pushing the committed changes of contacts, teams and team contacts to the subscribed clients as server-sent
+ * events, so their lists do not have to poll.
+ * <p>
+ * A change is offered to the bounded queue of every {@link ChangeSubscription} after its commit, which never waits
+ * for a client. The queues are sent by a small pool of its own, so a slow client holds a thread of that pool at most,
+ * and is told to resync once its queue overflows. The changes of other nodes are not pushed; clients catch up with
+ * them through {@code /api/_changes}.
+ */
+@Service
+public class ChangePushService implements DisposableBean {
+
+    public static final String SUBSCRIBERS_METER_NAME = "changes.push.subscribers";
+    public static final String SUBSCRIBERS_METER_DESCRIPTION = "Indicates the number of clients subscribed to the pushed changes.";
+    public static final String DROPPED_METER_NAME = "changes.push.dropped";
+    public static final String DROPPED_METER_DESCRIPTION = "Indicates changes dropped for subscribers whose queue was full.";
+
+    private final Logger log = LoggerFactory.getLogger(ChangePushService.class);
+
+    private final Set<ChangeSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    private final Counter droppedCounter;
+
+    private final int queueCapacity;
+
+    private final int maxSubscribers;
+
+    private final long timeout;
+
+    public ChangePushService(ApplicationProperties applicationProperties, MeterRegistry registry) {
+        ApplicationProperties.Push push = applicationProperties.getPush();
+        this.queueCapacity = push.getQueueCapacity();
+        this.maxSubscribers = push.getMaxSubscribers();
+        this.timeout = push.getTimeout().toMillis();
+        executor.setCorePoolSize(push.getThreads());
+        executor.setMaxPoolSize(push.getThreads());
+        executor.setThreadNamePrefix("push-");
+        executor.initialize();
+        this.droppedCounter = Counter.builder(DROPPED_METER_NAME).description(DROPPED_METER_DESCRIPTION).register(registry);
+        Gauge.builder(SUBSCRIBERS_METER_NAME, subscriptions, Set::size).description(SUBSCRIBERS_METER_DESCRIPTION).register(registry);
+    }
+
+    /**
+     * Subscribe a client to the changes committed from now on.
+     *
+     * @return the emitter of the server-sent events, or empty if the maximum number of subscribers is reached.
+     */
+    public Optional<SseEmitter> subscribe() {
+        if (subscriptions.size() >= maxSubscribers) {
+            return Optional.empty();
+        }
+        ChangeSubscription subscription = new ChangeSubscription(new SseEmitter(timeout), queueCapacity);
+        SseEmitter emitter = subscription.getEmitter();
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+        subscriptions.add(subscription);
+        log.debug("Subscribed a client to the pushed changes, {} subscribers", subscriptions.size());
+        return Optional.of(emitter);
+    }
+
+    private void unsubscribe(ChangeSubscription subscription) {
+        subscription.close();
+        subscriptions.remove(subscription);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (User.class.equals(event.getEntityType())) {
+            return;
+        }
+        PushedChangeDTO change = new PushedChangeDTO(event.getEntityType().getSimpleName(), event.getId(), event.getChangeType());
+        for (ChangeSubscription subscription : subscriptions) {
+            if (!subscription.offer(change)) {
+                droppedCounter.increment();
+            }
+            if (subscription.claimDrain()) {
+                executor.execute(subscription::drain);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        subscriptions.forEach(subscription -> subscription.getEmitter().complete());
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,254 @@
+package com.computacenter.yocoma.service;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.domain.Contact;
+import com.computacenter.yocoma.domain.EntityChange;
+import com.computacenter.yocoma.domain.Team;
+import com.computacenter.yocoma.domain.TeamContact;
+import com.computacenter.yocoma.domain.enumeration.ChangeType;
+import com.computacenter.yocoma.repository.EntityChangeRepository;
+import com.computacenter.yocoma.service.dto.EntityChangeDTO;
+import com.computacenter.yocoma.service.dto.EntityChangesDTO;
+import com.computacenter.yocoma.service.event.EntityChangedEvent;
+import com.computacenter.yocoma.service.event.RemoteChangesEvent;
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service for the changes of contacts, teams and team contacts, which lets clients sync the entities they hold
+ * instead of loading all of them again. The changes of users are recorded as well, for the other nodes only.
+ * <p>
+ * The changes of a transaction are recorded as {@link EntityChange} by the transaction itself, together right before
+ * it commits, so a change is recorded if and only if it is committed. The position of a change is taken from a counter whose row stays locked
+ * until the commit: the positions are contiguous, and no change is committed at a lower position than one a client
+ * has already seen. A sync returns the latest change of each entity since the position of the previous sync, deleted
+ * entities as tombstones. Changes older than the retention are purged.
+ * <p>
+ * Every node follows the changes committed by the other nodes, and publishes them as {@link RemoteChangesEvent} for
+ * the state it keeps of the entities.
+ */
+@Service
+@Transactional
+public class ChangeService {
+
+    /**
+     * Changes read per query when following the changes of the other nodes.
+     */
+    private static final int FOLLOW_PAGE_SIZE = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(ChangeService.class);
+
+    private final EntityChangeRepository entityChangeRepository;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final Map<String, SummaryQueryService<?, ? extends Serializable>> queryServices;
+
+    private final Duration retention;
+
+    /**
+     * The positions of the changes committed by this node which have not been followed yet. A change followed before
+     * its position is added is taken for a change of another node, which is only redundant.
+     */
+    private final NavigableSet<Long> ownPositions = new ConcurrentSkipListSet<>();
+
+    /**
+     * The position up to which the changes have been followed, guarded by this.
+     */
+    private Long followedPosition;
+
+    public ChangeService(
+        EntityChangeRepository entityChangeRepository,
+        ApplicationEventPublisher applicationEventPublisher,
+        ContactQueryService contactQueryService,
+        TeamQueryService teamQueryService,
+        TeamContactQueryService teamContactQueryService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.entityChangeRepository = entityChangeRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.queryServices =
+            Map.of(
+                Contact.class.getSimpleName(),
+                contactQueryService,
+                Team.class.getSimpleName(),
+                teamQueryService,
+                TeamContact.class.getSimpleName(),
+                teamContactQueryService
+            );
+        this.retention = applicationProperties.getChanges().getRetention();
+    }
+
+    /**
+     * Record a change when the transaction making it commits, together with the other changes of the transaction.
+     * The changes are published by the transactional services, so there always is a transaction.
+     */
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        @SuppressWarnings("unchecked")
+        List<EntityChangedEvent> pending = (List<EntityChangedEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<EntityChangedEvent> events = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, events);
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    private List<EntityChange> changes = List.of();
+
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        changes = record(events);
+                    }
+
+                    @Override
+                    public void afterCommit() {
+                        changes.forEach(change -> ownPositions.add(change.getId()));
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(ChangeService.this);
+                    }
+                }
+            );
+            pending = events;
+        }
+        pending.add(event);
+    }
+
+    /**
+     * Record changes at the following positions, in the order they have been made.
+     *
+     * @param events the changes.
+     * @return the recorded changes.
+     */
+    public List<EntityChange> record(List<EntityChangedEvent> events) {
+        log.debug("Recording {} changes", events.size());
+        // Write the changes themselves first, so the counter is locked for as short as possible
+        entityChangeRepository.flush();
+        entityChangeRepository.incrementLastPosition(events.size());
+        long position = entityChangeRepository.findLastPosition() - events.size();
+        Instant now = Instant.now();
+        List<EntityChange> changes = new ArrayList<>(events.size());
+        for (EntityChangedEvent event : events) {
+            changes.add(
+                new EntityChange()
+                    .id(++position)
+                    .entityType(event.getEntityType().getSimpleName())
+                    .entityId(event.getId())
+                    .changeType(event.getChangeType())
+                    .changedDate(now)
+            );
+        }
+        return entityChangeRepository.saveAll(changes);
+    }
+
+    /**
+     * Get the latest change of each entity changed since a sync, in the order of their positions.
+     *
+     * @param since the position of the previous sync, {@code null} for the first sync of a client, which has just
+     * loaded all entities and only needs the current position.
+     * @param size the maximum number of changes.
+     * @return the changes, with the position of the following sync.
+     * @throws ChangesPurgedException if the changes since the position have been purged.
+     */
+    @Transactional(readOnly = true)
+    public EntityChangesDTO findChanges(Long since, int size) {
+        log.debug("Request to get the changes since : {}", since);
+        // Every change up to the position read here has been committed, as the counter is locked until the commit
+        long lastPosition = entityChangeRepository.findLastPosition();
+        if (since == null) {
+            return new EntityChangesDTO(List.of(), lastPosition, false);
+        }
+        long firstPosition = entityChangeRepository.findFirstPosition().orElse(lastPosition + 1);
+        if (since > lastPosition || since < firstPosition - 1) {
+            throw new ChangesPurgedException("The changes since " + since + " are not available");
+        }
+
+        // Fetch one extra change to find out whether there are more
+        List<EntityChange> changes = entityChangeRepository.findLatestBetween(since, lastPosition, PageRequest.of(0, size + 1));
+        boolean more = changes.size() > size;
+        if (more) {
+            changes = changes.subList(0, size);
+        }
+        long nextPosition = more ? changes.get(changes.size() - 1).getId() : lastPosition;
+        // The changes of users are only followed by the other nodes
+        changes = changes.stream().filter(change -> queryServices.containsKey(change.getEntityType())).collect(Collectors.toList());
+        Map<String, Map<Long, ? extends Serializable>> summaries = changes
+            .stream()
+            .filter(change -> change.getChangeType() != ChangeType.DELETED)
+            .collect(Collectors.groupingBy(EntityChange::getEntityType, Collectors.mapping(EntityChange::getEntityId, Collectors.toList())))
+            .entrySet()
+            .stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, entry -> queryServices.get(entry.getKey()).findSummariesById(entry.getValue())));
+        List<EntityChangeDTO> content = changes
+            .stream()
+            .map(change -> {
+                Map<Long, ? extends Serializable> summariesOfType = summaries.getOrDefault(change.getEntityType(), Map.of());
+                return new EntityChangeDTO(change, summariesOfType.get(change.getEntityId()));
+            })
+            .collect(Collectors.toList());
+        return new EntityChangesDTO(content, nextPosition, more);
+    }
+
+    /**
+     * Read the changes committed by the other nodes since the previous call, and publish them as a
+     * {@link RemoteChangesEvent} if there are any.
+     */
+    @Scheduled(
+        initialDelayString = "${application.changes.follow-interval:PT5S}",
+        fixedDelayString = "${application.changes.follow-interval:PT5S}"
+    )
+    @Transactional(readOnly = true)
+    public synchronized void followChanges() {
+        // Every change up to the position read here has been committed, as the counter is locked until the commit
+        long lastPosition = entityChangeRepository.findLastPosition();
+        long firstPosition = entityChangeRepository.findFirstPosition().orElse(lastPosition + 1);
+        // Without a previous position, or if the changes since have been purged, the changes are unknown
+        boolean complete = followedPosition != null && followedPosition >= firstPosition - 1;
+        long after = complete ? followedPosition : lastPosition;
+        List<EntityChange> remoteChanges = new ArrayList<>();
+        while (after < lastPosition) {
+            List<EntityChange> changes = entityChangeRepository.findLatestBetween(after, lastPosition, PageRequest.of(0, FOLLOW_PAGE_SIZE));
+            if (changes.isEmpty()) {
+                break;
+            }
+            changes.stream().filter(change -> !ownPositions.contains(change.getId())).forEach(remoteChanges::add);
+            after = changes.get(changes.size() - 1).getId();
+        }
+        ownPositions.headSet(lastPosition, true).clear();
+        followedPosition = lastPosition;
+        if (!remoteChanges.isEmpty() || !complete) {
+            log.debug("Followed {} changes of the other nodes up to {}", remoteChanges.size(), lastPosition);
+            applicationEventPublisher.publishEvent(new RemoteChangesEvent(remoteChanges, complete));
+        }
+    }
+
+    /**
+     * Changes older than the retention are purged.
+     * <p>
+     * This is scheduled to get fired everyday, at 01:30 (am).
+     */
+    @Scheduled(cron = "0 30 1 * * ?")
+    public void removeOldChanges() {
+        entityChangeRepository
+            .findLastPositionBefore(Instant.now().minus(retention))
+            .ifPresent(position -> log.debug("Deleted {} changes up to {}", entityChangeRepository.deleteUpTo(position), position));
+    }
+}
@@ -0,0 +1,13 @@
+package com.computacenter.yocoma.service;
+
+/**
+ * Thrown when the changes since a sync are no longer, or were never, recorded, so the client has to load all entities again.
+ */
+public class ChangesPurgedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ChangesPurgedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,342 @@
+package com.computacenter.yocoma.service;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.domain.Contact;
+import com.computacenter.yocoma.domain.ContactImport;
+import com.computacenter.yocoma.domain.ContactImportRow;
+import com.computacenter.yocoma.domain.enumeration.ContactImportFormat;
+import com.computacenter.yocoma.domain.enumeration.ContactImportRowStatus;
+import com.computacenter.yocoma.domain.enumeration.ContactImportStatus;
+import com.computacenter.yocoma.repository.ContactImportRepository;
+import com.computacenter.yocoma.repository.ContactRepository;
+import com.computacenter.yocoma.service.dto.ContactImportDTO;
+import com.computacenter.yocoma.service.event.EntityChangedEvent;
+import com.computacenter.yocoma.service.importer.ContactImportStartedEvent;
+import com.computacenter.yocoma.service.importer.ContactRowReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.validation.Validator;
+import org.hibernate.search.mapper.orm.Search;
+import org.hibernate.search.mapper.orm.automaticindexing.session.AutomaticIndexingSynchronizationStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for the imports of contacts from CSV and vCard files.
+ * <p>
+ * The file is copied to a temporary file while it is uploaded, and imported on the {@code taskExecutor}, so the
+ * client polls the {@link ContactImport} for its progress. The import reads the file one row at a time and stages
+ * the rows in batches, each one validated against the constraints of {@link Contact}. The database then marks the
+ * valid rows which share their normalized email or phone with an existing contact or with a row before them as
+ * duplicates, and the other rows are created as contacts, a batch per transaction. Each batch is checked against the
+ * contacts again before it is merged, as contacts may have been created in the meantime. Neither the file nor its
+ * rows are ever held in memory at once.
+ */
+@Service
+public class ContactImportService {
+
+    /**
+     * Invalid rows reported with the progress of an import, all of them are counted.
+     */
+    private static final int MAX_REPORTED_INVALID_ROWS = 100;
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final int MAX_VALUE_LENGTH = 255;
+
+    private static final int FILE_BUFFER_SIZE = 65_536;
+
+    private final Logger log = LoggerFactory.getLogger(ContactImportService.class);
+
+    private final ContactImportRepository contactImportRepository;
+
+    private final ContactRepository contactRepository;
+
+    private final EntityManager entityManager;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final int batchSize;
+
+    private final Duration retention;
+
+    public ContactImportService(
+        ContactImportRepository contactImportRepository,
+        ContactRepository contactRepository,
+        EntityManager entityManager,
+        Validator validator,
+        PlatformTransactionManager transactionManager,
+        ApplicationEventPublisher applicationEventPublisher,
+        ApplicationProperties applicationProperties
+    ) {
+        this.contactImportRepository = contactImportRepository;
+        this.contactRepository = contactRepository;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.batchSize = applicationProperties.getContactImport().getBatchSize();
+        this.retention = applicationProperties.getContactImport().getRetention();
+    }
+
+    /**
+     * Receive the file of an import and start importing it in the background.
+     * The upload runs outside of any transaction, so it holds no database connection however long it takes.
+     *
+     * @param format the format of the file.
+     * @param charset the charset of the file.
+     * @param content the content of the file.
+     * @return the import, queued.
+     * @throws IOException if the file cannot be received.
+     */
+    public ContactImportDTO start(ContactImportFormat format, Charset charset, InputStream content) throws IOException {
+        Path file = Files.createTempFile("contact-import-", "." + format.name().toLowerCase());
+        ContactImport contactImport;
+        try {
+            Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+            contactImport = contactImportRepository.save(new ContactImport().format(format).status(ContactImportStatus.QUEUED));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        log.debug("Request to import the contacts of {} bytes of {}: {}", Files.size(file), format, contactImport);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        applicationEventPublisher.publishEvent(new ContactImportStartedEvent(contactImport.getId(), file, charset, authentication));
+        return new ContactImportDTO(contactImport, List.of());
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImportStarted(ContactImportStartedEvent event) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(event.getAuthentication());
+        SecurityContextHolder.setContext(context);
+        try {
+            run(event.getImportId(), event.getFile(), event.getCharset());
+        } finally {
+            SecurityContextHolder.clearContext();
+            try {
+                Files.deleteIfExists(event.getFile());
+            } catch (IOException e) {
+                log.warn("Could not delete the file of contact import {}: {}", event.getImportId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Get the progress of an import.
+     *
+     * @param id the id of the import.
+     * @return the import with its first invalid rows, or empty if it does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ContactImportDTO> findOne(Long id) {
+        log.debug("Request to get ContactImport : {}", id);
+        return contactImportRepository
+            .findById(id)
+            .map(contactImport ->
+                new ContactImportDTO(contactImport, contactImportRepository.findInvalidRows(id, MAX_REPORTED_INVALID_ROWS))
+            );
+    }
+
+    /**
+     * Delete the imports older than the retention, with their invalid rows.
+     * <p>
+     * This is scheduled to get fired every day, at 01:45 (am).
+     */
+    @Scheduled(cron = "0 45 1 * * ?")
+    @Transactional
+    public void removeOldImports() {
+        log.debug("Deleted {} contact imports", contactImportRepository.deleteCreatedBefore(Instant.now().minus(retention)));
+    }
+
+    private void run(long importId, Path file, Charset charset) {
+        long start = System.nanoTime();
+        try {
+            ContactImportFormat format = update(importId, contactImport -> contactImport.setStatus(ContactImportStatus.STAGING))
+                .getFormat();
+            try (
+                ContactRowReader reader = ContactRowReader.of(
+                    format,
+                    new BufferedReader(new InputStreamReader(Files.newInputStream(file), charset), FILE_BUFFER_SIZE)
+                )
+            ) {
+                stage(importId, reader);
+            }
+            update(
+                importId,
+                contactImport -> {
+                    contactImport.setStatus(ContactImportStatus.MERGING);
+                    contactImport.setDuplicateRows(contactImportRepository.markDuplicateRows(importId));
+                }
+            );
+            merge(importId);
+            ContactImport contactImport = update(
+                importId,
+                finished -> {
+                    contactImportRepository.deleteDuplicateRows(importId);
+                    finished.setStatus(ContactImportStatus.COMPLETED);
+                    finished.setFinishedDate(Instant.now());
+                }
+            );
+            log.info("Imported contact import {} in {} ms", contactImport, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not import contact import {}: {}", importId, e.getMessage());
+            String error = e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+            update(
+                importId,
+                contactImport -> {
+                    contactImport.setStatus(ContactImportStatus.FAILED);
+                    contactImport.setError(truncate(error, MAX_ERROR_LENGTH));
+                    contactImport.setFinishedDate(Instant.now());
+                }
+            );
+        }
+    }
+
+    /**
+     * Read and validate the rows of the file, and stage them a batch per transaction.
+     */
+    private void stage(long importId, ContactRowReader reader) throws IOException {
+        List<ContactImportRow> batch = new ArrayList<>(batchSize);
+        ContactImportRow row;
+        while ((row = reader.next()) != null) {
+            batch.add(validate(row));
+            if (batch.size() == batchSize) {
+                stageBatch(importId, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            stageBatch(importId, batch);
+        }
+    }
+
+    private void stageBatch(long importId, List<ContactImportRow> batch) {
+        int invalid = (int) batch.stream().filter(row -> row.getStatus() == ContactImportRowStatus.INVALID).count();
+        update(
+            importId,
+            contactImport -> {
+                contactImportRepository.insertRows(importId, batch);
+                contactImport.setReadRows(contactImport.getReadRows() + batch.size());
+                contactImport.setInvalidRows(contactImport.getInvalidRows() + invalid);
+            }
+        );
+    }
+
+    private ContactImportRow validate(ContactImportRow row) {
+        List<String> errors = validator
+            .validate(row.toContact())
+            .stream()
+            .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+            .collect(Collectors.toCollection(ArrayList::new));
+        checkLength("firstname", row.getFirstname(), errors);
+        checkLength("lastname", row.getLastname(), errors);
+        checkLength("email", row.getEmail(), errors);
+        checkLength("phone", row.getPhone(), errors);
+        checkLength("remark", row.getRemark(), errors);
+        if (errors.isEmpty()) {
+            return row.status(ContactImportRowStatus.VALID);
+        }
+        // The values of an invalid row are not staged, as they may not even fit into their columns
+        errors.sort(null);
+        return new ContactImportRow()
+            .lineNumber(row.getLineNumber())
+            .status(ContactImportRowStatus.INVALID)
+            .errors(truncate(String.join("\n", errors), MAX_ERROR_LENGTH));
+    }
+
+    private static void checkLength(String property, String value, List<String> errors) {
+        if (value != null && value.length() > MAX_VALUE_LENGTH) {
+            errors.add(property + " size must be at most " + MAX_VALUE_LENGTH);
+        }
+    }
+
+    /**
+     * Create the contacts of the valid rows which are no duplicates, a batch per transaction. The creations are
+     * published like those of the contact service, so they are recorded as changes, indexed and pushed to the clients.
+     * The rows of a batch are deleted with the creation of their contacts, so none is ever merged twice. The rows
+     * which have become duplicates of contacts created since the import was deduplicated are skipped.
+     */
+    private void merge(long importId) {
+        List<ContactImportRow> rows;
+        while (!(rows = contactImportRepository.findValidRows(importId, batchSize)).isEmpty()) {
+            List<ContactImportRow> batch = rows;
+            update(
+                importId,
+                contactImport -> {
+                    // The import does not wait for each batch to be searchable, the index catches up in the background
+                    Search
+                        .session(entityManager)
+                        .automaticIndexingSynchronizationStrategy(AutomaticIndexingSynchronizationStrategy.async());
+                    int lastLineNumber = batch.get(batch.size() - 1).getLineNumber();
+                    Set<Integer> duplicates = contactImportRepository.markDuplicateRowsOfContacts(
+                        importId,
+                        batch.get(0).getLineNumber(),
+                        lastLineNumber
+                    );
+                    List<Contact> contacts = contactRepository.saveAll(
+                        batch
+                            .stream()
+                            .filter(row -> !duplicates.contains(row.getLineNumber()))
+                            .map(ContactImportRow::toContact)
+                            .collect(Collectors.toList())
+                    );
+                    contacts.forEach(contact ->
+                        applicationEventPublisher.publishEvent(EntityChangedEvent.created(Contact.class, contact.getId(), contact))
+                    );
+                    contactImportRepository.deleteValidRows(importId, lastLineNumber);
+                    contactImport.setImportedRows(contactImport.getImportedRows() + contacts.size());
+                    contactImport.setDuplicateRows(contactImport.getDuplicateRows() + batch.size() - contacts.size());
+                }
+            );
+        }
+    }
+
+    /**
+     * Update an import within a new transaction, together with the work of a step.
+     */
+    private ContactImport update(long importId, Consumer<ContactImport> step) {
+        return transactionTemplate.execute(status -> {
+            ContactImport contactImport = contactImportRepository.findById(importId).orElseThrow();
+            step.accept(contactImport);
+            return contactImport;
+        });
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
@@ -2,10 +2,23 @@ package com.computacenter.yocoma.service;
 
 import com.computacenter.yocoma.domain.*; // for static metamodels
 import com.computacenter.yocoma.domain.Contact;
+import com.computacenter.yocoma.management.QueryPlanMetersService;
 import com.computacenter.yocoma.repository.ContactRepository;
 import com.computacenter.yocoma.service.criteria.ContactCriteria;
+import com.computacenter.yocoma.service.dto.ContactSummaryDTO;
+import com.computacenter.yocoma.service.keyset.KeysetRequest;
+import com.computacenter.yocoma.service.keyset.KeysetSlice;
+import com.computacenter.yocoma.service.search.FullTextSearch;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CompoundSelection;
+import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -13,24 +26,37 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import tech.jhipster.service.QueryService;
+import tech.jhipster.service.filter.StringFilter;
 
 /**
  * Service for executing complex queries for {@link Contact} entities in the database.
  * The main input is a {@link ContactCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
- * It returns a {@link List} of {@link Contact} or a {@link Page} of {@link Contact} which fulfills the criteria.
+ * It returns a {@link List} of {@link Contact}, or a {@link Page} or a {@link KeysetSlice} of {@link ContactSummaryDTO}
+ * which fulfills the criteria.
  */
 @Service
 @Transactional(readOnly = true)
-public class ContactQueryService extends QueryService<Contact> {
+public class ContactQueryService extends KeysetQueryService<Contact, ContactSummaryDTO> {
 
     private final Logger log = LoggerFactory.getLogger(ContactQueryService.class);
 
+    private static final Map<String, Function<ContactSummaryDTO, String>> KEYSET_PROPERTIES = Map.of("lastname", ContactSummaryDTO::getLastname, "firstname", ContactSummaryDTO::getFirstname);
+
     private final ContactRepository contactRepository;
 
-    public ContactQueryService(ContactRepository contactRepository) {
+    private final FullTextSearchService fullTextSearchService;
+
+    public ContactQueryService(
+        ContactRepository contactRepository,
+        FullTextSearchService fullTextSearchService,
+        EntityManager entityManager,
+        CountService countService,
+        QueryPlanMetersService queryPlanMetersService
+    ) {
+        super(entityManager, countService, queryPlanMetersService, Contact.class, ContactSummaryDTO.class, ContactSummaryDTO::getId);
         this.contactRepository = contactRepository;
+        this.fullTextSearchService = fullTextSearchService;
     }
 
     /**
@@ -42,24 +68,59 @@ public class ContactQueryService extends QueryService<Contact> {
     public List<Contact> findByCriteria(ContactCriteria criteria) {
         log.debug("find by criteria : {}", criteria);
         final Specification<Contact> specification = createSpecification(criteria);
-        return contactRepository.findAll(specification);
+        return contactRepository.fetchBagRelationships(contactRepository.findAll(specification));
     }
 
     /**
-     * Return a {@link Page} of {@link Contact} which matches the criteria from the database.
+     * Return a {@link Page} of {@link ContactSummaryDTO} which matches the criteria from the database.
+     * A full-text search returns a {@link com.computacenter.yocoma.service.search.SearchPage}, which may be sorted by relevance.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
-     * @return the matching entities.
+     * @return the summaries of the matching entities.
      */
     @Transactional(readOnly = true)
-    public Page<Contact> findByCriteria(ContactCriteria criteria, Pageable page) {
+    public Page<ContactSummaryDTO> findByCriteria(ContactCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
+        final Optional<FullTextSearch> search = fullTextSearch(criteria);
+        final Specification<Contact> specification = createSpecification(criteria, search);
+        if (search.isPresent()) {
+            return findSummaries(criteria, specification, search.get(), isSearchOnly(criteria), page);
+        }
+        return findSummaries(criteria, specification, page);
+    }
+
+    /**
+     * Return a {@link KeysetSlice} of {@link ContactSummaryDTO} which matches the criteria from the database.
+     * Unlike the {@link Page} variant, this does not run a count query and costs the same for every slice.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param request The sort and the position after which the slice starts.
+     * @return the summaries of the matching entities and the continuation token for the following slice.
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<ContactSummaryDTO> findByCriteria(ContactCriteria criteria, KeysetRequest request) {
+        log.debug("find by criteria : {}, keyset: {}", criteria, request);
         final Specification<Contact> specification = createSpecification(criteria);
-        return contactRepository.findAll(specification, page);
+        return findByKeyset(specification, request);
+    }
+
+    /**
+     * Pass the {@link ContactSummaryDTO} of every entity which matches the criteria to a consumer, in the order of their ids.
+     * The rows are streamed from the database, so the memory used does not depend on their number.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param consumer The consumer of each summary, e.g. the writer of an export.
+     */
+    @Transactional(readOnly = true)
+    public void exportByCriteria(ContactCriteria criteria, Consumer<ContactSummaryDTO> consumer) {
+        log.debug("export by criteria : {}", criteria);
+        // The export covers all hits of a full-text search, not only the best ranked ones
+        final Optional<FullTextSearch> search = fullTextSearch(criteria);
+        final Specification<Contact> specification = createSpecification(criteria, Optional.empty());
+        streamSummaries(specification, search, consumer);
     }
 
     /**
-     * Return the number of matching entities in the database.
+     * Return the number of matching entities in the database, cached until an entity changes.
+     * Without filters, the number may be estimated from the database statistics, see {@link CountService}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the number of matching entities.
      */
@@ -67,7 +128,27 @@ public class ContactQueryService extends QueryService<Contact> {
     public long countByCriteria(ContactCriteria criteria) {
         log.debug("count by criteria : {}", criteria);
         final Specification<Contact> specification = createSpecification(criteria);
-        return contactRepository.count(specification);
+        return estimateCount(criteria, specification);
+    }
+
+    @Override
+    protected Map<String, Function<ContactSummaryDTO, String>> getKeysetProperties() {
+        return KEYSET_PROPERTIES;
+    }
+
+    @Override
+    protected CompoundSelection<ContactSummaryDTO> selectSummary(Root<Contact> root, CriteriaBuilder cb) {
+        return cb.construct(
+            ContactSummaryDTO.class,
+            root.get(Contact_.id),
+            root.get(Contact_.firstname),
+            root.get(Contact_.lastname),
+            root.get(Contact_.email),
+            root.get(Contact_.phone),
+            root.get(Contact_.remark),
+            root.get(Contact_.imageHash),
+            root.get(Contact_.imageContentType)
+        );
     }
 
     /**
@@ -76,6 +157,16 @@ public class ContactQueryService extends QueryService<Contact> {
      * @return the matching {@link Specification} of the entity.
      */
     protected Specification<Contact> createSpecification(ContactCriteria criteria) {
+        return createSpecification(criteria, fullTextSearch(criteria));
+    }
+
+    /**
+     * Function to convert {@link ContactCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param fullTextSearch The full-text search of the criteria, whose best ranked hits the entities must be, if any.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Contact> createSpecification(ContactCriteria criteria, Optional<FullTextSearch> fullTextSearch) {
         Specification<Contact> specification = Specification.where(null);
         if (criteria != null) {
             // This has to be called first, because the distinct method returns null
@@ -111,12 +202,56 @@ public class ContactQueryService extends QueryService<Contact> {
             }
             // Build a specification for the search which covers the properties "firstname", "lastname" and "remark"
             if (criteria.getSearch() != null) {
-                var containsFirstname = buildStringSpecification(criteria.getSearch(), Contact_.firstname);
-                var containsLastname = buildStringSpecification(criteria.getSearch(), Contact_.lastname);
-                var containsRemark = buildStringSpecification(criteria.getSearch(), Contact_.remark);
-                specification = specification.and(containsFirstname.or(containsLastname).or(containsRemark));
+                specification = specification.and(buildSearchSpecification(criteria.getSearch(), fullTextSearch));
             }
         }
         return specification;
     }
+
+    /**
+     * Function to create the full-text search of the criteria. A contains-filter of the search is answered by the
+     * full-text index, which finds words by prefix and with typos.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the search of the properties "firstname", "lastname" and "remark", or empty if there is no text to search.
+     */
+    private Optional<FullTextSearch> fullTextSearch(ContactCriteria criteria) {
+        if (criteria == null || criteria.getSearch() == null || criteria.getSearch().getContains() == null) {
+            return Optional.empty();
+        }
+        return fullTextSearchService.search(
+            Contact.class,
+            criteria.getSearch().getContains(),
+            Contact_.FIRSTNAME,
+            Contact_.LASTNAME,
+            Contact_.REMARK
+        );
+    }
+
+    /**
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return whether the contains-filter of the search is the only filter of the criteria.
+     */
+    private boolean isSearchOnly(ContactCriteria criteria) {
+        ContactCriteria searchOnly = new ContactCriteria();
+        searchOnly.search().setContains(criteria.getSearch().getContains());
+        searchOnly.setDistinct(criteria.getDistinct());
+        return searchOnly.equals(criteria);
+    }
+
+    /**
+     * Function to convert the search filter to a {@link Specification}. A contains-filter is answered by the best
+     * ranked hits of the full-text search; other operators filter the columns directly.
+     * @param search The filter which covers the properties "firstname", "lastname" and "remark".
+     * @param fullTextSearch The full-text search of the contains-filter, if the entities must be its best ranked hits.
+     * @return the matching {@link Specification} of the entity, or {@code null} if there is no restriction.
+     */
+    private Specification<Contact> buildSearchSpecification(StringFilter search, Optional<FullTextSearch> fullTextSearch) {
+        if (search.getContains() != null) {
+            return fullTextSearch.map(hits -> buildIdInSpecification(hits.getBestHitIds())).orElse(null);
+        }
+        var containsFirstname = buildStringSpecification(search, Contact_.firstname);
+        var containsLastname = buildStringSpecification(search, Contact_.lastname);
+        var containsRemark = buildStringSpecification(search, Contact_.remark);
+        return containsFirstname.or(containsLastname).or(containsRemark);
+    }
 }
@@ -1,12 +1,24 @@
 package com.computacenter.yocoma.service;
 
 import com.computacenter.yocoma.domain.Contact;
+import com.computacenter.yocoma.domain.enumeration.ThumbnailSize;
 import com.computacenter.yocoma.repository.ContactRepository;
+import com.computacenter.yocoma.service.dto.BulkItemResultDTO;
+import com.computacenter.yocoma.service.event.EntityChangedEvent;
+import com.computacenter.yocoma.service.storage.StoredBinary;
+import com.computacenter.yocoma.service.version.EntityVersion;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -20,8 +32,22 @@ public class ContactService {
 
     private final ContactRepository contactRepository;
 
-    public ContactService(ContactRepository contactRepository) {
+    private final BinaryContentService binaryContentService;
+
+    private final BulkService bulkService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public ContactService(
+        ContactRepository contactRepository,
+        BinaryContentService binaryContentService,
+        BulkService bulkService,
+        ApplicationEventPublisher applicationEventPublisher
+    ) {
         this.contactRepository = contactRepository;
+        this.binaryContentService = binaryContentService;
+        this.bulkService = bulkService;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
@@ -32,7 +58,8 @@ public class ContactService {
      */
     public Contact save(Contact contact) {
         log.debug("Request to save Contact : {}", contact);
-        return contactRepository.save(contact);
+        storeImage(contact, null);
+        return publishCreated(contactRepository.save(contact));
     }
 
     /**
@@ -43,7 +70,46 @@ public class ContactService {
      */
     public Contact update(Contact contact) {
         log.debug("Request to save Contact : {}", contact);
-        return contactRepository.save(contact);
+        String previousImageHash = contactRepository.findImageHashById(contact.getId()).orElse(null);
+        Contact result = update(contact, previousImageHash);
+        return contactRepository.fetchBagRelationships(Optional.of(result)).orElse(result);
+    }
+
+    /**
+     * Save many contacts in chunks, creating the contacts without an id and updating the others.
+     *
+     * @param contacts the entities to save.
+     * @return the result of each contact, in the order of the contacts.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BulkItemResultDTO> saveAll(List<Contact> contacts) {
+        log.debug("Request to save {} Contacts", contacts.size());
+        Map<Long, String> previousImageHashes = new HashMap<>();
+        List<Long> ids = contacts.stream().map(Contact::getId).filter(Objects::nonNull).collect(Collectors.toList());
+        if (!ids.isEmpty()) {
+            contactRepository.findIdAndImageHashByIdIn(ids).forEach(row -> previousImageHashes.put((Long) row[0], (String) row[1]));
+        }
+        return bulkService.saveAll(
+            contacts,
+            Contact::getId,
+            contact ->
+                contact.getId() == null || previousImageHashes.containsKey(contact.getId())
+                    ? List.of()
+                    : List.of("id " + contact.getId() + " does not exist"),
+            (index, contact, id) -> {
+                // Keep the upload, the contact is saved again if its chunk is rolled back
+                byte[] image = contact.getImage();
+                try {
+                    contact.setId(id);
+                    if (id == null) {
+                        return BulkItemResultDTO.created(index, save(contact).getId());
+                    }
+                    return BulkItemResultDTO.updated(index, update(contact, previousImageHashes.get(id)).getId());
+                } finally {
+                    contact.setImage(image);
+                }
+            }
+        );
     }
 
     /**
@@ -55,9 +121,12 @@ public class ContactService {
     public Optional<Contact> partialUpdate(Contact contact) {
         log.debug("Request to partially update Contact : {}", contact);
 
-        return contactRepository
+        Optional<Contact> result = contactRepository
             .findById(contact.getId())
             .map(existingContact -> {
+                if (contact.getVersion() != null && !contact.getVersion().equals(existingContact.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Contact.class, contact.getId());
+                }
                 if (contact.getFirstname() != null) {
                     existingContact.setFirstname(contact.getFirstname());
                 }
@@ -74,7 +143,9 @@ public class ContactService {
                     existingContact.setRemark(contact.getRemark());
                 }
                 if (contact.getImage() != null) {
-                    existingContact.setImage(contact.getImage());
+                    String previousImageHash = existingContact.getImageHash();
+                    existingContact.setImageHash(binaryContentService.store(contact.getImage()));
+                    binaryContentService.release(previousImageHash, existingContact.getImageHash());
                 }
                 if (contact.getImageContentType() != null) {
                     existingContact.setImageContentType(contact.getImageContentType());
@@ -82,7 +153,9 @@ public class ContactService {
 
                 return existingContact;
             })
-            .map(contactRepository::save);
+            .map(contactRepository::save)
+            .map(this::publishUpdated);
+        return contactRepository.fetchBagRelationships(result);
     }
 
     /**
@@ -105,7 +178,19 @@ public class ContactService {
     @Transactional(readOnly = true)
     public Optional<Contact> findOne(Long id) {
         log.debug("Request to get Contact : {}", id);
-        return contactRepository.findById(id);
+        return contactRepository.findOneWithEagerRelationships(id);
+    }
+
+    /**
+     * Get the version of the representation of a contact, i.e. of the contact and of its team contacts and their teams.
+     *
+     * @param id the id of the entity.
+     * @return the version, or empty if the entity does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<EntityVersion> findVersion(Long id) {
+        log.debug("Request to get version of Contact : {}", id);
+        return EntityVersion.of(contactRepository.findVersionsById(id));
     }
 
     /**
@@ -115,6 +200,104 @@ public class ContactService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Contact : {}", id);
+        String imageHash = contactRepository.findImageHashById(id).orElse(null);
         contactRepository.deleteById(id);
+        applicationEventPublisher.publishEvent(EntityChangedEvent.deleted(Contact.class, id));
+        binaryContentService.release(imageHash, null);
+    }
+
+    /**
+     * Delete many contacts in chunks.
+     *
+     * @param ids the ids of the entities to delete.
+     * @return the result of each id, in the order of the ids.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BulkItemResultDTO> deleteAll(List<Long> ids) {
+        log.debug("Request to delete {} Contacts", ids.size());
+        return bulkService.deleteAll(Contact.class, ids, this::delete);
+    }
+
+    /**
+     * Get the hash of the image of a contact, which is the strong ETag of the image.
+     *
+     * @param id the id of the entity.
+     * @return the hash, or empty if the entity or its image does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> findImageHash(Long id) {
+        return contactRepository.findImageHashById(id);
+    }
+
+    /**
+     * Get the image of a contact.
+     *
+     * @param id the id of the entity.
+     * @return the image, or empty if the entity or its image does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<StoredBinary> findImage(Long id) {
+        log.debug("Request to get Image of Contact : {}", id);
+        return contactRepository
+            .findById(id)
+            .filter(contact -> contact.getImageHash() != null)
+            .flatMap(contact -> binaryContentService.find(contact.getImageHash(), contact.getImageContentType()));
+    }
+
+    /**
+     * Get a thumbnail of the image of a contact.
+     *
+     * @param id the id of the entity.
+     * @param imageHash the hash of the image the thumbnail is requested for.
+     * @param size the size of the thumbnail.
+     * @return the thumbnail, or empty if the contact has another image or the thumbnail does not exist (yet).
+     */
+    @Transactional(readOnly = true)
+    public Optional<StoredBinary> findImageThumbnail(Long id, String imageHash, ThumbnailSize size) {
+        log.debug("Request to get Image thumbnail of Contact : {}, {}", id, size);
+        return contactRepository
+            .findImageHashById(id)
+            .filter(imageHash::equals)
+            .flatMap(hash -> binaryContentService.findThumbnail(hash, size));
+    }
+
+    private Contact update(Contact contact, String previousImageHash) {
+        keepVersion(contact);
+        storeImage(contact, previousImageHash);
+        Contact result = publishUpdated(contactRepository.save(contact));
+        binaryContentService.release(previousImageHash, result.getImageHash());
+        return result;
+    }
+
+    /**
+     * Update the contact as of its current version, unless the version it was read at is given.
+     * Without a version it would be persisted as a new contact.
+     */
+    private void keepVersion(Contact contact) {
+        if (contact.getVersion() == null) {
+            contactRepository.findById(contact.getId()).map(Contact::getVersion).ifPresent(contact::setVersion);
+        }
+    }
+
+    private Contact publishCreated(Contact contact) {
+        applicationEventPublisher.publishEvent(EntityChangedEvent.created(Contact.class, contact.getId(), contact));
+        return contact;
+    }
+
+    private Contact publishUpdated(Contact contact) {
+        applicationEventPublisher.publishEvent(EntityChangedEvent.updated(Contact.class, contact.getId(), contact));
+        return contact;
+    }
+
+    /**
+     * Move an uploaded image into the binary store. Without an upload the contact can only keep the image it already has.
+     */
+    private void storeImage(Contact contact, String currentImageHash) {
+        if (contact.getImage() != null) {
+            contact.setImageHash(binaryContentService.store(contact.getImage()));
+            contact.setImage(null);
+        } else if (!Objects.equals(contact.getImageHash(), currentImageHash)) {
+            contact.setImageHash(null);
+        }
     }
 }
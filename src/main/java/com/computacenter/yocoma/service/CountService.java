@@ -0,0 +1,132 @@
+package com.computacenter.yocoma.service;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.domain.User;
+import com.computacenter.yocoma.service.event.EntityChangedEvent;
+import com.computacenter.yocoma.service.event.RemoteChangesEvent;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import javax.persistence.EntityManager;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tech.jhipster.service.Criteria;
+
+/**
+ * Service for the numbers of entities matching a criteria, behind the count endpoints and the totals of the pages.
+ * <p>
+ * The counts are cached per entity and criteria until a contact, team or team contact is saved or deleted. Every
+ * change starts a new generation of the cache keys, so a count which was running while the change was committed is
+ * never served afterwards. The changes of the other nodes clear the cache once this node follows them, other writes
+ * this node does not see show once the cached counts expire.
+ * <p>
+ * Optionally, the number of all entities of a type is estimated from the PostgreSQL planner statistics instead of
+ * counted, which is cheap regardless of the size of the table but only as accurate as the last {@code ANALYZE}.
+ */
+@Service
+public class CountService {
+
+    public static final String COUNTS_BY_CRITERIA_CACHE = "countsByCriteria";
+
+    private static final String ESTIMATE_QUERY =
+        "select cast(case when relpages > 0" +
+        " then reltuples / relpages * (pg_relation_size(oid) / cast(current_setting('block_size') as integer))" +
+        " else reltuples end as bigint) from pg_class where oid = to_regclass(?1)";
+
+    private final Logger log = LoggerFactory.getLogger(CountService.class);
+
+    private final EntityManager entityManager;
+
+    private final Cache cache;
+
+    private final boolean estimateUnfiltered;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Map<Class<?>, String> tableNames = new ConcurrentHashMap<>();
+
+    public CountService(EntityManager entityManager, CacheManager cacheManager, ApplicationProperties applicationProperties) {
+        this.entityManager = entityManager;
+        this.cache = Objects.requireNonNull(cacheManager.getCache(COUNTS_BY_CRITERIA_CACHE));
+        this.estimateUnfiltered = applicationProperties.getCount().isEstimateUnfiltered();
+    }
+
+    /**
+     * Return the cached number of entities matching a criteria, counting them if it is not cached.
+     *
+     * @param entityClass the counted entity.
+     * @param criteria the criteria the entities match.
+     * @param counter the count of the matching entities in the database.
+     * @return the number of matching entities.
+     */
+    public long count(Class<?> entityClass, Criteria criteria, LongSupplier counter) {
+        // The criteria is copied, so the key cannot change after it is cached
+        Object key = Arrays.asList(generation.get(), entityClass.getName(), criteria == null ? null : criteria.copy());
+        Long count = cache.get(key, counter::getAsLong);
+        return count == null ? counter.getAsLong() : count;
+    }
+
+    /**
+     * Estimate the number of all entities of a type from the planner statistics.
+     *
+     * @param entityClass the counted entity.
+     * @return the estimated number, or empty if estimating is disabled, the database is not PostgreSQL or the table has
+     * not been analyzed yet.
+     */
+    public OptionalLong estimate(Class<?> entityClass) {
+        if (!estimateUnfiltered) {
+            return OptionalLong.empty();
+        }
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        if (!(sessionFactory.getJdbcServices().getDialect() instanceof PostgreSQL81Dialect)) {
+            return OptionalLong.empty();
+        }
+        String tableName = tableNames.computeIfAbsent(
+            entityClass,
+            type -> ((AbstractEntityPersister) sessionFactory.getMetamodel().entityPersister(type)).getTableName()
+        );
+        Number estimate = (Number) entityManager.createNativeQuery(ESTIMATE_QUERY).setParameter(1, tableName).getSingleResult();
+        // A table which has never been analyzed has no (PostgreSQL 14+) or zero tuples (before)
+        return estimate != null && estimate.longValue() > 0 ? OptionalLong.of(estimate.longValue()) : OptionalLong.empty();
+    }
+
+    /**
+     * Forget all cached counts.
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        cache.invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (User.class.equals(event.getEntityType())) {
+            return;
+        }
+        log.debug("Clearing the cached counts after {}", event);
+        clear();
+    }
+
+    @EventListener
+    public void onRemoteChanges(RemoteChangesEvent event) {
+        // The counts are not affected by the changes of users
+        boolean usersOnly = event.getChanges().stream().allMatch(change -> User.class.getSimpleName().equals(change.getEntityType()));
+        if (event.isComplete() && usersOnly) {
+            return;
+        }
+        log.debug("Clearing the cached counts after {}", event);
+        clear();
+    }
+}
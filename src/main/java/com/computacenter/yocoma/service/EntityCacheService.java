@@ -0,0 +1,109 @@
+package com.computacenter.yocoma.service;
+
+import com.computacenter.yocoma.domain.Contact;
+import com.computacenter.yocoma.domain.EntityChange;
+import com.computacenter.yocoma.domain.Team;
+import com.computacenter.yocoma.domain.TeamContact;
+import com.computacenter.yocoma.domain.User;
+import com.computacenter.yocoma.repository.UserRepository;
+import com.computacenter.yocoma.security.DomainUserDetailsService;
+import com.computacenter.yocoma.service.event.RemoteChangesEvent;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service evicting the contacts, teams, team contacts and users changed by the other nodes from the caches of this
+ * node.
+ * <p>
+ * Each node caches the entities in memory of its own, and only evicts those it changes itself. The changes of the
+ * other nodes are evicted once this node follows them, so the cache is stale for the follow interval at most.
+ * The users are also cached by their login and email, which the changes do not tell, so these caches are cleared.
+ */
+@Service
+public class EntityCacheService {
+
+    private static final Map<String, Class<?>> ENTITY_TYPES = Map.of(
+        Contact.class.getSimpleName(),
+        Contact.class,
+        Team.class.getSimpleName(),
+        Team.class,
+        TeamContact.class.getSimpleName(),
+        TeamContact.class,
+        User.class.getSimpleName(),
+        User.class
+    );
+
+    private static final String CONTACT_TEAM_CONTACTS = Contact.class.getName() + ".teamContacts";
+
+    private static final String TEAM_TEAM_CONTACTS = Team.class.getName() + ".teamContacts";
+
+    private static final String USER_AUTHORITIES = User.class.getName() + ".authorities";
+
+    private static final List<String> USER_CACHES = List.of(
+        UserRepository.USERS_BY_LOGIN_CACHE,
+        UserRepository.USERS_BY_EMAIL_CACHE,
+        DomainUserDetailsService.USER_DETAILS_CACHE
+    );
+
+    private final Logger log = LoggerFactory.getLogger(EntityCacheService.class);
+
+    private final Cache cache;
+
+    private final CacheManager cacheManager;
+
+    public EntityCacheService(EntityManagerFactory entityManagerFactory, CacheManager cacheManager) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.cacheManager = cacheManager;
+    }
+
+    @EventListener
+    public void onRemoteChanges(RemoteChangesEvent event) {
+        if (!event.isComplete()) {
+            log.debug("Evicting all cached contacts, teams, team contacts and users");
+            ENTITY_TYPES.values().forEach(cache::evictEntityData);
+            cache.evictCollectionData(CONTACT_TEAM_CONTACTS);
+            cache.evictCollectionData(TEAM_TEAM_CONTACTS);
+            cache.evictCollectionData(USER_AUTHORITIES);
+            clearUserCaches();
+            return;
+        }
+        log.debug("Evicting the {} cached entities changed by the other nodes", event.getChanges().size());
+        boolean teamContactChanged = false;
+        boolean userChanged = false;
+        for (EntityChange change : event.getChanges()) {
+            Class<?> entityType = ENTITY_TYPES.get(change.getEntityType());
+            cache.evictEntityData(entityType, change.getEntityId());
+            if (entityType == User.class) {
+                cache.evictCollectionData(USER_AUTHORITIES, change.getEntityId());
+                userChanged = true;
+            } else if (entityType == Contact.class) {
+                cache.evictCollectionData(CONTACT_TEAM_CONTACTS, change.getEntityId());
+            } else if (entityType == Team.class) {
+                cache.evictCollectionData(TEAM_TEAM_CONTACTS, change.getEntityId());
+            } else {
+                teamContactChanged = true;
+            }
+        }
+        // The team and the contact of a deleted team contact are not known anymore
+        if (teamContactChanged) {
+            cache.evictCollectionData(CONTACT_TEAM_CONTACTS);
+            cache.evictCollectionData(TEAM_TEAM_CONTACTS);
+        }
+        if (userChanged) {
+            clearUserCaches();
+        }
+    }
+
+    private void clearUserCaches() {
+        USER_CACHES.forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
+    }
+}
@@ -0,0 +1,178 @@
+package com.computacenter.yocoma.service;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.config.Constants;
+import com.computacenter.yocoma.domain.Contact;
+import com.computacenter.yocoma.domain.EntityChange;
+import com.computacenter.yocoma.domain.Team;
+import com.computacenter.yocoma.domain.TeamContact;
+import com.computacenter.yocoma.domain.User;
+import com.computacenter.yocoma.domain.enumeration.ChangeType;
+import com.computacenter.yocoma.service.event.RemoteChangesEvent;
+import com.computacenter.yocoma.service.search.FullTextSearch;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.hibernate.search.engine.search.predicate.SearchPredicate;
+import org.hibernate.search.engine.search.predicate.dsl.BooleanPredicateClausesStep;
+import org.hibernate.search.engine.search.predicate.dsl.SearchPredicateFactory;
+import org.hibernate.search.engine.search.query.SearchQuery;
+import org.hibernate.search.mapper.orm.Search;
+import org.hibernate.search.mapper.orm.work.SearchIndexingPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for the full-text search index of {@link Contact}, {@link Team} and {@link TeamContact}.
+ * <p>
+ * The index of each node is maintained by Hibernate Search whenever the node saves or deletes an indexed entity, and
+ * with the changes of the other nodes once the node follows them.
+ * Every word of the search text has to match one of the fields, either as a whole word, as the prefix of a word
+ * or with a typo; whole words rank higher than prefixes and typos.
+ */
+@Service
+@Transactional(readOnly = true)
+public class FullTextSearchService {
+
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(Contact.class, Team.class, TeamContact.class);
+
+    private static final float WORD_BOOST = 2f;
+
+    private static final int MIN_LENGTH_FOR_ONE_TYPO = 4;
+
+    private static final int MIN_LENGTH_FOR_TWO_TYPOS = 8;
+
+    private static final int REINDEX_CHUNK_SIZE = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(FullTextSearchService.class);
+
+    private final EntityManager entityManager;
+
+    private final int maxHits;
+
+    /**
+     * The running or last build of the index, guarded by the single thread following the changes.
+     */
+    private CompletableFuture<?> reindexing;
+
+    public FullTextSearchService(EntityManager entityManager, ApplicationProperties applicationProperties) {
+        this.entityManager = entityManager;
+        this.maxHits = applicationProperties.getSearch().getMaxHits();
+    }
+
+    /**
+     * Prepare the full-text search of the entities which match a text.
+     *
+     * @param entityClass the indexed entity to search.
+     * @param text the text entered by the user.
+     * @param fields the indexed fields to search.
+     * @return the search, whose hits are best ranked first, or empty if the text contains no word to search for.
+     */
+    public Optional<FullTextSearch> search(Class<?> entityClass, String text, String... fields) {
+        List<String> words = Arrays.stream(text.trim().split("\\s+")).filter(word -> !word.isEmpty()).collect(Collectors.toList());
+        if (words.isEmpty()) {
+            return Optional.empty();
+        }
+        log.debug("Full-text search for {} '{}'", entityClass.getSimpleName(), text);
+        SearchQuery<Long> query = Search
+            .session(entityManager)
+            .search(entityClass)
+            .select(f -> f.id(Long.class))
+            .where(f -> {
+                BooleanPredicateClausesStep<?> allWords = f.bool();
+                words.forEach(word -> allWords.must(matchWord(f, word, fields)));
+                return allWords;
+            })
+            .toQuery();
+        return Optional.of(new FullTextSearch(query, maxHits));
+    }
+
+    private static SearchPredicate matchWord(SearchPredicateFactory f, String word, String... fields) {
+        String[] prefixFields = Arrays.stream(fields).map(field -> field + Constants.SEARCH_PREFIX_FIELD_SUFFIX).toArray(String[]::new);
+        BooleanPredicateClausesStep<?> anyMatch = f
+            .bool()
+            .should(f.match().fields(fields).matching(word).boost(WORD_BOOST))
+            .should(f.match().fields(prefixFields).matching(word));
+        if (word.length() >= MIN_LENGTH_FOR_ONE_TYPO) {
+            int maxEdits = word.length() >= MIN_LENGTH_FOR_TWO_TYPOS ? 2 : 1;
+            anyMatch.should(f.match().fields(fields).matching(word).fuzzy(maxEdits, 1));
+        }
+        return anyMatch.toPredicate();
+    }
+
+    /**
+     * Index the changes of the other nodes, which Hibernate Search only indexes on the node making them. If the
+     * changes are not complete, e.g. after the start of this node, all entities are indexed again.
+     */
+    @EventListener
+    public void onRemoteChanges(RemoteChangesEvent event) {
+        if (!event.isComplete()) {
+            reindex();
+            return;
+        }
+        try {
+            SearchIndexingPlan indexingPlan = Search.session(entityManager).indexingPlan();
+            Map<String, List<Long>> changedIds = new HashMap<>();
+            for (EntityChange change : event.getChanges()) {
+                if (User.class.getSimpleName().equals(change.getEntityType())) {
+                    continue;
+                }
+                if (change.getChangeType() == ChangeType.DELETED) {
+                    indexingPlan.purge(change.getEntityType(), change.getEntityId(), null);
+                } else {
+                    changedIds.computeIfAbsent(change.getEntityType(), entityType -> new ArrayList<>()).add(change.getEntityId());
+                }
+            }
+            changedIds.forEach((entityType, ids) -> {
+                // Read from the database, not from the second-level cache
+                for (int from = 0; from < ids.size(); from += REINDEX_CHUNK_SIZE) {
+                    entityManager
+                        .createQuery("select e from " + entityType + " e where e.id in :ids")
+                        .setParameter("ids", ids.subList(from, Math.min(from + REINDEX_CHUNK_SIZE, ids.size())))
+                        .getResultList()
+                        .forEach(indexingPlan::addOrUpdate);
+                }
+            });
+            indexingPlan.execute();
+            log.debug("Indexed {} changes of the other nodes", event.getChanges().size());
+        } catch (RuntimeException e) {
+            log.error("Could not index the changes of the other nodes", e);
+            reindex();
+        }
+    }
+
+    /**
+     * Index all entities again in the background. The documents are replaced one by one, so searches keep finding
+     * the entities meanwhile; those of entities deleted while this node was not following stay, but match no row.
+     */
+    private void reindex() {
+        if (reindexing != null && !reindexing.isDone()) {
+            log.debug("The full-text search index is being built already");
+            return;
+        }
+        log.info("Building the full-text search index");
+        reindexing =
+            Search
+                .session(entityManager)
+                .massIndexer(INDEXED_ENTITIES)
+                .purgeAllOnStart(false)
+                .start()
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.error("Could not build the full-text search index", e);
+                    } else {
+                        log.info("Built the full-text search index");
+                    }
+                })
+                .toCompletableFuture();
+    }
+}
@@ -0,0 +1,30 @@
+package com.computacenter.yocoma.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Utility class for the in-lists of criteria queries.
+ */
+final class InLists {
+
+    private InLists() {}
+
+    /**
+     * Pad an in-list to the next power of two by repeating its last value, so lists of similar length share a query plan.
+     *
+     * @param values the values of the in-list.
+     * @return the padded values.
+     */
+    static <X> List<X> padded(Collection<X> values) {
+        List<X> padded = new ArrayList<>(values);
+        if (!padded.isEmpty()) {
+            X last = padded.get(padded.size() - 1);
+            while (Integer.bitCount(padded.size()) != 1) {
+                padded.add(last);
+            }
+        }
+        return padded;
+    }
+}
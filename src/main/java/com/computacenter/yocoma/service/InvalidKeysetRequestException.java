@@ -0,0 +1,13 @@
+package com.computacenter.yocoma.service;
+
+/**
+ * Thrown when a keyset pagination request uses an unsupported sort or a malformed continuation token.
+ */
+public class InvalidKeysetRequestException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidKeysetRequestException(String message) {
+        super(message);
+    }
+}
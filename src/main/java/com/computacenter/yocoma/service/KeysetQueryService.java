@@ -0,0 +1,125 @@
+package com.computacenter.yocoma.service;
+
+import com.computacenter.yocoma.management.QueryPlanMetersService;
+import com.computacenter.yocoma.service.keyset.KeysetRequest;
+import com.computacenter.yocoma.service.keyset.KeysetSlice;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Base service for criteria queries of list views which, in addition to the offset based pages of summaries, supports
+ * keyset (seek) pagination.
+ * <p>
+ * A keyset slice continues after the last row of the previous slice instead of skipping an offset,
+ * so each slice costs the same no matter how deep the client has walked. No {@code count(*)} is issued.
+ *
+ * @param <ENTITY> the type of the entity which is queried.
+ * @param <SUMMARY> the type of the summary which is selected.
+ */
+public abstract class KeysetQueryService<ENTITY, SUMMARY> extends SummaryQueryService<ENTITY, SUMMARY> {
+
+    /**
+     * @param entityManager the entity manager used to run the summary queries.
+     * @param countService the service caching the counts.
+     * @param queryPlanMetersService the service creating the criteria queries and timing the compilation of their plans.
+     * @param entityClass the queried entity.
+     * @param summaryClass the selected summary.
+     * @param idGetter the accessor of the summary's {@code id}, used as tie-breaker.
+     */
+    protected KeysetQueryService(
+        EntityManager entityManager,
+        CountService countService,
+        QueryPlanMetersService queryPlanMetersService,
+        Class<ENTITY> entityClass,
+        Class<SUMMARY> summaryClass,
+        Function<SUMMARY, Long> idGetter
+    ) {
+        super(entityManager, countService, queryPlanMetersService, entityClass, summaryClass, idGetter);
+    }
+
+    /**
+     * The properties, besides {@code id}, a keyset pagination may sort by, with their accessors.
+     * The properties must be non-null strings, so that every row has a well-defined position.
+     *
+     * @return the sortable properties by name.
+     */
+    protected abstract Map<String, Function<SUMMARY, String>> getKeysetProperties();
+
+    /**
+     * Check whether a keyset pagination may sort by the given property.
+     *
+     * @param property the property name.
+     * @return true if the property is supported.
+     */
+    public boolean isKeysetProperty(String property) {
+        return KeysetRequest.ID_PROPERTY.equals(property) || getKeysetProperties().containsKey(property);
+    }
+
+    /**
+     * Return the slice of summaries of the entities which match the specification and follow the position of the request.
+     *
+     * @param specification the filter the entities must match.
+     * @param request the sort and the position to continue after.
+     * @return the matching summaries and the continuation token for the following slice.
+     * @throws InvalidKeysetRequestException if the request sorts by an unsupported property.
+     */
+    protected KeysetSlice<SUMMARY> findByKeyset(Specification<ENTITY> specification, KeysetRequest request) {
+        if (!isKeysetProperty(request.getProperty())) {
+            throw new InvalidKeysetRequestException("Unsupported keyset property: " + request.getProperty());
+        }
+        CriteriaBuilder cb = getEntityManager().getCriteriaBuilder();
+        CriteriaQuery<SUMMARY> query = summaryQuery(specification.and(seekSpecification(request)), cb);
+        Root<ENTITY> root = rootOf(query);
+        boolean ascending = request.getDirection().isAscending();
+        if (isSortedById(request)) {
+            query.orderBy(ascending ? cb.asc(root.get(KeysetRequest.ID_PROPERTY)) : cb.desc(root.get(KeysetRequest.ID_PROPERTY)));
+        } else {
+            Expression<String> key = root.get(request.getProperty());
+            query.orderBy(
+                ascending ? cb.asc(key) : cb.desc(key),
+                ascending ? cb.asc(root.get(KeysetRequest.ID_PROPERTY)) : cb.desc(root.get(KeysetRequest.ID_PROPERTY))
+            );
+        }
+
+        // Fetch one extra row to find out whether there is a following slice
+        List<SUMMARY> rows = createQuery(query).setMaxResults(request.getSize() + 1).getResultList();
+        if (rows.size() <= request.getSize()) {
+            return new KeysetSlice<>(rows, null);
+        }
+        List<SUMMARY> content = rows.subList(0, request.getSize());
+        SUMMARY last = content.get(content.size() - 1);
+        String value = isSortedById(request) ? null : getKeysetProperties().get(request.getProperty()).apply(last);
+        return new KeysetSlice<>(content, request.toToken(value, idOf(last)));
+    }
+
+    private Specification<ENTITY> seekSpecification(KeysetRequest request) {
+        return (root, query, cb) -> {
+            if (request.isFirst()) {
+                return null;
+            }
+            boolean ascending = request.getDirection().isAscending();
+            Expression<Long> id = root.get(KeysetRequest.ID_PROPERTY);
+            Predicate afterId = ascending ? cb.greaterThan(id, request.getAfterId()) : cb.lessThan(id, request.getAfterId());
+            if (isSortedById(request)) {
+                return afterId;
+            }
+            Expression<String> key = root.get(request.getProperty());
+            Predicate afterKey = ascending
+                ? cb.greaterThan(key, request.getAfterValue())
+                : cb.lessThan(key, request.getAfterValue());
+            return cb.or(afterKey, cb.and(cb.equal(key, request.getAfterValue()), afterId));
+        };
+    }
+
+    private static boolean isSortedById(KeysetRequest request) {
+        return KeysetRequest.ID_PROPERTY.equals(request.getProperty());
+    }
+}
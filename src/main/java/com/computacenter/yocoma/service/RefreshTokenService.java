@@ -0,0 +1,231 @@
+package com.computacenter.yocoma.service;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.domain.RefreshToken;
+import com.computacenter.yocoma.domain.User;
+import com.computacenter.yocoma.repository.RefreshTokenRepository;
+import com.computacenter.yocoma.repository.RevokedTokenRepository;
+import com.computacenter.yocoma.repository.UserRepository;
+import com.computacenter.yocoma.security.jwt.TokenProvider;
+import com.computacenter.yocoma.security.jwt.TokenRevocations;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service issuing the short-lived access tokens together with the rotating refresh tokens renewing them.
+ * <p>
+ * A refresh token renews the access token once, and is replaced by a new refresh token of its family. Using it again
+ * means it has been stolen, so the whole family is revoked, with the access tokens issued by it. The refresh tokens are
+ * valid for the {@code jhipster.security.authentication.jwt} token validities, and each renewal starts them again.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final UserRepository userRepository;
+
+    private final UserDetailsService userDetailsService;
+
+    private final TokenProvider tokenProvider;
+
+    private final TokenRevocations tokenRevocations;
+
+    private final Duration accessTokenValidity;
+
+    private final Duration validity;
+
+    private final Duration validityForRememberMe;
+
+    public RefreshTokenService(
+        RefreshTokenRepository refreshTokenRepository,
+        RevokedTokenRepository revokedTokenRepository,
+        UserRepository userRepository,
+        UserDetailsService userDetailsService,
+        TokenProvider tokenProvider,
+        TokenRevocations tokenRevocations,
+        ApplicationProperties applicationProperties,
+        JHipsterProperties jHipsterProperties
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
+        this.tokenProvider = tokenProvider;
+        this.tokenRevocations = tokenRevocations;
+        this.accessTokenValidity = applicationProperties.getSecurity().getJwt().getAccessTokenValidity();
+        JHipsterProperties.Security.Authentication.Jwt jwt = jHipsterProperties.getSecurity().getAuthentication().getJwt();
+        this.validity = Duration.ofSeconds(jwt.getTokenValidityInSeconds());
+        this.validityForRememberMe = Duration.ofSeconds(jwt.getTokenValidityInSecondsForRememberMe());
+    }
+
+    /**
+     * Issue the tokens of a user who has logged in, starting a new family of refresh tokens.
+     *
+     * @param authentication the authentication of the user.
+     * @param rememberMe whether the user is remembered beyond the session.
+     * @return the access and refresh tokens.
+     */
+    public Tokens issue(Authentication authentication, boolean rememberMe) {
+        User user = userRepository
+            .findOneByLogin(authentication.getName())
+            .orElseThrow(() -> new BadCredentialsException("User " + authentication.getName() + " not found"));
+        return issue(authentication, user, rememberMe, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Renew the tokens of a user with a refresh token, which is replaced by the new one.
+     *
+     * @param refreshToken the refresh token presented by the client.
+     * @return the new access and refresh tokens.
+     * @throws BadCredentialsException if the refresh token is unknown, expired or used before.
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Tokens refresh(String refreshToken) {
+        Instant now = Instant.now();
+        RefreshToken token = refreshTokenRepository
+            .findOneByTokenHash(hash(refreshToken))
+            .orElseThrow(() -> new BadCredentialsException("Unknown refresh token"));
+        if (token.getUsedDate() != null || refreshTokenRepository.markUsed(token.getId(), now) == 0) {
+            log.warn("Refresh token of {} used twice, revoking its family {}", token.getUser().getLogin(), token.getFamily());
+            revokeFamily(token.getFamily());
+            throw new BadCredentialsException("Refresh token used before");
+        }
+        if (token.getExpiresDate().isBefore(now)) {
+            throw new BadCredentialsException("Expired refresh token");
+        }
+        // The user may have been deactivated or have lost authorities since
+        UserDetails userDetails = userDetailsService.loadUserByUsername(token.getUser().getLogin());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+            userDetails.getUsername(),
+            null,
+            userDetails.getAuthorities()
+        );
+        return issue(authentication, token.getUser(), token.isRememberMe(), token.getFamily());
+    }
+
+    /**
+     * Log out the session of a refresh token, revoking its family and the access tokens issued by it.
+     *
+     * @param refreshToken the refresh token presented by the client.
+     */
+    public void logout(String refreshToken) {
+        refreshTokenRepository.findOneByTokenHash(hash(refreshToken)).ifPresent(token -> revokeFamily(token.getFamily()));
+    }
+
+    /**
+     * Log out all sessions of a user.
+     *
+     * @param login the login of the user.
+     */
+    public void logoutAll(String login) {
+        revoke(refreshTokenRepository.findAllByUserLogin(login));
+    }
+
+    /**
+     * Expired refresh tokens and revoked tokens should be automatically deleted.
+     * <p>
+     * This is scheduled to get fired every day, at 02:00 (am).
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    public void removeExpiredTokens() {
+        Instant now = Instant.now();
+        log.debug("Deleted {} refresh tokens", refreshTokenRepository.deleteExpired(now));
+        log.debug("Deleted {} revoked tokens", revokedTokenRepository.deleteExpired(now));
+    }
+
+    private Tokens issue(Authentication authentication, User user, boolean rememberMe, String family) {
+        Instant now = Instant.now();
+        String accessTokenId = UUID.randomUUID().toString();
+        String accessToken = tokenProvider.createToken(authentication, rememberMe, accessTokenId);
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(
+            new RefreshToken()
+                .tokenHash(hash(refreshToken))
+                .family(family)
+                .user(user)
+                .rememberMe(rememberMe)
+                .accessTokenId(accessTokenId)
+                .createdDate(now)
+                .expiresDate(now.plus(rememberMe ? validityForRememberMe : validity))
+        );
+        return new Tokens(accessToken, refreshToken);
+    }
+
+    private void revokeFamily(String family) {
+        revoke(refreshTokenRepository.findAllByFamily(family));
+    }
+
+    private void revoke(List<RefreshToken> tokens) {
+        Instant now = Instant.now();
+        for (RefreshToken token : tokens) {
+            // At most as valid as the access tokens, the validity of the JHipster settings may be shorter
+            Instant accessTokenExpiresDate = token.getCreatedDate().plus(accessTokenValidity);
+            if (accessTokenExpiresDate.isAfter(now)) {
+                tokenRevocations.revoke(token.getAccessTokenId(), accessTokenExpiresDate);
+            }
+        }
+        refreshTokenRepository.deleteAll(tokens);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * An access token and the refresh token renewing it.
+     */
+    public static final class Tokens {
+
+        private final String accessToken;
+
+        private final String refreshToken;
+
+        private Tokens(String accessToken, String refreshToken) {
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+        }
+
+        public String getAccessToken() {
+            return accessToken;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.computacenter.yocoma.service;
+
+import com.computacenter.yocoma.domain.Contact;
+import com.computacenter.yocoma.domain.EntityChange;
+import com.computacenter.yocoma.domain.Team;
+import com.computacenter.yocoma.domain.TeamContact;
+import com.computacenter.yocoma.domain.enumeration.ChangeType;
+import com.computacenter.yocoma.service.dto.SuggestionDTO;
+import com.computacenter.yocoma.service.event.EntityChangedEvent;
+import com.computacenter.yocoma.service.event.RemoteChangesEvent;
+import com.computacenter.yocoma.service.suggest.SuggestionIndex;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service for typeahead suggestions of contacts, teams and team contact roles.
+ * <p>
+ * The suggestions are answered from in-memory indexes, which are built on startup and kept up to date with the
+ * committed changes of the entities, those of this node as they are made and those of the other nodes as they are
+ * followed. The changes made while the indexes are built again are applied to the new indexes as well.
+ */
+@Service
+public class SuggestService {
+
+    private static final Map<String, Class<?>> ENTITY_TYPES = Map.of(
+        Contact.class.getSimpleName(),
+        Contact.class,
+        Team.class.getSimpleName(),
+        Team.class,
+        TeamContact.class.getSimpleName(),
+        TeamContact.class
+    );
+
+    /**
+     * Changed entities read per query when following the changes of the other nodes.
+     */
+    private static final int REREAD_CHUNK_SIZE = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(SuggestService.class);
+
+    private final EntityManager entityManager;
+
+    private final Object rebuildLock = new Object();
+
+    private volatile Indexes indexes = new Indexes();
+
+    /**
+     * The changes applied while the indexes are built again, to be applied to the new indexes too, guarded by this.
+     */
+    private List<IndexChange> changesDuringRebuild;
+
+    public SuggestService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Suggest contacts by their firstname, lastname and email.
+     *
+     * @param text the text entered by the user.
+     * @param limit the maximum number of suggestions.
+     * @return the best suggestions, labelled "lastname, firstname".
+     */
+    public List<SuggestionDTO> suggestContacts(String text, int limit) {
+        return indexes.contacts.suggest(text, limit);
+    }
+
+    /**
+     * Suggest teams by their name.
+     *
+     * @param text the text entered by the user.
+     * @param limit the maximum number of suggestions.
+     * @return the best suggestions, labelled with the name.
+     */
+    public List<SuggestionDTO> suggestTeams(String text, int limit) {
+        return indexes.teams.suggest(text, limit);
+    }
+
+    /**
+     * Suggest the roles already used by team contacts.
+     *
+     * @param text the text entered by the user.
+     * @param limit the maximum number of suggestions.
+     * @return the best suggestions, each role once and without an id.
+     */
+    public List<SuggestionDTO> suggestRoles(String text, int limit) {
+        return indexes.roles.suggest(text, limit);
+    }
+
+    /**
+     * Build the indexes from the database.
+     * <p>
+     * The changes applied meanwhile are applied to the new indexes before they replace the current ones, as the
+     * database may have been read before they were committed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changesDuringRebuild = new ArrayList<>();
+            }
+            Indexes newIndexes = new Indexes();
+            for (Class<?> entityType : ENTITY_TYPES.values()) {
+                queryOf(entityType, "").getResultStream().forEach(row -> changeOf(entityType, row).applyTo(newIndexes));
+            }
+            int replayed;
+            synchronized (this) {
+                changesDuringRebuild.forEach(change -> change.applyTo(newIndexes));
+                replayed = changesDuringRebuild.size();
+                changesDuringRebuild = null;
+                indexes = newIndexes;
+            }
+            log.info(
+                "Built the suggestion indexes of {} contacts, {} teams and {} team contacts, with {} changes made meanwhile",
+                newIndexes.contacts.size(),
+                newIndexes.teams.size(),
+                newIndexes.roles.size(),
+                replayed
+            );
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!ENTITY_TYPES.containsValue(event.getEntityType())) {
+            return;
+        }
+        log.debug("Updating the suggestion indexes for {}", event);
+        if (event.getChangeType() == ChangeType.DELETED) {
+            apply(List.of(IndexChange.remove(event.getEntityType(), event.getId())));
+        } else if (event.getEntity() instanceof Contact) {
+            Contact contact = (Contact) event.getEntity();
+            apply(List.of(contactChange(contact.getId(), contact.getFirstname(), contact.getLastname(), contact.getEmail())));
+        } else if (event.getEntity() instanceof Team) {
+            Team team = (Team) event.getEntity();
+            apply(List.of(teamChange(team.getId(), team.getName())));
+        } else if (event.getEntity() instanceof TeamContact) {
+            TeamContact teamContact = (TeamContact) event.getEntity();
+            apply(List.of(roleChange(teamContact.getId(), teamContact.getRole())));
+        }
+    }
+
+    /**
+     * Update the indexes with the changes of the other nodes, read again from the database. If the changes are not
+     * complete, e.g. after the start of this node, the indexes are built again.
+     */
+    @EventListener
+    public void onRemoteChanges(RemoteChangesEvent event) {
+        if (!event.isComplete()) {
+            rebuild();
+            return;
+        }
+        Map<Class<?>, Set<Long>> changedIds = new HashMap<>();
+        for (EntityChange change : event.getChanges()) {
+            Class<?> entityType = ENTITY_TYPES.get(change.getEntityType());
+            if (entityType != null) {
+                changedIds.computeIfAbsent(entityType, type -> new HashSet<>()).add(change.getEntityId());
+            }
+        }
+        if (changedIds.isEmpty()) {
+            return;
+        }
+        List<IndexChange> changes = new ArrayList<>();
+        changedIds.forEach((entityType, ids) -> {
+            List<Long> idList = new ArrayList<>(ids);
+            for (int from = 0; from < idList.size(); from += REREAD_CHUNK_SIZE) {
+                queryOf(entityType, " where e.id in :ids")
+                    .setParameter("ids", idList.subList(from, Math.min(from + REREAD_CHUNK_SIZE, idList.size())))
+                    .getResultStream()
+                    .forEach(row -> {
+                        ids.remove((Long) row[0]);
+                        changes.add(changeOf(entityType, row));
+                    });
+            }
+            // Not found, so deleted
+            ids.forEach(id -> changes.add(IndexChange.remove(entityType, id)));
+        });
+        apply(changes);
+        log.debug("Updated the suggestion indexes for {} changes of the other nodes", event.getChanges().size());
+    }
+
+    private synchronized void apply(List<IndexChange> changes) {
+        Indexes current = indexes;
+        changes.forEach(change -> change.applyTo(current));
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.addAll(changes);
+        }
+    }
+
+    /**
+     * Query the indexed properties of an entity type, the id first, in the order {@link #changeOf} reads them.
+     */
+    private TypedQuery<Object[]> queryOf(Class<?> entityType, String where) {
+        String properties = "e.id, e.role";
+        if (Contact.class.equals(entityType)) {
+            properties = "e.id, e.firstname, e.lastname, e.email";
+        } else if (Team.class.equals(entityType)) {
+            properties = "e.id, e.name";
+        }
+        return entityManager.createQuery("select " + properties + " from " + entityType.getSimpleName() + " e" + where, Object[].class);
+    }
+
+    private static IndexChange changeOf(Class<?> entityType, Object[] row) {
+        if (Contact.class.equals(entityType)) {
+            return contactChange((Long) row[0], (String) row[1], (String) row[2], (String) row[3]);
+        }
+        if (Team.class.equals(entityType)) {
+            return teamChange((Long) row[0], (String) row[1]);
+        }
+        return roleChange((Long) row[0], (String) row[1]);
+    }
+
+    private static IndexChange contactChange(Long id, String firstname, String lastname, String email) {
+        return IndexChange.put(Contact.class, id, lastname + ", " + firstname, firstname, lastname, email);
+    }
+
+    private static IndexChange teamChange(Long id, String name) {
+        return IndexChange.put(Team.class, id, name, name);
+    }
+
+    private static IndexChange roleChange(Long id, String role) {
+        return IndexChange.put(TeamContact.class, id, role, role);
+    }
+
+    /**
+     * The indexes of the contacts, teams and team contact roles, replaced together when they are built again.
+     */
+    private static final class Indexes {
+
+        private final SuggestionIndex contacts = new SuggestionIndex(false);
+
+        private final SuggestionIndex teams = new SuggestionIndex(false);
+
+        private final SuggestionIndex roles = new SuggestionIndex(true);
+
+        private SuggestionIndex of(Class<?> entityType) {
+            if (Contact.class.equals(entityType)) {
+                return contacts;
+            }
+            if (Team.class.equals(entityType)) {
+                return teams;
+            }
+            return roles;
+        }
+    }
+
+    /**
+     * An entry put into or removed from the index of its entity type, which can be applied to other indexes again.
+     */
+    private static final class IndexChange {
+
+        private final Class<?> entityType;
+
+        private final Long id;
+
+        private final String label;
+
+        private final String[] terms;
+
+        private IndexChange(Class<?> entityType, Long id, String label, String[] terms) {
+            this.entityType = entityType;
+            this.id = id;
+            this.label = label;
+            this.terms = terms;
+        }
+
+        private static IndexChange put(Class<?> entityType, Long id, String label, String... terms) {
+            return new IndexChange(entityType, id, label, terms);
+        }
+
+        private static IndexChange remove(Class<?> entityType, Long id) {
+            return new IndexChange(entityType, id, null, null);
+        }
+
+        private void applyTo(Indexes indexes) {
+            if (terms == null) {
+                indexes.of(entityType).remove(id);
+            } else {
+                indexes.of(entityType).put(id, label, terms);
+            }
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.computacenter.yocoma.service;
+
+import com.computacenter.yocoma.management.QueryPlanMetersService;
+import com.computacenter.yocoma.service.search.FullTextSearch;
+import com.computacenter.yocoma.service.search.SearchPage;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CompoundSelection;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Base service for criteria queries of list views, which select summaries instead of entities.
+ * <p>
+ * A summary is a DTO built by a constructor expression from the columns a list renders, so the query neither
+ * loads the entity with its relationships into the persistence context nor reads the columns the list does not show.
+ * <p>
+ * The counts of the pages and of the count endpoints are cached by the {@link CountService}.
+ * <p>
+ * A {@link FullTextSearch} restricts the pages to its best ranked hits, and can order them by rank instead. Exports
+ * cover all of its hits.
+ * <p>
+ * The values of the filters are bound as parameters ({@code hibernate.criteria.literal_handling_mode: bind}) and
+ * in-lists are padded by {@link InLists}, so the JPQL a query is rendered to depends on the shape of the criteria -
+ * which filters and operators are present - but not on their values. Hibernate compiles the plan of each shape once,
+ * caches it by its JPQL and binds the values on reuse; the queries are created through the {@link QueryPlanMetersService},
+ * which measures how often and how long the compilation takes.
+ *
+ * @param <ENTITY> the type of the entity which is queried.
+ * @param <SUMMARY> the type of the summary which is selected.
+ */
+public abstract class SummaryQueryService<ENTITY, SUMMARY> extends QueryService<ENTITY> {
+
+    private static final String ID_PROPERTY = "id";
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    private final CountService countService;
+
+    private final QueryPlanMetersService queryPlanMetersService;
+
+    private final Class<ENTITY> entityClass;
+
+    private final Class<SUMMARY> summaryClass;
+
+    private final Function<SUMMARY, Long> idGetter;
+
+    /**
+     * @param entityManager the entity manager used to run the summary queries.
+     * @param countService the service caching the counts.
+     * @param queryPlanMetersService the service creating the criteria queries and timing the compilation of their plans.
+     * @param entityClass the queried entity.
+     * @param summaryClass the selected summary.
+     * @param idGetter the accessor of the summary's {@code id}.
+     */
+    protected SummaryQueryService(
+        EntityManager entityManager,
+        CountService countService,
+        QueryPlanMetersService queryPlanMetersService,
+        Class<ENTITY> entityClass,
+        Class<SUMMARY> summaryClass,
+        Function<SUMMARY, Long> idGetter
+    ) {
+        this.entityManager = entityManager;
+        this.countService = countService;
+        this.queryPlanMetersService = queryPlanMetersService;
+        this.entityClass = entityClass;
+        this.summaryClass = summaryClass;
+        this.idGetter = idGetter;
+    }
+
+    /**
+     * The constructor expression of the summary.
+     *
+     * @param root the root of the query.
+     * @param cb the criteria builder.
+     * @return the selection building a summary from the columns of a row.
+     */
+    protected abstract CompoundSelection<SUMMARY> selectSummary(Root<ENTITY> root, CriteriaBuilder cb);
+
+    /**
+     * Return the page of summaries of the entities which match the specification.
+     *
+     * @param criteria the criteria the specification was created from, the key of the cached count.
+     * @param specification the filter the entities must match.
+     * @param pageable the page and its sort.
+     * @return the matching summaries.
+     */
+    protected Page<SUMMARY> findSummaries(Criteria criteria, Specification<ENTITY> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SUMMARY> query = summaryQuery(specification, cb);
+        Root<ENTITY> root = rootOf(query);
+        // Without a search, there is no rank to sort by
+        Sort sort = Sort.by(
+            pageable.getSort().filter(order -> !FullTextSearch.RELEVANCE_PROPERTY.equals(order.getProperty())).toList()
+        );
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        List<SUMMARY> content = createQuery(query)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(criteria, specification));
+    }
+
+    /**
+     * Return the page of summaries of the entities which match the specification and a full-text search.
+     * <p>
+     * A page sorted by {@link FullTextSearch#RELEVANCE_PROPERTY} is in the order of the rank of the hits. If the search
+     * is the only filter, the page and its total are read from the index and cover all hits; otherwise they are taken
+     * from the best ranked hits which match the other filters. Pages sorted otherwise are sorted by the database,
+     * among the best ranked hits.
+     *
+     * @param criteria the criteria the specification was created from, the key of the cached count.
+     * @param specification the filter the entities must match, including the best ranked hits of the search.
+     * @param search the full-text search of the criteria.
+     * @param searchOnly whether the search is the only filter of the criteria.
+     * @param pageable the page and its sort.
+     * @return the matching summaries, which tell whether they only cover the best ranked hits.
+     */
+    protected SearchPage<SUMMARY> findSummaries(
+        Criteria criteria,
+        Specification<ENTITY> specification,
+        FullTextSearch search,
+        boolean searchOnly,
+        Pageable pageable
+    ) {
+        if (pageable.getSort().getOrderFor(FullTextSearch.RELEVANCE_PROPERTY) == null) {
+            Page<SUMMARY> page = findSummaries(criteria, specification, pageable);
+            return new SearchPage<>(page.getContent(), pageable, page.getTotalElements(), search.isTruncated());
+        }
+        if (searchOnly) {
+            Page<Long> hits = search.fetchHitIds(pageable);
+            return new SearchPage<>(findSummariesInOrder(hits.getContent()), pageable, hits.getTotalElements(), false);
+        }
+        Set<Long> matchingIds = new HashSet<>(findIds(specification));
+        List<Long> rankedIds = search.getBestHitIds().stream().filter(matchingIds::contains).collect(Collectors.toList());
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        List<Long> pageIds = rankedIds.subList(from, Math.min(from + pageable.getPageSize(), rankedIds.size()));
+        return new SearchPage<>(findSummariesInOrder(pageIds), pageable, rankedIds.size(), search.isTruncated());
+    }
+
+    /**
+     * Return the number of entities which match the specification, from the cache if it has been counted before.
+     *
+     * @param criteria the criteria the specification was created from, the key of the cached count.
+     * @param specification the filter the entities must match.
+     * @return the number of matching entities.
+     */
+    protected long count(Criteria criteria, Specification<ENTITY> specification) {
+        return countService.count(entityClass, criteria, () -> count(specification));
+    }
+
+    /**
+     * Return the number of entities which match the specification like {@link #count(Criteria, Specification)},
+     * except that the number of all entities is estimated if the {@link CountService} is configured to.
+     *
+     * @param criteria the criteria the specification was created from, the key of the cached count.
+     * @param specification the filter the entities must match.
+     * @return the (estimated) number of matching entities.
+     */
+    protected long estimateCount(Criteria criteria, Specification<ENTITY> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        if (specification.toPredicate(query.from(entityClass), query, cb) == null) {
+            OptionalLong estimate = countService.estimate(entityClass);
+            if (estimate.isPresent()) {
+                return estimate.getAsLong();
+            }
+        }
+        return count(criteria, specification);
+    }
+
+    private long count(Specification<ENTITY> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<ENTITY> root = query.from(entityClass);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        return createQuery(query).getSingleResult();
+    }
+
+    /**
+     * @return the entity manager running the summary queries.
+     */
+    protected EntityManager getEntityManager() {
+        return entityManager;
+    }
+
+    /**
+     * Create a criteria query, with the compilation of its plan metered.
+     *
+     * @param query the criteria query.
+     * @param <T> the type of the results.
+     * @return the query.
+     */
+    protected <T> TypedQuery<T> createQuery(CriteriaQuery<T> query) {
+        return queryPlanMetersService.createQuery(entityManager, query);
+    }
+
+    /**
+     * @param summary a summary.
+     * @return the id of the entity of the summary.
+     */
+    protected Long idOf(SUMMARY summary) {
+        return idGetter.apply(summary);
+    }
+
+    /**
+     * Return the summaries of the entities with the given ids, e.g. of the entities changed since a sync.
+     *
+     * @param ids the ids of the entities.
+     * @return the summaries of the existing entities by id.
+     */
+    public Map<Long, SUMMARY> findSummariesById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        return createQuery(summaryQuery(buildIdInSpecification(ids), cb))
+            .getResultStream()
+            .collect(Collectors.toMap(idGetter, Function.identity()));
+    }
+
+    /**
+     * Pass the summaries of all entities which match the specification and all hits of a full-text search, ordered by
+     * id, to a consumer, e.g. to export them. The hits are read from the index at once, and the rows in chunks of them.
+     *
+     * @param specification the filter the entities must match, without the hits of the search.
+     * @param search the full-text search of the criteria, if it has one.
+     * @param consumer the consumer of each summary.
+     */
+    protected void streamSummaries(Specification<ENTITY> specification, Optional<FullTextSearch> search, Consumer<SUMMARY> consumer) {
+        if (search.isEmpty()) {
+            streamSummaries(specification, consumer);
+            return;
+        }
+        List<Long> ids = search.get().fetchAllHitIds();
+        ids.sort(null);
+        for (int from = 0; from < ids.size(); from += STREAM_FETCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + STREAM_FETCH_SIZE, ids.size()));
+            streamSummaries(specification.and(buildIdInSpecification(chunk)), consumer);
+        }
+    }
+
+    /**
+     * Pass the summaries of all entities which match the specification, ordered by id, to a consumer, e.g. to export them.
+     * <p>
+     * The rows are read from a forward-only cursor with a fixed fetch size, so neither the result nor the persistence
+     * context grows with the number of rows. Must run within a transaction, which keeps the cursor open.
+     *
+     * @param specification the filter the entities must match.
+     * @param consumer the consumer of each summary.
+     */
+    protected void streamSummaries(Specification<ENTITY> specification, Consumer<SUMMARY> consumer) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SUMMARY> query = summaryQuery(specification, cb);
+        query.orderBy(cb.asc(rootOf(query).get(ID_PROPERTY)));
+        @SuppressWarnings("unchecked")
+        org.hibernate.query.Query<SUMMARY> hibernateQuery = createQuery(query).unwrap(org.hibernate.query.Query.class);
+        try (Stream<SUMMARY> rows = hibernateQuery.setFetchSize(STREAM_FETCH_SIZE).setReadOnly(true).stream()) {
+            rows.forEach(consumer);
+        }
+    }
+
+    private List<SUMMARY> findSummariesInOrder(List<Long> ids) {
+        Map<Long, SUMMARY> summaries = findSummariesById(ids);
+        return ids.stream().map(summaries::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private List<Long> findIds(Specification<ENTITY> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<ENTITY> root = query.from(entityClass);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root.get(ID_PROPERTY));
+        return createQuery(query).getResultList();
+    }
+
+    /**
+     * Restrict the entities to the given ids, e.g. the hits of a full-text search.
+     *
+     * @param ids the ids of the entities to keep.
+     * @return the {@link Specification} which matches no entity if there are no ids.
+     */
+    protected Specification<ENTITY> buildIdInSpecification(Collection<Long> ids) {
+        return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get(ID_PROPERTY).in(InLists.padded(ids));
+    }
+
+    @Override
+    protected <X> Specification<ENTITY> valueIn(Function<Root<ENTITY>, Expression<X>> metaclassFunction, Collection<X> values) {
+        return super.valueIn(metaclassFunction, InLists.padded(values));
+    }
+
+    @Override
+    protected <X> Specification<ENTITY> valueNotIn(Function<Root<ENTITY>, Expression<X>> metaclassFunction, Collection<X> values) {
+        return super.valueNotIn(metaclassFunction, InLists.padded(values));
+    }
+
+    /**
+     * Create the query of the summaries of the entities which match the specification.
+     *
+     * @param specification the filter the entities must match.
+     * @param cb the criteria builder.
+     * @return the query, without order.
+     */
+    protected CriteriaQuery<SUMMARY> summaryQuery(Specification<ENTITY> specification, CriteriaBuilder cb) {
+        CriteriaQuery<SUMMARY> query = cb.createQuery(summaryClass);
+        Root<ENTITY> root = query.from(entityClass);
+        query.select(selectSummary(root, cb));
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return query;
+    }
+
+    /**
+     * @param query a query created by {@link #summaryQuery(Specification, CriteriaBuilder)}.
+     * @return the root of the query.
+     */
+    @SuppressWarnings("unchecked")
+    protected Root<ENTITY> rootOf(CriteriaQuery<SUMMARY> query) {
+        return (Root<ENTITY>) query.getRoots().iterator().next();
+    }
+
+}
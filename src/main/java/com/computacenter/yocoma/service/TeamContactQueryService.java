@@ -2,10 +2,24 @@ package com.computacenter.yocoma.service;
 
 import com.computacenter.yocoma.domain.*; // for static metamodels
 import com.computacenter.yocoma.domain.TeamContact;
+import com.computacenter.yocoma.management.QueryPlanMetersService;
 import com.computacenter.yocoma.repository.TeamContactRepository;
 import com.computacenter.yocoma.service.criteria.TeamContactCriteria;
+import com.computacenter.yocoma.service.dto.TeamContactSummaryDTO;
+import com.computacenter.yocoma.service.keyset.KeysetRequest;
+import com.computacenter.yocoma.service.keyset.KeysetSlice;
+import com.computacenter.yocoma.service.search.FullTextSearch;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CompoundSelection;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -13,24 +27,37 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import tech.jhipster.service.QueryService;
+import tech.jhipster.service.filter.StringFilter;
 
 /**
  * Service for executing complex queries for {@link TeamContact} entities in the database.
  * The main input is a {@link TeamContactCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
- * It returns a {@link List} of {@link TeamContact} or a {@link Page} of {@link TeamContact} which fulfills the criteria.
+ * It returns a {@link List} of {@link TeamContact}, or a {@link Page} or a {@link KeysetSlice} of {@link TeamContactSummaryDTO}
+ * which fulfills the criteria.
  */
 @Service
 @Transactional(readOnly = true)
-public class TeamContactQueryService extends QueryService<TeamContact> {
+public class TeamContactQueryService extends KeysetQueryService<TeamContact, TeamContactSummaryDTO> {
 
     private final Logger log = LoggerFactory.getLogger(TeamContactQueryService.class);
 
+    private static final Map<String, Function<TeamContactSummaryDTO, String>> KEYSET_PROPERTIES = Map.of("role", TeamContactSummaryDTO::getRole);
+
     private final TeamContactRepository teamContactRepository;
 
-    public TeamContactQueryService(TeamContactRepository teamContactRepository) {
+    private final FullTextSearchService fullTextSearchService;
+
+    public TeamContactQueryService(
+        TeamContactRepository teamContactRepository,
+        FullTextSearchService fullTextSearchService,
+        EntityManager entityManager,
+        CountService countService,
+        QueryPlanMetersService queryPlanMetersService
+    ) {
+        super(entityManager, countService, queryPlanMetersService, TeamContact.class, TeamContactSummaryDTO.class, TeamContactSummaryDTO::getId);
         this.teamContactRepository = teamContactRepository;
+        this.fullTextSearchService = fullTextSearchService;
     }
 
     /**
@@ -41,25 +68,60 @@ public class TeamContactQueryService extends QueryService<TeamContact> {
     @Transactional(readOnly = true)
     public List<TeamContact> findByCriteria(TeamContactCriteria criteria) {
         log.debug("find by criteria : {}", criteria);
-        final Specification<TeamContact> specification = createSpecification(criteria);
+        final Specification<TeamContact> specification = createSpecification(criteria).and(fetchContactAndTeam());
         return teamContactRepository.findAll(specification);
     }
 
     /**
-     * Return a {@link Page} of {@link TeamContact} which matches the criteria from the database.
+     * Return a {@link Page} of {@link TeamContactSummaryDTO} which matches the criteria from the database.
+     * A full-text search returns a {@link com.computacenter.yocoma.service.search.SearchPage}, which may be sorted by relevance.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
-     * @return the matching entities.
+     * @return the summaries of the matching entities.
      */
     @Transactional(readOnly = true)
-    public Page<TeamContact> findByCriteria(TeamContactCriteria criteria, Pageable page) {
+    public Page<TeamContactSummaryDTO> findByCriteria(TeamContactCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
+        final Optional<FullTextSearch> search = fullTextSearch(criteria);
+        final Specification<TeamContact> specification = createSpecification(criteria, search);
+        if (search.isPresent()) {
+            return findSummaries(criteria, specification, search.get(), isSearchOnly(criteria), page);
+        }
+        return findSummaries(criteria, specification, page);
+    }
+
+    /**
+     * Return a {@link KeysetSlice} of {@link TeamContactSummaryDTO} which matches the criteria from the database.
+     * Unlike the {@link Page} variant, this does not run a count query and costs the same for every slice.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param request The sort and the position after which the slice starts.
+     * @return the summaries of the matching entities and the continuation token for the following slice.
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<TeamContactSummaryDTO> findByCriteria(TeamContactCriteria criteria, KeysetRequest request) {
+        log.debug("find by criteria : {}, keyset: {}", criteria, request);
         final Specification<TeamContact> specification = createSpecification(criteria);
-        return teamContactRepository.findAll(specification, page);
+        return findByKeyset(specification, request);
+    }
+
+    /**
+     * Pass the {@link TeamContactSummaryDTO} of every entity which matches the criteria to a consumer, in the order of their ids.
+     * The rows are streamed from the database, so the memory used does not depend on their number.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param consumer The consumer of each summary, e.g. the writer of an export.
+     */
+    @Transactional(readOnly = true)
+    public void exportByCriteria(TeamContactCriteria criteria, Consumer<TeamContactSummaryDTO> consumer) {
+        log.debug("export by criteria : {}", criteria);
+        // The export covers all hits of a full-text search, not only the best ranked ones
+        final Optional<FullTextSearch> search = fullTextSearch(criteria);
+        final Specification<TeamContact> specification = createSpecification(criteria, Optional.empty());
+        streamSummaries(specification, search, consumer);
     }
 
     /**
-     * Return the number of matching entities in the database.
+     * Return the number of matching entities in the database, cached until an entity changes.
+     * Without filters, the number may be estimated from the database statistics, see {@link CountService}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the number of matching entities.
      */
@@ -67,7 +129,49 @@ public class TeamContactQueryService extends QueryService<TeamContact> {
     public long countByCriteria(TeamContactCriteria criteria) {
         log.debug("count by criteria : {}", criteria);
         final Specification<TeamContact> specification = createSpecification(criteria);
-        return teamContactRepository.count(specification);
+        return estimateCount(criteria, specification);
+    }
+
+    @Override
+    protected Map<String, Function<TeamContactSummaryDTO, String>> getKeysetProperties() {
+        return KEYSET_PROPERTIES;
+    }
+
+    /**
+     * Select the membership with the names of its contact and team, which the list renders, so that a list
+     * of memberships is loaded with one statement.
+     */
+    @Override
+    protected CompoundSelection<TeamContactSummaryDTO> selectSummary(Root<TeamContact> root, CriteriaBuilder cb) {
+        Join<TeamContact, Contact> contact = root.join(TeamContact_.contact, JoinType.LEFT);
+        Join<TeamContact, Team> team = root.join(TeamContact_.team, JoinType.LEFT);
+        return cb.construct(
+            TeamContactSummaryDTO.class,
+            root.get(TeamContact_.id),
+            root.get(TeamContact_.roleType),
+            root.get(TeamContact_.role),
+            root.get(TeamContact_.description),
+            contact.get(Contact_.id),
+            contact.get(Contact_.firstname),
+            contact.get(Contact_.lastname),
+            team.get(Team_.id),
+            team.get(Team_.name)
+        );
+    }
+
+    /**
+     * Fetch-join the contact and the team of each membership, which the REST layer renders, so that a list
+     * of memberships is loaded with one statement. The fetch is skipped for the count query of a page.
+     * @return the {@link Specification} which adds the fetches but no restriction.
+     */
+    private static Specification<TeamContact> fetchContactAndTeam() {
+        return (root, query, builder) -> {
+            if (!Long.class.equals(query.getResultType()) && !long.class.equals(query.getResultType())) {
+                root.fetch(TeamContact_.contact, JoinType.LEFT);
+                root.fetch(TeamContact_.team, JoinType.LEFT);
+            }
+            return null;
+        };
     }
 
     /**
@@ -76,6 +180,16 @@ public class TeamContactQueryService extends QueryService<TeamContact> {
      * @return the matching {@link Specification} of the entity.
      */
     protected Specification<TeamContact> createSpecification(TeamContactCriteria criteria) {
+        return createSpecification(criteria, fullTextSearch(criteria));
+    }
+
+    /**
+     * Function to convert {@link TeamContactCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param fullTextSearch The full-text search of the criteria, whose best ranked hits the entities must be, if any.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<TeamContact> createSpecification(TeamContactCriteria criteria, Optional<FullTextSearch> fullTextSearch) {
         Specification<TeamContact> specification = Specification.where(null);
         if (criteria != null) {
             // This has to be called first, because the distinct method returns null
@@ -108,11 +222,54 @@ public class TeamContactQueryService extends QueryService<TeamContact> {
             }
             // Build a specification for the search which covers the properties "role" and "description"
             if (criteria.getSearch() != null) {
-                var containsRole = buildStringSpecification(criteria.getSearch(), TeamContact_.role);
-                var containsDesc = buildStringSpecification(criteria.getSearch(), TeamContact_.description);
-                specification = specification.and(containsRole.or(containsDesc));
+                specification = specification.and(buildSearchSpecification(criteria.getSearch(), fullTextSearch));
             }
         }
         return specification;
     }
+
+    /**
+     * Function to create the full-text search of the criteria. A contains-filter of the search is answered by the
+     * full-text index, which finds words by prefix and with typos.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the search of the properties "role" and "description", or empty if there is no text to search.
+     */
+    private Optional<FullTextSearch> fullTextSearch(TeamContactCriteria criteria) {
+        if (criteria == null || criteria.getSearch() == null || criteria.getSearch().getContains() == null) {
+            return Optional.empty();
+        }
+        return fullTextSearchService.search(
+            TeamContact.class,
+            criteria.getSearch().getContains(),
+            TeamContact_.ROLE,
+            TeamContact_.DESCRIPTION
+        );
+    }
+
+    /**
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return whether the contains-filter of the search is the only filter of the criteria.
+     */
+    private boolean isSearchOnly(TeamContactCriteria criteria) {
+        TeamContactCriteria searchOnly = new TeamContactCriteria();
+        searchOnly.search().setContains(criteria.getSearch().getContains());
+        searchOnly.setDistinct(criteria.getDistinct());
+        return searchOnly.equals(criteria);
+    }
+
+    /**
+     * Function to convert the search filter to a {@link Specification}. A contains-filter is answered by the best
+     * ranked hits of the full-text search; other operators filter the columns directly.
+     * @param search The filter which covers the properties "role" and "description".
+     * @param fullTextSearch The full-text search of the contains-filter, if the entities must be its best ranked hits.
+     * @return the matching {@link Specification} of the entity, or {@code null} if there is no restriction.
+     */
+    private Specification<TeamContact> buildSearchSpecification(StringFilter search, Optional<FullTextSearch> fullTextSearch) {
+        if (search.getContains() != null) {
+            return fullTextSearch.map(hits -> buildIdInSpecification(hits.getBestHitIds())).orElse(null);
+        }
+        var containsRole = buildStringSpecification(search, TeamContact_.role);
+        var containsDesc = buildStringSpecification(search, TeamContact_.description);
+        return containsRole.or(containsDesc);
+    }
 }
@@ -1,12 +1,27 @@
 package com.computacenter.yocoma.service;
 
+import com.computacenter.yocoma.domain.Contact;
+import com.computacenter.yocoma.domain.Team;
 import com.computacenter.yocoma.domain.TeamContact;
+import com.computacenter.yocoma.repository.ContactRepository;
 import com.computacenter.yocoma.repository.TeamContactRepository;
+import com.computacenter.yocoma.repository.TeamRepository;
+import com.computacenter.yocoma.service.dto.BulkItemResultDTO;
+import com.computacenter.yocoma.service.event.EntityChangedEvent;
+import com.computacenter.yocoma.service.version.EntityVersion;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -20,8 +35,26 @@ public class TeamContactService {
 
     private final TeamContactRepository teamContactRepository;
 
-    public TeamContactService(TeamContactRepository teamContactRepository) {
+    private final ContactRepository contactRepository;
+
+    private final TeamRepository teamRepository;
+
+    private final BulkService bulkService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public TeamContactService(
+        TeamContactRepository teamContactRepository,
+        ContactRepository contactRepository,
+        TeamRepository teamRepository,
+        BulkService bulkService,
+        ApplicationEventPublisher applicationEventPublisher
+    ) {
         this.teamContactRepository = teamContactRepository;
+        this.contactRepository = contactRepository;
+        this.teamRepository = teamRepository;
+        this.bulkService = bulkService;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
@@ -32,7 +65,8 @@ public class TeamContactService {
      */
     public TeamContact save(TeamContact teamContact) {
         log.debug("Request to save TeamContact : {}", teamContact);
-        return teamContactRepository.save(teamContact);
+        referenceRelationships(teamContact);
+        return publishCreated(teamContactRepository.save(teamContact));
     }
 
     /**
@@ -43,7 +77,57 @@ public class TeamContactService {
      */
     public TeamContact update(TeamContact teamContact) {
         log.debug("Request to save TeamContact : {}", teamContact);
-        return teamContactRepository.save(teamContact);
+        keepVersion(teamContact);
+        referenceRelationships(teamContact);
+        return fetchRelationships(publishUpdated(teamContactRepository.save(teamContact)));
+    }
+
+    /**
+     * Save many teamContacts in chunks, creating the teamContacts without an id and updating the others.
+     *
+     * @param teamContacts the entities to save.
+     * @return the result of each teamContact, in the order of the teamContacts.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BulkItemResultDTO> saveAll(List<TeamContact> teamContacts) {
+        log.debug("Request to save {} TeamContacts", teamContacts.size());
+        Set<Long> ids = bulkService.findExistingIds(
+            TeamContact.class,
+            teamContacts.stream().map(TeamContact::getId).collect(Collectors.toList())
+        );
+        Set<Long> contactIds = bulkService.findExistingIds(
+            Contact.class,
+            teamContacts.stream().map(TeamContact::getContact).filter(Objects::nonNull).map(Contact::getId).collect(Collectors.toList())
+        );
+        Set<Long> teamIds = bulkService.findExistingIds(
+            Team.class,
+            teamContacts.stream().map(TeamContact::getTeam).filter(Objects::nonNull).map(Team::getId).collect(Collectors.toList())
+        );
+        return bulkService.saveAll(
+            teamContacts,
+            TeamContact::getId,
+            teamContact -> {
+                List<String> errors = new ArrayList<>();
+                if (teamContact.getId() != null && !ids.contains(teamContact.getId())) {
+                    errors.add("id " + teamContact.getId() + " does not exist");
+                }
+                if (teamContact.getContact() != null && !contactIds.contains(teamContact.getContact().getId())) {
+                    errors.add("contact " + teamContact.getContact().getId() + " does not exist");
+                }
+                if (teamContact.getTeam() != null && !teamIds.contains(teamContact.getTeam().getId())) {
+                    errors.add("team " + teamContact.getTeam().getId() + " does not exist");
+                }
+                return errors;
+            },
+            (index, teamContact, id) -> {
+                teamContact.setId(id);
+                keepVersion(teamContact);
+                referenceRelationships(teamContact);
+                TeamContact saved = teamContactRepository.save(teamContact);
+                TeamContact result = id == null ? publishCreated(saved) : publishUpdated(saved);
+                return id == null ? BulkItemResultDTO.created(index, result.getId()) : BulkItemResultDTO.updated(index, result.getId());
+            }
+        );
     }
 
     /**
@@ -58,6 +142,9 @@ public class TeamContactService {
         return teamContactRepository
             .findById(teamContact.getId())
             .map(existingTeamContact -> {
+                if (teamContact.getVersion() != null && !teamContact.getVersion().equals(existingTeamContact.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(TeamContact.class, teamContact.getId());
+                }
                 if (teamContact.getRoleType() != null) {
                     existingTeamContact.setRoleType(teamContact.getRoleType());
                 }
@@ -70,7 +157,9 @@ public class TeamContactService {
 
                 return existingTeamContact;
             })
-            .map(teamContactRepository::save);
+            .map(teamContactRepository::save)
+            .map(this::publishUpdated)
+            .map(this::fetchRelationships);
     }
 
     /**
@@ -93,7 +182,19 @@ public class TeamContactService {
     @Transactional(readOnly = true)
     public Optional<TeamContact> findOne(Long id) {
         log.debug("Request to get TeamContact : {}", id);
-        return teamContactRepository.findById(id);
+        return teamContactRepository.findOneWithEagerRelationships(id);
+    }
+
+    /**
+     * Get the version of the representation of a teamContact, i.e. of the teamContact and of its contact and its team.
+     *
+     * @param id the id of the entity.
+     * @return the version, or empty if the entity does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<EntityVersion> findVersion(Long id) {
+        log.debug("Request to get version of TeamContact : {}", id);
+        return EntityVersion.of(teamContactRepository.findVersionsById(id));
     }
 
     /**
@@ -104,5 +205,63 @@ public class TeamContactService {
     public void delete(Long id) {
         log.debug("Request to delete TeamContact : {}", id);
         teamContactRepository.deleteById(id);
+        applicationEventPublisher.publishEvent(EntityChangedEvent.deleted(TeamContact.class, id));
+    }
+
+    /**
+     * Delete many teamContacts in chunks.
+     *
+     * @param ids the ids of the entities to delete.
+     * @return the result of each id, in the order of the ids.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BulkItemResultDTO> deleteAll(List<Long> ids) {
+        log.debug("Request to delete {} TeamContacts", ids.size());
+        return bulkService.deleteAll(TeamContact.class, ids, this::delete);
+    }
+
+    /**
+     * Update the teamContact as of its current version, unless the version it was read at is given.
+     * Without a version it would be persisted as a new teamContact.
+     */
+    private void keepVersion(TeamContact teamContact) {
+        if (teamContact.getId() != null && teamContact.getVersion() == null) {
+            teamContactRepository.findById(teamContact.getId()).map(TeamContact::getVersion).ifPresent(teamContact::setVersion);
+        }
+    }
+
+    /**
+     * Replace the contact and the team, which clients send with their ids only, by references to the existing entities.
+     * Without their versions, Hibernate would take them for new entities.
+     */
+    private void referenceRelationships(TeamContact teamContact) {
+        if (teamContact.getContact() != null && teamContact.getContact().getId() != null) {
+            teamContact.setContact(contactRepository.getById(teamContact.getContact().getId()));
+        }
+        if (teamContact.getTeam() != null && teamContact.getTeam().getId() != null) {
+            teamContact.setTeam(teamRepository.getById(teamContact.getTeam().getId()));
+        }
+    }
+
+    private TeamContact publishCreated(TeamContact teamContact) {
+        applicationEventPublisher.publishEvent(EntityChangedEvent.created(TeamContact.class, teamContact.getId(), teamContact));
+        return teamContact;
+    }
+
+    private TeamContact publishUpdated(TeamContact teamContact) {
+        applicationEventPublisher.publishEvent(EntityChangedEvent.updated(TeamContact.class, teamContact.getId(), teamContact));
+        return teamContact;
+    }
+
+    /**
+     * Initialize the lazy contact and team of a saved teamContact, because the REST responses render both.
+     *
+     * @param teamContact the managed entity.
+     * @return the same entity.
+     */
+    private TeamContact fetchRelationships(TeamContact teamContact) {
+        Hibernate.initialize(teamContact.getContact());
+        Hibernate.initialize(teamContact.getTeam());
+        return teamContact;
     }
 }
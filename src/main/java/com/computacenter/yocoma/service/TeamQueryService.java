@@ -2,11 +2,23 @@ package com.computacenter.yocoma.service;
 
 import com.computacenter.yocoma.domain.*; // for static metamodels
 import com.computacenter.yocoma.domain.Team;
+import com.computacenter.yocoma.management.QueryPlanMetersService;
 import com.computacenter.yocoma.repository.TeamRepository;
 import com.computacenter.yocoma.service.criteria.TeamCriteria;
+import com.computacenter.yocoma.service.dto.TeamSummaryDTO;
+import com.computacenter.yocoma.service.keyset.KeysetRequest;
+import com.computacenter.yocoma.service.keyset.KeysetSlice;
+import com.computacenter.yocoma.service.search.FullTextSearch;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CompoundSelection;
+import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -14,25 +26,37 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import tech.jhipster.service.QueryService;
 import tech.jhipster.service.filter.StringFilter;
 
 /**
  * Service for executing complex queries for {@link Team} entities in the database.
  * The main input is a {@link TeamCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
- * It returns a {@link List} of {@link Team} or a {@link Page} of {@link Team} which fulfills the criteria.
+ * It returns a {@link List} of {@link Team}, or a {@link Page} or a {@link KeysetSlice} of {@link TeamSummaryDTO}
+ * which fulfills the criteria.
  */
 @Service
 @Transactional(readOnly = true)
-public class TeamQueryService extends QueryService<Team> {
+public class TeamQueryService extends KeysetQueryService<Team, TeamSummaryDTO> {
 
     private final Logger log = LoggerFactory.getLogger(TeamQueryService.class);
 
+    private static final Map<String, Function<TeamSummaryDTO, String>> KEYSET_PROPERTIES = Map.of("name", TeamSummaryDTO::getName);
+
     private final TeamRepository teamRepository;
 
-    public TeamQueryService(TeamRepository teamRepository) {
+    private final FullTextSearchService fullTextSearchService;
+
+    public TeamQueryService(
+        TeamRepository teamRepository,
+        FullTextSearchService fullTextSearchService,
+        EntityManager entityManager,
+        CountService countService,
+        QueryPlanMetersService queryPlanMetersService
+    ) {
+        super(entityManager, countService, queryPlanMetersService, Team.class, TeamSummaryDTO.class, TeamSummaryDTO::getId);
         this.teamRepository = teamRepository;
+        this.fullTextSearchService = fullTextSearchService;
     }
 
     /**
@@ -44,24 +68,59 @@ public class TeamQueryService extends QueryService<Team> {
     public List<Team> findByCriteria(TeamCriteria criteria) {
         log.debug("find by criteria : {}", criteria);
         final Specification<Team> specification = createSpecification(criteria);
-        return teamRepository.findAll(specification);
+        return teamRepository.fetchBagRelationships(teamRepository.findAll(specification));
     }
 
     /**
-     * Return a {@link Page} of {@link Team} which matches the criteria from the database.
+     * Return a {@link Page} of {@link TeamSummaryDTO} which matches the criteria from the database.
+     * A full-text search returns a {@link com.computacenter.yocoma.service.search.SearchPage}, which may be sorted by relevance.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
-     * @return the matching entities.
+     * @return the summaries of the matching entities.
      */
     @Transactional(readOnly = true)
-    public Page<Team> findByCriteria(TeamCriteria criteria, Pageable page) {
+    public Page<TeamSummaryDTO> findByCriteria(TeamCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
+        final Optional<FullTextSearch> search = fullTextSearch(criteria);
+        final Specification<Team> specification = createSpecification(criteria, search);
+        if (search.isPresent()) {
+            return findSummaries(criteria, specification, search.get(), isSearchOnly(criteria), page);
+        }
+        return findSummaries(criteria, specification, page);
+    }
+
+    /**
+     * Return a {@link KeysetSlice} of {@link TeamSummaryDTO} which matches the criteria from the database.
+     * Unlike the {@link Page} variant, this does not run a count query and costs the same for every slice.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param request The sort and the position after which the slice starts.
+     * @return the summaries of the matching entities and the continuation token for the following slice.
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<TeamSummaryDTO> findByCriteria(TeamCriteria criteria, KeysetRequest request) {
+        log.debug("find by criteria : {}, keyset: {}", criteria, request);
         final Specification<Team> specification = createSpecification(criteria);
-        return teamRepository.findAll(specification, page);
+        return findByKeyset(specification, request);
+    }
+
+    /**
+     * Pass the {@link TeamSummaryDTO} of every entity which matches the criteria to a consumer, in the order of their ids.
+     * The rows are streamed from the database, so the memory used does not depend on their number.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param consumer The consumer of each summary, e.g. the writer of an export.
+     */
+    @Transactional(readOnly = true)
+    public void exportByCriteria(TeamCriteria criteria, Consumer<TeamSummaryDTO> consumer) {
+        log.debug("export by criteria : {}", criteria);
+        // The export covers all hits of a full-text search, not only the best ranked ones
+        final Optional<FullTextSearch> search = fullTextSearch(criteria);
+        final Specification<Team> specification = createSpecification(criteria, Optional.empty());
+        streamSummaries(specification, search, consumer);
     }
 
     /**
-     * Return the number of matching entities in the database.
+     * Return the number of matching entities in the database, cached until an entity changes.
+     * Without filters, the number may be estimated from the database statistics, see {@link CountService}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the number of matching entities.
      */
@@ -69,7 +128,25 @@ public class TeamQueryService extends QueryService<Team> {
     public long countByCriteria(TeamCriteria criteria) {
         log.debug("count by criteria : {}", criteria);
         final Specification<Team> specification = createSpecification(criteria);
-        return teamRepository.count(specification);
+        return estimateCount(criteria, specification);
+    }
+
+    @Override
+    protected Map<String, Function<TeamSummaryDTO, String>> getKeysetProperties() {
+        return KEYSET_PROPERTIES;
+    }
+
+    @Override
+    protected CompoundSelection<TeamSummaryDTO> selectSummary(Root<Team> root, CriteriaBuilder cb) {
+        return cb.construct(
+            TeamSummaryDTO.class,
+            root.get(Team_.id),
+            root.get(Team_.name),
+            root.get(Team_.motto),
+            root.get(Team_.description),
+            root.get(Team_.logoHash),
+            root.get(Team_.logoContentType)
+        );
     }
 
     /**
@@ -78,6 +155,16 @@ public class TeamQueryService extends QueryService<Team> {
      * @return the matching {@link Specification} of the entity.
      */
     protected Specification<Team> createSpecification(TeamCriteria criteria) {
+        return createSpecification(criteria, fullTextSearch(criteria));
+    }
+
+    /**
+     * Function to convert {@link TeamCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param fullTextSearch The full-text search of the criteria, whose best ranked hits the entities must be, if any.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Team> createSpecification(TeamCriteria criteria, Optional<FullTextSearch> fullTextSearch) {
         Specification<Team> specification = Specification.where(null);
         if (criteria == null) {
             return specification;
@@ -109,11 +196,55 @@ public class TeamQueryService extends QueryService<Team> {
         }
         // Build a specification for the search which covers the properties "name", "motto" and "description"
         if (criteria.getSearch() != null) {
-            var containsName = buildStringSpecification(criteria.getSearch(), Team_.name);
-            var containsMotto = buildStringSpecification(criteria.getSearch(), Team_.motto);
-            var containsDesc = buildStringSpecification(criteria.getSearch(), Team_.description);
-            specification = specification.and(containsName.or(containsMotto).or(containsDesc));
+            specification = specification.and(buildSearchSpecification(criteria.getSearch(), fullTextSearch));
         }
         return specification;
     }
+
+    /**
+     * Function to create the full-text search of the criteria. A contains-filter of the search is answered by the
+     * full-text index, which finds words by prefix and with typos.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the search of the properties "name", "motto" and "description", or empty if there is no text to search.
+     */
+    private Optional<FullTextSearch> fullTextSearch(TeamCriteria criteria) {
+        if (criteria == null || criteria.getSearch() == null || criteria.getSearch().getContains() == null) {
+            return Optional.empty();
+        }
+        return fullTextSearchService.search(
+            Team.class,
+            criteria.getSearch().getContains(),
+            Team_.NAME,
+            Team_.MOTTO,
+            Team_.DESCRIPTION
+        );
+    }
+
+    /**
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return whether the contains-filter of the search is the only filter of the criteria.
+     */
+    private boolean isSearchOnly(TeamCriteria criteria) {
+        TeamCriteria searchOnly = new TeamCriteria();
+        searchOnly.search().setContains(criteria.getSearch().getContains());
+        searchOnly.setDistinct(criteria.getDistinct());
+        return searchOnly.equals(criteria);
+    }
+
+    /**
+     * Function to convert the search filter to a {@link Specification}. A contains-filter is answered by the best
+     * ranked hits of the full-text search; other operators filter the columns directly.
+     * @param search The filter which covers the properties "name", "motto" and "description".
+     * @param fullTextSearch The full-text search of the contains-filter, if the entities must be its best ranked hits.
+     * @return the matching {@link Specification} of the entity, or {@code null} if there is no restriction.
+     */
+    private Specification<Team> buildSearchSpecification(StringFilter search, Optional<FullTextSearch> fullTextSearch) {
+        if (search.getContains() != null) {
+            return fullTextSearch.map(hits -> buildIdInSpecification(hits.getBestHitIds())).orElse(null);
+        }
+        var containsName = buildStringSpecification(search, Team_.name);
+        var containsMotto = buildStringSpecification(search, Team_.motto);
+        var containsDesc = buildStringSpecification(search, Team_.description);
+        return containsName.or(containsMotto).or(containsDesc);
+    }
 }
@@ -1,11 +1,18 @@
 package com.computacenter.yocoma.service;
 
 import com.computacenter.yocoma.domain.Team;
+import com.computacenter.yocoma.domain.enumeration.ThumbnailSize;
 import com.computacenter.yocoma.repository.TeamRepository;
+import com.computacenter.yocoma.service.event.EntityChangedEvent;
+import com.computacenter.yocoma.service.storage.StoredBinary;
+import com.computacenter.yocoma.service.version.EntityVersion;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,8 +27,18 @@ public class TeamService {
 
     private final TeamRepository teamRepository;
 
-    public TeamService(TeamRepository teamRepository) {
+    private final BinaryContentService binaryContentService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public TeamService(
+        TeamRepository teamRepository,
+        BinaryContentService binaryContentService,
+        ApplicationEventPublisher applicationEventPublisher
+    ) {
         this.teamRepository = teamRepository;
+        this.binaryContentService = binaryContentService;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
@@ -32,7 +49,8 @@ public class TeamService {
      */
     public Team save(Team team) {
         log.debug("Request to save Team : {}", team);
-        return teamRepository.save(team);
+        storeLogo(team, null);
+        return publishCreated(teamRepository.save(team));
     }
 
     /**
@@ -43,7 +61,12 @@ public class TeamService {
      */
     public Team update(Team team) {
         log.debug("Request to save Team : {}", team);
-        return teamRepository.save(team);
+        keepVersion(team);
+        String previousLogoHash = teamRepository.findLogoHashById(team.getId()).orElse(null);
+        storeLogo(team, previousLogoHash);
+        Team result = publishUpdated(teamRepository.save(team));
+        binaryContentService.release(previousLogoHash, result.getLogoHash());
+        return teamRepository.fetchBagRelationships(Optional.of(result)).orElse(result);
     }
 
     /**
@@ -55,9 +78,12 @@ public class TeamService {
     public Optional<Team> partialUpdate(Team team) {
         log.debug("Request to partially update Team : {}", team);
 
-        return teamRepository
+        Optional<Team> result = teamRepository
             .findById(team.getId())
             .map(existingTeam -> {
+                if (team.getVersion() != null && !team.getVersion().equals(existingTeam.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Team.class, team.getId());
+                }
                 if (team.getName() != null) {
                     existingTeam.setName(team.getName());
                 }
@@ -65,7 +91,9 @@ public class TeamService {
                     existingTeam.setMotto(team.getMotto());
                 }
                 if (team.getLogo() != null) {
-                    existingTeam.setLogo(team.getLogo());
+                    String previousLogoHash = existingTeam.getLogoHash();
+                    existingTeam.setLogoHash(binaryContentService.store(team.getLogo()));
+                    binaryContentService.release(previousLogoHash, existingTeam.getLogoHash());
                 }
                 if (team.getLogoContentType() != null) {
                     existingTeam.setLogoContentType(team.getLogoContentType());
@@ -76,7 +104,9 @@ public class TeamService {
 
                 return existingTeam;
             })
-            .map(teamRepository::save);
+            .map(teamRepository::save)
+            .map(this::publishUpdated);
+        return teamRepository.fetchBagRelationships(result);
     }
 
     /**
@@ -99,7 +129,19 @@ public class TeamService {
     @Transactional(readOnly = true)
     public Optional<Team> findOne(Long id) {
         log.debug("Request to get Team : {}", id);
-        return teamRepository.findById(id);
+        return teamRepository.findOneWithEagerRelationships(id);
+    }
+
+    /**
+     * Get the version of the representation of a team, i.e. of the team and of its team contacts and their contacts.
+     *
+     * @param id the id of the entity.
+     * @return the version, or empty if the entity does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<EntityVersion> findVersion(Long id) {
+        log.debug("Request to get version of Team : {}", id);
+        return EntityVersion.of(teamRepository.findVersionsById(id));
     }
 
     /**
@@ -109,6 +151,84 @@ public class TeamService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Team : {}", id);
+        String logoHash = teamRepository.findLogoHashById(id).orElse(null);
         teamRepository.deleteById(id);
+        applicationEventPublisher.publishEvent(EntityChangedEvent.deleted(Team.class, id));
+        binaryContentService.release(logoHash, null);
+    }
+
+    /**
+     * Get the hash of the logo of a team, which is the strong ETag of the logo.
+     *
+     * @param id the id of the entity.
+     * @return the hash, or empty if the entity or its logo does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> findLogoHash(Long id) {
+        return teamRepository.findLogoHashById(id);
+    }
+
+    /**
+     * Get the logo of a team.
+     *
+     * @param id the id of the entity.
+     * @return the logo, or empty if the entity or its logo does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<StoredBinary> findLogo(Long id) {
+        log.debug("Request to get Logo of Team : {}", id);
+        return teamRepository
+            .findById(id)
+            .filter(team -> team.getLogoHash() != null)
+            .flatMap(team -> binaryContentService.find(team.getLogoHash(), team.getLogoContentType()));
+    }
+
+    /**
+     * Get a thumbnail of the logo of a team.
+     *
+     * @param id the id of the entity.
+     * @param logoHash the hash of the logo the thumbnail is requested for.
+     * @param size the size of the thumbnail.
+     * @return the thumbnail, or empty if the team has another logo or the thumbnail does not exist (yet).
+     */
+    @Transactional(readOnly = true)
+    public Optional<StoredBinary> findLogoThumbnail(Long id, String logoHash, ThumbnailSize size) {
+        log.debug("Request to get Logo thumbnail of Team : {}, {}", id, size);
+        return teamRepository
+            .findLogoHashById(id)
+            .filter(logoHash::equals)
+            .flatMap(hash -> binaryContentService.findThumbnail(hash, size));
+    }
+
+    /**
+     * Update the team as of its current version, unless the version it was read at is given.
+     * Without a version it would be persisted as a new team.
+     */
+    private void keepVersion(Team team) {
+        if (team.getVersion() == null) {
+            teamRepository.findById(team.getId()).map(Team::getVersion).ifPresent(team::setVersion);
+        }
+    }
+
+    private Team publishCreated(Team team) {
+        applicationEventPublisher.publishEvent(EntityChangedEvent.created(Team.class, team.getId(), team));
+        return team;
+    }
+
+    private Team publishUpdated(Team team) {
+        applicationEventPublisher.publishEvent(EntityChangedEvent.updated(Team.class, team.getId(), team));
+        return team;
+    }
+
+    /**
+     * Move an uploaded logo into the binary store. Without an upload the team can only keep the logo it already has.
+     */
+    private void storeLogo(Team team, String currentLogoHash) {
+        if (team.getLogo() != null) {
+            team.setLogoHash(binaryContentService.store(team.getLogo()));
+            team.setLogo(null);
+        } else if (!Objects.equals(team.getLogoHash(), currentLogoHash)) {
+            team.setLogoHash(null);
+        }
     }
 }
@@ -0,0 +1,183 @@
+package com.computacenter.yocoma.service;
+
+import com.computacenter.yocoma.domain.BinaryThumbnail;
+import com.computacenter.yocoma.domain.enumeration.ThumbnailSize;
+import com.computacenter.yocoma.repository.BinaryThumbnailRepository;
+import com.computacenter.yocoma.service.storage.BinaryStore;
+import com.computacenter.yocoma.service.storage.CreateThumbnailsEvent;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service generating the {@link ThumbnailSize thumbnails} of contact images and team logos.
+ * <p>
+ * Generation runs on the {@code taskExecutor} once the transaction which stored the image has been committed.
+ */
+@Service
+public class ThumbnailService {
+
+    /**
+     * Images with more pixels are not decoded, to bound the heap used by a single generation.
+     */
+    private static final long MAX_PIXELS = 40_000_000L;
+
+    private final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    private final BinaryStore binaryStore;
+
+    private final BinaryThumbnailRepository binaryThumbnailRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ThumbnailService(
+        BinaryStore binaryStore,
+        BinaryThumbnailRepository binaryThumbnailRepository,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.binaryStore = binaryStore;
+        this.binaryThumbnailRepository = binaryThumbnailRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCreateThumbnails(CreateThumbnailsEvent event) {
+        try {
+            // The unique thumbnail sizes are only checked when the transaction commits, so it ends within the try
+            transactionTemplate.execute(status -> createThumbnails(event.getHash()));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Thumbnails of {} have been created concurrently", event.getHash());
+        }
+    }
+
+    /**
+     * Create the thumbnails of an image, unless they exist already.
+     * Images which are already small enough are used as their own thumbnail.
+     *
+     * @param hash the hash of the image.
+     * @return the created thumbnails, empty if they existed already or if the content is no supported image.
+     */
+    @Transactional
+    public List<BinaryThumbnail> createThumbnails(String hash) {
+        if (binaryThumbnailRepository.existsByOriginalHash(hash)) {
+            return List.of();
+        }
+        Optional<DecodedImage> decoded = binaryStore.get(hash).flatMap(this::decode);
+        if (decoded.isEmpty()) {
+            log.debug("No thumbnails for {}, the content is no supported image", hash);
+            return List.of();
+        }
+        BufferedImage image = decoded.get().image;
+        List<BinaryThumbnail> thumbnails = new ArrayList<>();
+        for (ThumbnailSize size : ThumbnailSize.values()) {
+            BinaryThumbnail thumbnail = new BinaryThumbnail().originalHash(hash).thumbnailSize(size);
+            if (image.getWidth() <= size.getPixels() && image.getHeight() <= size.getPixels()) {
+                thumbnail.hash(hash).contentType(decoded.get().contentType);
+            } else {
+                boolean hasAlpha = image.getColorModel().hasAlpha();
+                byte[] content = encode(scale(image, size.getPixels()), hasAlpha ? "png" : "jpg");
+                thumbnail.hash(binaryStore.put(content)).contentType(hasAlpha ? "image/png" : "image/jpeg");
+            }
+            thumbnails.add(thumbnail);
+        }
+        log.debug("Created thumbnails of {}", hash);
+        return binaryThumbnailRepository.saveAll(thumbnails);
+    }
+
+    private Optional<DecodedImage> decode(Resource resource) {
+        try (InputStream content = resource.getInputStream(); ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return Optional.empty();
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_PIXELS) {
+                    return Optional.empty();
+                }
+                String[] mimeTypes = reader.getOriginatingProvider().getMIMETypes();
+                String contentType = mimeTypes != null && mimeTypes.length > 0
+                    ? mimeTypes[0]
+                    : "image/" + reader.getFormatName().toLowerCase(Locale.ROOT);
+                return Optional.of(new DecodedImage(reader.read(0), contentType));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not decode image: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Scale down in steps of at most half the size, which keeps bilinear interpolation from dropping pixels.
+     */
+    private static BufferedImage scale(BufferedImage image, int pixels) {
+        double factor = Math.min((double) pixels / image.getWidth(), (double) pixels / image.getHeight());
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * factor));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * factor));
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = image;
+        do {
+            int width = Math.max(targetWidth, current.getWidth() / 2);
+            int height = Math.max(targetHeight, current.getHeight() / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (current.getWidth() != targetWidth || current.getHeight() != targetHeight);
+        return current;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, format, output);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode thumbnail as " + format, e);
+        }
+        return output.toByteArray();
+    }
+
+    private static class DecodedImage {
+
+        private final BufferedImage image;
+
+        private final String contentType;
+
+        DecodedImage(BufferedImage image, String contentType) {
+            this.image = image;
+            this.contentType = contentType;
+        }
+    }
+}
@@ -6,15 +6,19 @@ import com.computacenter.yocoma.domain.User;
 import com.computacenter.yocoma.repository.AuthorityRepository;
 import com.computacenter.yocoma.repository.UserRepository;
 import com.computacenter.yocoma.security.AuthoritiesConstants;
+import com.computacenter.yocoma.security.DomainUserDetailsService;
 import com.computacenter.yocoma.security.SecurityUtils;
 import com.computacenter.yocoma.service.dto.AdminUserDTO;
 import com.computacenter.yocoma.service.dto.UserDTO;
+import com.computacenter.yocoma.service.event.EntityChangedEvent;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -38,10 +42,26 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository) {
+    private final CacheManager cacheManager;
+
+    private final RefreshTokenService refreshTokenService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public UserService(
+        UserRepository userRepository,
+        PasswordEncoder passwordEncoder,
+        AuthorityRepository authorityRepository,
+        CacheManager cacheManager,
+        RefreshTokenService refreshTokenService,
+        ApplicationEventPublisher applicationEventPublisher
+    ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
+        this.cacheManager = cacheManager;
+        this.refreshTokenService = refreshTokenService;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -52,6 +72,7 @@ public class UserService {
                 // activate given user for the registration key.
                 user.setActivated(true);
                 user.setActivationKey(null);
+                this.clearUserCaches(user, EntityChangedEvent.updated(User.class, user.getId(), user));
                 log.debug("Activated user: {}", user);
                 return user;
             });
@@ -66,6 +87,9 @@ public class UserService {
                 user.setPassword(passwordEncoder.encode(newPassword));
                 user.setResetKey(null);
                 user.setResetDate(null);
+                this.clearUserCaches(user, EntityChangedEvent.updated(User.class, user.getId(), user));
+                // Whoever knew the former password may have logged in with it
+                refreshTokenService.logoutAll(user.getLogin());
                 return user;
             });
     }
@@ -77,6 +101,7 @@ public class UserService {
             .map(user -> {
                 user.setResetKey(RandomUtil.generateResetKey());
                 user.setResetDate(Instant.now());
+                this.clearUserCaches(user, EntityChangedEvent.updated(User.class, user.getId(), user));
                 return user;
             });
     }
@@ -118,6 +143,7 @@ public class UserService {
         authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
+        this.clearUserCaches(newUser, EntityChangedEvent.created(User.class, newUser.getId(), newUser));
         log.debug("Created Information for User: {}", newUser);
         return newUser;
     }
@@ -128,6 +154,7 @@ public class UserService {
         }
         userRepository.delete(existingUser);
         userRepository.flush();
+        this.clearUserCaches(existingUser, EntityChangedEvent.deleted(User.class, existingUser.getId()));
         return true;
     }
 
@@ -161,6 +188,7 @@ public class UserService {
             user.setAuthorities(authorities);
         }
         userRepository.save(user);
+        this.clearUserCaches(user, EntityChangedEvent.created(User.class, user.getId(), user));
         log.debug("Created Information for User: {}", user);
         return user;
     }
@@ -177,6 +205,7 @@ public class UserService {
             .filter(Optional::isPresent)
             .map(Optional::get)
             .map(user -> {
+                this.clearUserCaches(user, EntityChangedEvent.updated(User.class, user.getId(), user));
                 user.setLogin(userDTO.getLogin().toLowerCase());
                 user.setFirstName(userDTO.getFirstName());
                 user.setLastName(userDTO.getLastName());
@@ -195,6 +224,7 @@ public class UserService {
                     .filter(Optional::isPresent)
                     .map(Optional::get)
                     .forEach(managedAuthorities::add);
+                this.clearUserCaches(user, EntityChangedEvent.updated(User.class, user.getId(), user));
                 log.debug("Changed Information for User: {}", user);
                 return user;
             })
@@ -206,6 +236,7 @@ public class UserService {
             .findOneByLogin(login)
             .ifPresent(user -> {
                 userRepository.delete(user);
+                this.clearUserCaches(user, EntityChangedEvent.deleted(User.class, user.getId()));
                 log.debug("Deleted User: {}", user);
             });
     }
@@ -224,6 +255,8 @@ public class UserService {
             .getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
             .ifPresent(user -> {
+                // The former email must no longer authenticate
+                this.clearUserCaches(user, EntityChangedEvent.updated(User.class, user.getId(), user));
                 user.setFirstName(firstName);
                 user.setLastName(lastName);
                 if (email != null) {
@@ -231,6 +264,7 @@ public class UserService {
                 }
                 user.setLangKey(langKey);
                 user.setImageUrl(imageUrl);
+                this.clearUserCaches(user, EntityChangedEvent.updated(User.class, user.getId(), user));
                 log.debug("Changed Information for User: {}", user);
             });
     }
@@ -247,6 +281,9 @@ public class UserService {
                 }
                 String encryptedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encryptedPassword);
+                this.clearUserCaches(user, EntityChangedEvent.updated(User.class, user.getId(), user));
+                // The sessions of whoever knew the former password end with it
+                refreshTokenService.logoutAll(user.getLogin());
                 log.debug("Changed password for User: {}", user);
             });
     }
@@ -283,6 +320,7 @@ public class UserService {
             .forEach(user -> {
                 log.debug("Deleting not activated user {}", user.getLogin());
                 userRepository.delete(user);
+                this.clearUserCaches(user, EntityChangedEvent.deleted(User.class, user.getId()));
             });
     }
 
@@ -294,4 +332,18 @@ public class UserService {
     public List<String> getAuthorities() {
         return authorityRepository.findAll().stream().map(Authority::getName).collect(Collectors.toList());
     }
+
+    /**
+     * Evict a changed user from the caches of this node, and record the change, so the other nodes evict it from theirs
+     * once they follow the changes.
+     */
+    private void clearUserCaches(User user, EntityChangedEvent change) {
+        Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
+        Objects.requireNonNull(cacheManager.getCache(DomainUserDetailsService.USER_DETAILS_CACHE)).evict(user.getLogin());
+        if (user.getEmail() != null) {
+            Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
+            Objects.requireNonNull(cacheManager.getCache(DomainUserDetailsService.USER_DETAILS_CACHE)).evict(user.getEmail());
+        }
+        applicationEventPublisher.publishEvent(change);
+    }
 }
@@ -0,0 +1,108 @@
+package com.computacenter.yocoma.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A DTO representing the result of one item of a bulk request.
+ */
+public class BulkItemResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        INVALID,
+        FAILED,
+    }
+
+    private int index;
+
+    private Long id;
+
+    private Status status;
+
+    private List<String> errors;
+
+    public BulkItemResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public BulkItemResultDTO(int index, Long id, Status status, List<String> errors) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.errors = errors;
+    }
+
+    public static BulkItemResultDTO created(int index, Long id) {
+        return new BulkItemResultDTO(index, id, Status.CREATED, List.of());
+    }
+
+    public static BulkItemResultDTO updated(int index, Long id) {
+        return new BulkItemResultDTO(index, id, Status.UPDATED, List.of());
+    }
+
+    public static BulkItemResultDTO deleted(int index, Long id) {
+        return new BulkItemResultDTO(index, id, Status.DELETED, List.of());
+    }
+
+    public static BulkItemResultDTO invalid(int index, Long id, List<String> errors) {
+        return new BulkItemResultDTO(index, id, Status.INVALID, errors);
+    }
+
+    public static BulkItemResultDTO failed(int index, Long id, String error) {
+        return new BulkItemResultDTO(index, id, Status.FAILED, List.of(error));
+    }
+
+    /**
+     * @return the position of the item in the request, starting at 0.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    /**
+     * @return the id of the saved or deleted entity, or the id given by an item which could not be processed.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BulkItemResultDTO{" +
+            "index=" + index +
+            ", id=" + id +
+            ", status=" + status +
+            ", errors=" + errors +
+            "}";
+    }
+}
@@ -0,0 +1,159 @@
+package com.computacenter.yocoma.service.dto;
+
+import com.computacenter.yocoma.domain.ContactImport;
+import com.computacenter.yocoma.domain.ContactImportRow;
+import com.computacenter.yocoma.domain.enumeration.ContactImportFormat;
+import com.computacenter.yocoma.domain.enumeration.ContactImportStatus;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A DTO representing the progress of an import of contacts, with the first of its invalid rows.
+ */
+public class ContactImportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    private final ContactImportFormat format;
+
+    private final ContactImportStatus status;
+
+    private final int readRows;
+
+    private final int invalidRows;
+
+    private final int duplicateRows;
+
+    private final int importedRows;
+
+    private final String error;
+
+    private final String createdBy;
+
+    private final Instant createdDate;
+
+    private final Instant finishedDate;
+
+    private final List<InvalidRow> firstInvalidRows;
+
+    public ContactImportDTO(ContactImport contactImport, List<ContactImportRow> firstInvalidRows) {
+        this.id = contactImport.getId();
+        this.format = contactImport.getFormat();
+        this.status = contactImport.getStatus();
+        this.readRows = contactImport.getReadRows();
+        this.invalidRows = contactImport.getInvalidRows();
+        this.duplicateRows = contactImport.getDuplicateRows();
+        this.importedRows = contactImport.getImportedRows();
+        this.error = contactImport.getError();
+        this.createdBy = contactImport.getCreatedBy();
+        this.createdDate = contactImport.getCreatedDate();
+        this.finishedDate = contactImport.getFinishedDate();
+        this.firstInvalidRows = firstInvalidRows.stream().map(InvalidRow::new).collect(Collectors.toList());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public ContactImportFormat getFormat() {
+        return format;
+    }
+
+    public ContactImportStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the rows read from the file so far.
+     */
+    public int getReadRows() {
+        return readRows;
+    }
+
+    public int getInvalidRows() {
+        return invalidRows;
+    }
+
+    /**
+     * @return the valid rows skipped, as they have the email or the phone of a contact or of a row before them.
+     */
+    public int getDuplicateRows() {
+        return duplicateRows;
+    }
+
+    /**
+     * @return the contacts created so far.
+     */
+    public int getImportedRows() {
+        return importedRows;
+    }
+
+    /**
+     * @return why the import failed, {@code null} unless it has.
+     */
+    public String getError() {
+        return error;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public Instant getFinishedDate() {
+        return finishedDate;
+    }
+
+    public List<InvalidRow> getFirstInvalidRows() {
+        return firstInvalidRows;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ContactImportDTO{" +
+            "id=" + id +
+            ", format='" + format + "'" +
+            ", status='" + status + "'" +
+            ", readRows=" + readRows +
+            ", invalidRows=" + invalidRows +
+            ", duplicateRows=" + duplicateRows +
+            ", importedRows=" + importedRows +
+            "}";
+    }
+
+    /**
+     * A row of the file which is no valid contact.
+     */
+    public static class InvalidRow implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int lineNumber;
+
+        private final List<String> errors;
+
+        InvalidRow(ContactImportRow row) {
+            this.lineNumber = row.getLineNumber();
+            this.errors = row.getErrors() == null ? List.of() : List.of(row.getErrors().split("\n"));
+        }
+
+        /**
+         * @return the line of the file the row starts on, starting at 1.
+         */
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+    }
+}
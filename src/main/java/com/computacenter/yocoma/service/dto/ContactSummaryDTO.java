@@ -0,0 +1,104 @@
+package com.computacenter.yocoma.service.dto;
+
+import com.computacenter.yocoma.domain.Contact;
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * A DTO representing a {@link Contact} in a list, with the columns the list renders.
+ * It is selected directly by the criteria query, so neither the entity nor its memberships are loaded.
+ */
+public class ContactSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    private final String firstname;
+
+    private final String lastname;
+
+    private final String email;
+
+    private final String phone;
+
+    private final String remark;
+
+    private final String imageHash;
+
+    private final String imageContentType;
+
+    public ContactSummaryDTO(
+        Long id,
+        String firstname,
+        String lastname,
+        String email,
+        String phone,
+        String remark,
+        String imageHash,
+        String imageContentType
+    ) {
+        this.id = id;
+        this.firstname = firstname;
+        this.lastname = lastname;
+        this.email = email;
+        this.phone = phone;
+        this.remark = remark;
+        this.imageHash = imageHash;
+        this.imageContentType = imageContentType;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getFirstname() {
+        return firstname;
+    }
+
+    public String getLastname() {
+        return lastname;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public String getRemark() {
+        return remark;
+    }
+
+    public String getImageHash() {
+        return imageHash;
+    }
+
+    public String getImageContentType() {
+        return imageContentType;
+    }
+
+    public String getImageUrl() {
+        return Contact.imageUrl(id, imageHash);
+    }
+
+    public Map<Integer, String> getImageThumbnailUrls() {
+        return Contact.imageThumbnailUrls(id, imageHash);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ContactSummaryDTO{" +
+            "id=" + id +
+            ", firstname='" + firstname + "'" +
+            ", lastname='" + lastname + "'" +
+            ", email='" + email + "'" +
+            ", phone='" + phone + "'" +
+            ", remark='" + remark + "'" +
+            ", imageHash='" + imageHash + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,77 @@
+package com.computacenter.yocoma.service.dto;
+
+import com.computacenter.yocoma.domain.EntityChange;
+import com.computacenter.yocoma.domain.enumeration.ChangeType;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A DTO representing the latest {@link EntityChange} of an entity since a sync, with the summary of the entity as a
+ * list renders it. A deleted entity is a tombstone without summary.
+ */
+public class EntityChangeDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long position;
+
+    private final String entityType;
+
+    private final Long entityId;
+
+    private final ChangeType changeType;
+
+    private final Instant changedDate;
+
+    private final Serializable summary;
+
+    public EntityChangeDTO(EntityChange change, Serializable summary) {
+        this.position = change.getId();
+        this.entityType = change.getEntityType();
+        this.entityId = change.getEntityId();
+        this.changeType = change.getChangeType();
+        this.changedDate = change.getChangedDate();
+        this.summary = summary;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return the type of the entity: {@code Contact}, {@code Team} or {@code TeamContact}.
+     */
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public Instant getChangedDate() {
+        return changedDate;
+    }
+
+    /**
+     * @return the summary of the entity, {@code null} if it has been deleted.
+     */
+    public Serializable getSummary() {
+        return summary;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "EntityChangeDTO{" +
+            "position=" + position +
+            ", entityType='" + entityType + "'" +
+            ", entityId=" + entityId +
+            ", changeType='" + changeType + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,42 @@
+package com.computacenter.yocoma.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A DTO representing the changes since a sync, with the position the following sync continues after.
+ */
+public class EntityChangesDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<EntityChangeDTO> changes;
+
+    private final long position;
+
+    private final boolean more;
+
+    public EntityChangesDTO(List<EntityChangeDTO> changes, long position, boolean more) {
+        this.changes = List.copyOf(changes);
+        this.position = position;
+        this.more = more;
+    }
+
+    public List<EntityChangeDTO> getChanges() {
+        return changes;
+    }
+
+    /**
+     * @return the position of the last change the client has received, the {@code since} of its following sync.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return whether further changes have been left out of this response.
+     */
+    public boolean hasMore() {
+        return more;
+    }
+}
@@ -0,0 +1,49 @@
+package com.computacenter.yocoma.service.dto;
+
+import com.computacenter.yocoma.domain.enumeration.ChangeType;
+import java.io.Serializable;
+
+/**
+ * A DTO representing a committed change of a contact, team or team contact, as pushed to the subscribed clients.
+ */
+public class PushedChangeDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String entityType;
+
+    private final Long entityId;
+
+    private final ChangeType changeType;
+
+    public PushedChangeDTO(String entityType, Long entityId, ChangeType changeType) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.changeType = changeType;
+    }
+
+    /**
+     * @return the type of the entity: {@code Contact}, {@code Team} or {@code TeamContact}.
+     */
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PushedChangeDTO{" +
+            "entityType='" + entityType + "'" +
+            ", entityId=" + entityId +
+            ", changeType='" + changeType + "'" +
+            "}";
+    }
+}
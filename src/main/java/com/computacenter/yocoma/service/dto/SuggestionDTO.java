@@ -0,0 +1,52 @@
+package com.computacenter.yocoma.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing a typeahead suggestion.
+ */
+public class SuggestionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String label;
+
+    public SuggestionDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SuggestionDTO(Long id, String label) {
+        this.id = id;
+        this.label = label;
+    }
+
+    /**
+     * @return the id of the suggested entity, {@code null} for suggested values such as roles.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SuggestionDTO{" +
+            "id=" + id +
+            ", label='" + label + '\'' +
+            "}";
+    }
+}
@@ -0,0 +1,139 @@
+package com.computacenter.yocoma.service.dto;
+
+import com.computacenter.yocoma.domain.TeamContact;
+import com.computacenter.yocoma.domain.enumeration.RoleType;
+import java.io.Serializable;
+
+/**
+ * A DTO representing a {@link TeamContact} in a list, with the columns the list renders.
+ * It is selected directly by the criteria query, together with the names of the contact and the team.
+ */
+public class TeamContactSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    private final RoleType roleType;
+
+    private final String role;
+
+    private final String description;
+
+    private final ContactReference contact;
+
+    private final TeamReference team;
+
+    public TeamContactSummaryDTO(
+        Long id,
+        RoleType roleType,
+        String role,
+        String description,
+        Long contactId,
+        String contactFirstname,
+        String contactLastname,
+        Long teamId,
+        String teamName
+    ) {
+        this.id = id;
+        this.roleType = roleType;
+        this.role = role;
+        this.description = description;
+        this.contact = contactId == null ? null : new ContactReference(contactId, contactFirstname, contactLastname);
+        this.team = teamId == null ? null : new TeamReference(teamId, teamName);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public RoleType getRoleType() {
+        return roleType;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public ContactReference getContact() {
+        return contact;
+    }
+
+    public TeamReference getTeam() {
+        return team;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TeamContactSummaryDTO{" +
+            "id=" + id +
+            ", roleType='" + roleType + "'" +
+            ", role='" + role + "'" +
+            ", description='" + description + "'" +
+            ", contact=" + (contact == null ? null : contact.getId()) +
+            ", team=" + (team == null ? null : team.getId()) +
+            "}";
+    }
+
+    /**
+     * The contact of a team contact, with the columns the list renders.
+     */
+    public static class ContactReference implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Long id;
+
+        private final String firstname;
+
+        private final String lastname;
+
+        public ContactReference(Long id, String firstname, String lastname) {
+            this.id = id;
+            this.firstname = firstname;
+            this.lastname = lastname;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getFirstname() {
+            return firstname;
+        }
+
+        public String getLastname() {
+            return lastname;
+        }
+    }
+
+    /**
+     * The team of a team contact, with the columns the list renders.
+     */
+    public static class TeamReference implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Long id;
+
+        private final String name;
+
+        public TeamReference(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.computacenter.yocoma.service.dto;
+
+import com.computacenter.yocoma.domain.Team;
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * A DTO representing a {@link Team} in a list, with the columns the list renders.
+ * It is selected directly by the criteria query, so neither the entity nor its memberships are loaded.
+ */
+public class TeamSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    private final String name;
+
+    private final String motto;
+
+    private final String description;
+
+    private final String logoHash;
+
+    private final String logoContentType;
+
+    public TeamSummaryDTO(Long id, String name, String motto, String description, String logoHash, String logoContentType) {
+        this.id = id;
+        this.name = name;
+        this.motto = motto;
+        this.description = description;
+        this.logoHash = logoHash;
+        this.logoContentType = logoContentType;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getMotto() {
+        return motto;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getLogoHash() {
+        return logoHash;
+    }
+
+    public String getLogoContentType() {
+        return logoContentType;
+    }
+
+    public String getLogoUrl() {
+        return Team.logoUrl(id, logoHash);
+    }
+
+    public Map<Integer, String> getLogoThumbnailUrls() {
+        return Team.logoThumbnailUrls(id, logoHash);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TeamSummaryDTO{" +
+            "id=" + id +
+            ", name='" + name + "'" +
+            ", motto='" + motto + "'" +
+            ", description='" + description + "'" +
+            ", logoHash='" + logoHash + "'" +
+            "}";
+    }
+}
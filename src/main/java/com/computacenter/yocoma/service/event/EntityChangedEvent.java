@@ -0,0 +1,67 @@
+package com.computacenter.yocoma.service.event;
+
+import com.computacenter.yocoma.domain.enumeration.ChangeType;
+
+/**
+ * Published when a contact, team, team contact or user has been created, updated or deleted.
+ * Listeners interested in the committed state listen with a
+ * {@link org.springframework.transaction.event.TransactionalEventListener}.
+ */
+public class EntityChangedEvent {
+
+    private final Class<?> entityType;
+
+    private final Long id;
+
+    private final ChangeType changeType;
+
+    private final Object entity;
+
+    private EntityChangedEvent(Class<?> entityType, Long id, ChangeType changeType, Object entity) {
+        this.entityType = entityType;
+        this.id = id;
+        this.changeType = changeType;
+        this.entity = entity;
+    }
+
+    public static <T> EntityChangedEvent created(Class<T> entityType, Long id, T entity) {
+        return new EntityChangedEvent(entityType, id, ChangeType.CREATED, entity);
+    }
+
+    public static <T> EntityChangedEvent updated(Class<T> entityType, Long id, T entity) {
+        return new EntityChangedEvent(entityType, id, ChangeType.UPDATED, entity);
+    }
+
+    public static EntityChangedEvent deleted(Class<?> entityType, Long id) {
+        return new EntityChangedEvent(entityType, id, ChangeType.DELETED, null);
+    }
+
+    public Class<?> getEntityType() {
+        return entityType;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    /**
+     * @return the saved entity, {@code null} if it has been deleted.
+     */
+    public Object getEntity() {
+        return entity;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "EntityChangedEvent{" +
+            "entityType=" + entityType.getSimpleName() +
+            ", id=" + id +
+            ", changeType=" + changeType +
+            "}";
+    }
+}
@@ -0,0 +1,47 @@
+package com.computacenter.yocoma.service.event;
+
+import com.computacenter.yocoma.domain.EntityChange;
+import java.util.List;
+
+/**
+ * Published when this node has read the changes of contacts, teams, team contacts and users committed by the other
+ * nodes, for the listeners keeping state of these entities on this node, e.g. caches.
+ * <p>
+ * The changes of this node are not part of it, they are published as {@link EntityChangedEvent} when they are made.
+ */
+public class RemoteChangesEvent {
+
+    private final List<EntityChange> changes;
+
+    private final boolean complete;
+
+    public RemoteChangesEvent(List<EntityChange> changes, boolean complete) {
+        this.changes = changes;
+        this.complete = complete;
+    }
+
+    /**
+     * @return the latest change of each entity changed by the other nodes, in the order of their positions.
+     */
+    public List<EntityChange> getChanges() {
+        return changes;
+    }
+
+    /**
+     * @return whether the changes are all the changes since the previous event. They are not at the first event of
+     * this node, nor if this node has not read the changes before they have been purged: any entity may then have
+     * changed.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RemoteChangesEvent{" +
+            "changes=" + changes.size() +
+            ", complete=" + complete +
+            "}";
+    }
+}
@@ -0,0 +1,57 @@
+package com.computacenter.yocoma.service.importer;
+
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Published when the file of an import of contacts has been received, to run the import in the background.
+ */
+public class ContactImportStartedEvent {
+
+    private final Long importId;
+
+    private final Path file;
+
+    private final Charset charset;
+
+    private final Authentication authentication;
+
+    public ContactImportStartedEvent(Long importId, Path file, Charset charset, Authentication authentication) {
+        this.importId = importId;
+        this.file = file;
+        this.charset = charset;
+        this.authentication = authentication;
+    }
+
+    public Long getImportId() {
+        return importId;
+    }
+
+    /**
+     * @return the temporary copy of the file, deleted once the import has run.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * @return the user who started the import, whom the imported contacts are created by.
+     */
+    public Authentication getAuthentication() {
+        return authentication;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ContactImportStartedEvent{" +
+            "importId=" + importId +
+            ", file='" + file + '\'' +
+            "}";
+    }
+}
@@ -0,0 +1,32 @@
+package com.computacenter.yocoma.service.importer;
+
+import com.computacenter.yocoma.domain.ContactImportRow;
+import com.computacenter.yocoma.domain.enumeration.ContactImportFormat;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads the contacts of a file one row at a time, so that only the current row is held in memory.
+ */
+public interface ContactRowReader extends Closeable {
+    /**
+     * Read the next row.
+     *
+     * @return the row with the number of the line it starts on, {@code null} at the end of the file.
+     * @throws IOException if the file cannot be read.
+     * @throws InvalidContactFileException if the file is malformed.
+     */
+    ContactImportRow next() throws IOException;
+
+    /**
+     * Create the reader of a format.
+     *
+     * @param format the format of the file.
+     * @param reader the content of the file.
+     * @return the reader of the rows.
+     */
+    static ContactRowReader of(ContactImportFormat format, Reader reader) {
+        return format == ContactImportFormat.CSV ? new CsvContactRowReader(reader) : new VCardContactRowReader(reader);
+    }
+}
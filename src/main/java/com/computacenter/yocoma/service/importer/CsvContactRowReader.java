@@ -0,0 +1,190 @@
+package com.computacenter.yocoma.service.importer;
+
+import com.computacenter.yocoma.domain.ContactImportRow;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads contacts from RFC 4180 CSV, whose header names the columns.
+ * <p>
+ * The columns are matched by name, ignoring case and anything but letters, so {@code First Name} is the
+ * {@code firstname}. Unknown columns, e.g. the {@code id} and {@code imageUrl} of an export, are ignored. Fields are
+ * separated by commas, or by semicolons if the header has no comma, as spreadsheets write them in some locales.
+ * <p>
+ * The quote an export prefixes the fields starting like a formula with is dropped, so an exported file is imported
+ * with the values it was exported from.
+ */
+public class CsvContactRowReader implements ContactRowReader {
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private static final int MAX_HEADER_LENGTH = 65_536;
+
+    private static final String[] COLUMNS = { "firstname", "lastname", "email", "phone", "remark" };
+
+    private static final String[] REQUIRED_COLUMNS = { "firstname", "lastname" };
+
+    /**
+     * The first characters of the fields an export prefixes with a quote.
+     */
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final BufferedReader reader;
+
+    private final int[] columnIndexes = new int[COLUMNS.length];
+
+    private char separator = ',';
+
+    private int lineNumber = 1;
+
+    private int peeked = -2;
+
+    private boolean headerRead;
+
+    public CsvContactRowReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    @Override
+    public ContactImportRow next() throws IOException {
+        if (!headerRead) {
+            readHeader();
+        }
+        List<String> record;
+        int recordLineNumber;
+        do {
+            recordLineNumber = lineNumber;
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0) == null);
+        return new ContactImportRow()
+            .lineNumber(recordLineNumber)
+            .firstname(field(record, 0))
+            .lastname(field(record, 1))
+            .email(field(record, 2))
+            .phone(field(record, 3))
+            .remark(field(record, 4));
+    }
+
+    private void readHeader() throws IOException {
+        headerRead = true;
+        reader.mark(1);
+        if (reader.read() != BYTE_ORDER_MARK) {
+            reader.reset();
+        }
+        reader.mark(MAX_HEADER_LENGTH);
+        String firstLine = reader.readLine();
+        reader.reset();
+        if (firstLine == null) {
+            throw new InvalidContactFileException("The CSV file is empty");
+        }
+        if (firstLine.indexOf(',') < 0 && firstLine.indexOf(';') >= 0) {
+            separator = ';';
+        }
+        List<String> header = readRecord();
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int index = 0; index < header.size(); index++) {
+            String name = header.get(index) == null ? "" : header.get(index).toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+            indexes.putIfAbsent(name, index);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!indexes.containsKey(column)) {
+                throw new InvalidContactFileException("The CSV header has no column " + column);
+            }
+        }
+        for (int column = 0; column < COLUMNS.length; column++) {
+            columnIndexes[column] = indexes.getOrDefault(COLUMNS[column], -1);
+        }
+    }
+
+    private String field(List<String> record, int column) {
+        int index = columnIndexes[column];
+        return index >= 0 && index < record.size() ? record.get(index) : null;
+    }
+
+    /**
+     * Read the fields of the next record, empty fields as {@code null}.
+     *
+     * @return the fields, or {@code null} at the end of the file.
+     */
+    private List<String> readRecord() throws IOException {
+        if (peek() < 0) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        while (true) {
+            int c = read();
+            if (c == '"' && field.length() == 0) {
+                readQuoted(field);
+            } else if (c == separator) {
+                fields.add(toField(field));
+            } else if (c < 0 || c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                if (c >= 0) {
+                    lineNumber++;
+                }
+                fields.add(toField(field));
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private void readQuoted(StringBuilder field) throws IOException {
+        int startLineNumber = lineNumber;
+        while (true) {
+            int c = read();
+            if (c < 0) {
+                throw new InvalidContactFileException("The quoted field starting on line " + startLineNumber + " is not closed");
+            }
+            if (c == '"') {
+                if (peek() != '"') {
+                    return;
+                }
+                read();
+            } else if (c == '\n' || (c == '\r' && peek() != '\n')) {
+                lineNumber++;
+            }
+            field.append((char) c);
+        }
+    }
+
+    private static String toField(StringBuilder field) {
+        String value = field.toString().trim();
+        field.setLength(0);
+        if (value.length() > 1 && value.charAt(0) == '\'' && FORMULA_PREFIXES.indexOf(value.charAt(1)) >= 0) {
+            value = value.substring(1);
+        }
+        return value.isEmpty() ? null : value;
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        peeked = -2;
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,13 @@
+package com.computacenter.yocoma.service.importer;
+
+/**
+ * Thrown when a file of contacts is malformed, as opposed to single rows which are invalid.
+ */
+public class InvalidContactFileException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidContactFileException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,189 @@
+package com.computacenter.yocoma.service.importer;
+
+import com.computacenter.yocoma.domain.ContactImportRow;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads contacts from vCards (RFC 6350, and the 3.0 and 2.1 versions as far as they are alike).
+ * <p>
+ * The lastname and the firstname are the family and the given name of {@code N}, or are split from {@code FN} if
+ * there is no {@code N}. The first {@code EMAIL} and {@code TEL} are the email and the phone, {@code NOTE} is the
+ * remark. Other properties are ignored.
+ */
+public class VCardContactRowReader implements ContactRowReader {
+
+    private static final String TEL_URI_SCHEME = "tel:";
+
+    private final BufferedReader reader;
+
+    private int lineNumber;
+
+    private int currentLineNumber;
+
+    private String pendingLine;
+
+    private int pendingLineNumber;
+
+    public VCardContactRowReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    @Override
+    public ContactImportRow next() throws IOException {
+        ContactImportRow row = null;
+        String formattedName = null;
+        boolean named = false;
+        String line;
+        while ((line = readUnfoldedLine()) != null) {
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String name = propertyName(line.substring(0, colon));
+            String value = line.substring(colon + 1);
+            if (row == null) {
+                if ("BEGIN".equals(name) && "VCARD".equalsIgnoreCase(value.trim())) {
+                    row = new ContactImportRow().lineNumber(currentLineNumber);
+                }
+                continue;
+            }
+            switch (name) {
+                case "END":
+                    if (!named && formattedName != null) {
+                        int lastSpace = formattedName.lastIndexOf(' ');
+                        row.firstname(lastSpace < 0 ? null : formattedName.substring(0, lastSpace).trim());
+                        row.lastname(formattedName.substring(lastSpace + 1));
+                    }
+                    return row;
+                case "N":
+                    List<String> components = components(value);
+                    row.lastname(components.get(0));
+                    row.firstname(components.size() > 1 ? components.get(1) : null);
+                    named = row.getLastname() != null || row.getFirstname() != null;
+                    break;
+                case "FN":
+                    formattedName = text(unescape(value));
+                    break;
+                case "EMAIL":
+                    row.email(row.getEmail() == null ? text(unescape(value)) : row.getEmail());
+                    break;
+                case "TEL":
+                    row.phone(row.getPhone() == null ? text(unescape(withoutTelScheme(value))) : row.getPhone());
+                    break;
+                case "NOTE":
+                    row.remark(text(unescape(value)));
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (row != null) {
+            throw new InvalidContactFileException("The vCard starting on line " + row.getLineNumber() + " is not closed");
+        }
+        return null;
+    }
+
+    /**
+     * @return the next logical line with its continuation lines appended, whose first line is {@link #currentLineNumber}.
+     */
+    private String readUnfoldedLine() throws IOException {
+        String line;
+        if (pendingLine != null) {
+            line = pendingLine;
+            currentLineNumber = pendingLineNumber;
+            pendingLine = null;
+        } else {
+            line = readLine();
+            currentLineNumber = lineNumber;
+        }
+        if (line == null) {
+            return null;
+        }
+        StringBuilder unfolded = new StringBuilder(line);
+        String next;
+        while ((next = readLine()) != null && !next.isEmpty() && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+            unfolded.append(next, 1, next.length());
+        }
+        pendingLine = next;
+        pendingLineNumber = lineNumber;
+        return unfolded.toString();
+    }
+
+    private String readLine() throws IOException {
+        String line = reader.readLine();
+        if (line != null) {
+            lineNumber++;
+        }
+        return line;
+    }
+
+    /**
+     * @return the name of a property without its group and parameters, in upper case.
+     */
+    private static String propertyName(String nameAndParameters) {
+        int semicolon = nameAndParameters.indexOf(';');
+        String name = semicolon < 0 ? nameAndParameters : nameAndParameters.substring(0, semicolon);
+        int dot = name.lastIndexOf('.');
+        return name.substring(dot + 1).trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * @return the components of a structured value, split at the unescaped semicolons.
+     */
+    private static List<String> components(String value) {
+        List<String> components = new ArrayList<>();
+        StringBuilder component = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                component.append(c).append(value.charAt(++i));
+            } else if (c == ';') {
+                components.add(text(unescape(component.toString())));
+                component.setLength(0);
+            } else {
+                component.append(c);
+            }
+        }
+        components.add(text(unescape(component.toString())));
+        return components;
+    }
+
+    /**
+     * @return the phone without the scheme of a {@code tel:} URI, as vCard 4.0 may write it.
+     */
+    private static String withoutTelScheme(String value) {
+        return value.regionMatches(true, 0, TEL_URI_SCHEME, 0, TEL_URI_SCHEME.length()) ? value.substring(TEL_URI_SCHEME.length()) : value;
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char escaped = value.charAt(++i);
+                unescaped.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+
+    private static String text(String value) {
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
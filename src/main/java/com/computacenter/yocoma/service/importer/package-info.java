@@ -0,0 +1,4 @@
+/**
+ * Streaming readers of the files contacts are imported from.
+ */
+package com.computacenter.yocoma.service.importer;
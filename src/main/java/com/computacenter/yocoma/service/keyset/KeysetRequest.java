@@ -0,0 +1,162 @@
+package com.computacenter.yocoma.service.keyset;
+
+import com.computacenter.yocoma.service.InvalidKeysetRequestException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+import org.springframework.data.domain.Sort;
+
+/**
+ * A request for one slice of a keyset (seek) pagination.
+ * <p>
+ * The slice is defined by a sort property, a direction and the position of the last row of the previous slice.
+ * The {@code id} is always used as tie-breaker, so that the position is unique even if the sort property is not.
+ * The position is handed to clients as an opaque continuation token, see {@link #toToken(String, Long)}.
+ */
+public class KeysetRequest {
+
+    public static final String ID_PROPERTY = "id";
+
+    private static final String SEPARATOR = "|";
+
+    private final String property;
+
+    private final Sort.Direction direction;
+
+    private final String afterValue;
+
+    private final Long afterId;
+
+    private final int size;
+
+    private KeysetRequest(String property, Sort.Direction direction, String afterValue, Long afterId, int size) {
+        if (size < 1) {
+            throw new InvalidKeysetRequestException("The slice size must be positive");
+        }
+        this.property = Objects.requireNonNull(property);
+        this.direction = Objects.requireNonNull(direction);
+        this.afterValue = afterValue;
+        this.afterId = afterId;
+        this.size = size;
+    }
+
+    /**
+     * Request the first slice.
+     *
+     * @param property the property to sort by.
+     * @param direction the sort direction.
+     * @param size the maximum number of rows in the slice.
+     * @return the request for the first slice.
+     */
+    public static KeysetRequest first(String property, Sort.Direction direction, int size) {
+        return new KeysetRequest(property, direction, null, null, size);
+    }
+
+    /**
+     * Request the first slice with a sort given as {@code property[,direction]}, like the {@code sort} request parameter.
+     *
+     * @param sort the sort, the direction defaults to ascending.
+     * @param size the maximum number of rows in the slice.
+     * @return the request for the first slice.
+     * @throws InvalidKeysetRequestException if the sort is malformed.
+     */
+    public static KeysetRequest first(String sort, int size) {
+        String[] parts = sort.split(",");
+        if (parts.length > 2 || parts[0].isBlank()) {
+            throw new InvalidKeysetRequestException("Malformed sort: " + sort);
+        }
+        try {
+            return first(parts[0].trim(), parts.length == 2 ? Sort.Direction.fromString(parts[1].trim()) : Sort.Direction.ASC, size);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidKeysetRequestException("Malformed sort: " + sort);
+        }
+    }
+
+    /**
+     * Request the slice following the position encoded in a continuation token.
+     *
+     * @param token the continuation token returned with the previous slice.
+     * @param size the maximum number of rows in the slice.
+     * @return the request for the next slice.
+     * @throws InvalidKeysetRequestException if the token is malformed.
+     */
+    public static KeysetRequest fromToken(String token, int size) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidKeysetRequestException("Malformed continuation token");
+        }
+        // The value is the last part, so it may contain the separator itself
+        String[] parts = decoded.split("\\" + SEPARATOR, 4);
+        if (parts.length != 4) {
+            throw new InvalidKeysetRequestException("Malformed continuation token");
+        }
+        try {
+            String value = ID_PROPERTY.equals(parts[0]) ? null : parts[3];
+            return new KeysetRequest(parts[0], Sort.Direction.fromString(parts[1]), value, Long.valueOf(parts[2]), size);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidKeysetRequestException("Malformed continuation token");
+        }
+    }
+
+    /**
+     * Encode the position after the given row as continuation token for this request's sort.
+     *
+     * @param value the sort property value of the row, ignored when sorting by {@code id}.
+     * @param id the id of the row.
+     * @return the opaque continuation token.
+     */
+    public String toToken(String value, Long id) {
+        String position = String.join(
+            SEPARATOR,
+            property,
+            direction.name(),
+            String.valueOf(id),
+            ID_PROPERTY.equals(property) ? "" : value
+        );
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isFirst() {
+        return afterId == null;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public String getAfterValue() {
+        return afterValue;
+    }
+
+    public Long getAfterId() {
+        return afterId;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "KeysetRequest{" +
+            "property='" +
+            property +
+            "', direction=" +
+            direction +
+            ", afterValue='" +
+            afterValue +
+            "', afterId=" +
+            afterId +
+            ", size=" +
+            size +
+            "}"
+        );
+    }
+}
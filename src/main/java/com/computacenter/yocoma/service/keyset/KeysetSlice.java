@@ -0,0 +1,35 @@
+package com.computacenter.yocoma.service.keyset;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset (seek) pagination.
+ *
+ * @param <T> the type of the rows.
+ */
+public class KeysetSlice<T> {
+
+    private final List<T> content;
+
+    private final String nextToken;
+
+    public KeysetSlice(List<T> content, String nextToken) {
+        this.content = List.copyOf(content);
+        this.nextToken = nextToken;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * @return the continuation token for the following slice, or {@code null} if this is the last slice.
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Value types for keyset (seek) pagination through the criteria query services.
+ */
+package com.computacenter.yocoma.service.keyset;
@@ -0,0 +1,125 @@
+package com.computacenter.yocoma.service.push;
+
+import com.computacenter.yocoma.service.dto.PushedChangeDTO;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * The subscription of a client to the pushed changes, with a bounded queue of the changes not sent yet.
+ * <p>
+ * Changes are offered by the committing threads and never block them. If the queue of a slow client is full, its
+ * pending changes are dropped and it is sent a single {@code resync} event instead, upon which it reloads what it
+ * shows; the changes committed until then are dropped as well. The queue is sent by one drain at a time, which
+ * is scheduled by the offer that finds no drain running.
+ */
+public class ChangeSubscription {
+
+    public static final String CHANGE_EVENT = "change";
+
+    public static final String RESYNC_EVENT = "resync";
+
+    private final SseEmitter emitter;
+
+    private final BlockingQueue<PushedChangeDTO> queue;
+
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private volatile boolean closed;
+
+    /**
+     * @param emitter the emitter of the server-sent events of the client.
+     * @param capacity the maximum number of changes not sent yet.
+     */
+    public ChangeSubscription(SseEmitter emitter, int capacity) {
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * Queue a change for the client, without waiting for free space.
+     *
+     * @param change the change.
+     * @return whether the change has been queued, false if it has been dropped.
+     */
+    public boolean offer(PushedChangeDTO change) {
+        if (closed || overflowed.get()) {
+            return false;
+        }
+        if (!queue.offer(change)) {
+            // Cleared before the flag is raised, so every dropped change is followed by the resync
+            queue.clear();
+            overflowed.set(true);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Claim the drain of the queue.
+     *
+     * @return true if the caller has to run {@link #drain()}, false if a drain is already running or nothing is pending.
+     */
+    public boolean claimDrain() {
+        return !closed && hasPending() && draining.compareAndSet(false, true);
+    }
+
+    /**
+     * Send the pending changes to the client, until there are none. Must only be run after a successful {@link #claimDrain()}.
+     */
+    public void drain() {
+        do {
+            try {
+                send();
+            } catch (IOException | IllegalStateException e) {
+                // The client is gone, the emitter removes the subscription on its completion
+                close();
+                emitter.completeWithError(e);
+            } finally {
+                draining.set(false);
+            }
+            // A change offered after the last poll but before the release of the drain is sent by this drain
+        } while (claimDrain());
+    }
+
+    private void send() throws IOException {
+        while (!closed) {
+            if (overflowed.get()) {
+                queue.clear();
+                overflowed.set(false);
+                emitter.send(SseEmitter.event().name(RESYNC_EVENT).data(RESYNC_EVENT, MediaType.TEXT_PLAIN));
+                continue;
+            }
+            PushedChangeDTO change = queue.poll();
+            if (change == null) {
+                return;
+            }
+            emitter.send(SseEmitter.event().name(CHANGE_EVENT).data(change, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private boolean hasPending() {
+        return overflowed.get() || !queue.isEmpty();
+    }
+
+    /**
+     * Stop queueing changes, once the client is gone.
+     */
+    public void close() {
+        closed = true;
+        queue.clear();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+}
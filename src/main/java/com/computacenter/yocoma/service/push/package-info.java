@@ -0,0 +1,4 @@
+/**
+ * Push of the entity changes to subscribed clients.
+ */
+package com.computacenter.yocoma.service.push;
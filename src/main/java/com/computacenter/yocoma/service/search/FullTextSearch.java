@@ -0,0 +1,85 @@
+package com.computacenter.yocoma.service.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.search.engine.search.query.SearchQuery;
+import org.hibernate.search.engine.search.query.SearchResult;
+import org.hibernate.search.engine.search.query.SearchScroll;
+import org.hibernate.search.engine.search.query.SearchScrollResult;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * A full-text search of the entities of one type, whose hits are the ids of the entities, best ranked first.
+ * <p>
+ * Filtered by the database, a search is restricted to its best ranked hits up to a maximum, which are read once.
+ * Alone, its hits are paged in the index, and exports scroll through all of them.
+ */
+public class FullTextSearch {
+
+    /**
+     * The sort property of the pages in the order of the rank of their hits.
+     */
+    public static final String RELEVANCE_PROPERTY = "relevance";
+
+    private static final int SCROLL_CHUNK_SIZE = 1000;
+
+    private final SearchQuery<Long> query;
+
+    private final int maxHits;
+
+    private SearchResult<Long> bestHits;
+
+    public FullTextSearch(SearchQuery<Long> query, int maxHits) {
+        this.query = query;
+        this.maxHits = maxHits;
+    }
+
+    /**
+     * @return the ids of the best ranked hits up to the maximum number of hits, best first.
+     */
+    public List<Long> getBestHitIds() {
+        return bestHits().hits();
+    }
+
+    /**
+     * @return whether there are more hits than the best ranked ones.
+     */
+    public boolean isTruncated() {
+        return bestHits().total().hitCount() > bestHits().hits().size();
+    }
+
+    /**
+     * Read a page of the hits from the index.
+     *
+     * @param pageable the page, whose sort is ignored.
+     * @return the ids of the hits of the page, best first, with the number of all hits.
+     */
+    public Page<Long> fetchHitIds(Pageable pageable) {
+        SearchResult<Long> result = query.fetch((int) pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(result.hits(), pageable, result.total().hitCount());
+    }
+
+    /**
+     * Read all hits from the index, whatever their number.
+     *
+     * @return the ids of all hits, best first.
+     */
+    public List<Long> fetchAllHitIds() {
+        List<Long> ids = new ArrayList<>();
+        try (SearchScroll<Long> scroll = query.scroll(SCROLL_CHUNK_SIZE)) {
+            for (SearchScrollResult<Long> chunk = scroll.next(); chunk.hasHits(); chunk = scroll.next()) {
+                ids.addAll(chunk.hits());
+            }
+        }
+        return ids;
+    }
+
+    private SearchResult<Long> bestHits() {
+        if (bestHits == null) {
+            bestHits = query.fetch(maxHits);
+        }
+        return bestHits;
+    }
+}
@@ -0,0 +1,29 @@
+package com.computacenter.yocoma.service.search;
+
+import java.util.List;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * A page of the entities matching a full-text search, which tells whether it only covers the best ranked hits.
+ *
+ * @param <T> the type of the rows.
+ */
+public class SearchPage<T> extends PageImpl<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean truncated;
+
+    public SearchPage(List<T> content, Pageable pageable, long total, boolean truncated) {
+        super(content, pageable, total);
+        this.truncated = truncated;
+    }
+
+    /**
+     * @return whether the search has more hits than the best ranked ones the page and its total are taken from.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Value types for the full-text searches through the criteria query services.
+ */
+package com.computacenter.yocoma.service.search;
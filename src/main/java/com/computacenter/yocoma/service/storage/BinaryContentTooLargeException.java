@@ -0,0 +1,13 @@
+package com.computacenter.yocoma.service.storage;
+
+/**
+ * Thrown when content is larger than the {@link BinaryStore} accepts.
+ */
+public class BinaryContentTooLargeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BinaryContentTooLargeException(long size, long maxSize) {
+        super("Binary content of " + size + " bytes exceeds the maximum of " + maxSize + " bytes");
+    }
+}
@@ -0,0 +1,65 @@
+package com.computacenter.yocoma.service.storage;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+import org.springframework.core.io.Resource;
+
+/**
+ * Storage for binary content, addressed by the SHA-256 hash of the content.
+ * <p>
+ * Storing the same bytes twice yields the same hash and keeps a single copy, so callers have to {@link #lock(String) lock}
+ * a hash and check that it is no longer referenced before deleting it.
+ * {@link DatabaseBinaryStore} is the default implementation; a filesystem or object store can be plugged in
+ * by providing another bean of this type.
+ */
+public interface BinaryStore {
+    /**
+     * Store the given content, which is not deleted by another transaction before this one ends.
+     *
+     * @param content the bytes to store.
+     * @return the hash under which the content can be read.
+     * @throws BinaryContentTooLargeException if the content is larger than this store accepts.
+     */
+    String put(byte[] content);
+
+    /**
+     * Lock the content stored under the given hash until the transaction ends, waiting for the transactions which
+     * store or lock it meanwhile.
+     *
+     * @param hash the hash returned by {@link #put(byte[])}.
+     * @return whether content is stored under that hash.
+     */
+    boolean lock(String hash);
+
+    /**
+     * Get the content stored under the given hash.
+     *
+     * @param hash the hash returned by {@link #put(byte[])}.
+     * @return a resource streaming the content, or empty if nothing is stored under that hash.
+     */
+    Optional<Resource> get(String hash);
+
+    /**
+     * Delete the content stored under the given hash, if any.
+     *
+     * @param hash the hash returned by {@link #put(byte[])}.
+     */
+    void delete(String hash);
+
+    /**
+     * Compute the hash under which the given content is stored.
+     *
+     * @param content the bytes to hash.
+     * @return the lower case hex encoded SHA-256 of the content.
+     */
+    static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return String.format("%064x", new BigInteger(1, digest));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        }
+    }
+}
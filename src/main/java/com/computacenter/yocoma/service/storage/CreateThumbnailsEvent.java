@@ -0,0 +1,26 @@
+package com.computacenter.yocoma.service.storage;
+
+/**
+ * Published when the thumbnails of an image are needed, either because the image has just been stored
+ * or because a thumbnail has been requested before it was generated.
+ */
+public class CreateThumbnailsEvent {
+
+    private final String hash;
+
+    public CreateThumbnailsEvent(String hash) {
+        this.hash = hash;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CreateThumbnailsEvent{" +
+            "hash='" + hash + '\'' +
+            "}";
+    }
+}
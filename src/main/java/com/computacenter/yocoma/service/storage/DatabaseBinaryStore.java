@@ -0,0 +1,71 @@
+package com.computacenter.yocoma.service.storage;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.repository.BinaryContentRepository;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * {@link BinaryStore} keeping the content in the {@code binary_content} table, in the same transaction as the
+ * entities referencing it.
+ * <p>
+ * The content is read into memory, so the connection is released before the response is written. Content larger than
+ * {@code application.storage.max-content-size} is refused; a filesystem or object store streams larger content.
+ */
+@Service
+@Transactional
+public class DatabaseBinaryStore implements BinaryStore {
+
+    private final Logger log = LoggerFactory.getLogger(DatabaseBinaryStore.class);
+
+    private final BinaryContentRepository binaryContentRepository;
+
+    private final long maxContentSize;
+
+    public DatabaseBinaryStore(BinaryContentRepository binaryContentRepository, ApplicationProperties applicationProperties) {
+        this.binaryContentRepository = binaryContentRepository;
+        this.maxContentSize = applicationProperties.getStorage().getMaxContentSize().toBytes();
+    }
+
+    @Override
+    public String put(byte[] content) {
+        if (content.length > maxContentSize) {
+            throw new BinaryContentTooLargeException(content.length, maxContentSize);
+        }
+        String hash = BinaryStore.hash(content);
+        log.debug("Request to store BinaryContent : {} ({} bytes)", hash, content.length);
+        binaryContentRepository.insertOrLock(hash, content);
+        return hash;
+    }
+
+    @Override
+    public boolean lock(String hash) {
+        return binaryContentRepository.lock(hash);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Resource> get(String hash) {
+        Optional<Long> length = binaryContentRepository.findContentLength(hash);
+        if (length.isEmpty()) {
+            return Optional.empty();
+        }
+        if (length.get() > maxContentSize) {
+            throw new IllegalStateException(
+                "BinaryContent " + hash + " of " + length.get() + " bytes was stored before the maximum content size was lowered"
+            );
+        }
+        return binaryContentRepository.findContent(hash).map(content -> new ByteArrayResource(content, "BinaryContent [" + hash + "]"));
+    }
+
+    @Override
+    public void delete(String hash) {
+        log.debug("Request to delete BinaryContent : {}", hash);
+        binaryContentRepository.deleteByHash(hash);
+    }
+}
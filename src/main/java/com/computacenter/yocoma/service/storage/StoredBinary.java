@@ -0,0 +1,42 @@
+package com.computacenter.yocoma.service.storage;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Binary content read from the {@link BinaryStore}, together with what is needed to serve it.
+ */
+public class StoredBinary {
+
+    private final String hash;
+
+    private final String contentType;
+
+    private final Resource content;
+
+    public StoredBinary(String hash, String contentType, Resource content) {
+        this.hash = hash;
+        this.contentType = contentType;
+        this.content = content;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public Resource getContent() {
+        return content;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "StoredBinary{" +
+            "hash='" + hash + '\'' +
+            ", contentType='" + contentType + '\'' +
+            "}";
+    }
+}
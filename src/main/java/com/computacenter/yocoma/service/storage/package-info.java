@@ -0,0 +1,4 @@
+/**
+ * Storage for binary content such as contact images and team logos.
+ */
+package com.computacenter.yocoma.service.storage;
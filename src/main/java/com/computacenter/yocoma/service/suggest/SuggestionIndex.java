@@ -0,0 +1,184 @@
+package com.computacenter.yocoma.service.suggest;
+
+import com.computacenter.yocoma.service.dto.SuggestionDTO;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory prefix index of labelled entries.
+ * <p>
+ * The words of the indexed terms are normalized (lower case, without accents) and kept in a sorted map, so all words
+ * starting with a prefix are one sub-map away. An entry matches a text if every word of the text is the prefix of one
+ * of its words. Lookups do not lock; changes are serialized.
+ */
+public class SuggestionIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final boolean distinctLabels;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private final ConcurrentNavigableMap<String, Set<Long>> idsByWord = new ConcurrentSkipListMap<>();
+
+    /**
+     * @param distinctLabels whether entries with the same label are suggested once, without an id.
+     */
+    public SuggestionIndex(boolean distinctLabels) {
+        this.distinctLabels = distinctLabels;
+    }
+
+    /**
+     * Add an entry, or replace the entry with the same id.
+     *
+     * @param id the id of the entry.
+     * @param label the label to suggest.
+     * @param terms the terms the entry is found by, {@code null} terms are ignored.
+     */
+    public synchronized void put(Long id, String label, String... terms) {
+        remove(id);
+        String[] words = Arrays
+            .stream(terms)
+            .filter(Objects::nonNull)
+            .flatMap(term -> words(term).stream())
+            .distinct()
+            .sorted()
+            .toArray(String[]::new);
+        if (label == null || words.length == 0) {
+            return;
+        }
+        for (String word : words) {
+            idsByWord.computeIfAbsent(word, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        entries.put(id, new Entry(id, label, String.join(" ", words(label)), words));
+    }
+
+    /**
+     * Remove an entry.
+     *
+     * @param id the id of the entry.
+     */
+    public synchronized void remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String word : entry.words) {
+            idsByWord.computeIfPresent(
+                word,
+                (key, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                }
+            );
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Suggest the entries matching a text. Entries whose label starts with the text come first, then by label.
+     *
+     * @param text the text entered by the user.
+     * @param limit the maximum number of suggestions.
+     * @return the best suggestions, best first.
+     */
+    public List<SuggestionDTO> suggest(String text, int limit) {
+        List<String> words = words(text);
+        if (words.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        String prefix = String.join(" ", words);
+        Comparator<Entry> ranking = Comparator
+            .comparing((Entry entry) -> !entry.normalizedLabel.startsWith(prefix))
+            .thenComparing(entry -> entry.normalizedLabel)
+            .thenComparing(entry -> entry.id);
+        // The longest word has the fewest candidates, the others are checked per candidate
+        String mostSelective = words.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        Set<Long> candidates = new HashSet<>();
+        Map<Object, Entry> matches = new HashMap<>();
+        for (Set<Long> ids : idsByWord.subMap(mostSelective, true, mostSelective + Character.MAX_VALUE, true).values()) {
+            for (Long id : ids) {
+                Entry entry = candidates.add(id) ? entries.get(id) : null;
+                if (entry != null && entry.matches(words)) {
+                    // Of the entries with the same label, the oldest one is suggested
+                    matches.merge(distinctLabels ? entry.normalizedLabel : id, entry, (a, b) -> a.id <= b.id ? a : b);
+                }
+            }
+        }
+        PriorityQueue<Entry> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+        for (Entry entry : matches.values()) {
+            best.add(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Entry> result = new ArrayList<>(best);
+        result.sort(ranking);
+        return result
+            .stream()
+            .map(entry -> new SuggestionDTO(distinctLabels ? null : entry.id, entry.label))
+            .collect(Collectors.toList());
+    }
+
+    static List<String> words(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays
+            .stream(NON_WORD.split(normalize(text)))
+            .filter(word -> !word.isEmpty())
+            .collect(Collectors.toList());
+    }
+
+    private static String normalize(String text) {
+        return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry {
+
+        private final Long id;
+
+        private final String label;
+
+        private final String normalizedLabel;
+
+        private final String[] words;
+
+        private Entry(Long id, String label, String normalizedLabel, String[] words) {
+            this.id = id;
+            this.label = label;
+            this.normalizedLabel = normalizedLabel;
+            this.words = words;
+        }
+
+        private boolean matches(List<String> prefixes) {
+            return prefixes.stream().allMatch(this::hasWordStartingWith);
+        }
+
+        private boolean hasWordStartingWith(String prefix) {
+            int index = Arrays.binarySearch(words, prefix);
+            int candidate = index >= 0 ? index : -index - 1;
+            return candidate < words.length && words[candidate].startsWith(prefix);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * In-memory indexes answering typeahead suggestions.
+ */
+package com.computacenter.yocoma.service.suggest;
@@ -0,0 +1,86 @@
+package com.computacenter.yocoma.service.version;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.util.DigestUtils;
+
+/**
+ * The version of the representation of an entity, i.e. of the entity and of the related entities rendered with it.
+ * <p>
+ * It is computed from the ids, versions and modification dates of all those rows, so it is read without loading any
+ * of the entities.
+ */
+public class EntityVersion {
+
+    private final long version;
+
+    private final String tag;
+
+    private final Instant lastModified;
+
+    private EntityVersion(long version, String tag, Instant lastModified) {
+        this.version = version;
+        this.tag = tag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * @param rows the rows of the representation, each starting with the version and the last modification date of
+     * the entity, followed by the ids, versions and last modification dates of the related entities.
+     * @return the version, or empty without rows, i.e. if the entity does not exist.
+     */
+    public static Optional<EntityVersion> of(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        StringBuilder versions = new StringBuilder();
+        Instant lastModified = null;
+        for (Object[] row : rows) {
+            for (Object value : row) {
+                if (value instanceof Instant) {
+                    if (lastModified == null || lastModified.isBefore((Instant) value)) {
+                        lastModified = (Instant) value;
+                    }
+                } else {
+                    versions.append(value).append(',');
+                }
+            }
+            versions.append(';');
+        }
+        String tag = DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8));
+        return Optional.of(new EntityVersion(((Number) rows.get(0)[0]).longValue(), tag, lastModified));
+    }
+
+    /**
+     * @return the version of the entity itself, as checked by its updates.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the opaque tag which changes whenever the representation changes.
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * @return the last modification of the entity or of a related entity, {@code null} if unknown.
+     */
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "EntityVersion{" +
+            "version=" + version +
+            ", tag='" + tag + '\'' +
+            ", lastModified=" + lastModified +
+            "}";
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Versions of the representations of the entities, for conditional requests.
+ */
+package com.computacenter.yocoma.service.version;
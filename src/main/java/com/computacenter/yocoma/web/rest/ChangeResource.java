@@ -0,0 +1,96 @@
+package com.computacenter.yocoma.web.rest;
+
+import com.computacenter.yocoma.service.ChangePushService;
+import com.computacenter.yocoma.service.ChangeService;
+import com.computacenter.yocoma.service.dto.EntityChangeDTO;
+import com.computacenter.yocoma.service.dto.EntityChangesDTO;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * REST controller for syncing contacts, teams and team contacts, so clients do not have to load whole entity lists
+ * to find out what has changed.
+ */
+@RestController
+@RequestMapping("/api/_changes")
+public class ChangeResource {
+
+    public static final String SYNC_TOKEN_HEADER = "X-Sync-Token";
+
+    private static final int DEFAULT_SIZE = 500;
+
+    private static final int MAX_SIZE = 1000;
+
+    private static final String RETRY_AFTER_SECONDS = "60";
+
+    private final Logger log = LoggerFactory.getLogger(ChangeResource.class);
+
+    private final ChangeService changeService;
+
+    private final ChangePushService changePushService;
+
+    public ChangeResource(ChangeService changeService, ChangePushService changePushService) {
+        this.changeService = changeService;
+        this.changePushService = changePushService;
+    }
+
+    /**
+     * {@code GET  /_changes?since=} : get the changes of the contacts, teams and team contacts since a sync.
+     * <p>
+     * Each changed entity is listed once, with its latest change and its summary; deleted entities are listed as
+     * tombstones without summary. The token of the following sync is returned in the {@code X-Sync-Token} header.
+     * If more changes are left, it is also returned as {@code next} link, which the client follows right away.
+     *
+     * @param since the token of the previous sync, omitted by a client which has just loaded all entities.
+     * @param size the maximum number of changes, at most 1000.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of changes in body,
+     * or with status {@code 410 (Gone)} if the changes since the token are no longer available.
+     */
+    @GetMapping("")
+    public ResponseEntity<List<EntityChangeDTO>> getChanges(
+        @RequestParam(value = "since", required = false) Long since,
+        @RequestParam(value = "size", defaultValue = "" + DEFAULT_SIZE) int size
+    ) {
+        log.debug("REST request to get the changes since : {}", since);
+        EntityChangesDTO changes = changeService.findChanges(since, Math.max(1, Math.min(size, MAX_SIZE)));
+        String token = String.valueOf(changes.getPosition());
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(SYNC_TOKEN_HEADER, token);
+        if (changes.hasMore()) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest().replaceQueryParam("since", token).toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(headers).cacheControl(CacheControl.noStore()).body(changes.getChanges());
+    }
+
+    /**
+     * {@code GET  /_changes/stream} : subscribe to the changes of the contacts, teams and team contacts.
+     * <p>
+     * Each committed change is pushed as server-sent {@code change} event, with the type and id of the entity and the
+     * type of the change. A client too slow to keep up is sent a {@code resync} event instead of the changes it missed,
+     * upon which it reloads what it shows. The stream ends after a while, and the client subscribes again.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the stream of events in body,
+     * or with status {@code 503 (Service Unavailable)} if too many clients are subscribed.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges() {
+        log.debug("REST request to subscribe to the changes");
+        return changePushService
+            .subscribe()
+            .map(emitter -> ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(emitter))
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS).build());
+    }
+}
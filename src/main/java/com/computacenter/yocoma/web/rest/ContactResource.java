@@ -1,23 +1,58 @@
 package com.computacenter.yocoma.web.rest;
 
+import com.computacenter.yocoma.config.ApplicationProperties;
 import com.computacenter.yocoma.domain.Contact;
+import com.computacenter.yocoma.domain.enumeration.ContactImportFormat;
+import com.computacenter.yocoma.domain.enumeration.ThumbnailSize;
 import com.computacenter.yocoma.repository.ContactRepository;
+import com.computacenter.yocoma.service.ContactImportService;
 import com.computacenter.yocoma.service.ContactQueryService;
 import com.computacenter.yocoma.service.ContactService;
 import com.computacenter.yocoma.service.criteria.ContactCriteria;
+import com.computacenter.yocoma.service.dto.BulkItemResultDTO;
+import com.computacenter.yocoma.service.dto.ContactImportDTO;
+import com.computacenter.yocoma.service.dto.ContactSummaryDTO;
+import com.computacenter.yocoma.service.keyset.KeysetRequest;
+import com.computacenter.yocoma.service.keyset.KeysetSlice;
+import com.computacenter.yocoma.service.storage.StoredBinary;
 import com.computacenter.yocoma.web.rest.errors.BadRequestAlertException;
+import com.computacenter.yocoma.web.rest.util.BinaryContentUtil;
+import com.computacenter.yocoma.web.rest.util.BulkRequestUtil;
+import com.computacenter.yocoma.web.rest.util.ConditionalRequestUtil;
+import com.computacenter.yocoma.web.rest.util.ExportUtil;
+import com.computacenter.yocoma.web.rest.util.PageableUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -32,6 +67,18 @@ public class ContactResource {
 
     private static final String ENTITY_NAME = "contact";
 
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final List<String> ALLOWED_ORDERED_PROPERTIES = List.of("id", "relevance", "firstname", "lastname", "email", "phone", "remark");
+
+    private static final Map<String, Function<ContactSummaryDTO, Object>> EXPORT_COLUMNS = exportColumns();
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final String TEXT_VCARD_VALUE = "text/vcard";
+
+    private static final String TEXT_X_VCARD_VALUE = "text/x-vcard";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -41,10 +88,26 @@ public class ContactResource {
 
     private final ContactQueryService contactQueryService;
 
-    public ContactResource(ContactService contactService, ContactRepository contactRepository, ContactQueryService contactQueryService) {
+    private final ContactImportService contactImportService;
+
+    private final ObjectMapper objectMapper;
+
+    private final int maxBulkItems;
+
+    public ContactResource(
+        ContactService contactService,
+        ContactRepository contactRepository,
+        ContactQueryService contactQueryService,
+        ContactImportService contactImportService,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
         this.contactService = contactService;
         this.contactRepository = contactRepository;
         this.contactQueryService = contactQueryService;
+        this.contactImportService = contactImportService;
+        this.objectMapper = objectMapper;
+        this.maxBulkItems = applicationProperties.getBulk().getMaxItems();
     }
 
     /**
@@ -72,15 +135,18 @@ public class ContactResource {
      *
      * @param id the id of the contact to save.
      * @param contact the contact to update.
+     * @param ifMatch the ETags of the versions of the contact the update is based on, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated contact,
      * or with status {@code 400 (Bad Request)} if the contact is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the contact has been modified since,
      * or with status {@code 500 (Internal Server Error)} if the contact couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/contacts/{id}")
     public ResponseEntity<Contact> updateContact(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody Contact contact
+        @Valid @RequestBody Contact contact,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update Contact : {}, {}", id, contact);
         if (contact.getId() == null) {
@@ -93,21 +159,98 @@ public class ContactResource {
         if (!contactRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        contact.setVersion(ConditionalRequestUtil.checkIfMatch(ifMatch, () -> contactService.findVersion(id)));
 
         Contact result = contactService.update(contact);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, contact.getId().toString()))
+            .headers(ConditionalRequestUtil.versionHeaders(contactService.findVersion(id)))
             .body(result);
     }
 
+    /**
+     * {@code POST  /contacts/_bulk} : Create or update many contacts, see {@link #bulkDeleteContacts} to delete many.
+     * <p>
+     * The body is either a JSON array or newline delimited JSON ({@code application/x-ndjson}). Items without an id
+     * are created, the others are updated. All items are validated before any of them is saved.
+     *
+     * @param body the contacts to save.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each contact, in the order of the request,
+     * or with status {@code 400 (Bad Request)} if the body cannot be read or has too many items.
+     */
+    @PostMapping(value = "/contacts/_bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<List<BulkItemResultDTO>> bulkSaveContacts(InputStream body) {
+        List<Contact> contacts = BulkRequestUtil.readItems(objectMapper, body, Contact.class, maxBulkItems, ENTITY_NAME);
+        log.debug("REST request to bulk save {} Contacts", contacts.size());
+        return ResponseEntity.ok(contactService.saveAll(contacts));
+    }
+
+    /**
+     * {@code DELETE  /contacts/_bulk} : Delete many contacts.
+     * <p>
+     * The body is the ids of the contacts, either as a JSON array or newline delimited JSON ({@code application/x-ndjson}).
+     * All ids are checked before any contact is deleted.
+     *
+     * @param body the ids of the contacts to delete.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each id, in the order of the request,
+     * or with status {@code 400 (Bad Request)} if the body cannot be read or has too many items.
+     */
+    @DeleteMapping(value = "/contacts/_bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<List<BulkItemResultDTO>> bulkDeleteContacts(InputStream body) {
+        List<Long> ids = BulkRequestUtil.readItems(objectMapper, body, Long.class, maxBulkItems, ENTITY_NAME);
+        log.debug("REST request to bulk delete {} Contacts", ids.size());
+        return ResponseEntity.ok(contactService.deleteAll(ids));
+    }
+
+    /**
+     * {@code POST  /contacts/_import} : Import the contacts of a CSV or vCard file in the background.
+     * <p>
+     * A CSV file has a header line with at least the {@code firstname} and {@code lastname} columns, and optionally the
+     * {@code email}, {@code phone} and {@code remark} columns, separated by commas or semicolons. Rows which are not
+     * valid contacts are reported, and rows with the email or phone of an existing contact or of a row before them
+     * are skipped as duplicates.
+     *
+     * @param contentType the type of the file, with its charset if it is not UTF-8.
+     * @param body the file to import.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the queued import, whose
+     * progress is polled at its {@code Location}.
+     * @throws IOException if the file cannot be received.
+     */
+    @PostMapping(value = "/contacts/_import", consumes = { TEXT_CSV_VALUE, TEXT_VCARD_VALUE, TEXT_X_VCARD_VALUE })
+    public ResponseEntity<ContactImportDTO> importContacts(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body)
+        throws IOException {
+        ContactImportFormat format = TEXT_CSV_VALUE.equals(contentType.getType() + "/" + contentType.getSubtype())
+            ? ContactImportFormat.CSV
+            : ContactImportFormat.VCARD;
+        Charset charset = contentType.getCharset() == null ? StandardCharsets.UTF_8 : contentType.getCharset();
+        log.debug("REST request to import Contacts from {} in {}", format, charset);
+        ContactImportDTO result = contactImportService.start(format, charset, body);
+        return ResponseEntity.accepted().location(URI.create("/api/contacts/_import/" + result.getId())).body(result);
+    }
+
+    /**
+     * {@code GET  /contacts/_import/:id} : get the progress of the "id" import of contacts.
+     *
+     * @param id the id of the import.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the import with its counts and
+     * first invalid rows, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/contacts/_import/{id}")
+    public ResponseEntity<ContactImportDTO> getContactImport(@PathVariable Long id) {
+        log.debug("REST request to get ContactImport : {}", id);
+        return ResponseUtil.wrapOrNotFound(contactImportService.findOne(id));
+    }
+
     /**
      * {@code PATCH  /contacts/:id} : Partial updates given fields of an existing contact, field will ignore if it is null
      *
      * @param id the id of the contact to save.
      * @param contact the contact to update.
+     * @param ifMatch the ETags of the versions of the contact the update is based on, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated contact,
      * or with status {@code 400 (Bad Request)} if the contact is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the contact has been modified since,
      * or with status {@code 404 (Not Found)} if the contact is not found,
      * or with status {@code 500 (Internal Server Error)} if the contact couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
@@ -115,7 +258,8 @@ public class ContactResource {
     @PatchMapping(value = "/contacts/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Contact> partialUpdateContact(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Contact contact
+        @NotNull @RequestBody Contact contact,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to partial update Contact partially : {}, {}", id, contact);
         if (contact.getId() == null) {
@@ -128,26 +272,68 @@ public class ContactResource {
         if (!contactRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        contact.setVersion(ConditionalRequestUtil.checkIfMatch(ifMatch, () -> contactService.findVersion(id)));
 
         Optional<Contact> result = contactService.partialUpdate(contact);
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, contact.getId().toString())
-        );
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, contact.getId().toString());
+        headers.addAll(ConditionalRequestUtil.versionHeaders(contactService.findVersion(id)));
+        return ResponseUtil.wrapOrNotFound(result, headers);
     }
 
     /**
      * {@code GET  /contacts} : get all the contacts.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of contacts in body.
+     * @param pageable the pagination information. A full-text search may be sorted by {@code relevance}; the
+     * {@code X-Search-Truncated} header tells when the page only covers its best ranked hits.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of contacts in body,
+     * or with status {@code 400 (Bad Request)} if the requested sort is not allowed.
      */
     @GetMapping("/contacts")
-    public ResponseEntity<List<Contact>> getAllContacts(ContactCriteria criteria) {
-        log.debug("REST request to get Contacts by criteria: {}", criteria);
-        List<Contact> entityList = contactQueryService.findByCriteria(criteria);
-        return ResponseEntity.ok().body(entityList);
+    public ResponseEntity<List<ContactSummaryDTO>> getAllContacts(
+        ContactCriteria criteria,
+        @org.springdoc.api.annotations.ParameterObject @PageableDefault(sort = { "lastname", "firstname" }) Pageable pageable
+    ) {
+        log.debug("REST request to get Contacts by criteria: {}, page: {}", criteria, pageable);
+        if (!PageableUtil.onlyContainsAllowedProperties(pageable, ALLOWED_ORDERED_PROPERTIES)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Page<ContactSummaryDTO> page = contactQueryService.findByCriteria(criteria, PageableUtil.withStableSort(pageable, MAX_PAGE_SIZE));
+        HttpHeaders headers = PageableUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).cacheControl(ConditionalRequestUtil.revalidate()).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /contacts/_seek} : get a slice of the contacts using keyset pagination.
+     * <p>
+     * Meant for clients walking through all contacts, like export and sync jobs: every slice costs the same
+     * and no count is run. The token for the following slice is returned in the {@code X-Continuation-Token} header
+     * and as {@code next} link; the last slice has neither.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param continuation the continuation token of the previous slice, omitted for the first slice.
+     * @param size the maximum number of contacts in the slice.
+     * @param sort the sort of the first slice, {@code id} or {@code lastname} with an optional direction. A continuation token carries its own sort.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the slice of contacts in body,
+     * or with status {@code 400 (Bad Request)} if the sort or the continuation token is invalid.
+     */
+    @GetMapping("/contacts/_seek")
+    public ResponseEntity<List<ContactSummaryDTO>> seekContacts(
+        ContactCriteria criteria,
+        @RequestParam(value = "continuation", required = false) String continuation,
+        @RequestParam(value = "size", defaultValue = "100") int size,
+        @RequestParam(value = "sort", defaultValue = "id") String sort
+    ) {
+        log.debug("REST request to seek Contacts by criteria: {}, continuation: {}", criteria, continuation);
+        int sliceSize = Math.min(size, MAX_PAGE_SIZE);
+        KeysetRequest request = continuation == null
+            ? KeysetRequest.first(sort, sliceSize)
+            : KeysetRequest.fromToken(continuation, sliceSize);
+        KeysetSlice<ContactSummaryDTO> slice = contactQueryService.findByCriteria(criteria, request);
+        HttpHeaders headers = PageableUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+        return ResponseEntity.ok().headers(headers).cacheControl(ConditionalRequestUtil.revalidate()).body(slice.getContent());
     }
 
     /**
@@ -162,17 +348,84 @@ public class ContactResource {
         return ResponseEntity.ok().body(contactQueryService.countByCriteria(criteria));
     }
 
+    /**
+     * {@code GET  /contacts/_export} : export all the contacts matching the criteria, in the order of their ids.
+     * <p>
+     * The contacts are streamed from the database into the response, so an export of any size takes constant memory.
+     * The image is exported as the URL of the image, not its content.
+     *
+     * @param criteria the criteria which the exported entities should match.
+     * @param format the format of the export, {@code csv} or {@code ndjson}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the contacts in body as an attachment,
+     * or with status {@code 400 (Bad Request)} if the format is not supported.
+     */
+    @GetMapping("/contacts/_export")
+    public ResponseEntity<StreamingResponseBody> exportContacts(
+        ContactCriteria criteria,
+        @RequestParam(value = "format", defaultValue = "csv") String format
+    ) {
+        log.debug("REST request to export Contacts by criteria: {}, format: {}", criteria, format);
+        ExportUtil.Format exportFormat = ExportUtil.parseFormat(format, ENTITY_NAME);
+        return ExportUtil.export(
+            exportFormat,
+            "contacts",
+            objectMapper,
+            EXPORT_COLUMNS,
+            rows -> contactQueryService.exportByCriteria(criteria, rows)
+        );
+    }
+
     /**
      * {@code GET  /contacts/:id} : get the "id" contact.
      *
      * @param id the id of the contact to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the contact, or with status {@code 404 (Not Found)}.
+     * @param request the request, conditional on the {@code ETag} or {@code Last-Modified} of the contact the client has.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the contact,
+     * or with status {@code 304 (Not Modified)} if the client has the current version of the contact,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/contacts/{id}")
-    public ResponseEntity<Contact> getContact(@PathVariable Long id) {
+    public ResponseEntity<Contact> getContact(@PathVariable Long id, WebRequest request) {
         log.debug("REST request to get Contact : {}", id);
-        Optional<Contact> contact = contactService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(contact);
+        return ConditionalRequestUtil.wrapOrNotModified(contactService.findVersion(id), request, () -> contactService.findOne(id));
+    }
+
+    /**
+     * {@code GET  /contacts/:id/image} : get the image of the "id" contact.
+     * <p>
+     * Supports conditional requests through the content hash as {@code ETag} and byte ranges.
+     *
+     * @param id the id of the contact whose image to retrieve.
+     * @param request the request, with its {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the image, or with status {@code 304 (Not Modified)},
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/contacts/{id}/image")
+    public ResponseEntity<Resource> getContactImage(@PathVariable Long id, WebRequest request) {
+        log.debug("REST request to get Image of Contact : {}", id);
+        return BinaryContentUtil.wrapOrNotModified(contactService.findImageHash(id), request, () -> contactService.findImage(id));
+    }
+
+    /**
+     * {@code GET  /contacts/:id/image/:hash/:size} : get a thumbnail of the image of the "id" contact.
+     * <p>
+     * The response may be cached forever, as the URL contains the hash of the image. Until the thumbnail has been
+     * created, the original image is served without that permission.
+     *
+     * @param id the id of the contact whose image thumbnail to retrieve.
+     * @param hash the hash of the image.
+     * @param size the size of the thumbnail in pixels, see {@link ThumbnailSize}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the thumbnail, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/contacts/{id}/image/{hash}/{size}")
+    public ResponseEntity<Resource> getContactImageThumbnail(@PathVariable Long id, @PathVariable String hash, @PathVariable int size) {
+        log.debug("REST request to get Image thumbnail of Contact : {}, {}", id, size);
+        ThumbnailSize thumbnailSize = ThumbnailSize.ofPixels(size).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        Optional<StoredBinary> thumbnail = contactService.findImageThumbnail(id, hash, thumbnailSize);
+        if (thumbnail.isPresent()) {
+            return BinaryContentUtil.wrapImmutable(thumbnail.get());
+        }
+        return BinaryContentUtil.wrapOrNotFound(contactService.findImage(id).filter(image -> image.getHash().equals(hash)));
     }
 
     /**
@@ -190,4 +443,16 @@ public class ContactResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private static Map<String, Function<ContactSummaryDTO, Object>> exportColumns() {
+        Map<String, Function<ContactSummaryDTO, Object>> columns = new LinkedHashMap<>();
+        columns.put("id", ContactSummaryDTO::getId);
+        columns.put("firstname", ContactSummaryDTO::getFirstname);
+        columns.put("lastname", ContactSummaryDTO::getLastname);
+        columns.put("email", ContactSummaryDTO::getEmail);
+        columns.put("phone", ContactSummaryDTO::getPhone);
+        columns.put("remark", ContactSummaryDTO::getRemark);
+        columns.put("imageUrl", ContactSummaryDTO::getImageUrl);
+        return Collections.unmodifiableMap(columns);
+    }
 }
@@ -0,0 +1,46 @@
+package com.computacenter.yocoma.web.rest;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.security.jwt.JwtSigningKeys;
+import java.time.Duration;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller publishing the public keys of the JWTs, so other services verify the tokens themselves instead of
+ * asking this application about each one.
+ */
+@RestController
+public class JwksResource {
+
+    private final Logger log = LoggerFactory.getLogger(JwksResource.class);
+
+    private final JwtSigningKeys jwtSigningKeys;
+
+    private final Duration refreshInterval;
+
+    public JwksResource(JwtSigningKeys jwtSigningKeys, ApplicationProperties applicationProperties) {
+        this.jwtSigningKeys = jwtSigningKeys;
+        this.refreshInterval = applicationProperties.getSecurity().getJwt().getRefreshInterval();
+    }
+
+    /**
+     * {@code GET  /.well-known/jwks.json} : get the public keys verifying the JWTs, by their {@code kid}.
+     * <p>
+     * A new key is listed here before it signs, by the publish-ahead time, so the clients may cache the keys for the
+     * refresh interval of the application.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the JSON Web Key Set in body, without keys if
+     * the tokens are signed with the shared secret.
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        log.debug("REST request to get the JSON Web Key Set");
+        return ResponseEntity.ok().cacheControl(CacheControl.maxAge(refreshInterval).cachePublic()).body(jwtSigningKeys.jwks());
+    }
+}
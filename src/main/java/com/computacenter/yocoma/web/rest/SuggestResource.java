@@ -0,0 +1,74 @@
+package com.computacenter.yocoma.web.rest;
+
+import com.computacenter.yocoma.service.SuggestService;
+import com.computacenter.yocoma.service.dto.SuggestionDTO;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for typeahead suggestions, so pickers do not have to load whole entity lists.
+ */
+@RestController
+@RequestMapping("/api/_suggest")
+public class SuggestResource {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private static final int MAX_LIMIT = 50;
+
+    private final Logger log = LoggerFactory.getLogger(SuggestResource.class);
+
+    private final SuggestService suggestService;
+
+    public SuggestResource(SuggestService suggestService) {
+        this.suggestService = suggestService;
+    }
+
+    /**
+     * {@code GET  /_suggest/contacts?q=} : suggest contacts whose firstname, lastname or email words start with the words of the text.
+     *
+     * @param q the text entered by the user.
+     * @param limit the maximum number of suggestions, at most 50.
+     * @return the list of suggestions, labelled "lastname, firstname".
+     */
+    @GetMapping("/contacts")
+    public List<SuggestionDTO> suggestContacts(@RequestParam String q, @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit) {
+        log.debug("REST request to suggest Contacts : {}", q);
+        return suggestService.suggestContacts(q, boundedLimit(limit));
+    }
+
+    /**
+     * {@code GET  /_suggest/teams?q=} : suggest teams whose name words start with the words of the text.
+     *
+     * @param q the text entered by the user.
+     * @param limit the maximum number of suggestions, at most 50.
+     * @return the list of suggestions, labelled with the name.
+     */
+    @GetMapping("/teams")
+    public List<SuggestionDTO> suggestTeams(@RequestParam String q, @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit) {
+        log.debug("REST request to suggest Teams : {}", q);
+        return suggestService.suggestTeams(q, boundedLimit(limit));
+    }
+
+    /**
+     * {@code GET  /_suggest/roles?q=} : suggest the team contact roles whose words start with the words of the text.
+     *
+     * @param q the text entered by the user.
+     * @param limit the maximum number of suggestions, at most 50.
+     * @return the list of suggestions, each role once and without an id.
+     */
+    @GetMapping("/roles")
+    public List<SuggestionDTO> suggestRoles(@RequestParam String q, @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit) {
+        log.debug("REST request to suggest TeamContact roles : {}", q);
+        return suggestService.suggestRoles(q, boundedLimit(limit));
+    }
+
+    private static int boundedLimit(int limit) {
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
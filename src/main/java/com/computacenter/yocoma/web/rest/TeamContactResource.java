@@ -1,23 +1,46 @@
 package com.computacenter.yocoma.web.rest;
 
+import com.computacenter.yocoma.config.ApplicationProperties;
 import com.computacenter.yocoma.domain.TeamContact;
 import com.computacenter.yocoma.repository.TeamContactRepository;
 import com.computacenter.yocoma.service.TeamContactQueryService;
 import com.computacenter.yocoma.service.TeamContactService;
 import com.computacenter.yocoma.service.criteria.TeamContactCriteria;
+import com.computacenter.yocoma.service.dto.BulkItemResultDTO;
+import com.computacenter.yocoma.service.dto.TeamContactSummaryDTO;
+import com.computacenter.yocoma.service.keyset.KeysetRequest;
+import com.computacenter.yocoma.service.keyset.KeysetSlice;
 import com.computacenter.yocoma.web.rest.errors.BadRequestAlertException;
+import com.computacenter.yocoma.web.rest.util.BulkRequestUtil;
+import com.computacenter.yocoma.web.rest.util.ConditionalRequestUtil;
+import com.computacenter.yocoma.web.rest.util.ExportUtil;
+import com.computacenter.yocoma.web.rest.util.PageableUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -32,6 +55,12 @@ public class TeamContactResource {
 
     private static final String ENTITY_NAME = "teamContact";
 
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final List<String> ALLOWED_ORDERED_PROPERTIES = List.of("id", "relevance", "roleType", "role", "description");
+
+    private static final Map<String, Function<TeamContactSummaryDTO, Object>> EXPORT_COLUMNS = exportColumns();
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -41,14 +70,22 @@ public class TeamContactResource {
 
     private final TeamContactQueryService teamContactQueryService;
 
+    private final ObjectMapper objectMapper;
+
+    private final int maxBulkItems;
+
     public TeamContactResource(
         TeamContactService teamContactService,
         TeamContactRepository teamContactRepository,
-        TeamContactQueryService teamContactQueryService
+        TeamContactQueryService teamContactQueryService,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
     ) {
         this.teamContactService = teamContactService;
         this.teamContactRepository = teamContactRepository;
         this.teamContactQueryService = teamContactQueryService;
+        this.objectMapper = objectMapper;
+        this.maxBulkItems = applicationProperties.getBulk().getMaxItems();
     }
 
     /**
@@ -76,15 +113,18 @@ public class TeamContactResource {
      *
      * @param id the id of the teamContact to save.
      * @param teamContact the teamContact to update.
+     * @param ifMatch the ETags of the versions of the teamContact the update is based on, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated teamContact,
      * or with status {@code 400 (Bad Request)} if the teamContact is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the teamContact has been modified since,
      * or with status {@code 500 (Internal Server Error)} if the teamContact couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/team-contacts/{id}")
     public ResponseEntity<TeamContact> updateTeamContact(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody TeamContact teamContact
+        @Valid @RequestBody TeamContact teamContact,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update TeamContact : {}, {}", id, teamContact);
         if (teamContact.getId() == null) {
@@ -97,21 +137,59 @@ public class TeamContactResource {
         if (!teamContactRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        teamContact.setVersion(ConditionalRequestUtil.checkIfMatch(ifMatch, () -> teamContactService.findVersion(id)));
 
         TeamContact result = teamContactService.update(teamContact);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, teamContact.getId().toString()))
+            .headers(ConditionalRequestUtil.versionHeaders(teamContactService.findVersion(id)))
             .body(result);
     }
 
+    /**
+     * {@code POST  /team-contacts/_bulk} : Create or update many teamContacts, see {@link #bulkDeleteTeamContacts} to delete many.
+     * <p>
+     * The body is either a JSON array or newline delimited JSON ({@code application/x-ndjson}). Items without an id
+     * are created, the others are updated. All items are validated before any of them is saved.
+     *
+     * @param body the teamContacts to save.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each teamContact, in the order of the request,
+     * or with status {@code 400 (Bad Request)} if the body cannot be read or has too many items.
+     */
+    @PostMapping(value = "/team-contacts/_bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<List<BulkItemResultDTO>> bulkSaveTeamContacts(InputStream body) {
+        List<TeamContact> teamContacts = BulkRequestUtil.readItems(objectMapper, body, TeamContact.class, maxBulkItems, ENTITY_NAME);
+        log.debug("REST request to bulk save {} TeamContacts", teamContacts.size());
+        return ResponseEntity.ok(teamContactService.saveAll(teamContacts));
+    }
+
+    /**
+     * {@code DELETE  /team-contacts/_bulk} : Delete many teamContacts.
+     * <p>
+     * The body is the ids of the teamContacts, either as a JSON array or newline delimited JSON ({@code application/x-ndjson}).
+     * All ids are checked before any teamContact is deleted.
+     *
+     * @param body the ids of the teamContacts to delete.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each id, in the order of the request,
+     * or with status {@code 400 (Bad Request)} if the body cannot be read or has too many items.
+     */
+    @DeleteMapping(value = "/team-contacts/_bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<List<BulkItemResultDTO>> bulkDeleteTeamContacts(InputStream body) {
+        List<Long> ids = BulkRequestUtil.readItems(objectMapper, body, Long.class, maxBulkItems, ENTITY_NAME);
+        log.debug("REST request to bulk delete {} TeamContacts", ids.size());
+        return ResponseEntity.ok(teamContactService.deleteAll(ids));
+    }
+
     /**
      * {@code PATCH  /team-contacts/:id} : Partial updates given fields of an existing teamContact, field will ignore if it is null
      *
      * @param id the id of the teamContact to save.
      * @param teamContact the teamContact to update.
+     * @param ifMatch the ETags of the versions of the teamContact the update is based on, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated teamContact,
      * or with status {@code 400 (Bad Request)} if the teamContact is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the teamContact has been modified since,
      * or with status {@code 404 (Not Found)} if the teamContact is not found,
      * or with status {@code 500 (Internal Server Error)} if the teamContact couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
@@ -119,7 +197,8 @@ public class TeamContactResource {
     @PatchMapping(value = "/team-contacts/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<TeamContact> partialUpdateTeamContact(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody TeamContact teamContact
+        @NotNull @RequestBody TeamContact teamContact,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to partial update TeamContact partially : {}, {}", id, teamContact);
         if (teamContact.getId() == null) {
@@ -132,26 +211,68 @@ public class TeamContactResource {
         if (!teamContactRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        teamContact.setVersion(ConditionalRequestUtil.checkIfMatch(ifMatch, () -> teamContactService.findVersion(id)));
 
         Optional<TeamContact> result = teamContactService.partialUpdate(teamContact);
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, teamContact.getId().toString())
-        );
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, teamContact.getId().toString());
+        headers.addAll(ConditionalRequestUtil.versionHeaders(teamContactService.findVersion(id)));
+        return ResponseUtil.wrapOrNotFound(result, headers);
     }
 
     /**
      * {@code GET  /team-contacts} : get all the teamContacts.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of teamContacts in body.
+     * @param pageable the pagination information. A full-text search may be sorted by {@code relevance}; the
+     * {@code X-Search-Truncated} header tells when the page only covers its best ranked hits.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of teamContacts in body,
+     * or with status {@code 400 (Bad Request)} if the requested sort is not allowed.
      */
     @GetMapping("/team-contacts")
-    public ResponseEntity<List<TeamContact>> getAllTeamContacts(TeamContactCriteria criteria) {
-        log.debug("REST request to get TeamContacts by criteria: {}", criteria);
-        List<TeamContact> entityList = teamContactQueryService.findByCriteria(criteria);
-        return ResponseEntity.ok().body(entityList);
+    public ResponseEntity<List<TeamContactSummaryDTO>> getAllTeamContacts(
+        TeamContactCriteria criteria,
+        @org.springdoc.api.annotations.ParameterObject @PageableDefault(sort = "id") Pageable pageable
+    ) {
+        log.debug("REST request to get TeamContacts by criteria: {}, page: {}", criteria, pageable);
+        if (!PageableUtil.onlyContainsAllowedProperties(pageable, ALLOWED_ORDERED_PROPERTIES)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Page<TeamContactSummaryDTO> page = teamContactQueryService.findByCriteria(criteria, PageableUtil.withStableSort(pageable, MAX_PAGE_SIZE));
+        HttpHeaders headers = PageableUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).cacheControl(ConditionalRequestUtil.revalidate()).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /team-contacts/_seek} : get a slice of the teamContacts using keyset pagination.
+     * <p>
+     * Meant for clients walking through all teamContacts, like export and sync jobs: every slice costs the same
+     * and no count is run. The token for the following slice is returned in the {@code X-Continuation-Token} header
+     * and as {@code next} link; the last slice has neither.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param continuation the continuation token of the previous slice, omitted for the first slice.
+     * @param size the maximum number of teamContacts in the slice.
+     * @param sort the sort of the first slice, {@code id} or {@code role} with an optional direction. A continuation token carries its own sort.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the slice of teamContacts in body,
+     * or with status {@code 400 (Bad Request)} if the sort or the continuation token is invalid.
+     */
+    @GetMapping("/team-contacts/_seek")
+    public ResponseEntity<List<TeamContactSummaryDTO>> seekTeamContacts(
+        TeamContactCriteria criteria,
+        @RequestParam(value = "continuation", required = false) String continuation,
+        @RequestParam(value = "size", defaultValue = "100") int size,
+        @RequestParam(value = "sort", defaultValue = "id") String sort
+    ) {
+        log.debug("REST request to seek TeamContacts by criteria: {}, continuation: {}", criteria, continuation);
+        int sliceSize = Math.min(size, MAX_PAGE_SIZE);
+        KeysetRequest request = continuation == null
+            ? KeysetRequest.first(sort, sliceSize)
+            : KeysetRequest.fromToken(continuation, sliceSize);
+        KeysetSlice<TeamContactSummaryDTO> slice = teamContactQueryService.findByCriteria(criteria, request);
+        HttpHeaders headers = PageableUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+        return ResponseEntity.ok().headers(headers).cacheControl(ConditionalRequestUtil.revalidate()).body(slice.getContent());
     }
 
     /**
@@ -166,17 +287,46 @@ public class TeamContactResource {
         return ResponseEntity.ok().body(teamContactQueryService.countByCriteria(criteria));
     }
 
+    /**
+     * {@code GET  /team-contacts/_export} : export all the teamContacts matching the criteria, in the order of their ids.
+     * <p>
+     * The teamContacts are streamed from the database into the response, so an export of any size takes constant memory.
+     * The contact and the team are exported as their ids and names.
+     *
+     * @param criteria the criteria which the exported entities should match.
+     * @param format the format of the export, {@code csv} or {@code ndjson}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the teamContacts in body as an attachment,
+     * or with status {@code 400 (Bad Request)} if the format is not supported.
+     */
+    @GetMapping("/team-contacts/_export")
+    public ResponseEntity<StreamingResponseBody> exportTeamContacts(
+        TeamContactCriteria criteria,
+        @RequestParam(value = "format", defaultValue = "csv") String format
+    ) {
+        log.debug("REST request to export TeamContacts by criteria: {}, format: {}", criteria, format);
+        ExportUtil.Format exportFormat = ExportUtil.parseFormat(format, ENTITY_NAME);
+        return ExportUtil.export(
+            exportFormat,
+            "team-contacts",
+            objectMapper,
+            EXPORT_COLUMNS,
+            rows -> teamContactQueryService.exportByCriteria(criteria, rows)
+        );
+    }
+
     /**
      * {@code GET  /team-contacts/:id} : get the "id" teamContact.
      *
      * @param id the id of the teamContact to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the teamContact, or with status {@code 404 (Not Found)}.
+     * @param request the request, conditional on the {@code ETag} or {@code Last-Modified} of the teamContact the client has.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the teamContact,
+     * or with status {@code 304 (Not Modified)} if the client has the current version of the teamContact,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/team-contacts/{id}")
-    public ResponseEntity<TeamContact> getTeamContact(@PathVariable Long id) {
+    public ResponseEntity<TeamContact> getTeamContact(@PathVariable Long id, WebRequest request) {
         log.debug("REST request to get TeamContact : {}", id);
-        Optional<TeamContact> teamContact = teamContactService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(teamContact);
+        return ConditionalRequestUtil.wrapOrNotModified(teamContactService.findVersion(id), request, () -> teamContactService.findOne(id));
     }
 
     /**
@@ -194,4 +344,18 @@ public class TeamContactResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private static Map<String, Function<TeamContactSummaryDTO, Object>> exportColumns() {
+        Map<String, Function<TeamContactSummaryDTO, Object>> columns = new LinkedHashMap<>();
+        columns.put("id", TeamContactSummaryDTO::getId);
+        columns.put("roleType", TeamContactSummaryDTO::getRoleType);
+        columns.put("role", TeamContactSummaryDTO::getRole);
+        columns.put("description", TeamContactSummaryDTO::getDescription);
+        columns.put("contactId", teamContact -> teamContact.getContact() == null ? null : teamContact.getContact().getId());
+        columns.put("contactFirstname", teamContact -> teamContact.getContact() == null ? null : teamContact.getContact().getFirstname());
+        columns.put("contactLastname", teamContact -> teamContact.getContact() == null ? null : teamContact.getContact().getLastname());
+        columns.put("teamId", teamContact -> teamContact.getTeam() == null ? null : teamContact.getTeam().getId());
+        columns.put("teamName", teamContact -> teamContact.getTeam() == null ? null : teamContact.getTeam().getName());
+        return Collections.unmodifiableMap(columns);
+    }
 }
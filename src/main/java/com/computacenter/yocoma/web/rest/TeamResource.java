@@ -1,23 +1,47 @@
 package com.computacenter.yocoma.web.rest;
 
 import com.computacenter.yocoma.domain.Team;
+import com.computacenter.yocoma.domain.enumeration.ThumbnailSize;
 import com.computacenter.yocoma.repository.TeamRepository;
 import com.computacenter.yocoma.service.TeamQueryService;
 import com.computacenter.yocoma.service.TeamService;
 import com.computacenter.yocoma.service.criteria.TeamCriteria;
+import com.computacenter.yocoma.service.dto.TeamSummaryDTO;
+import com.computacenter.yocoma.service.keyset.KeysetRequest;
+import com.computacenter.yocoma.service.keyset.KeysetSlice;
+import com.computacenter.yocoma.service.storage.StoredBinary;
 import com.computacenter.yocoma.web.rest.errors.BadRequestAlertException;
+import com.computacenter.yocoma.web.rest.util.BinaryContentUtil;
+import com.computacenter.yocoma.web.rest.util.ConditionalRequestUtil;
+import com.computacenter.yocoma.web.rest.util.ExportUtil;
+import com.computacenter.yocoma.web.rest.util.PageableUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -32,6 +56,12 @@ public class TeamResource {
 
     private static final String ENTITY_NAME = "team";
 
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private static final List<String> ALLOWED_ORDERED_PROPERTIES = List.of("id", "relevance", "name", "motto", "description");
+
+    private static final Map<String, Function<TeamSummaryDTO, Object>> EXPORT_COLUMNS = exportColumns();
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -41,10 +71,18 @@ public class TeamResource {
 
     private final TeamQueryService teamQueryService;
 
-    public TeamResource(TeamService teamService, TeamRepository teamRepository, TeamQueryService teamQueryService) {
+    private final ObjectMapper objectMapper;
+
+    public TeamResource(
+        TeamService teamService,
+        TeamRepository teamRepository,
+        TeamQueryService teamQueryService,
+        ObjectMapper objectMapper
+    ) {
         this.teamService = teamService;
         this.teamRepository = teamRepository;
         this.teamQueryService = teamQueryService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -72,14 +110,19 @@ public class TeamResource {
      *
      * @param id the id of the team to save.
      * @param team the team to update.
+     * @param ifMatch the ETags of the versions of the team the update is based on, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated team,
      * or with status {@code 400 (Bad Request)} if the team is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the team has been modified since,
      * or with status {@code 500 (Internal Server Error)} if the team couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/teams/{id}")
-    public ResponseEntity<Team> updateTeam(@PathVariable(value = "id", required = false) final Long id, @Valid @RequestBody Team team)
-        throws URISyntaxException {
+    public ResponseEntity<Team> updateTeam(
+        @PathVariable(value = "id", required = false) final Long id,
+        @Valid @RequestBody Team team,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
         log.debug("REST request to update Team : {}, {}", id, team);
         if (team.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -91,11 +134,13 @@ public class TeamResource {
         if (!teamRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        team.setVersion(ConditionalRequestUtil.checkIfMatch(ifMatch, () -> teamService.findVersion(id)));
 
         Team result = teamService.update(team);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, team.getId().toString()))
+            .headers(ConditionalRequestUtil.versionHeaders(teamService.findVersion(id)))
             .body(result);
     }
 
@@ -104,8 +149,10 @@ public class TeamResource {
      *
      * @param id the id of the team to save.
      * @param team the team to update.
+     * @param ifMatch the ETags of the versions of the team the update is based on, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated team,
      * or with status {@code 400 (Bad Request)} if the team is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the team has been modified since,
      * or with status {@code 404 (Not Found)} if the team is not found,
      * or with status {@code 500 (Internal Server Error)} if the team couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
@@ -113,7 +160,8 @@ public class TeamResource {
     @PatchMapping(value = "/teams/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Team> partialUpdateTeam(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Team team
+        @NotNull @RequestBody Team team,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to partial update Team partially : {}, {}", id, team);
         if (team.getId() == null) {
@@ -126,26 +174,68 @@ public class TeamResource {
         if (!teamRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        team.setVersion(ConditionalRequestUtil.checkIfMatch(ifMatch, () -> teamService.findVersion(id)));
 
         Optional<Team> result = teamService.partialUpdate(team);
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, team.getId().toString())
-        );
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, team.getId().toString());
+        headers.addAll(ConditionalRequestUtil.versionHeaders(teamService.findVersion(id)));
+        return ResponseUtil.wrapOrNotFound(result, headers);
     }
 
     /**
      * {@code GET  /teams} : get all the teams.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of teams in body.
+     * @param pageable the pagination information. A full-text search may be sorted by {@code relevance}; the
+     * {@code X-Search-Truncated} header tells when the page only covers its best ranked hits.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of teams in body,
+     * or with status {@code 400 (Bad Request)} if the requested sort is not allowed.
      */
     @GetMapping("/teams")
-    public ResponseEntity<List<Team>> getAllTeams(TeamCriteria criteria) {
-        log.debug("REST request to get Teams by criteria: {}", criteria);
-        List<Team> entityList = teamQueryService.findByCriteria(criteria);
-        return ResponseEntity.ok().body(entityList);
+    public ResponseEntity<List<TeamSummaryDTO>> getAllTeams(
+        TeamCriteria criteria,
+        @org.springdoc.api.annotations.ParameterObject @PageableDefault(sort = "name") Pageable pageable
+    ) {
+        log.debug("REST request to get Teams by criteria: {}, page: {}", criteria, pageable);
+        if (!PageableUtil.onlyContainsAllowedProperties(pageable, ALLOWED_ORDERED_PROPERTIES)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Page<TeamSummaryDTO> page = teamQueryService.findByCriteria(criteria, PageableUtil.withStableSort(pageable, MAX_PAGE_SIZE));
+        HttpHeaders headers = PageableUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).cacheControl(ConditionalRequestUtil.revalidate()).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /teams/_seek} : get a slice of the teams using keyset pagination.
+     * <p>
+     * Meant for clients walking through all teams, like export and sync jobs: every slice costs the same
+     * and no count is run. The token for the following slice is returned in the {@code X-Continuation-Token} header
+     * and as {@code next} link; the last slice has neither.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param continuation the continuation token of the previous slice, omitted for the first slice.
+     * @param size the maximum number of teams in the slice.
+     * @param sort the sort of the first slice, {@code id} or {@code name} with an optional direction. A continuation token carries its own sort.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the slice of teams in body,
+     * or with status {@code 400 (Bad Request)} if the sort or the continuation token is invalid.
+     */
+    @GetMapping("/teams/_seek")
+    public ResponseEntity<List<TeamSummaryDTO>> seekTeams(
+        TeamCriteria criteria,
+        @RequestParam(value = "continuation", required = false) String continuation,
+        @RequestParam(value = "size", defaultValue = "100") int size,
+        @RequestParam(value = "sort", defaultValue = "id") String sort
+    ) {
+        log.debug("REST request to seek Teams by criteria: {}, continuation: {}", criteria, continuation);
+        int sliceSize = Math.min(size, MAX_PAGE_SIZE);
+        KeysetRequest request = continuation == null
+            ? KeysetRequest.first(sort, sliceSize)
+            : KeysetRequest.fromToken(continuation, sliceSize);
+        KeysetSlice<TeamSummaryDTO> slice = teamQueryService.findByCriteria(criteria, request);
+        HttpHeaders headers = PageableUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+        return ResponseEntity.ok().headers(headers).cacheControl(ConditionalRequestUtil.revalidate()).body(slice.getContent());
     }
 
     /**
@@ -160,17 +250,84 @@ public class TeamResource {
         return ResponseEntity.ok().body(teamQueryService.countByCriteria(criteria));
     }
 
+    /**
+     * {@code GET  /teams/_export} : export all the teams matching the criteria, in the order of their ids.
+     * <p>
+     * The teams are streamed from the database into the response, so an export of any size takes constant memory.
+     * The logo is exported as the URL of the logo, not its content.
+     *
+     * @param criteria the criteria which the exported entities should match.
+     * @param format the format of the export, {@code csv} or {@code ndjson}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the teams in body as an attachment,
+     * or with status {@code 400 (Bad Request)} if the format is not supported.
+     */
+    @GetMapping("/teams/_export")
+    public ResponseEntity<StreamingResponseBody> exportTeams(
+        TeamCriteria criteria,
+        @RequestParam(value = "format", defaultValue = "csv") String format
+    ) {
+        log.debug("REST request to export Teams by criteria: {}, format: {}", criteria, format);
+        ExportUtil.Format exportFormat = ExportUtil.parseFormat(format, ENTITY_NAME);
+        return ExportUtil.export(
+            exportFormat,
+            "teams",
+            objectMapper,
+            EXPORT_COLUMNS,
+            rows -> teamQueryService.exportByCriteria(criteria, rows)
+        );
+    }
+
     /**
      * {@code GET  /teams/:id} : get the "id" team.
      *
      * @param id the id of the team to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the team, or with status {@code 404 (Not Found)}.
+     * @param request the request, conditional on the {@code ETag} or {@code Last-Modified} of the team the client has.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the team,
+     * or with status {@code 304 (Not Modified)} if the client has the current version of the team,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/teams/{id}")
-    public ResponseEntity<Team> getTeam(@PathVariable Long id) {
+    public ResponseEntity<Team> getTeam(@PathVariable Long id, WebRequest request) {
         log.debug("REST request to get Team : {}", id);
-        Optional<Team> team = teamService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(team);
+        return ConditionalRequestUtil.wrapOrNotModified(teamService.findVersion(id), request, () -> teamService.findOne(id));
+    }
+
+    /**
+     * {@code GET  /teams/:id/logo} : get the logo of the "id" team.
+     * <p>
+     * Supports conditional requests through the content hash as {@code ETag} and byte ranges.
+     *
+     * @param id the id of the team whose logo to retrieve.
+     * @param request the request, with its {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the logo, or with status {@code 304 (Not Modified)},
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/teams/{id}/logo")
+    public ResponseEntity<Resource> getTeamLogo(@PathVariable Long id, WebRequest request) {
+        log.debug("REST request to get Logo of Team : {}", id);
+        return BinaryContentUtil.wrapOrNotModified(teamService.findLogoHash(id), request, () -> teamService.findLogo(id));
+    }
+
+    /**
+     * {@code GET  /teams/:id/logo/:hash/:size} : get a thumbnail of the logo of the "id" team.
+     * <p>
+     * The response may be cached forever, as the URL contains the hash of the logo. Until the thumbnail has been
+     * created, the original logo is served without that permission.
+     *
+     * @param id the id of the team whose logo thumbnail to retrieve.
+     * @param hash the hash of the logo.
+     * @param size the size of the thumbnail in pixels, see {@link ThumbnailSize}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the thumbnail, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/teams/{id}/logo/{hash}/{size}")
+    public ResponseEntity<Resource> getTeamLogoThumbnail(@PathVariable Long id, @PathVariable String hash, @PathVariable int size) {
+        log.debug("REST request to get Logo thumbnail of Team : {}, {}", id, size);
+        ThumbnailSize thumbnailSize = ThumbnailSize.ofPixels(size).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        Optional<StoredBinary> thumbnail = teamService.findLogoThumbnail(id, hash, thumbnailSize);
+        if (thumbnail.isPresent()) {
+            return BinaryContentUtil.wrapImmutable(thumbnail.get());
+        }
+        return BinaryContentUtil.wrapOrNotFound(teamService.findLogo(id).filter(logo -> logo.getHash().equals(hash)));
     }
 
     /**
@@ -188,4 +345,14 @@ public class TeamResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private static Map<String, Function<TeamSummaryDTO, Object>> exportColumns() {
+        Map<String, Function<TeamSummaryDTO, Object>> columns = new LinkedHashMap<>();
+        columns.put("id", TeamSummaryDTO::getId);
+        columns.put("name", TeamSummaryDTO::getName);
+        columns.put("motto", TeamSummaryDTO::getMotto);
+        columns.put("description", TeamSummaryDTO::getDescription);
+        columns.put("logoUrl", TeamSummaryDTO::getLogoUrl);
+        return Collections.unmodifiableMap(columns);
+    }
 }
@@ -1,8 +1,9 @@
 package com.computacenter.yocoma.web.rest;
 
 import com.computacenter.yocoma.security.jwt.JWTFilter;
-import com.computacenter.yocoma.security.jwt.TokenProvider;
+import com.computacenter.yocoma.service.RefreshTokenService;
 import com.computacenter.yocoma.web.rest.vm.LoginVM;
+import com.computacenter.yocoma.web.rest.vm.RefreshTokenVM;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import javax.validation.Valid;
 import org.springframework.http.HttpHeaders;
@@ -21,12 +22,12 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api")
 public class UserJWTController {
 
-    private final TokenProvider tokenProvider;
+    private final RefreshTokenService refreshTokenService;
 
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public UserJWTController(TokenProvider tokenProvider, AuthenticationManagerBuilder authenticationManagerBuilder) {
-        this.tokenProvider = tokenProvider;
+    public UserJWTController(RefreshTokenService refreshTokenService, AuthenticationManagerBuilder authenticationManagerBuilder) {
+        this.refreshTokenService = refreshTokenService;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
     }
 
@@ -39,10 +40,37 @@ public class UserJWTController {
 
         Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.createToken(authentication, loginVM.isRememberMe());
+        return toResponse(refreshTokenService.issue(authentication, loginVM.isRememberMe()));
+    }
+
+    /**
+     * {@code POST  /authenticate/refresh} : renew the tokens with a refresh token, which can't be used again.
+     *
+     * @param refreshTokenVM the refresh token.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the new tokens in body,
+     * or with status {@code 401 (Unauthorized)} if the refresh token is not valid.
+     */
+    @PostMapping("/authenticate/refresh")
+    public ResponseEntity<JWTToken> refresh(@Valid @RequestBody RefreshTokenVM refreshTokenVM) {
+        return toResponse(refreshTokenService.refresh(refreshTokenVM.getRefreshToken()));
+    }
+
+    /**
+     * {@code POST  /logout} : revoke the refresh token and the access tokens of its session.
+     *
+     * @param refreshTokenVM the refresh token.
+     * @return the {@link ResponseEntity} with status {@code 204 (No Content)}.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenVM refreshTokenVM) {
+        refreshTokenService.logout(refreshTokenVM.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
+    private ResponseEntity<JWTToken> toResponse(RefreshTokenService.Tokens tokens) {
         HttpHeaders httpHeaders = new HttpHeaders();
-        httpHeaders.add(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
-        return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
+        httpHeaders.add(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + tokens.getAccessToken());
+        return new ResponseEntity<>(new JWTToken(tokens.getAccessToken(), tokens.getRefreshToken()), httpHeaders, HttpStatus.OK);
     }
 
     /**
@@ -52,8 +80,11 @@ public class UserJWTController {
 
         private String idToken;
 
-        JWTToken(String idToken) {
+        private String refreshToken;
+
+        JWTToken(String idToken, String refreshToken) {
             this.idToken = idToken;
+            this.refreshToken = refreshToken;
         }
 
         @JsonProperty("id_token")
@@ -64,5 +95,14 @@ public class UserJWTController {
         void setIdToken(String idToken) {
             this.idToken = idToken;
         }
+
+        @JsonProperty("refresh_token")
+        String getRefreshToken() {
+            return refreshToken;
+        }
+
+        void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
     }
 }
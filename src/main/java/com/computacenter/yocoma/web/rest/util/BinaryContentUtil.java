@@ -0,0 +1,101 @@
+package com.computacenter.yocoma.web.rest.util;
+
+import com.computacenter.yocoma.service.storage.StoredBinary;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Utility class for streaming binary content read from the binary store.
+ * <p>
+ * The content hash is used as strong ETag, so conditional requests ({@code If-None-Match}) are answered from the hash
+ * recorded by the referencing entity, without opening the content, and byte ranges ({@code Range}) are answered by
+ * Spring MVC while streaming it.
+ */
+public final class BinaryContentUtil {
+
+    private static final Duration IMMUTABLE_MAX_AGE = Duration.ofDays(365);
+
+    private BinaryContentUtil() {}
+
+    /**
+     * Wrap the binary content into a {@link ResponseEntity} with status {@link HttpStatus#OK},
+     * or throw a {@link ResponseStatusException} with status {@link HttpStatus#NOT_FOUND}.
+     *
+     * @param maybeBinary the binary content to stream.
+     * @return the response entity.
+     */
+    public static ResponseEntity<Resource> wrapOrNotFound(Optional<StoredBinary> maybeBinary) {
+        return maybeBinary
+            .map(binary -> ok(binary, CacheControl.noCache().cachePrivate().getHeaderValue()))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Wrap binary content into a {@link ResponseEntity} with status {@link HttpStatus#OK}, or with status
+     * {@link HttpStatus#NOT_MODIFIED} and without reading it if the request is conditional and the client has the
+     * current content, or throw a {@link ResponseStatusException} with status {@link HttpStatus#NOT_FOUND}.
+     *
+     * @param maybeHash the hash of the current content, recorded by the referencing entity.
+     * @param request the request, with its {@code If-None-Match} header.
+     * @param binary the reader of the binary content to stream.
+     * @return the response entity.
+     */
+    public static ResponseEntity<Resource> wrapOrNotModified(
+        Optional<String> maybeHash,
+        WebRequest request,
+        Supplier<Optional<StoredBinary>> binary
+    ) {
+        String hash = maybeHash.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        // Sets the ETag header of the 304 response by itself
+        if (request.checkNotModified(hash)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache().cachePrivate()).build();
+        }
+        return wrapOrNotFound(binary.get());
+    }
+
+    /**
+     * Wrap binary content which never changes under the requested URL into a {@link ResponseEntity} with status
+     * {@link HttpStatus#OK}, which browsers may cache for a year without revalidating.
+     *
+     * @param binary the binary content to stream.
+     * @return the response entity.
+     */
+    public static ResponseEntity<Resource> wrapImmutable(StoredBinary binary) {
+        return ok(binary, CacheControl.maxAge(IMMUTABLE_MAX_AGE).cachePrivate().getHeaderValue() + ", immutable");
+    }
+
+    private static ResponseEntity<Resource> ok(StoredBinary binary, String cacheControl) {
+        return ResponseEntity
+            .ok()
+            .contentType(safeContentType(binary.getContentType()))
+            .eTag(binary.getHash())
+            .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+            .body(binary.getContent());
+    }
+
+    /**
+     * The content type is chosen by the uploading client, so only raster images are served as such.
+     * Anything else, SVG included as it may carry scripts, is served as opaque bytes.
+     */
+    private static MediaType safeContentType(String contentType) {
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if ("image".equals(mediaType.getType()) && !mediaType.getSubtype().startsWith("svg") && !mediaType.isWildcardSubtype()) {
+                return mediaType;
+            }
+        } catch (InvalidMediaTypeException e) {
+            // fall through to the opaque content type
+        }
+        return MediaType.APPLICATION_OCTET_STREAM;
+    }
+}
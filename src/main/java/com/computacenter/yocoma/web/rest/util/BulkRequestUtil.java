@@ -0,0 +1,44 @@
+package com.computacenter.yocoma.web.rest.util;
+
+import com.computacenter.yocoma.web.rest.errors.BadRequestAlertException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class for reading the items of a bulk request.
+ */
+public final class BulkRequestUtil {
+
+    private BulkRequestUtil() {}
+
+    /**
+     * Read the items of a bulk request body, which is either a JSON array or newline delimited JSON objects.
+     *
+     * @param objectMapper the mapper of the items.
+     * @param body the request body.
+     * @param itemType the type of the items.
+     * @param maxItems the maximum number of items, the body is not read further.
+     * @param entityName the name of the entity, for the error alerts.
+     * @param <T> the type of the items.
+     * @return the items.
+     * @throws BadRequestAlertException if the body cannot be read or has too many items.
+     */
+    public static <T> List<T> readItems(ObjectMapper objectMapper, InputStream body, Class<T> itemType, int maxItems, String entityName) {
+        List<T> items = new ArrayList<>();
+        try (MappingIterator<T> iterator = objectMapper.readerFor(itemType).readValues(body)) {
+            while (iterator.hasNextValue()) {
+                if (items.size() == maxItems) {
+                    throw new BadRequestAlertException("A bulk request can have at most " + maxItems + " items", entityName, "bulktoolarge");
+                }
+                items.add(iterator.nextValue());
+            }
+        } catch (IOException e) {
+            throw new BadRequestAlertException("Invalid bulk request: " + e.getMessage(), entityName, "bulkinvalid");
+        }
+        return items;
+    }
+}
@@ -0,0 +1,113 @@
+package com.computacenter.yocoma.web.rest.util;
+
+import com.computacenter.yocoma.service.version.EntityVersion;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * Utility class for conditional requests of entities.
+ * <p>
+ * The {@link EntityVersion} of an entity is its strong ETag: it is read with a single query of versions, so an unchanged
+ * entity is answered with {@code 304 (Not Modified)} before it is loaded, and an update with a stale {@code If-Match}
+ * is refused with {@code 412 (Precondition Failed)}. Lists get weak ETags of their content from the
+ * {@link org.springframework.web.filter.ShallowEtagHeaderFilter} instead.
+ */
+public final class ConditionalRequestUtil {
+
+    private static final String ANY_TAG = "*";
+
+    private static final String WEAK_TAG_PREFIX = "W/";
+
+    private ConditionalRequestUtil() {}
+
+    /**
+     * Browsers and proxies may keep the responses, but have to revalidate them before any use.
+     *
+     * @return the cache control of entities and lists.
+     */
+    public static CacheControl revalidate() {
+        return CacheControl.noCache().cachePrivate();
+    }
+
+    /**
+     * Wrap an entity into a {@link ResponseEntity} with status {@link HttpStatus#OK}, or with status
+     * {@link HttpStatus#NOT_MODIFIED} and without loading it if the request is conditional and the client has the
+     * current version, or throw a {@link ResponseStatusException} with status {@link HttpStatus#NOT_FOUND}.
+     *
+     * @param <X> type of the entity.
+     * @param maybeVersion the current version of the entity.
+     * @param request the request, with its {@code If-None-Match} or {@code If-Modified-Since} header.
+     * @param entity the loader of the entity.
+     * @return the response entity.
+     */
+    public static <X> ResponseEntity<X> wrapOrNotModified(
+        Optional<EntityVersion> maybeVersion,
+        WebRequest request,
+        Supplier<Optional<X>> entity
+    ) {
+        EntityVersion version = maybeVersion.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        HttpHeaders headers = versionHeaders(version);
+        // Sets the ETag and Last-Modified headers of the 304 response by itself
+        if (request.checkNotModified(headers.getETag(), headers.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(revalidate()).build();
+        }
+        return ResponseUtil.wrapOrNotFound(entity.get(), headers);
+    }
+
+    /**
+     * Check the {@code If-Match} header of an update against the current version of the entity.
+     *
+     * @param ifMatch the {@code If-Match} header, {@code null} for an unconditional update.
+     * @param currentVersion the loader of the current version of the entity.
+     * @return the version of the entity the update is based on, {@code null} for an unconditional update.
+     * @throws ResponseStatusException with status {@link HttpStatus#PRECONDITION_FAILED} if no tag matches the current version.
+     */
+    public static Long checkIfMatch(String ifMatch, Supplier<Optional<EntityVersion>> currentVersion) {
+        if (ifMatch == null) {
+            return null;
+        }
+        EntityVersion version = currentVersion.get().orElseThrow(() -> new ResponseStatusException(HttpStatus.PRECONDITION_FAILED));
+        String eTag = eTag(version);
+        // Weak tags never match, as If-Match compares strongly
+        boolean matches = Arrays
+            .stream(ifMatch.split(","))
+            .map(String::trim)
+            .anyMatch(tag -> ANY_TAG.equals(tag) || (!tag.startsWith(WEAK_TAG_PREFIX) && tag.equals(eTag)));
+        if (!matches) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "The entity has been modified");
+        }
+        return version.getVersion();
+    }
+
+    /**
+     * Create the {@code ETag}, {@code Last-Modified} and {@code Cache-Control} headers of an entity.
+     *
+     * @param maybeVersion the current version of the entity.
+     * @return the headers, empty if the entity does not exist.
+     */
+    public static HttpHeaders versionHeaders(Optional<EntityVersion> maybeVersion) {
+        return maybeVersion.map(ConditionalRequestUtil::versionHeaders).orElseGet(HttpHeaders::new);
+    }
+
+    private static HttpHeaders versionHeaders(EntityVersion version) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag(version));
+        if (version.getLastModified() != null) {
+            headers.setLastModified(version.getLastModified());
+        }
+        headers.setCacheControl(revalidate());
+        return headers;
+    }
+
+    private static String eTag(EntityVersion version) {
+        return "\"" + version.getTag() + "\"";
+    }
+}
@@ -0,0 +1,212 @@
+package com.computacenter.yocoma.web.rest.util;
+
+import com.computacenter.yocoma.web.rest.errors.BadRequestAlertException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Utility class for exports, which stream the rows of a query into the response as they are read.
+ * <p>
+ * The rows are written one at a time through a buffer of fixed size, so an export takes the same memory whatever
+ * its number of rows.
+ */
+public final class ExportUtil {
+
+    /**
+     * The formats of an export.
+     */
+    public enum Format {
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8)),
+        NDJSON(MediaType.APPLICATION_NDJSON);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+    }
+
+    private static final char SEPARATOR = ',';
+
+    private static final String LINE_END = "\r\n";
+
+    /**
+     * The first characters making spreadsheets read a field as a formula.
+     */
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    /**
+     * The signed numbers and phone numbers, e.g. {@code +49 (0) 89 1234-5}, which start like a formula but have no
+     * letters to call a function or refer to a cell with.
+     */
+    private static final Pattern SIGNED_NUMBER = Pattern.compile("[+-][\\d ()./-]*\\d[\\d ()./-]*");
+
+    private ExportUtil() {}
+
+    /**
+     * Parse the format of an export.
+     *
+     * @param format the format requested by the client, {@code csv} or {@code ndjson}.
+     * @param entityName the name of the entity, for the error alerts.
+     * @return the format.
+     * @throws BadRequestAlertException if the format is not supported.
+     */
+    public static Format parseFormat(String format, String entityName) {
+        return Arrays
+            .stream(Format.values())
+            .filter(value -> value.name().equalsIgnoreCase(format))
+            .findFirst()
+            .orElseThrow(() -> new BadRequestAlertException("Unsupported export format: " + format, entityName, "exportformat"));
+    }
+
+    /**
+     * Create the response of an export, which runs the query once the response is written.
+     *
+     * @param format the format of the export.
+     * @param name the name of the exported file, without extension.
+     * @param objectMapper the mapper of the rows of an {@link Format#NDJSON} export.
+     * @param columns the columns of a {@link Format#CSV} export by header, with the accessors of their values.
+     * @param query the query, which passes each row to the given consumer.
+     * @param <T> the type of the rows.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the streamed export in body.
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> export(
+        Format format,
+        String name,
+        ObjectMapper objectMapper,
+        Map<String, Function<T, Object>> columns,
+        Consumer<Consumer<T>> query
+    ) {
+        StreamingResponseBody body = out -> {
+            RowWriter<T> writer = format == Format.CSV ? new CsvRowWriter<>(out, columns) : new NdjsonRowWriter<>(out, objectMapper);
+            try {
+                query.accept(writer);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentDisposition(
+            ContentDisposition.attachment().filename(name + "." + format.name().toLowerCase(Locale.ROOT)).build()
+        );
+        return ResponseEntity.ok().contentType(format.getMediaType()).headers(headers).body(body);
+    }
+
+    private interface RowWriter<T> extends Consumer<T> {
+        void flush() throws IOException;
+    }
+
+    private static class NdjsonRowWriter<T> implements RowWriter<T> {
+
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void accept(T row) {
+            try {
+                generator.writeObject(row);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * Writes RFC 4180 CSV: fields with a separator, a quote or a line break are quoted, and their quotes doubled.
+     * <p>
+     * Spreadsheets run the text fields starting like a formula, so these are prefixed with a quote and read as text,
+     * except for signed numbers and phone numbers. The contact import drops the quote again.
+     */
+    private static class CsvRowWriter<T> implements RowWriter<T> {
+
+        private final Writer writer;
+
+        private final Map<String, Function<T, Object>> columns;
+
+        CsvRowWriter(OutputStream out, Map<String, Function<T, Object>> columns) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.columns = columns;
+            writeLine(columns.keySet());
+        }
+
+        @Override
+        public void accept(T row) {
+            try {
+                writeLine(() -> columns.values().stream().map(column -> column.apply(row)).iterator());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeLine(Iterable<?> values) throws IOException {
+            boolean first = true;
+            for (Object value : values) {
+                if (!first) {
+                    writer.write(SEPARATOR);
+                }
+                first = false;
+                if (value instanceof CharSequence && isFormula((CharSequence) value)) {
+                    writeQuoted("'" + value);
+                } else if (value != null) {
+                    writeField(value.toString());
+                }
+            }
+            writer.write(LINE_END);
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value.indexOf(SEPARATOR) < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writeQuoted(value);
+        }
+
+        private void writeQuoted(String value) throws IOException {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        private static boolean isFormula(CharSequence value) {
+            return value.length() > 0 && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0 && !SIGNED_NUMBER.matcher(value).matches();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.computacenter.yocoma.web.rest.util;
+
+import com.computacenter.yocoma.service.keyset.KeysetSlice;
+import com.computacenter.yocoma.service.search.SearchPage;
+import java.util.Collection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * Utility class for sanitizing the {@link Pageable} requested by a client and for pagination headers.
+ */
+public final class PageableUtil {
+
+    public static final String CONTINUATION_TOKEN_HEADER = "X-Continuation-Token";
+
+    public static final String SEARCH_TRUNCATED_HEADER = "X-Search-Truncated";
+
+    private static final String CONTINUATION_PARAM = "continuation";
+
+    private static final String ID_PROPERTY = "id";
+
+    private PageableUtil() {}
+
+    /**
+     * Check whether the requested sort only uses the given properties.
+     *
+     * @param pageable the pagination information requested by the client.
+     * @param allowedProperties the properties the client may sort by.
+     * @return true if every sort order refers to an allowed property.
+     */
+    public static boolean onlyContainsAllowedProperties(Pageable pageable, Collection<String> allowedProperties) {
+        return pageable.getSort().stream().map(Sort.Order::getProperty).allMatch(allowedProperties::contains);
+    }
+
+    /**
+     * Limit the page size and append the {@code id} as final sort order, so that every page is deterministic
+     * even if the requested sort properties are not unique.
+     *
+     * @param pageable the pagination information requested by the client.
+     * @param maxPageSize the largest page size the endpoint is willing to serve.
+     * @return the sanitized pagination information.
+     */
+    public static Pageable withStableSort(Pageable pageable, int maxPageSize) {
+        Sort sort = pageable.getSort();
+        if (sort.getOrderFor(ID_PROPERTY) == null) {
+            sort = sort.and(Sort.by(ID_PROPERTY));
+        }
+        return PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), maxPageSize), sort);
+    }
+
+    /**
+     * Generate the headers for a keyset slice: the continuation token and a {@code next} link,
+     * both only if there is a following slice.
+     *
+     * @param uriBuilder the builder of the current request's URI.
+     * @param slice the slice returned to the client.
+     * @return the headers.
+     */
+    public static HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, KeysetSlice<?> slice) {
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            headers.add(CONTINUATION_TOKEN_HEADER, slice.getNextToken());
+            String next = uriBuilder.replaceQueryParam(CONTINUATION_PARAM, slice.getNextToken()).toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+
+    /**
+     * Generate the pagination headers for a page, and the {@code X-Search-Truncated} header if the page of a full-text
+     * search only covers its best ranked hits, so that neither its total nor the following pages are complete.
+     *
+     * @param uriBuilder the builder of the current request's URI.
+     * @param page the page returned to the client.
+     * @return the headers.
+     */
+    public static HttpHeaders generatePaginationHttpHeaders(UriComponentsBuilder uriBuilder, Page<?> page) {
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(uriBuilder, page);
+        if (page instanceof SearchPage && ((SearchPage<?>) page).isTruncated()) {
+            headers.add(SEARCH_TRUNCATED_HEADER, Boolean.TRUE.toString());
+        }
+        return headers;
+    }
+}
@@ -47,11 +47,12 @@ describe('Auth JWT', () => {
 
       // WHEN
       service.login({ username: 'John', password: '123', rememberMe: true }).subscribe();
-      httpMock.expectOne('api/authenticate').flush({ id_token: '1' });
+      httpMock.expectOne('api/authenticate').flush({ id_token: '1', refresh_token: '2' });
 
       // THEN
       httpMock.verify();
       expect(localStorageService.store).toHaveBeenCalledWith('authenticationToken', '1');
+      expect(localStorageService.store).toHaveBeenCalledWith('refreshToken', '2');
       expect(sessionStorageService.clear).toHaveBeenCalled();
     });
 
@@ -62,15 +63,52 @@ describe('Auth JWT', () => {
 
       // WHEN
       service.login({ username: 'John', password: '123', rememberMe: false }).subscribe();
-      httpMock.expectOne('api/authenticate').flush({ id_token: '1' });
+      httpMock.expectOne('api/authenticate').flush({ id_token: '1', refresh_token: '2' });
 
       // THEN
       httpMock.verify();
       expect(sessionStorageService.store).toHaveBeenCalledWith('authenticationToken', '1');
+      expect(sessionStorageService.store).toHaveBeenCalledWith('refreshToken', '2');
       expect(localStorageService.clear).toHaveBeenCalled();
     });
   });
 
+  describe('Refresh', () => {
+    it('should renew the tokens in the storage of the refresh token', () => {
+      // GIVEN
+      localStorageService.retrieve = jest.fn().mockReturnValue('2');
+      localStorageService.store = jest.fn();
+      let token: string | undefined;
+
+      // WHEN
+      service.refresh().subscribe(renewed => (token = renewed));
+      const req = httpMock.expectOne('api/authenticate/refresh');
+      req.flush({ id_token: '3', refresh_token: '4' });
+
+      // THEN
+      httpMock.verify();
+      expect(req.request.body).toEqual({ refresh_token: '2' });
+      expect(token).toEqual('3');
+      expect(localStorageService.store).toHaveBeenCalledWith('authenticationToken', '3');
+      expect(localStorageService.store).toHaveBeenCalledWith('refreshToken', '4');
+    });
+
+    it('should renew the tokens once for concurrent requests', () => {
+      // GIVEN
+      sessionStorageService.retrieve = jest.fn().mockReturnValue('2');
+      const tokens: string[] = [];
+
+      // WHEN
+      service.refresh().subscribe(renewed => tokens.push(renewed));
+      service.refresh().subscribe(renewed => tokens.push(renewed));
+      httpMock.expectOne('api/authenticate/refresh').flush({ id_token: '3', refresh_token: '4' });
+
+      // THEN
+      httpMock.verify();
+      expect(tokens).toEqual(['3', '3']);
+    });
+  });
+
   describe('Logout', () => {
     it('should clear storage', () => {
       // GIVEN
@@ -84,5 +122,21 @@ describe('Auth JWT', () => {
       expect(localStorageService.clear).toHaveBeenCalled();
       expect(sessionStorageService.clear).toHaveBeenCalled();
     });
+
+    it('should revoke the session on the server', () => {
+      // GIVEN
+      sessionStorageService.retrieve = jest.fn().mockReturnValue('2');
+      sessionStorageService.clear = jest.fn();
+
+      // WHEN
+      service.logout().subscribe();
+      const req = httpMock.expectOne('api/logout');
+      req.flush(null, { status: 204, statusText: 'No Content' });
+
+      // THEN
+      httpMock.verify();
+      expect(req.request.body).toEqual({ refresh_token: '2' });
+      expect(sessionStorageService.clear).toHaveBeenCalledWith('refreshToken');
+    });
   });
 });
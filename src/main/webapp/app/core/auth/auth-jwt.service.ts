@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { map } from 'rxjs/operators';
+import { finalize, map, shareReplay } from 'rxjs/operators';
 import { LocalStorageService, SessionStorageService } from 'ngx-webstorage';
 
 import { ApplicationConfigService } from '../config/application-config.service';
@@ -9,6 +9,7 @@ import { Login } from 'app/login/login.model';
 
 type JwtToken = {
   id_token: string;
+  refresh_token: string;
 };
 
 @Injectable({ providedIn: 'root' })
@@ -20,12 +21,43 @@ export class AuthServerProvider {
     private applicationConfigService: ApplicationConfigService
   ) {}
 
+  private refreshing?: Observable<string>;
+
   getToken(): string {
     const tokenInLocalStorage: string | null = this.localStorageService.retrieve('authenticationToken');
     const tokenInSessionStorage: string | null = this.sessionStorageService.retrieve('authenticationToken');
     return tokenInLocalStorage ?? tokenInSessionStorage ?? '';
   }
 
+  getRefreshToken(): string {
+    const tokenInLocalStorage: string | null = this.localStorageService.retrieve('refreshToken');
+    const tokenInSessionStorage: string | null = this.sessionStorageService.retrieve('refreshToken');
+    return tokenInLocalStorage ?? tokenInSessionStorage ?? '';
+  }
+
+  /**
+   * Renews the expired access token with the refresh token, which can only be used once:
+   * the requests failing meanwhile share the same renewal.
+   */
+  refresh(): Observable<string> {
+    if (!this.refreshing) {
+      const rememberMe = this.localStorageService.retrieve('refreshToken') !== null;
+      this.refreshing = this.http
+        .post<JwtToken>(this.applicationConfigService.getEndpointFor('api/authenticate/refresh'), {
+          refresh_token: this.getRefreshToken(),
+        })
+        .pipe(
+          map(response => {
+            this.authenticateSuccess(response, rememberMe);
+            return response.id_token;
+          }),
+          finalize(() => (this.refreshing = undefined)),
+          shareReplay(1)
+        );
+    }
+    return this.refreshing;
+  }
+
   login(credentials: Login): Observable<void> {
     return this.http
       .post<JwtToken>(this.applicationConfigService.getEndpointFor('api/authenticate'), credentials)
@@ -34,8 +66,17 @@ export class AuthServerProvider {
 
   logout(): Observable<void> {
     return new Observable(observer => {
+      const refreshToken = this.getRefreshToken();
+      if (refreshToken) {
+        // Revokes the session on the server, the tokens are forgotten here anyway
+        this.http
+          .post(this.applicationConfigService.getEndpointFor('api/logout'), { refresh_token: refreshToken })
+          .subscribe({ error: () => undefined });
+      }
       this.localStorageService.clear('authenticationToken');
+      this.localStorageService.clear('refreshToken');
       this.sessionStorageService.clear('authenticationToken');
+      this.sessionStorageService.clear('refreshToken');
       observer.complete();
     });
   }
@@ -44,10 +85,14 @@ export class AuthServerProvider {
     const jwt = response.id_token;
     if (rememberMe) {
       this.localStorageService.store('authenticationToken', jwt);
+      this.localStorageService.store('refreshToken', response.refresh_token);
       this.sessionStorageService.clear('authenticationToken');
+      this.sessionStorageService.clear('refreshToken');
     } else {
       this.sessionStorageService.store('authenticationToken', jwt);
+      this.sessionStorageService.store('refreshToken', response.refresh_token);
       this.localStorageService.clear('authenticationToken');
+      this.localStorageService.clear('refreshToken');
     }
   }
 }
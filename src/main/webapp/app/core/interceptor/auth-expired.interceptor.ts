@@ -1,12 +1,13 @@
 import { Injectable } from '@angular/core';
 import { HttpInterceptor, HttpRequest, HttpHandler, HttpEvent, HttpErrorResponse } from '@angular/common/http';
-import { Observable } from 'rxjs';
-import { tap } from 'rxjs/operators';
+import { Observable, throwError } from 'rxjs';
+import { catchError, mergeMap, tap } from 'rxjs/operators';
 import { Router } from '@angular/router';
 
 import { LoginService } from 'app/login/login.service';
 import { StateStorageService } from 'app/core/auth/state-storage.service';
 import { AccountService } from 'app/core/auth/account.service';
+import { AuthServerProvider } from 'app/core/auth/auth-jwt.service';
 
 @Injectable()
 export class AuthExpiredInterceptor implements HttpInterceptor {
@@ -14,11 +15,21 @@ export class AuthExpiredInterceptor implements HttpInterceptor {
     private loginService: LoginService,
     private stateStorageService: StateStorageService,
     private router: Router,
-    private accountService: AccountService
+    private accountService: AccountService,
+    private authServerProvider: AuthServerProvider
   ) {}
 
   intercept(request: HttpRequest<any>, next: HttpHandler): Observable<HttpEvent<any>> {
     return next.handle(request).pipe(
+      catchError((err: HttpErrorResponse) => {
+        // The short-lived access token has expired: the request is sent again once it is renewed
+        if (err.status === 401 && err.url && !err.url.includes('api/authenticate') && this.authServerProvider.getRefreshToken()) {
+          return this.authServerProvider
+            .refresh()
+            .pipe(mergeMap(token => next.handle(request.clone({ setHeaders: { Authorization: `Bearer ${token}` } }))));
+        }
+        return throwError(() => err);
+      }),
       tap({
         error: (err: HttpErrorResponse) => {
           if (err.status === 401 && err.url && !err.url.includes('api/account') && this.accountService.isAuthenticated()) {
@@ -0,0 +1,103 @@
+import { Injectable } from '@angular/core';
+import { Observable, Subscriber } from 'rxjs';
+import { filter, map, share } from 'rxjs/operators';
+
+import { ApplicationConfigService } from 'app/core/config/application-config.service';
+import { AuthServerProvider } from 'app/core/auth/auth-jwt.service';
+
+export type PushedEntityType = 'Contact' | 'Team' | 'TeamContact';
+
+export interface IPushedChange {
+  entityType: PushedEntityType;
+  entityId: number;
+  changeType: 'CREATED' | 'UPDATED' | 'DELETED';
+}
+
+const RECONNECT_DELAY_MS = 5000;
+
+/**
+ * Subscription to the changes the server pushes as server-sent events.
+ *
+ * The stream is read with fetch rather than EventSource, so it carries the JWT like any other request. It is opened
+ * by the first subscriber, shared by all and closed with the last. Changes missed while the stream was down, or
+ * dropped by the server because the client was too slow, are announced as resync, emitted as null.
+ */
+@Injectable({ providedIn: 'root' })
+export class EntityChangePushService {
+  private resourceUrl = this.applicationConfigService.getEndpointFor('api/_changes/stream');
+
+  private changes: Observable<IPushedChange | null>;
+
+  constructor(private authServerProvider: AuthServerProvider, private applicationConfigService: ApplicationConfigService) {
+    this.changes = new Observable((subscriber: Subscriber<IPushedChange | null>) => {
+      const controller = new AbortController();
+      this.connect(subscriber, controller.signal);
+      return () => controller.abort();
+    }).pipe(share());
+  }
+
+  /**
+   * Emits whenever an entity of one of the types has changed, or when it may have without notice.
+   */
+  changesOf(...entityTypes: PushedEntityType[]): Observable<void> {
+    return this.changes.pipe(
+      filter(change => change === null || entityTypes.includes(change.entityType)),
+      map(() => undefined)
+    );
+  }
+
+  private async connect(subscriber: Subscriber<IPushedChange | null>, signal: AbortSignal): Promise<void> {
+    let reconnect = false;
+    while (!signal.aborted) {
+      try {
+        const response = await fetch(this.resourceUrl, {
+          headers: { Accept: 'text/event-stream', Authorization: `Bearer ${this.authServerProvider.getToken()}` },
+          signal,
+        });
+        if (response.ok && response.body) {
+          if (reconnect) {
+            subscriber.next(null);
+          }
+          await this.read(response.body, subscriber);
+        }
+      } catch {
+        // Reconnects below, unless unsubscribed
+      }
+      reconnect = true;
+      await new Promise(resolve => setTimeout(resolve, signal.aborted ? 0 : RECONNECT_DELAY_MS));
+    }
+  }
+
+  private async read(body: ReadableStream<Uint8Array>, subscriber: Subscriber<IPushedChange | null>): Promise<void> {
+    const reader = body.getReader();
+    const decoder = new TextDecoder();
+    let buffer = '';
+    let chunk = await reader.read();
+    while (!chunk.done) {
+      buffer += decoder.decode(chunk.value, { stream: true });
+      const events = buffer.split('\n\n');
+      buffer = events.pop() ?? '';
+      for (const event of events) {
+        this.dispatch(event, subscriber);
+      }
+      chunk = await reader.read();
+    }
+  }
+
+  private dispatch(event: string, subscriber: Subscriber<IPushedChange | null>): void {
+    let name = 'message';
+    const data: string[] = [];
+    for (const line of event.split('\n')) {
+      if (line.startsWith('event:')) {
+        name = line.substring('event:'.length).trim();
+      } else if (line.startsWith('data:')) {
+        data.push(line.substring('data:'.length));
+      }
+    }
+    if (name === 'resync') {
+      subscriber.next(null);
+    } else if (name === 'change' && data.length > 0) {
+      subscriber.next(JSON.parse(data.join('\n')) as IPushedChange);
+    }
+  }
+}
@@ -9,6 +9,9 @@ export interface IContact {
   remark?: string | null;
   imageContentType?: string | null;
   image?: string | null;
+  imageHash?: string | null;
+  imageUrl?: string | null;
+  imageThumbnailUrls?: { [pixels: number]: string } | null;
   teamContacts?: ITeamContact[] | null;
 }
 
@@ -22,6 +25,9 @@ export class Contact implements IContact {
     public remark?: string | null,
     public imageContentType?: string | null,
     public image?: string | null,
+    public imageHash?: string | null,
+    public imageUrl?: string | null,
+    public imageThumbnailUrls?: { [pixels: number]: string } | null,
     public teamContacts?: ITeamContact[] | null
   ) {}
 }
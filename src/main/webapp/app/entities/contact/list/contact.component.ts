@@ -1,7 +1,13 @@
-import { Component, OnInit } from '@angular/core';
-import { HttpResponse } from '@angular/common/http';
+import { Component, OnDestroy, OnInit } from '@angular/core';
+import { HttpHeaders, HttpResponse } from '@angular/common/http';
 import { NgbModal } from '@ng-bootstrap/ng-bootstrap';
 
+import { ITEMS_PER_PAGE } from 'app/config/pagination.constants';
+import { EntityChangePushService } from 'app/core/push/entity-change-push.service';
+
+import { Subscription } from 'rxjs';
+import { debounceTime } from 'rxjs/operators';
+
 import { IContact } from '../contact.model';
 import { ContactService } from '../service/contact.service';
 import { ContactDeleteDialogComponent } from '../delete/contact-delete-dialog.component';
@@ -11,35 +17,61 @@ import { DataUtils } from 'app/core/util/data-util.service';
   selector: 'jhi-contact',
   templateUrl: './contact.component.html',
 })
-export class ContactComponent implements OnInit {
+export class ContactComponent implements OnInit, OnDestroy {
   contacts?: IContact[];
   searchprompt: string;
   isLoading = false;
+  totalItems = 0;
+  itemsPerPage = ITEMS_PER_PAGE;
+  page = 1;
 
-  constructor(protected contactService: ContactService, protected dataUtils: DataUtils, protected modalService: NgbModal) {
+  private pushSubscription?: Subscription;
+
+  constructor(
+    protected contactService: ContactService,
+    protected dataUtils: DataUtils,
+    protected modalService: NgbModal,
+    protected entityChangePushService: EntityChangePushService
+  ) {
     this.searchprompt = "";
   }
 
   setSearchprompt(searchprompt: string): void {
     this.searchprompt = searchprompt;
+    this.page = 1;
   }
 
   loadAll(): void {
     this.isLoading = true;
 
-    this.contactService.query({'search.contains': this.searchprompt}).subscribe({
-      next: (res: HttpResponse<IContact[]>) => {
-        this.isLoading = false;
-        this.contacts = res.body ?? [];
-      },
-      error: () => {
-        this.isLoading = false;
-      },
-    });
+    this.contactService
+      .query({
+        'search.contains': this.searchprompt,
+        page: this.page - 1,
+        size: this.itemsPerPage,
+      })
+      .subscribe({
+        next: (res: HttpResponse<IContact[]>) => {
+          this.isLoading = false;
+          this.onSuccess(res.body, res.headers);
+        },
+        error: () => {
+          this.isLoading = false;
+        },
+      });
   }
 
   ngOnInit(): void {
     this.loadAll();
+    // Changes in a burst, e.g. of a bulk request, reload the page once
+    this.pushSubscription = this.entityChangePushService
+      .changesOf('Contact')
+      .pipe(debounceTime(500))
+      .subscribe(() => this.loadAll());
+  }
+
+  ngOnDestroy(): void {
+    this.pushSubscription?.unsubscribe();
   }
 
   trackId(_index: number, item: IContact): number {
@@ -64,4 +96,9 @@ export class ContactComponent implements OnInit {
       }
     });
   }
+
+  protected onSuccess(data: IContact[] | null, headers: HttpHeaders): void {
+    this.totalItems = Number(headers.get('X-Total-Count'));
+    this.contacts = data ?? [];
+  }
 }
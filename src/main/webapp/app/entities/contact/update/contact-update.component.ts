@@ -17,6 +17,7 @@ import { DataUtils, FileLoadError } from 'app/core/util/data-util.service';
 })
 export class ContactUpdateComponent implements OnInit {
   isSaving = false;
+  imageUrl?: string | null;
 
   editForm = this.fb.group({
     id: [],
@@ -26,6 +27,7 @@ export class ContactUpdateComponent implements OnInit {
     phone: [],
     remark: [],
     image: [],
+    imageHash: [],
     imageContentType: [],
   });
 
@@ -63,6 +65,7 @@ export class ContactUpdateComponent implements OnInit {
     this.editForm.patchValue({
       [field]: null,
       [fieldContentType]: null,
+      [`${field}Hash`]: null,
     });
     if (idInput && this.elementRef.nativeElement.querySelector('#' + idInput)) {
       this.elementRef.nativeElement.querySelector('#' + idInput).value = null;
@@ -103,6 +106,7 @@ export class ContactUpdateComponent implements OnInit {
   }
 
   protected updateForm(contact: IContact): void {
+    this.imageUrl = contact.imageUrl;
     this.editForm.patchValue({
       id: contact.id,
       firstname: contact.firstname,
@@ -111,6 +115,7 @@ export class ContactUpdateComponent implements OnInit {
       phone: contact.phone,
       remark: contact.remark,
       image: contact.image,
+      imageHash: contact.imageHash,
       imageContentType: contact.imageContentType,
     });
   }
@@ -126,6 +131,7 @@ export class ContactUpdateComponent implements OnInit {
       remark: this.editForm.get(['remark'])!.value,
       imageContentType: this.editForm.get(['imageContentType'])!.value,
       image: this.editForm.get(['image'])!.value,
+      imageHash: this.editForm.get(['imageHash'])!.value,
     };
   }
 }
@@ -1,7 +1,13 @@
-import { Component, OnInit } from '@angular/core';
-import { HttpResponse } from '@angular/common/http';
+import { Component, OnDestroy, OnInit } from '@angular/core';
+import { HttpHeaders, HttpResponse } from '@angular/common/http';
 import { NgbModal } from '@ng-bootstrap/ng-bootstrap';
 
+import { ITEMS_PER_PAGE } from 'app/config/pagination.constants';
+import { EntityChangePushService } from 'app/core/push/entity-change-push.service';
+
+import { Subscription } from 'rxjs';
+import { debounceTime } from 'rxjs/operators';
+
 import { ITeamContact } from '../team-contact.model';
 import { TeamContactService } from '../service/team-contact.service';
 import { TeamContactDeleteDialogComponent } from '../delete/team-contact-delete-dialog.component';
@@ -10,34 +16,59 @@ import { TeamContactDeleteDialogComponent } from '../delete/team-contact-delete-
   selector: 'jhi-team-contact',
   templateUrl: './team-contact.component.html',
 })
-export class TeamContactComponent implements OnInit {
+export class TeamContactComponent implements OnInit, OnDestroy {
   teamContacts?: ITeamContact[];
   searchprompt: string;
   isLoading = false;
+  totalItems = 0;
+  itemsPerPage = ITEMS_PER_PAGE;
+  page = 1;
 
-  constructor(protected teamContactService: TeamContactService, protected modalService: NgbModal) {
+  private pushSubscription?: Subscription;
+
+  constructor(
+    protected teamContactService: TeamContactService,
+    protected modalService: NgbModal,
+    protected entityChangePushService: EntityChangePushService
+  ) {
     this.searchprompt = "";}
 
   setSearchprompt(searchprompt: string): void {
     this.searchprompt = searchprompt;
+    this.page = 1;
   }
 
   loadAll(): void {
     this.isLoading = true;
 
-    this.teamContactService.query({'search.contains': this.searchprompt}).subscribe({
-      next: (res: HttpResponse<ITeamContact[]>) => {
-        this.isLoading = false;
-        this.teamContacts = res.body ?? [];
-      },
-      error: () => {
-        this.isLoading = false;
-      },
-    });
+    this.teamContactService
+      .query({
+        'search.contains': this.searchprompt,
+        page: this.page - 1,
+        size: this.itemsPerPage,
+      })
+      .subscribe({
+        next: (res: HttpResponse<ITeamContact[]>) => {
+          this.isLoading = false;
+          this.onSuccess(res.body, res.headers);
+        },
+        error: () => {
+          this.isLoading = false;
+        },
+      });
   }
 
   ngOnInit(): void {
     this.loadAll();
+    // Changes in a burst, e.g. of a bulk request, reload the page once
+    this.pushSubscription = this.entityChangePushService
+      .changesOf('TeamContact', 'Contact', 'Team')
+      .pipe(debounceTime(500))
+      .subscribe(() => this.loadAll());
+  }
+
+  ngOnDestroy(): void {
+    this.pushSubscription?.unsubscribe();
   }
 
   trackId(_index: number, item: ITeamContact): number {
@@ -54,4 +85,9 @@ export class TeamContactComponent implements OnInit {
       }
     });
   }
+
+  protected onSuccess(data: ITeamContact[] | null, headers: HttpHeaders): void {
+    this.totalItems = Number(headers.get('X-Total-Count'));
+    this.teamContacts = data ?? [];
+  }
 }
@@ -5,13 +5,13 @@ import { FormBuilder } from '@angular/forms';
 import { ActivatedRoute } from '@angular/router';
 import { RouterTestingModule } from '@angular/router/testing';
 import { of, Subject, from } from 'rxjs';
+import { take } from 'rxjs/operators';
 
 import { TeamContactService } from '../service/team-contact.service';
 import { ITeamContact, TeamContact } from '../team-contact.model';
 import { IContact } from 'app/entities/contact/contact.model';
-import { ContactService } from 'app/entities/contact/service/contact.service';
 import { ITeam } from 'app/entities/team/team.model';
-import { TeamService } from 'app/entities/team/service/team.service';
+import { SuggestService } from 'app/shared/suggest/suggest.service';
 
 import { TeamContactUpdateComponent } from './team-contact-update.component';
 
@@ -20,8 +20,7 @@ describe('TeamContact Management Update Component', () => {
   let fixture: ComponentFixture<TeamContactUpdateComponent>;
   let activatedRoute: ActivatedRoute;
   let teamContactService: TeamContactService;
-  let contactService: ContactService;
-  let teamService: TeamService;
+  let suggestService: SuggestService;
 
   beforeEach(() => {
     TestBed.configureTestingModule({
@@ -43,64 +42,40 @@ describe('TeamContact Management Update Component', () => {
     fixture = TestBed.createComponent(TeamContactUpdateComponent);
     activatedRoute = TestBed.inject(ActivatedRoute);
     teamContactService = TestBed.inject(TeamContactService);
-    contactService = TestBed.inject(ContactService);
-    teamService = TestBed.inject(TeamService);
+    suggestService = TestBed.inject(SuggestService);
 
     comp = fixture.componentInstance;
   });
 
   describe('ngOnInit', () => {
-    it('Should call Contact query and add missing value', () => {
+    it('Should update editForm', () => {
       const teamContact: ITeamContact = { id: 456 };
-      const contact: IContact = { id: 44540 };
+      const contact: IContact = { id: 49256, firstname: 'Jane', lastname: 'Doe' };
       teamContact.contact = contact;
-
-      const contactCollection: IContact[] = [{ id: 32986 }];
-      jest.spyOn(contactService, 'query').mockReturnValue(of(new HttpResponse({ body: contactCollection })));
-      const additionalContacts = [contact];
-      const expectedCollection: IContact[] = [...additionalContacts, ...contactCollection];
-      jest.spyOn(contactService, 'addContactToCollectionIfMissing').mockReturnValue(expectedCollection);
-
-      activatedRoute.data = of({ teamContact });
-      comp.ngOnInit();
-
-      expect(contactService.query).toHaveBeenCalled();
-      expect(contactService.addContactToCollectionIfMissing).toHaveBeenCalledWith(contactCollection, ...additionalContacts);
-      expect(comp.contactsSharedCollection).toEqual(expectedCollection);
-    });
-
-    it('Should call Team query and add missing value', () => {
-      const teamContact: ITeamContact = { id: 456 };
-      const team: ITeam = { id: 34876 };
+      const team: ITeam = { id: 2486, name: 'Team' };
       teamContact.team = team;
 
-      const teamCollection: ITeam[] = [{ id: 71068 }];
-      jest.spyOn(teamService, 'query').mockReturnValue(of(new HttpResponse({ body: teamCollection })));
-      const additionalTeams = [team];
-      const expectedCollection: ITeam[] = [...additionalTeams, ...teamCollection];
-      jest.spyOn(teamService, 'addTeamToCollectionIfMissing').mockReturnValue(expectedCollection);
-
       activatedRoute.data = of({ teamContact });
       comp.ngOnInit();
 
-      expect(teamService.query).toHaveBeenCalled();
-      expect(teamService.addTeamToCollectionIfMissing).toHaveBeenCalledWith(teamCollection, ...additionalTeams);
-      expect(comp.teamsSharedCollection).toEqual(expectedCollection);
+      expect(comp.editForm.value).toEqual(
+        expect.objectContaining({ id: 456, contact: { id: 49256, label: 'Doe, Jane' }, team: { id: 2486, label: 'Team' } })
+      );
     });
+  });
 
-    it('Should update editForm', () => {
-      const teamContact: ITeamContact = { id: 456 };
-      const contact: IContact = { id: 49256 };
-      teamContact.contact = contact;
-      const team: ITeam = { id: 2486 };
-      teamContact.team = team;
-
-      activatedRoute.data = of({ teamContact });
-      comp.ngOnInit();
-
-      expect(comp.editForm.value).toEqual(expect.objectContaining(teamContact));
-      expect(comp.contactsSharedCollection).toContain(contact);
-      expect(comp.teamsSharedCollection).toContain(team);
+  describe('typeahead', () => {
+    it('Should suggest role labels', done => {
+      jest.spyOn(suggestService, 'suggest').mockReturnValue(of([{ label: 'Developer' }, { label: 'Lead Developer' }]));
+
+      comp
+        .searchRoles(of('dev'))
+        .pipe(take(1))
+        .subscribe(roles => {
+          expect(suggestService.suggest).toHaveBeenCalledWith('roles', 'dev');
+          expect(roles).toEqual(['Developer', 'Lead Developer']);
+          done();
+        });
     });
   });
 
@@ -147,6 +122,21 @@ describe('TeamContact Management Update Component', () => {
       expect(comp.previousState).toHaveBeenCalled();
     });
 
+    it('Should reference the selected contact and team by id', () => {
+      // GIVEN
+      const saveSubject = new Subject<HttpResponse<TeamContact>>();
+      jest.spyOn(teamContactService, 'create').mockReturnValue(saveSubject);
+      activatedRoute.data = of({ teamContact: new TeamContact() });
+      comp.ngOnInit();
+      comp.editForm.patchValue({ contact: { id: 12, label: 'Doe, Jane' }, team: { id: 34, label: 'Team' } });
+
+      // WHEN
+      comp.save();
+
+      // THEN
+      expect(teamContactService.create).toHaveBeenCalledWith(expect.objectContaining({ contact: { id: 12 }, team: { id: 34 } }));
+    });
+
     it('Should set isSaving to false on error', () => {
       // GIVEN
       const saveSubject = new Subject<HttpResponse<TeamContact>>();
@@ -167,22 +157,4 @@ describe('TeamContact Management Update Component', () => {
       expect(comp.previousState).not.toHaveBeenCalled();
     });
   });
-
-  describe('Tracking relationships identifiers', () => {
-    describe('trackContactById', () => {
-      it('Should return tracked Contact primary key', () => {
-        const entity = { id: 123 };
-        const trackResult = comp.trackContactById(0, entity);
-        expect(trackResult).toEqual(entity.id);
-      });
-    });
-
-    describe('trackTeamById', () => {
-      it('Should return tracked Team primary key', () => {
-        const entity = { id: 123 };
-        const trackResult = comp.trackTeamById(0, entity);
-        expect(trackResult).toEqual(entity.id);
-      });
-    });
-  });
 });
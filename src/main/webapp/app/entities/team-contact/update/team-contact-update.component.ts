@@ -8,10 +8,10 @@ import { finalize, map } from 'rxjs/operators';
 import { ITeamContact, TeamContact } from '../team-contact.model';
 import { TeamContactService } from '../service/team-contact.service';
 import { IContact } from 'app/entities/contact/contact.model';
-import { ContactService } from 'app/entities/contact/service/contact.service';
 import { ITeam } from 'app/entities/team/team.model';
-import { TeamService } from 'app/entities/team/service/team.service';
 import { RoleType } from 'app/entities/enumerations/role-type.model';
+import { ISuggestion } from 'app/shared/suggest/suggestion.model';
+import { SuggestService } from 'app/shared/suggest/suggest.service';
 
 @Component({
   selector: 'jhi-team-contact-update',
@@ -21,8 +21,10 @@ export class TeamContactUpdateComponent implements OnInit {
   isSaving = false;
   roleTypeValues = Object.keys(RoleType);
 
-  contactsSharedCollection: IContact[] = [];
-  teamsSharedCollection: ITeam[] = [];
+  searchContacts = this.suggestService.typeahead('contacts');
+  searchTeams = this.suggestService.typeahead('teams');
+  searchRoles = (text$: Observable<string>): Observable<string[]> =>
+    this.suggestService.typeahead('roles')(text$).pipe(map(suggestions => suggestions.map(suggestion => suggestion.label)));
 
   editForm = this.fb.group({
     id: [],
@@ -35,8 +37,7 @@ export class TeamContactUpdateComponent implements OnInit {
 
   constructor(
     protected teamContactService: TeamContactService,
-    protected contactService: ContactService,
-    protected teamService: TeamService,
+    protected suggestService: SuggestService,
     protected activatedRoute: ActivatedRoute,
     protected fb: FormBuilder
   ) {}
@@ -44,8 +45,6 @@ export class TeamContactUpdateComponent implements OnInit {
   ngOnInit(): void {
     this.activatedRoute.data.subscribe(({ teamContact }) => {
       this.updateForm(teamContact);
-
-      this.loadRelationshipsOptions();
     });
   }
 
@@ -63,12 +62,8 @@ export class TeamContactUpdateComponent implements OnInit {
     }
   }
 
-  trackContactById(_index: number, item: IContact): number {
-    return item.id!;
-  }
-
-  trackTeamById(_index: number, item: ITeam): number {
-    return item.id!;
+  formatSuggestion(suggestion: ISuggestion): string {
+    return suggestion.label;
   }
 
   protected subscribeToSaveResponse(result: Observable<HttpResponse<ITeamContact>>): void {
@@ -96,28 +91,21 @@ export class TeamContactUpdateComponent implements OnInit {
       roleType: teamContact.roleType,
       role: teamContact.role,
       description: teamContact.description,
-      contact: teamContact.contact,
-      team: teamContact.team,
+      contact: this.toContactSuggestion(teamContact.contact),
+      team: this.toTeamSuggestion(teamContact.team),
     });
+  }
+
+  protected toContactSuggestion(contact: IContact | null | undefined): ISuggestion | undefined {
+    return contact ? { id: contact.id, label: `${contact.lastname ?? ''}, ${contact.firstname ?? ''}` } : undefined;
+  }
 
-    this.contactsSharedCollection = this.contactService.addContactToCollectionIfMissing(this.contactsSharedCollection, teamContact.contact);
-    this.teamsSharedCollection = this.teamService.addTeamToCollectionIfMissing(this.teamsSharedCollection, teamContact.team);
+  protected toTeamSuggestion(team: ITeam | null | undefined): ISuggestion | undefined {
+    return team ? { id: team.id, label: team.name ?? '' } : undefined;
   }
 
-  protected loadRelationshipsOptions(): void {
-    this.contactService
-      .query()
-      .pipe(map((res: HttpResponse<IContact[]>) => res.body ?? []))
-      .pipe(
-        map((contacts: IContact[]) => this.contactService.addContactToCollectionIfMissing(contacts, this.editForm.get('contact')!.value))
-      )
-      .subscribe((contacts: IContact[]) => (this.contactsSharedCollection = contacts));
-
-    this.teamService
-      .query()
-      .pipe(map((res: HttpResponse<ITeam[]>) => res.body ?? []))
-      .pipe(map((teams: ITeam[]) => this.teamService.addTeamToCollectionIfMissing(teams, this.editForm.get('team')!.value)))
-      .subscribe((teams: ITeam[]) => (this.teamsSharedCollection = teams));
+  protected toReference(suggestion: ISuggestion | null | undefined): { id: number } | undefined {
+    return suggestion?.id ? { id: suggestion.id } : undefined;
   }
 
   protected createFromForm(): ITeamContact {
@@ -127,8 +115,8 @@ export class TeamContactUpdateComponent implements OnInit {
       roleType: this.editForm.get(['roleType'])!.value,
       role: this.editForm.get(['role'])!.value,
       description: this.editForm.get(['description'])!.value,
-      contact: this.editForm.get(['contact'])!.value,
-      team: this.editForm.get(['team'])!.value,
+      contact: this.toReference(this.editForm.get(['contact'])!.value),
+      team: this.toReference(this.editForm.get(['team'])!.value),
     };
   }
 }
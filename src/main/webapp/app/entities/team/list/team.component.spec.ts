@@ -1,7 +1,9 @@
-import { ComponentFixture, TestBed } from '@angular/core/testing';
+import { ComponentFixture, TestBed, fakeAsync, tick } from '@angular/core/testing';
 import { HttpHeaders, HttpResponse } from '@angular/common/http';
 import { HttpClientTestingModule } from '@angular/common/http/testing';
-import { of } from 'rxjs';
+import { of, Subject } from 'rxjs';
+
+import { EntityChangePushService } from 'app/core/push/entity-change-push.service';
 
 import { TeamService } from '../service/team.service';
 
@@ -11,11 +13,15 @@ describe('Team Management Component', () => {
   let comp: TeamComponent;
   let fixture: ComponentFixture<TeamComponent>;
   let service: TeamService;
+  let pushedChanges: Subject<void>;
+  let pushService: EntityChangePushService;
 
   beforeEach(() => {
+    pushedChanges = new Subject();
     TestBed.configureTestingModule({
       imports: [HttpClientTestingModule],
       declarations: [TeamComponent],
+      providers: [{ provide: EntityChangePushService, useValue: { changesOf: jest.fn(() => pushedChanges) } }],
     })
       .overrideTemplate(TeamComponent, '')
       .compileComponents();
@@ -23,6 +29,7 @@ describe('Team Management Component', () => {
     fixture = TestBed.createComponent(TeamComponent);
     comp = fixture.componentInstance;
     service = TestBed.inject(TeamService);
+    pushService = TestBed.inject(EntityChangePushService);
 
     const headers = new HttpHeaders();
     jest.spyOn(service, 'query').mockReturnValue(
@@ -43,4 +50,20 @@ describe('Team Management Component', () => {
     expect(service.query).toHaveBeenCalled();
     expect(comp.teams?.[0]).toEqual(expect.objectContaining({ id: 123 }));
   });
+
+  it('Should reload once after pushed changes', fakeAsync(() => {
+    // GIVEN
+    comp.ngOnInit();
+    expect(pushService.changesOf).toHaveBeenCalledWith('Team');
+
+    // WHEN
+    pushedChanges.next();
+    pushedChanges.next();
+    tick(500);
+
+    // THEN
+    expect(service.query).toHaveBeenCalledTimes(2);
+    comp.ngOnDestroy();
+    expect(pushedChanges.observed).toBe(false);
+  }));
 });
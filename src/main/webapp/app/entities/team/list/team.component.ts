@@ -1,8 +1,12 @@
-import { Component, OnInit } from '@angular/core';
-import { HttpResponse } from '@angular/common/http';
+import { Component, OnDestroy, OnInit } from '@angular/core';
+import { HttpHeaders, HttpResponse } from '@angular/common/http';
 import { NgbModal } from '@ng-bootstrap/ng-bootstrap';
 
-import { Observable, Subject } from 'rxjs';
+import { ITEMS_PER_PAGE } from 'app/config/pagination.constants';
+import { EntityChangePushService } from 'app/core/push/entity-change-push.service';
+
+import { Observable, Subject, Subscription } from 'rxjs';
+import { debounceTime } from 'rxjs/operators';
 
 import { ITeam } from '../team.model';
 import { TeamService } from '../service/team.service';
@@ -13,35 +17,61 @@ import { DataUtils } from 'app/core/util/data-util.service';
   selector: 'jhi-team',
   templateUrl: './team.component.html',
 })
-export class TeamComponent implements OnInit {
+export class TeamComponent implements OnInit, OnDestroy {
   teams?: ITeam[];
   searchprompt: string;
   isLoading = false;
+  totalItems = 0;
+  itemsPerPage = ITEMS_PER_PAGE;
+  page = 1;
+
+  private pushSubscription?: Subscription;
 
-  constructor(protected teamService: TeamService, protected dataUtils: DataUtils, protected modalService: NgbModal) {
+  constructor(
+    protected teamService: TeamService,
+    protected dataUtils: DataUtils,
+    protected modalService: NgbModal,
+    protected entityChangePushService: EntityChangePushService
+  ) {
     this.searchprompt = "";
   }
 
   setSearchprompt(searchprompt: string): void {
     this.searchprompt = searchprompt;
+    this.page = 1;
   }
 
   loadAll(): void {
     this.isLoading = true;
 
-    this.teamService.query({'search.contains': this.searchprompt}).subscribe({
-      next: (res: HttpResponse<ITeam[]>) => {
-        this.isLoading = false;
-        this.teams = res.body ?? [];
-      },
-      error: () => {
-        this.isLoading = false;
-      },
-    });
+    this.teamService
+      .query({
+        'search.contains': this.searchprompt,
+        page: this.page - 1,
+        size: this.itemsPerPage,
+      })
+      .subscribe({
+        next: (res: HttpResponse<ITeam[]>) => {
+          this.isLoading = false;
+          this.onSuccess(res.body, res.headers);
+        },
+        error: () => {
+          this.isLoading = false;
+        },
+      });
   }
 
   ngOnInit(): void {
     this.loadAll();
+    // Changes in a burst, e.g. of a bulk request, reload the page once
+    this.pushSubscription = this.entityChangePushService
+      .changesOf('Team')
+      .pipe(debounceTime(500))
+      .subscribe(() => this.loadAll());
+  }
+
+  ngOnDestroy(): void {
+    this.pushSubscription?.unsubscribe();
   }
 
   trackId(_index: number, item: ITeam): number {
@@ -66,4 +96,9 @@ export class TeamComponent implements OnInit {
       }
     });
   }
+
+  protected onSuccess(data: ITeam[] | null, headers: HttpHeaders): void {
+    this.totalItems = Number(headers.get('X-Total-Count'));
+    this.teams = data ?? [];
+  }
 }
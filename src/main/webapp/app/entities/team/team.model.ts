@@ -6,6 +6,9 @@ export interface ITeam {
   motto?: string | null;
   logoContentType?: string | null;
   logo?: string | null;
+  logoHash?: string | null;
+  logoUrl?: string | null;
+  logoThumbnailUrls?: { [pixels: number]: string } | null;
   description?: string | null;
   teamContacts?: ITeamContact[] | null;
 }
@@ -17,6 +20,9 @@ export class Team implements ITeam {
     public motto?: string | null,
     public logoContentType?: string | null,
     public logo?: string | null,
+    public logoHash?: string | null,
+    public logoUrl?: string | null,
+    public logoThumbnailUrls?: { [pixels: number]: string } | null,
     public description?: string | null,
     public teamContacts?: ITeamContact[] | null
   ) {}
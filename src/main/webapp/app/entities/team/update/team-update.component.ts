@@ -17,12 +17,14 @@ import { DataUtils, FileLoadError } from 'app/core/util/data-util.service';
 })
 export class TeamUpdateComponent implements OnInit {
   isSaving = false;
+  logoUrl?: string | null;
 
   editForm = this.fb.group({
     id: [],
     name: [null, [Validators.required]],
     motto: [],
     logo: [],
+    logoHash: [],
     logoContentType: [],
     description: [],
   });
@@ -61,6 +63,7 @@ export class TeamUpdateComponent implements OnInit {
     this.editForm.patchValue({
       [field]: null,
       [fieldContentType]: null,
+      [`${field}Hash`]: null,
     });
     if (idInput && this.elementRef.nativeElement.querySelector('#' + idInput)) {
       this.elementRef.nativeElement.querySelector('#' + idInput).value = null;
@@ -101,11 +104,13 @@ export class TeamUpdateComponent implements OnInit {
   }
 
   protected updateForm(team: ITeam): void {
+    this.logoUrl = team.logoUrl;
     this.editForm.patchValue({
       id: team.id,
       name: team.name,
       motto: team.motto,
       logo: team.logo,
+      logoHash: team.logoHash,
       logoContentType: team.logoContentType,
       description: team.description,
     });
@@ -119,6 +124,7 @@ export class TeamUpdateComponent implements OnInit {
       motto: this.editForm.get(['motto'])!.value,
       logoContentType: this.editForm.get(['logoContentType'])!.value,
       logo: this.editForm.get(['logo'])!.value,
+      logoHash: this.editForm.get(['logoHash'])!.value,
       description: this.editForm.get(['description'])!.value,
     };
   }
@@ -0,0 +1,43 @@
+import { Pipe, PipeTransform } from '@angular/core';
+import { HttpClient } from '@angular/common/http';
+import { Observable, of } from 'rxjs';
+import { switchMap } from 'rxjs/operators';
+
+import { ApplicationConfigService } from 'app/core/config/application-config.service';
+
+/**
+ * Loads an image served by the API (e.g. a contact's imageUrl) through the HttpClient, so that the
+ * authentication header is sent, and emits it as data URL for an img src.
+ *
+ * Pass the content hash as argument, so that the image is loaded again once it has been replaced:
+ * `contact.imageUrl | authImage: contact.imageHash | async`
+ */
+@Pipe({
+  name: 'authImage',
+})
+export class AuthImagePipe implements PipeTransform {
+  constructor(private http: HttpClient, private applicationConfigService: ApplicationConfigService) {}
+
+  // eslint-disable-next-line @typescript-eslint/no-unused-vars
+  transform(url: string | null | undefined, hash?: string | null): Observable<string | null> {
+    if (!url) {
+      return of(null);
+    }
+    return this.http
+      .get(this.applicationConfigService.getEndpointFor(url.replace(/^\//, '')), { responseType: 'blob' })
+      .pipe(switchMap(blob => this.toDataUrl(blob)));
+  }
+
+  private toDataUrl(blob: Blob): Observable<string> {
+    return new Observable<string>(observer => {
+      const reader = new FileReader();
+      reader.onload = () => {
+        observer.next(reader.result as string);
+        observer.complete();
+      };
+      reader.onerror = () => observer.error(reader.error);
+      reader.readAsDataURL(blob);
+      return () => reader.abort();
+    });
+  }
+}
@@ -0,0 +1,47 @@
+import { TestBed } from '@angular/core/testing';
+import { HttpClientTestingModule, HttpTestingController } from '@angular/common/http/testing';
+import { of } from 'rxjs';
+
+import { ISuggestion } from './suggestion.model';
+import { SuggestService } from './suggest.service';
+
+describe('Suggest Service', () => {
+  let service: SuggestService;
+  let httpMock: HttpTestingController;
+
+  beforeEach(() => {
+    TestBed.configureTestingModule({
+      imports: [HttpClientTestingModule],
+    });
+    service = TestBed.inject(SuggestService);
+    httpMock = TestBed.inject(HttpTestingController);
+  });
+
+  afterEach(() => {
+    httpMock.verify();
+  });
+
+  it('should ask for suggestions', () => {
+    const suggestions: ISuggestion[] = [{ id: 123, label: 'Doe, Jane' }];
+    let result: ISuggestion[] | undefined;
+
+    service.suggest('contacts', 'do').subscribe(resp => (result = resp));
+
+    const req = httpMock.expectOne(r => r.url.endsWith('api/_suggest/contacts'));
+    expect(req.request.method).toBe('GET');
+    expect(req.request.params.get('q')).toBe('do');
+    expect(req.request.params.get('limit')).toBe('10');
+    req.flush(suggestions);
+    expect(result).toEqual(suggestions);
+  });
+
+  it('should not ask for suggestions of a blank text', done => {
+    service
+      .typeahead('teams')(of(' '))
+      .subscribe(resp => {
+        expect(resp).toEqual([]);
+        httpMock.expectNone(() => true);
+        done();
+      });
+  });
+});
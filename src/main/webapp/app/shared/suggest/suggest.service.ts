@@ -0,0 +1,34 @@
+import { Injectable } from '@angular/core';
+import { HttpClient, HttpParams } from '@angular/common/http';
+import { Observable, of } from 'rxjs';
+import { debounceTime, distinctUntilChanged, switchMap } from 'rxjs/operators';
+
+import { ApplicationConfigService } from 'app/core/config/application-config.service';
+import { ISuggestion, SuggestionKind } from './suggestion.model';
+
+/**
+ * Typeahead suggestions from `/api/_suggest`, so pickers do not have to load whole entity lists.
+ */
+@Injectable({ providedIn: 'root' })
+export class SuggestService {
+  protected resourceUrl = this.applicationConfigService.getEndpointFor('api/_suggest');
+
+  constructor(protected http: HttpClient, protected applicationConfigService: ApplicationConfigService) {}
+
+  suggest(kind: SuggestionKind, text: string, limit = 10): Observable<ISuggestion[]> {
+    const params = new HttpParams().set('q', text).set('limit', limit);
+    return this.http.get<ISuggestion[]>(`${this.resourceUrl}/${kind}`, { params });
+  }
+
+  /**
+   * Create the search function of an `ngbTypeahead`, which asks for suggestions once the user pauses typing.
+   */
+  typeahead(kind: SuggestionKind): (text$: Observable<string>) => Observable<ISuggestion[]> {
+    return (text$: Observable<string>) =>
+      text$.pipe(
+        debounceTime(200),
+        distinctUntilChanged(),
+        switchMap(text => (text.trim() ? this.suggest(kind, text) : of([])))
+      );
+  }
+}
@@ -0,0 +1,6 @@
+export type SuggestionKind = 'contacts' | 'teams' | 'roles';
+
+export interface ISuggestion {
+  id?: number | null;
+  label: string;
+}
@@ -0,0 +1,73 @@
+package com.computacenter.yocoma.domain.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.computacenter.yocoma.IntegrationTest;
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.domain.Team;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link PooledLoSequenceGenerator}.
+ */
+@IntegrationTest
+@Transactional
+class PooledLoSequenceGeneratorIT {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Test
+    void sequenceIncrementIsTheBlockSize() {
+        Number increment = (Number) em
+            .createNativeQuery("select increment from information_schema.sequences where sequence_name = 'SEQUENCE_GENERATOR'")
+            .getSingleResult();
+
+        assertThat(increment.intValue()).isEqualTo(applicationProperties.getIdAllocation().getBlockSize());
+    }
+
+    @Test
+    void idsAreAllocatedInBlocks() {
+        int blockSize = applicationProperties.getIdAllocation().getBlockSize();
+        int inserts = 3 * blockSize;
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        List<Long> ids = new ArrayList<>();
+        long sequenceCalls;
+        try {
+            for (int i = 0; i < inserts; i++) {
+                Team team = new Team().name("Team " + i);
+                em.persist(team);
+                ids.add(team.getId());
+            }
+            // Nothing is flushed, so the only statements are the calls of the sequence
+            sequenceCalls = statistics.getPrepareStatementCount();
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+        assertThat(sequenceCalls).isBetween(1L, (long) inserts / blockSize);
+
+        // The ids continue the current block, then each block is consecutive, though the blocks may be far apart as
+        // the other entities and tests allocate from the same sequence
+        long runs = 1;
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(ids.get(i)).isGreaterThan(ids.get(i - 1));
+            if (ids.get(i) != ids.get(i - 1) + 1) {
+                runs++;
+            }
+        }
+        assertThat(runs).isLessThanOrEqualTo(sequenceCalls + 1);
+    }
+}
@@ -0,0 +1,96 @@
+package com.computacenter.yocoma.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.computacenter.yocoma.IntegrationTest;
+import com.computacenter.yocoma.service.ContactQueryService;
+import com.computacenter.yocoma.service.criteria.ContactCriteria;
+import com.computacenter.yocoma.service.keyset.KeysetRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Integration tests for the {@link QueryPlanMetersService}, with the statistics enabled as in production.
+ */
+@IntegrationTest
+class QueryPlanMetersIT {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ContactQueryService contactQueryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    private boolean statisticsEnabled;
+
+    @BeforeEach
+    public void enableStatistics() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        // The plans compiled by the other tests are dropped, so the plan of the tested shape is compiled again
+        sessionFactory.getQueryPlanCache().cleanup();
+        statistics = sessionFactory.getStatistics();
+        statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void restoreStatistics() {
+        statistics.setStatisticsEnabled(statisticsEnabled);
+    }
+
+    @Test
+    void plansAreCompiledOncePerShape() {
+        double misses = planLookups("miss");
+        long compiles = compileTimes();
+
+        contactQueryService.findByCriteria(lastnameContains("Lovelace"), KeysetRequest.first("lastname", 10));
+
+        assertThat(planLookups("miss")).isGreaterThan(misses);
+        assertThat(compileTimes()).isEqualTo(compiles + 1);
+        assertThat(meterRegistry.get(QueryPlanMetersService.QUERY_PLANS_COMPILE_TIME_METER_NAME).timer().totalTime(TimeUnit.NANOSECONDS))
+            .isPositive();
+
+        // The same shape with another value reuses the plan
+        double hits = planLookups("hit");
+        misses = planLookups("miss");
+        contactQueryService.findByCriteria(lastnameContains("Babbage"), KeysetRequest.first("lastname", 10));
+
+        assertThat(planLookups("hit")).isGreaterThan(hits);
+        assertThat(planLookups("miss")).isEqualTo(misses);
+        assertThat(compileTimes()).isEqualTo(compiles + 1);
+        assertThat(meterRegistry.get(QueryPlanMetersService.QUERY_PLANS_HIT_RATIO_METER_NAME).gauge().value()).isPositive();
+    }
+
+    private static ContactCriteria lastnameContains(String lastname) {
+        ContactCriteria criteria = new ContactCriteria();
+        StringFilter filter = new StringFilter();
+        filter.setContains(lastname);
+        criteria.setLastname(filter);
+        return criteria;
+    }
+
+    private double planLookups(String result) {
+        return meterRegistry
+            .get(QueryPlanMetersService.QUERY_PLANS_METER_NAME)
+            .tag(QueryPlanMetersService.QUERY_PLANS_METER_RESULT_DIMENSION, result)
+            .functionCounter()
+            .count();
+    }
+
+    private long compileTimes() {
+        return meterRegistry.get(QueryPlanMetersService.QUERY_PLANS_COMPILE_TIME_METER_NAME).timer().count();
+    }
+}
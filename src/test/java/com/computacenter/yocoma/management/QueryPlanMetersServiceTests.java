@@ -0,0 +1,53 @@
+package com.computacenter.yocoma.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class QueryPlanMetersServiceTests {
+
+    private static final String QUERY_PLANS_METER_EXPECTED_NAME = "query.plans";
+
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        statistics = mock(Statistics.class);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+
+        new QueryPlanMetersService(meterRegistry, entityManagerFactory);
+    }
+
+    @Test
+    void testCountsTheLookupsOfTheQueryPlanCache() {
+        when(statistics.getQueryPlanCacheHitCount()).thenReturn(3L);
+        when(statistics.getQueryPlanCacheMissCount()).thenReturn(1L);
+
+        assertThat(meterRegistry.get(QUERY_PLANS_METER_EXPECTED_NAME).tag("result", "hit").functionCounter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get(QUERY_PLANS_METER_EXPECTED_NAME).tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testHitRatio() {
+        assertThat(meterRegistry.get("query.plans.hit-ratio").gauge().value()).isZero();
+
+        when(statistics.getQueryPlanCacheHitCount()).thenReturn(2L);
+        when(statistics.getQueryPlanCacheMissCount()).thenReturn(2L);
+
+        assertThat(meterRegistry.get("query.plans.hit-ratio").gauge().value()).isEqualTo(0.5);
+    }
+}
@@ -6,12 +6,16 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 class SecurityMetersServiceTests {
 
     private static final String INVALID_TOKENS_METER_EXPECTED_NAME = "security.authentication.invalid-tokens";
+    private static final String VERIFIED_TOKENS_METER_EXPECTED_NAME = "security.authentication.verified-tokens";
+    private static final String PASSWORD_HASHING_METER_EXPECTED_PREFIX = "security.authentication.password-hashing";
 
     private MeterRegistry meterRegistry;
 
@@ -36,9 +40,11 @@ class SecurityMetersServiceTests {
 
         meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter();
 
+        meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "revoked").counter();
+
         Collection<Counter> counters = meterRegistry.find(INVALID_TOKENS_METER_EXPECTED_NAME).counters();
 
-        assertThat(counters).hasSize(4);
+        assertThat(counters).hasSize(5);
     }
 
     @Test
@@ -66,5 +72,39 @@ class SecurityMetersServiceTests {
         securityMetersService.trackTokenMalformed();
 
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(1);
+
+        assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "revoked").counter().count()).isZero();
+
+        securityMetersService.trackTokenRevoked();
+
+        assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "revoked").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testVerifiedTokensCountersByResultAreCreated() {
+        meterRegistry.get(VERIFIED_TOKENS_METER_EXPECTED_NAME).tag("result", "hit").counter();
+
+        meterRegistry.get(VERIFIED_TOKENS_METER_EXPECTED_NAME).tag("result", "miss").counter();
+
+        meterRegistry.get(VERIFIED_TOKENS_METER_EXPECTED_NAME + ".evictions").counter();
+
+        assertThat(meterRegistry.get(VERIFIED_TOKENS_METER_EXPECTED_NAME + ".hit-ratio").gauge().value()).isZero();
+    }
+
+    @Test
+    void testPasswordHashingMetersAreCreated() {
+        securityMetersService.monitorPasswordHashingQueue(List.of("first", "second"));
+
+        securityMetersService.trackPasswordHashingWait(TimeUnit.MILLISECONDS.toNanos(5));
+        securityMetersService.trackPasswordHashing(TimeUnit.MILLISECONDS.toNanos(80));
+        securityMetersService.trackPasswordHashingQueueFull();
+
+        assertThat(meterRegistry.get(PASSWORD_HASHING_METER_EXPECTED_PREFIX + ".wait").timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(5);
+        assertThat(meterRegistry.get(PASSWORD_HASHING_METER_EXPECTED_PREFIX + ".time").timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(80);
+        assertThat(meterRegistry.get(PASSWORD_HASHING_METER_EXPECTED_PREFIX + ".queue").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get(PASSWORD_HASHING_METER_EXPECTED_PREFIX + ".rejected").tag("cause", "queue-full").counter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get(PASSWORD_HASHING_METER_EXPECTED_PREFIX + ".rejected").tag("cause", "wait-exceeded").counter().count())
+            .isZero();
     }
 }
@@ -0,0 +1,56 @@
+package com.computacenter.yocoma.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.computacenter.yocoma.IntegrationTest;
+import com.computacenter.yocoma.domain.Contact;
+import com.computacenter.yocoma.domain.ContactImport;
+import com.computacenter.yocoma.domain.ContactImportRow;
+import com.computacenter.yocoma.domain.enumeration.ContactImportFormat;
+import com.computacenter.yocoma.domain.enumeration.ContactImportRowStatus;
+import com.computacenter.yocoma.domain.enumeration.ContactImportStatus;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the staged rows of {@link ContactImportRepository}.
+ */
+@IntegrationTest
+@Transactional
+class ContactImportRepositoryIT {
+
+    @Autowired
+    private ContactImportRepository contactImportRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Test
+    void rowsAreCheckedAgainstTheContactsCreatedSinceTheyWereDeduplicated() {
+        long importId = contactImportRepository
+            .saveAndFlush(new ContactImport().format(ContactImportFormat.CSV).status(ContactImportStatus.MERGING))
+            .getId();
+        contactImportRepository.insertRows(
+            importId,
+            List.of(row(1, "first.rechecked@example.com"), row(2, "second.rechecked@example.com"), row(3, "third.rechecked@example.com"))
+        );
+        assertThat(contactImportRepository.markDuplicateRows(importId)).isZero();
+
+        contactRepository.saveAndFlush(new Contact().firstname("Concurrent").lastname("Rechecked").email("Second.Rechecked@Example.com"));
+        contactRepository.saveAndFlush(new Contact().firstname("Later").lastname("Rechecked").email("third.rechecked@example.com"));
+
+        assertThat(contactImportRepository.markDuplicateRowsOfContacts(importId, 1, 2)).containsExactly(2);
+        assertThat(contactImportRepository.findValidRows(importId, 10)).extracting(ContactImportRow::getLineNumber).containsExactly(1, 3);
+    }
+
+    private static ContactImportRow row(int lineNumber, String email) {
+        return new ContactImportRow()
+            .lineNumber(lineNumber)
+            .status(ContactImportRowStatus.VALID)
+            .firstname("Imported")
+            .lastname("Rechecked")
+            .email(email);
+    }
+}
@@ -0,0 +1,81 @@
+package com.computacenter.yocoma.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import liquibase.Contexts;
+import liquibase.Liquibase;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LiquibaseException;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Integration tests asserting that the contains filters use the trigram indexes of the Liquibase changelogs, which
+ * exist on PostgreSQL only.
+ * <p>
+ * The changelogs are run against a PostgreSQL container, so the tests are skipped where Docker is not available.
+ */
+class PostgreSQLIndexesIT {
+
+    private static PostgreSQLContainer<?> postgresql;
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void startPostgreSQL() throws SQLException, LiquibaseException {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+        postgresql = new PostgreSQLContainer<>("postgres:14.2").withDatabaseName("yocoma");
+        postgresql.start();
+        connection = DriverManager.getConnection(postgresql.getJdbcUrl(), postgresql.getUsername(), postgresql.getPassword());
+        new Liquibase(
+            "config/liquibase/master.xml",
+            new ClassLoaderResourceAccessor(),
+            DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection))
+        )
+            .update(new Contexts("test"));
+        try (Statement statement = connection.createStatement()) {
+            // The tables are all but empty, so the planner would rather scan them than read any index
+            statement.execute("set enable_seqscan = off");
+        }
+    }
+
+    @AfterAll
+    static void stopPostgreSQL() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+        if (postgresql != null) {
+            postgresql.stop();
+        }
+    }
+
+    @Test
+    void containsFiltersUseTheTrigramIndexes() throws SQLException {
+        // The filters of the query services compare upper(column) like '%TEXT%'
+        assertThat(explain("select * from contact where upper(lastname) like '%DOE%'")).contains("idx_contact_lastname_upper");
+        assertThat(explain("select * from contact where upper(firstname) like '%JOHN%'")).contains("idx_contact_firstname_upper");
+        assertThat(explain("select * from contact where upper(email) like '%EXAMPLE.COM%'")).contains("idx_contact_email_upper");
+        assertThat(explain("select * from team where upper(name) like '%TEAM%'")).contains("idx_team_name_upper");
+    }
+
+    private static String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery("explain " + sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
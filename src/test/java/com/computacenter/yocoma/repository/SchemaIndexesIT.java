@@ -0,0 +1,64 @@
+package com.computacenter.yocoma.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.computacenter.yocoma.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Integration tests asserting that the hot queries use the indexes of the Liquibase changelogs.
+ */
+@IntegrationTest
+class SchemaIndexesIT {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void teamMembersUseTheTeamIndex() {
+        // H2 indexes the foreign keys by itself, unlike PostgreSQL, so only the composite index is named here
+        assertThat(explain("select * from team_contact where team_id = 1")).contains("TEAM_ID = 1 */").doesNotContain("tableScan");
+        assertThat(explain("select * from team_contact where team_id = 1 and role_type = 'LEADER'"))
+            .contains("IDX_TEAM_CONTACT_TEAM_ID_ROLE_TYPE: TEAM_ID = 1 AND ROLE_TYPE = 'LEADER'");
+        assertThat(explain("select tc.* from team t join team_contact tc on tc.team_id = t.id where t.name = 'Team'"))
+            .contains("IDX_TEAM_NAME")
+            .doesNotContain("tableScan");
+    }
+
+    @Test
+    void contactMembershipsUseTheContactIndex() {
+        assertThat(explain("select * from team_contact where contact_id in (1, 2, 3)"))
+            .contains("CONTACT_ID IN(1, 2, 3) */")
+            .doesNotContain("tableScan");
+        assertThat(explain("select * from team_contact where contact_id = 1 and team_id = 2"))
+            .contains("IDX_TEAM_CONTACT_CONTACT_ID_TEAM_ID: CONTACT_ID = 1 AND TEAM_ID = 2");
+    }
+
+    @Test
+    void searchableColumnsAreIndexed() {
+        assertThat(explain("select * from contact where lastname = 'Doe'")).contains("IDX_CONTACT_LASTNAME");
+        assertThat(explain("select * from contact where firstname = 'John'")).contains("IDX_CONTACT_FIRSTNAME");
+        assertThat(explain("select * from contact where email in ('john.doe@example.com')")).contains("IDX_CONTACT_EMAIL");
+        assertThat(explain("select * from team where name = 'Team'")).contains("IDX_TEAM_NAME");
+    }
+
+    @Test
+    void contactImportsUseTheirIndexes() {
+        assertThat(explain("select * from contact where normalized_email = 'john.doe@example.com'"))
+            .contains("IDX_CONTACT_NORMALIZED_EMAIL");
+        assertThat(explain("select * from contact where normalized_phone = '+491701234'")).contains("IDX_CONTACT_NORMALIZED_PHONE");
+        // The rows of a status are read in the order of the index, up to the limit, instead of all being sorted
+        assertThat(
+            explain("select * from contact_import_row where import_id = 1 and status = 'VALID' order by import_id, status, line_number limit 10")
+        )
+            .contains("IDX_CONTACT_IMPORT_ROW_STATUS")
+            .contains("index sorted");
+    }
+
+    private String explain(String sql) {
+        // The plan is formatted over several lines
+        return jdbcTemplate.queryForObject("explain " + sql, String.class).replaceAll("\\s+", " ");
+    }
+}
@@ -1,9 +1,11 @@
 package com.computacenter.yocoma.repository.timezone;
 
+import com.computacenter.yocoma.domain.id.PooledLoSequenceGenerator;
 import java.io.Serializable;
 import java.time.*;
 import java.util.Objects;
 import javax.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
 
 @Entity
 @Table(name = "jhi_date_time_wrapper")
@@ -13,7 +15,7 @@ public class DateTimeWrapper implements Serializable {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GenericGenerator(name = "sequenceGenerator", strategy = PooledLoSequenceGenerator.STRATEGY)
     private Long id;
 
     @Column(name = "instant")
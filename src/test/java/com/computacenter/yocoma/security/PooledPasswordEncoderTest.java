@@ -0,0 +1,149 @@
+package com.computacenter.yocoma.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.management.SecurityMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class PooledPasswordEncoderTest {
+
+    private final CountDownLatch hashing = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties.Security.PasswordHashing passwordHashing;
+
+    private PooledPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordHashing = new ApplicationProperties.Security.PasswordHashing();
+        passwordHashing.setStrength(4);
+        passwordHashing.setThreads(1);
+        passwordHashing.setQueueCapacity(1);
+        passwordHashing.setRetryAfter(Duration.ofSeconds(7));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        passwordEncoder.destroy();
+    }
+
+    @Test
+    void testHashesOnThePool() {
+        passwordEncoder = pooledPasswordEncoder(new BCryptPasswordEncoder(4));
+
+        String hash = passwordEncoder.encode("password");
+
+        assertThat(passwordEncoder.matches("password", hash)).isTrue();
+        assertThat(passwordEncoder.matches("wrong", hash)).isFalse();
+        assertThat(meterRegistry.get("security.authentication.password-hashing.time").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("security.authentication.password-hashing.wait").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void testUpgradesWeakerHashes() {
+        passwordEncoder = pooledPasswordEncoder(new BCryptPasswordEncoder(5));
+
+        assertThat(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password"))).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(passwordEncoder.encode("password"))).isFalse();
+    }
+
+    @Test
+    void testRejectsWhenTheQueueIsFull() throws Exception {
+        passwordEncoder = pooledPasswordEncoder(blockingPasswordEncoder());
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> passwordEncoder.matches("running", "hash"));
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.matches("queued", "hash"));
+        while (meterRegistry.get("security.authentication.password-hashing.queue").gauge().value() < 1) {
+            Thread.sleep(10);
+        }
+
+        assertThatThrownBy(() -> passwordEncoder.matches("rejected", "hash"))
+            .isInstanceOf(AuthenticationOverloadedException.class)
+            .extracting(ex -> ((AuthenticationOverloadedException) ex).getRetryAfter())
+            .isEqualTo(Duration.ofSeconds(7));
+        assertThat(meterRegistry.get("security.authentication.password-hashing.rejected").tag("cause", "queue-full").counter().count())
+            .isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testRejectsWhenWaitingTooLong() throws Exception {
+        passwordHashing.setMaxWait(Duration.ofMillis(50));
+        passwordEncoder = pooledPasswordEncoder(blockingPasswordEncoder());
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> passwordEncoder.matches("running", "hash"));
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.matches("queued", "hash"));
+        Thread.sleep(100);
+
+        release.countDown();
+
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThatThrownBy(() -> queued.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(AuthenticationOverloadedException.class);
+        assertThat(meterRegistry.get("security.authentication.password-hashing.rejected").tag("cause", "wait-exceeded").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testGivesUpWhenHashingTakesTooLong() throws Exception {
+        passwordHashing.setMaxWait(Duration.ofMillis(50));
+        passwordHashing.setMaxHashTime(Duration.ofMillis(50));
+        passwordEncoder = pooledPasswordEncoder(blockingPasswordEncoder());
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> passwordEncoder.matches("running", "hash"))
+            .isInstanceOf(AuthenticationOverloadedException.class)
+            .extracting(ex -> ((AuthenticationOverloadedException) ex).getRetryAfter())
+            .isEqualTo(Duration.ofSeconds(7));
+
+        // The caller is released well before the hash, which would block for seconds
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(meterRegistry.get("security.authentication.password-hashing.rejected").tag("cause", "timeout").counter().count())
+            .isEqualTo(1);
+    }
+
+    private PooledPasswordEncoder pooledPasswordEncoder(PasswordEncoder delegate) {
+        return new PooledPasswordEncoder(delegate, passwordHashing, new SecurityMetersService(meterRegistry));
+    }
+
+    private PasswordEncoder blockingPasswordEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                hashing.countDown();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        };
+    }
+}
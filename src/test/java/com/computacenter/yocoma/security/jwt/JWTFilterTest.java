@@ -1,8 +1,13 @@
 package com.computacenter.yocoma.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
+import com.computacenter.yocoma.config.ApplicationProperties;
 import com.computacenter.yocoma.management.SecurityMetersService;
+import com.computacenter.yocoma.repository.AuthorityRepository;
+import com.computacenter.yocoma.repository.JwtSigningKeyRepository;
+import com.computacenter.yocoma.repository.RevokedTokenRepository;
 import com.computacenter.yocoma.security.AuthoritiesConstants;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -34,7 +39,16 @@ class JWTFilterTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        tokenProvider =
+            new TokenProvider(
+                jHipsterProperties,
+                new ApplicationProperties(),
+                securityMetersService,
+                jwtSigningKeys(jHipsterProperties),
+                jwtAuthorities(),
+                new TokenRevocations(mock(RevokedTokenRepository.class), new ApplicationProperties()),
+                TestCacheManagers.create(new ApplicationProperties(), securityMetersService)
+            );
         ReflectionTestUtils.setField(tokenProvider, "key", Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
 
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", 60000);
@@ -114,4 +128,12 @@ class JWTFilterTest {
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
     }
+
+    private static JwtSigningKeys jwtSigningKeys(JHipsterProperties jHipsterProperties) {
+        return new JwtSigningKeys(mock(JwtSigningKeyRepository.class), new ApplicationProperties(), jHipsterProperties);
+    }
+
+    private static JwtAuthorities jwtAuthorities() {
+        return new JwtAuthorities(mock(AuthorityRepository.class), new ApplicationProperties());
+    }
 }
@@ -0,0 +1,115 @@
+package com.computacenter.yocoma.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.domain.Authority;
+import com.computacenter.yocoma.repository.AuthorityRepository;
+import com.computacenter.yocoma.security.AuthoritiesConstants;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Benchmark of the bytes allocated to read the authorities of a token, run with {@code -Pbenchmark}.
+ * <p>
+ * The allocations are measured per thread with {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}.
+ */
+@Tag("benchmark")
+class JwtAuthoritiesBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthoritiesBenchmarkTest.class);
+
+    private static final int WARMUP = 200_000;
+
+    private static final int ITERATIONS = 2_000_000;
+
+    private JwtAuthorities jwtAuthorities;
+
+    private Claims bitmaskClaims;
+
+    private Claims namesClaims;
+
+    @BeforeEach
+    public void setup() {
+        AuthorityRepository authorityRepository = mock(AuthorityRepository.class);
+        when(authorityRepository.findAll())
+            .thenReturn(List.of(authority(AuthoritiesConstants.ADMIN, 0), authority(AuthoritiesConstants.USER, 1)));
+        jwtAuthorities = new JwtAuthorities(authorityRepository, new ApplicationProperties());
+
+        JwtBuilder builder = Jwts.builder().setSubject("benchmark");
+        jwtAuthorities.addClaims(
+            builder,
+            List.of(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN), new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        bitmaskClaims = Jwts.parserBuilder().build().parseClaimsJwt(builder.compact()).getBody();
+        namesClaims = Jwts.claims();
+        namesClaims.setSubject("benchmark");
+        namesClaims.put(JwtAuthorities.AUTHORITIES_KEY, AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER);
+    }
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    void allocationsPerToken() {
+        // The authorities as read before they were carried as bitmask, split and parsed for every token
+        long names = allocatedBytesPerOp(
+            claims ->
+                Arrays
+                    .stream(claims.get(JwtAuthorities.AUTHORITIES_KEY).toString().split(","))
+                    .filter(auth -> !auth.trim().isEmpty())
+                    .map(SimpleGrantedAuthority::new)
+                    .collect(Collectors.toList()),
+            namesClaims
+        );
+        long bitmask = allocatedBytesPerOp(jwtAuthorities::fromClaims, bitmaskClaims);
+        long bitmaskAndUser = allocatedBytesPerOp(
+            claims -> new User(claims.getSubject(), "", jwtAuthorities.fromClaims(claims)).getAuthorities(),
+            bitmaskClaims
+        );
+
+        log.info("names split and parse: {} B/op, bitmask decode: {} B/op, bitmask decode plus User: {} B/op", names, bitmask, bitmaskAndUser);
+        assertThat(bitmask).isLessThan(names);
+    }
+
+    private static long allocatedBytesPerOp(Function<Claims, Collection<? extends GrantedAuthority>> read, Claims claims) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long size = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            size += read.apply(claims).size();
+        }
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            size += read.apply(claims).size();
+        }
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+        // Keeps the reads from being optimized away
+        assertThat(size).isEqualTo(2L * (WARMUP + ITERATIONS));
+        return allocated / ITERATIONS;
+    }
+
+    private static Authority authority(String name, Integer tokenBit) {
+        Authority authority = new Authority();
+        authority.setName(name);
+        authority.setTokenBit(tokenBit);
+        return authority;
+    }
+}
@@ -0,0 +1,123 @@
+package com.computacenter.yocoma.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.domain.Authority;
+import com.computacenter.yocoma.repository.AuthorityRepository;
+import com.computacenter.yocoma.security.AuthoritiesConstants;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+class JwtAuthoritiesTest {
+
+    private static final String OTHER = "ROLE_OTHER";
+
+    private AuthorityRepository authorityRepository;
+
+    private ApplicationProperties applicationProperties;
+
+    private JwtAuthorities jwtAuthorities;
+
+    @BeforeEach
+    public void setup() {
+        authorityRepository = mock(AuthorityRepository.class);
+        when(authorityRepository.findAll())
+            .thenReturn(
+                List.of(authority(AuthoritiesConstants.ADMIN, 0), authority(AuthoritiesConstants.USER, 1), authority(OTHER, null))
+            );
+        applicationProperties = new ApplicationProperties();
+        jwtAuthorities = new JwtAuthorities(authorityRepository, applicationProperties);
+    }
+
+    @Test
+    void testAuthoritiesWithATokenBitAreCarriedAsBitmask() {
+        Claims claims = claims(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+
+        assertThat(claims).containsEntry(JwtAuthorities.AUTHORITY_BITS_KEY, 3).doesNotContainKey(JwtAuthorities.AUTHORITIES_KEY);
+        assertThat(names(jwtAuthorities.fromClaims(claims))).containsExactly(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+    }
+
+    @Test
+    void testAuthoritiesWithoutATokenBitAreCarriedByName() {
+        Claims claims = claims(AuthoritiesConstants.USER, OTHER);
+
+        assertThat(claims).containsEntry(JwtAuthorities.AUTHORITY_BITS_KEY, 2).containsEntry(JwtAuthorities.AUTHORITIES_KEY, OTHER);
+        assertThat(names(jwtAuthorities.fromClaims(claims))).containsExactly(AuthoritiesConstants.USER, OTHER);
+    }
+
+    @Test
+    void testTokensWithoutAuthoritiesCarryAnEmptyName() {
+        Claims claims = claims();
+
+        assertThat(claims).containsEntry(JwtAuthorities.AUTHORITIES_KEY, "").doesNotContainKey(JwtAuthorities.AUTHORITY_BITS_KEY);
+        assertThat(jwtAuthorities.fromClaims(claims)).isEmpty();
+    }
+
+    @Test
+    void testTokensCarryAllNamesForLegacyNodes() {
+        applicationProperties.getSecurity().getJwt().setLegacyAuthorities(true);
+        jwtAuthorities = new JwtAuthorities(authorityRepository, applicationProperties);
+
+        Claims claims = claims(AuthoritiesConstants.ADMIN, OTHER);
+
+        assertThat(claims)
+            .containsEntry(JwtAuthorities.AUTHORITY_BITS_KEY, 1)
+            .containsEntry(JwtAuthorities.AUTHORITIES_KEY, AuthoritiesConstants.ADMIN + "," + OTHER);
+        assertThat(names(jwtAuthorities.fromClaims(claims))).containsExactly(AuthoritiesConstants.ADMIN, OTHER);
+    }
+
+    @Test
+    void testLegacyTokensAreReadByName() {
+        Claims claims = Jwts.claims();
+        claims.put(JwtAuthorities.AUTHORITIES_KEY, AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER);
+
+        assertThat(names(jwtAuthorities.fromClaims(claims))).containsExactly(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+    }
+
+    @Test
+    void testAuthoritiesAreInterned() {
+        List<GrantedAuthority> authorities = jwtAuthorities.fromClaims(claims(AuthoritiesConstants.USER));
+        Claims legacyClaims = Jwts.claims();
+        legacyClaims.put(JwtAuthorities.AUTHORITIES_KEY, AuthoritiesConstants.USER);
+
+        assertThat(jwtAuthorities.fromClaims(claims(AuthoritiesConstants.USER))).isSameAs(authorities);
+        assertThat(jwtAuthorities.fromClaims(legacyClaims).get(0)).isSameAs(authorities.get(0));
+        assertThat(authorities).isUnmodifiable();
+    }
+
+    @Test
+    void testUnknownBitsAreIgnored() {
+        Claims claims = Jwts.claims();
+        claims.put(JwtAuthorities.AUTHORITY_BITS_KEY, (1L << 62) | 2);
+
+        assertThat(names(jwtAuthorities.fromClaims(claims))).containsExactly(AuthoritiesConstants.USER);
+    }
+
+    private Claims claims(String... authorities) {
+        JwtBuilder builder = Jwts.builder().setSubject("test-user");
+        jwtAuthorities.addClaims(builder, Arrays.stream(authorities).map(SimpleGrantedAuthority::new).collect(Collectors.toList()));
+        return Jwts.parserBuilder().build().parseClaimsJwt(builder.compact()).getBody();
+    }
+
+    private static Authority authority(String name, Integer tokenBit) {
+        Authority authority = new Authority();
+        authority.setName(name);
+        authority.setTokenBit(tokenBit);
+        return authority;
+    }
+
+    private static List<String> names(List<GrantedAuthority> authorities) {
+        return authorities.stream().map(GrantedAuthority::getAuthority).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,113 @@
+package com.computacenter.yocoma.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.domain.JwtSigningKey;
+import com.computacenter.yocoma.management.SecurityMetersService;
+import com.computacenter.yocoma.repository.AuthorityRepository;
+import com.computacenter.yocoma.repository.JwtSigningKeyRepository;
+import com.computacenter.yocoma.repository.RevokedTokenRepository;
+import com.computacenter.yocoma.security.AuthoritiesConstants;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Benchmark of signing and verifying access tokens with each supported algorithm, run with {@code -Pbenchmark}.
+ * <p>
+ * The tokens are verified without the verified-token cache, as on the first request of each token.
+ */
+@Tag("benchmark")
+class JwtSignatureBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtSignatureBenchmarkTest.class);
+
+    private static final String BASE64_SECRET =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private static final String PRIVATE_KEY_SECRET = "q2vUz7cJ0m5hYk1Xb8fN3wR6tE9pL4sA2dG7jK0zV5c=";
+
+    private static final int WARMUP = 500;
+
+    private static final int ITERATIONS = 2000;
+
+    @ParameterizedTest
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    @EnumSource(names = { "HS512", "RS256", "ES256" })
+    void signAndVerify(SignatureAlgorithm algorithm) {
+        TokenProvider tokenProvider = tokenProvider(algorithm);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+            "benchmark",
+            "benchmark",
+            List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+
+        String token = null;
+        for (int i = 0; i < WARMUP; i++) {
+            token = tokenProvider.createToken(authentication, false);
+            tokenProvider.validateToken(token);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            token = tokenProvider.createToken(authentication, false);
+        }
+        long signNanos = (System.nanoTime() - start) / ITERATIONS;
+        start = System.nanoTime();
+        boolean valid = true;
+        for (int i = 0; i < ITERATIONS; i++) {
+            valid &= tokenProvider.validateToken(token);
+        }
+        long verifyNanos = (System.nanoTime() - start) / ITERATIONS;
+
+        assertThat(valid).isTrue();
+        log.info(
+            "{}: sign {} us/op, verify {} us/op, token {} chars",
+            algorithm,
+            signNanos / 1000,
+            verifyNanos / 1000,
+            token.length()
+        );
+    }
+
+    private static TokenProvider tokenProvider(SignatureAlgorithm algorithm) {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getJwt().setAlgorithm(algorithm);
+        applicationProperties.getSecurity().getJwt().setPrivateKeySecret(PRIVATE_KEY_SECRET);
+        List<JwtSigningKey> stored = new ArrayList<>();
+        JwtSigningKeyRepository jwtSigningKeyRepository = mock(JwtSigningKeyRepository.class);
+        when(jwtSigningKeyRepository.findAllByAlgorithmOrderByCreatedDateDesc(algorithm.getValue())).thenAnswer(invocation -> stored);
+        when(jwtSigningKeyRepository.save(any()))
+            .thenAnswer(invocation -> {
+                stored.add(invocation.getArgument(0));
+                return invocation.getArgument(0);
+            });
+
+        return new TokenProvider(
+            jHipsterProperties,
+            applicationProperties,
+            new SecurityMetersService(new SimpleMeterRegistry()),
+            new JwtSigningKeys(jwtSigningKeyRepository, applicationProperties, jHipsterProperties),
+            new JwtAuthorities(mock(AuthorityRepository.class), applicationProperties),
+            new TokenRevocations(mock(RevokedTokenRepository.class), applicationProperties),
+            TestCacheManagers.create(applicationProperties, new SecurityMetersService(new SimpleMeterRegistry()))
+        );
+    }
+}
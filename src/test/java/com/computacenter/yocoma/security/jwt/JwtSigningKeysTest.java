@@ -0,0 +1,216 @@
+package com.computacenter.yocoma.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.domain.JwtSigningKey;
+import com.computacenter.yocoma.repository.JwtSigningKeyRepository;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.jhipster.config.JHipsterProperties;
+
+class JwtSigningKeysTest {
+
+    private static final String PRIVATE_KEY_SECRET = "q2vUz7cJ0m5hYk1Xb8fN3wR6tE9pL4sA2dG7jK0zV5c=";
+
+    private final List<JwtSigningKey> stored = new ArrayList<>();
+
+    private JwtSigningKeyRepository jwtSigningKeyRepository;
+
+    private ApplicationProperties applicationProperties;
+
+    private JHipsterProperties jHipsterProperties;
+
+    @BeforeEach
+    public void setup() {
+        jwtSigningKeyRepository = mock(JwtSigningKeyRepository.class);
+        when(jwtSigningKeyRepository.findAllByAlgorithmOrderByCreatedDateDesc(anyString()))
+            .thenAnswer(invocation ->
+                stored
+                    .stream()
+                    .filter(key -> key.getAlgorithm().equals(invocation.getArgument(0)))
+                    .sorted(Comparator.comparing(JwtSigningKey::getCreatedDate).reversed())
+                    .collect(Collectors.toList())
+            );
+        when(jwtSigningKeyRepository.save(any()))
+            .thenAnswer(invocation -> {
+                stored.add(invocation.getArgument(0));
+                return invocation.getArgument(0);
+            });
+        doAnswer(invocation -> stored.remove((JwtSigningKey) invocation.getArgument(0))).when(jwtSigningKeyRepository).delete(any());
+
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getJwt().setAlgorithm(SignatureAlgorithm.RS256);
+        applicationProperties.getSecurity().getJwt().setRotationInterval(Duration.ofDays(7));
+        applicationProperties.getSecurity().getJwt().setPublishAhead(Duration.ofHours(1));
+        applicationProperties.getSecurity().getJwt().setPrivateKeySecret(PRIVATE_KEY_SECRET);
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setTokenValidityInSeconds(86400);
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setTokenValidityInSecondsForRememberMe(2592000);
+    }
+
+    @Test
+    void testCreatesTheFirstKeyPairAndSignsWithItAtOnce() {
+        JwtSigningKeys jwtSigningKeys = jwtSigningKeys();
+
+        JwtSigningKeys.SigningKey signingKey = jwtSigningKeys.signingKey();
+
+        assertThat(stored).hasSize(1);
+        assertThat(signingKey.getKid()).isEqualTo(stored.get(0).getId());
+        assertThat(jwtSigningKeys.verificationKey(signingKey.getKid())).isEqualTo(signingKey.getPublicKey());
+        assertThatThrownBy(() -> jwtSigningKeys.verificationKey("unknown")).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void testPublishesARotatedKeyPairBeforeSigningWithIt() {
+        JwtSigningKey previous = storedKey(Instant.now().minus(8, ChronoUnit.DAYS));
+        JwtSigningKeys jwtSigningKeys = jwtSigningKeys();
+
+        jwtSigningKeys.refresh();
+
+        assertThat(stored).hasSize(2);
+        assertThat(jwtSigningKeys.signingKey().getKid()).isEqualTo(previous.getId());
+        assertThat(kids(jwtSigningKeys)).hasSize(2).contains(previous.getId());
+
+        // Once published long enough, the new key pair signs
+        stored
+            .stream()
+            .filter(key -> !key.equals(previous))
+            .forEach(key -> key.setCreatedDate(key.getCreatedDate().minus(70, ChronoUnit.MINUTES)));
+        jwtSigningKeys.refresh();
+
+        assertThat(jwtSigningKeys.signingKey().getKid()).isNotEqualTo(previous.getId());
+        assertThat(jwtSigningKeys.verificationKey(previous.getId())).isNotNull();
+    }
+
+    @Test
+    void testDeletesReplacedKeyPairsOnceTheirTokensHaveExpired() {
+        // The tokens expire with the access token validity, well before the remembered sessions
+        JwtSigningKey expired = storedKey(Instant.now().minus(50, ChronoUnit.DAYS));
+        JwtSigningKey replaced = storedKey(Instant.now().minus(8, ChronoUnit.DAYS));
+        JwtSigningKey current = storedKey(Instant.now().minus(70, ChronoUnit.MINUTES));
+        JwtSigningKeys jwtSigningKeys = jwtSigningKeys();
+
+        jwtSigningKeys.refresh();
+
+        assertThat(stored).containsExactlyInAnyOrder(replaced, current);
+        assertThat(jwtSigningKeys.signingKey().getKid()).isEqualTo(current.getId());
+        assertThat(kids(jwtSigningKeys)).containsExactly(current.getId(), replaced.getId());
+        assertThatThrownBy(() -> jwtSigningKeys.verificationKey(expired.getId())).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void testPublishesRsaKeys() {
+        Map<String, Object> jwk = singleJwk(jwtSigningKeys());
+
+        assertThat(jwk)
+            .containsEntry("kty", "RSA")
+            .containsEntry("alg", "RS256")
+            .containsEntry("use", "sig")
+            .containsEntry("kid", stored.get(0).getId())
+            .containsEntry("e", "AQAB");
+        // The 2048 bits of the modulus, Base64URL encoded without padding
+        assertThat((String) jwk.get("n")).hasSize(342).doesNotContain("=", "+", "/");
+    }
+
+    @Test
+    void testPublishesEllipticCurveKeys() {
+        applicationProperties.getSecurity().getJwt().setAlgorithm(SignatureAlgorithm.ES256);
+
+        Map<String, Object> jwk = singleJwk(jwtSigningKeys());
+
+        assertThat(jwk).containsEntry("kty", "EC").containsEntry("alg", "ES256").containsEntry("crv", "P-256");
+        assertThat((String) jwk.get("x")).hasSize(43);
+        assertThat((String) jwk.get("y")).hasSize(43);
+    }
+
+    @Test
+    void testKeepsNoKeyPairsWithHmac() {
+        applicationProperties.getSecurity().getJwt().setAlgorithm(SignatureAlgorithm.HS512);
+        JwtSigningKeys jwtSigningKeys = jwtSigningKeys();
+
+        jwtSigningKeys.refresh();
+
+        assertThat(jwtSigningKeys.isAsymmetric()).isFalse();
+        assertThat((List<?>) jwtSigningKeys.jwks().get("keys")).isEmpty();
+        verifyNoInteractions(jwtSigningKeyRepository);
+    }
+
+    @Test
+    void testStoresThePrivateKeysEncrypted() {
+        JwtSigningKeys.SigningKey signingKey = jwtSigningKeys().signingKey();
+
+        assertThat(stored).singleElement().extracting(JwtSigningKey::getPrivateKey)
+            .isNotEqualTo(Base64.getEncoder().encodeToString(signingKey.getPrivateKey().getEncoded()));
+        assertThat(jwtSigningKeys().signingKey().getPrivateKey()).isEqualTo(signingKey.getPrivateKey());
+    }
+
+    @Test
+    void testRefusesPrivateKeysEncryptedWithAnotherSecret() {
+        jwtSigningKeys().signingKey();
+        applicationProperties.getSecurity().getJwt().setPrivateKeySecret("Y2Fubm90IHJlYWQgdGhlIHByaXZhdGUga2V5cyEhISE=");
+
+        assertThatThrownBy(jwtSigningKeys()::refresh).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testRequiresAPrivateKeySecret() {
+        applicationProperties.getSecurity().getJwt().setPrivateKeySecret(null);
+
+        assertThatThrownBy(this::jwtSigningKeys).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testRefusesUnsupportedAlgorithms() {
+        applicationProperties.getSecurity().getJwt().setAlgorithm(SignatureAlgorithm.NONE);
+
+        assertThatThrownBy(this::jwtSigningKeys).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private JwtSigningKeys jwtSigningKeys() {
+        return new JwtSigningKeys(jwtSigningKeyRepository, applicationProperties, jHipsterProperties);
+    }
+
+    private JwtSigningKey storedKey(Instant createdDate) {
+        KeyPair keyPair = Keys.keyPairFor(applicationProperties.getSecurity().getJwt().getAlgorithm());
+        String kid = UUID.randomUUID().toString();
+        JwtSigningKey key = new JwtSigningKey()
+            .id(kid)
+            .algorithm(applicationProperties.getSecurity().getJwt().getAlgorithm().getValue())
+            .publicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()))
+            .privateKey(jwtSigningKeys().encryptPrivateKey(kid, keyPair.getPrivate()))
+            .createdDate(createdDate);
+        stored.add(key);
+        return key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> kids(JwtSigningKeys jwtSigningKeys) {
+        return ((List<Map<String, Object>>) jwtSigningKeys.jwks().get("keys")).stream()
+            .map(jwk -> (String) jwk.get("kid"))
+            .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> singleJwk(JwtSigningKeys jwtSigningKeys) {
+        List<Map<String, Object>> keys = (List<Map<String, Object>>) jwtSigningKeys.jwks().get("keys");
+        assertThat(keys).hasSize(1);
+        return keys.get(0);
+    }
+}
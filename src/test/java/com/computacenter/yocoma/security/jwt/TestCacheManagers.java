@@ -0,0 +1,36 @@
+package com.computacenter.yocoma.security.jwt;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.config.CacheConfiguration;
+import com.computacenter.yocoma.management.SecurityMetersService;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Creates cache managers with the regions of {@link CacheConfiguration}, for the tests of {@link TokenProvider} outside of
+ * the application context.
+ */
+final class TestCacheManagers {
+
+    private TestCacheManagers() {}
+
+    /**
+     * @param applicationProperties the properties sizing the regions.
+     * @param securityMetersService the meters of the verified tokens.
+     * @return a new cache manager, not shared with any other test.
+     */
+    static CacheManager create(ApplicationProperties applicationProperties, SecurityMetersService securityMetersService) {
+        CachingProvider cachingProvider = Caching.getCachingProvider();
+        // The cache managers are keyed by their class loader, one of its own keeps the regions of each test apart
+        CacheManager cacheManager = cachingProvider.getCacheManager(
+            cachingProvider.getDefaultURI(),
+            new ClassLoader(TestCacheManagers.class.getClassLoader()) {}
+        );
+        new CacheConfiguration(new JHipsterProperties(), applicationProperties, securityMetersService)
+            .cacheManagerCustomizer()
+            .customize(cacheManager);
+        return cacheManager;
+    }
+}
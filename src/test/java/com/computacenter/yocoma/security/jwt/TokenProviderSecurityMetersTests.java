@@ -1,8 +1,13 @@
 package com.computacenter.yocoma.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
+import com.computacenter.yocoma.config.ApplicationProperties;
 import com.computacenter.yocoma.management.SecurityMetersService;
+import com.computacenter.yocoma.repository.AuthorityRepository;
+import com.computacenter.yocoma.repository.JwtSigningKeyRepository;
+import com.computacenter.yocoma.repository.RevokedTokenRepository;
 import com.computacenter.yocoma.security.AuthoritiesConstants;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -28,6 +33,9 @@ class TokenProviderSecurityMetersTests {
 
     private static final long ONE_MINUTE = 60000;
     private static final String INVALID_TOKENS_METER_EXPECTED_NAME = "security.authentication.invalid-tokens";
+    private static final String VERIFIED_TOKENS_METER_EXPECTED_NAME = "security.authentication.verified-tokens";
+    private static final String VERIFIED_TOKENS_EVICTIONS_METER_EXPECTED_NAME = "security.authentication.verified-tokens.evictions";
+    private static final String VERIFIED_TOKENS_HIT_RATIO_METER_EXPECTED_NAME = "security.authentication.verified-tokens.hit-ratio";
 
     private MeterRegistry meterRegistry;
 
@@ -43,7 +51,18 @@ class TokenProviderSecurityMetersTests {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(meterRegistry);
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().setVerifiedTokensMaxEntries(1);
+
+        tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            applicationProperties,
+            securityMetersService,
+            new JwtSigningKeys(mock(JwtSigningKeyRepository.class), applicationProperties, jHipsterProperties),
+            new JwtAuthorities(mock(AuthorityRepository.class), applicationProperties),
+            new TokenRevocations(mock(RevokedTokenRepository.class), applicationProperties),
+            TestCacheManagers.create(applicationProperties, securityMetersService)
+        );
         Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
@@ -107,6 +126,30 @@ class TokenProviderSecurityMetersTests {
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(1);
     }
 
+    @Test
+    void testVerifiedTokenHitAndMissCount() {
+        String validToken = createValidToken();
+
+        tokenProvider.authenticate(validToken);
+        tokenProvider.authenticate(validToken);
+        tokenProvider.authenticate(validToken);
+
+        assertThat(meterRegistry.get(VERIFIED_TOKENS_METER_EXPECTED_NAME).tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(VERIFIED_TOKENS_METER_EXPECTED_NAME).tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(VERIFIED_TOKENS_HIT_RATIO_METER_EXPECTED_NAME).gauge().value()).isEqualTo(2.0 / 3);
+    }
+
+    @Test
+    void testVerifiedTokenEvictionCount() {
+        assertThat(meterRegistry.get(VERIFIED_TOKENS_EVICTIONS_METER_EXPECTED_NAME).counter().count()).isZero();
+
+        tokenProvider.authenticate(createValidToken());
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", 2 * ONE_MINUTE);
+        tokenProvider.authenticate(createValidToken());
+
+        assertThat(meterRegistry.get(VERIFIED_TOKENS_EVICTIONS_METER_EXPECTED_NAME).counter().count()).isEqualTo(1);
+    }
+
     private String createValidToken() {
         Authentication authentication = createAuthentication();
 
@@ -1,9 +1,18 @@
 package com.computacenter.yocoma.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.domain.JwtSigningKey;
 import com.computacenter.yocoma.management.SecurityMetersService;
+import com.computacenter.yocoma.repository.AuthorityRepository;
+import com.computacenter.yocoma.repository.JwtSigningKeyRepository;
+import com.computacenter.yocoma.repository.RevokedTokenRepository;
 import com.computacenter.yocoma.security.AuthoritiesConstants;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -11,6 +20,9 @@ import io.jsonwebtoken.security.Keys;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,19 +37,32 @@ class TokenProviderTest {
 
     private static final long ONE_MINUTE = 60000;
 
+    private static final String BASE64_SECRET =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
     private Key key;
+    private TokenRevocations tokenRevocations;
     private TokenProvider tokenProvider;
 
     @BeforeEach
     public void setup() {
         JHipsterProperties jHipsterProperties = new JHipsterProperties();
-        String base64Secret = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
-        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
-        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
+        tokenRevocations = new TokenRevocations(mock(RevokedTokenRepository.class), new ApplicationProperties());
+        tokenProvider =
+            new TokenProvider(
+                jHipsterProperties,
+                new ApplicationProperties(),
+                securityMetersService,
+                jwtSigningKeys(jHipsterProperties),
+                jwtAuthorities(),
+                tokenRevocations,
+                TestCacheManagers.create(new ApplicationProperties(), securityMetersService)
+            );
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(BASE64_SECRET));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", ONE_MINUTE);
@@ -88,6 +113,74 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testAuthenticateReturnsTheAuthenticationOfAValidToken() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Optional<Authentication> authentication = tokenProvider.authenticate(token);
+
+        assertThat(authentication).isPresent();
+        assertThat(authentication.get().getName()).isEqualTo("anonymous");
+        assertThat(authentication.get().getCredentials()).hasToString(token);
+        assertThat(authentication.get().getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly(AuthoritiesConstants.ANONYMOUS);
+    }
+
+    @Test
+    void testAuthenticateReusesTheVerifiedToken() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        Authentication first = tokenProvider.authenticate(token).orElseThrow();
+
+        // A parser that rejects everything proves the token is not parsed again
+        ReflectionTestUtils.setField(tokenProvider, "jwtParser", Jwts.parserBuilder().setSigningKey(createOtherKey()).build());
+        Authentication second = tokenProvider.authenticate(token).orElseThrow();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPrincipal()).isSameAs(first.getPrincipal());
+    }
+
+    @Test
+    void testAuthenticateReturnsEmptyWhenJWTisRevoked() {
+        String token = tokenProvider.createToken(createAuthentication(), false, "revoked-token");
+        assertThat(tokenProvider.authenticate(token)).isPresent();
+
+        // Refused although its authentication was cached
+        tokenRevocations.revoke("revoked-token", Instant.now().plus(1, ChronoUnit.MINUTES));
+
+        assertThat(tokenProvider.authenticate(token)).isEmpty();
+        assertThat(tokenProvider.validateToken(token)).isFalse();
+        assertThat(tokenProvider.authenticate(tokenProvider.createToken(createAuthentication(), false))).isPresent();
+    }
+
+    @Test
+    void testAccessTokensAreValidForTheAccessTokenValidityAtMost() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getJwt().setAccessTokenValidity(Duration.ofMinutes(5));
+        TokenProvider tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            applicationProperties,
+            new SecurityMetersService(new SimpleMeterRegistry()),
+            jwtSigningKeys(jHipsterProperties),
+            jwtAuthorities(),
+            tokenRevocations,
+            TestCacheManagers.create(applicationProperties, new SecurityMetersService(new SimpleMeterRegistry()))
+        );
+
+        String token = tokenProvider.createToken(createAuthentication(), true);
+
+        Date expiration = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getExpiration();
+        assertThat(expiration).isBeforeOrEqualTo(Date.from(Instant.now().plus(5, ChronoUnit.MINUTES)));
+    }
+
+    @Test
+    void testAuthenticateReturnsEmptyWhenJWTisExpired() {
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.authenticate(token)).isEmpty();
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
@@ -96,7 +189,15 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        TokenProvider tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            new ApplicationProperties(),
+            securityMetersService,
+            jwtSigningKeys(jHipsterProperties),
+            jwtAuthorities(),
+            tokenRevocations,
+            TestCacheManagers.create(new ApplicationProperties(), securityMetersService)
+        );
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
@@ -110,12 +211,87 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        TokenProvider tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            new ApplicationProperties(),
+            securityMetersService,
+            jwtSigningKeys(jHipsterProperties),
+            jwtAuthorities(),
+            tokenRevocations,
+            TestCacheManagers.create(new ApplicationProperties(), securityMetersService)
+        );
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
     }
 
+    @Test
+    void testSignsAndVerifiesWithRsaKeyPairs() {
+        TokenProvider tokenProvider = asymmetricTokenProvider(SignatureAlgorithm.RS256);
+
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(Jwts.parserBuilder().build().parse(token.substring(0, token.lastIndexOf('.') + 1)).getHeader())
+            .containsEntry("alg", "RS256")
+            .containsKey("kid");
+        assertThat(tokenProvider.authenticate(token)).map(Authentication::getName).contains("anonymous");
+    }
+
+    @Test
+    void testSignsAndVerifiesWithEllipticCurveKeyPairs() {
+        TokenProvider tokenProvider = asymmetricTokenProvider(SignatureAlgorithm.ES256);
+
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.authenticate(token)).map(Authentication::getName).contains("anonymous");
+    }
+
+    @Test
+    void testReturnFalseWhenJWTisSignedWithTheSecretInsteadOfAKeyPair() {
+        TokenProvider asymmetricTokenProvider = asymmetricTokenProvider(SignatureAlgorithm.RS256);
+
+        assertThat(asymmetricTokenProvider.validateToken(tokenProvider.createToken(createAuthentication(), false))).isFalse();
+    }
+
+    @Test
+    void testReturnFalseWhenJWThasAnUnknownKeyId() {
+        TokenProvider tokenProvider = asymmetricTokenProvider(SignatureAlgorithm.ES256);
+        String token = Jwts
+            .builder()
+            .setSubject("anonymous")
+            .setHeaderParam(JwsHeader.KEY_ID, "unknown")
+            .signWith(Keys.keyPairFor(SignatureAlgorithm.ES256).getPrivate(), SignatureAlgorithm.ES256)
+            .compact();
+
+        assertThat(tokenProvider.validateToken(token)).isFalse();
+    }
+
+    private TokenProvider asymmetricTokenProvider(SignatureAlgorithm algorithm) {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getJwt().setAlgorithm(algorithm);
+        applicationProperties.getSecurity().getJwt().setPrivateKeySecret("q2vUz7cJ0m5hYk1Xb8fN3wR6tE9pL4sA2dG7jK0zV5c=");
+        List<JwtSigningKey> stored = new ArrayList<>();
+        JwtSigningKeyRepository jwtSigningKeyRepository = mock(JwtSigningKeyRepository.class);
+        when(jwtSigningKeyRepository.findAllByAlgorithmOrderByCreatedDateDesc(algorithm.getValue())).thenAnswer(invocation -> stored);
+        when(jwtSigningKeyRepository.save(any()))
+            .thenAnswer(invocation -> {
+                stored.add(invocation.getArgument(0));
+                return invocation.getArgument(0);
+            });
+
+        return new TokenProvider(
+            jHipsterProperties,
+            applicationProperties,
+            new SecurityMetersService(new SimpleMeterRegistry()),
+            new JwtSigningKeys(jwtSigningKeyRepository, applicationProperties, jHipsterProperties),
+            jwtAuthorities(),
+            tokenRevocations,
+            TestCacheManagers.create(applicationProperties, new SecurityMetersService(new SimpleMeterRegistry()))
+        );
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
@@ -126,10 +302,14 @@ class TokenProviderTest {
         return Jwts.builder().setPayload("payload").signWith(key, SignatureAlgorithm.HS512).compact();
     }
 
-    private String createTokenWithDifferentSignature() {
-        Key otherKey = Keys.hmacShaKeyFor(
+    private Key createOtherKey() {
+        return Keys.hmacShaKeyFor(
             Decoders.BASE64.decode("Xfd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8")
         );
+    }
+
+    private String createTokenWithDifferentSignature() {
+        Key otherKey = createOtherKey();
 
         return Jwts
             .builder()
@@ -138,4 +318,12 @@ class TokenProviderTest {
             .setExpiration(new Date(new Date().getTime() + ONE_MINUTE))
             .compact();
     }
+
+    private static JwtSigningKeys jwtSigningKeys(JHipsterProperties jHipsterProperties) {
+        return new JwtSigningKeys(mock(JwtSigningKeyRepository.class), new ApplicationProperties(), jHipsterProperties);
+    }
+
+    private static JwtAuthorities jwtAuthorities() {
+        return new JwtAuthorities(mock(AuthorityRepository.class), new ApplicationProperties());
+    }
 }
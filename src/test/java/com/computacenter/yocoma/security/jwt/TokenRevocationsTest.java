@@ -0,0 +1,117 @@
+package com.computacenter.yocoma.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.domain.RevokedToken;
+import com.computacenter.yocoma.repository.RevokedTokenRepository;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class TokenRevocationsTest {
+
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    public void setup() {
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        applicationProperties = new ApplicationProperties();
+    }
+
+    @Test
+    void testReadsTheRevokedTokensAtFirst() {
+        when(revokedTokenRepository.findAllByExpiresDateAfter(any())).thenReturn(List.of(revokedToken("revoked", 10)));
+        TokenRevocations tokenRevocations = tokenRevocations();
+
+        assertThat(tokenRevocations.isRevoked("revoked")).isTrue();
+        assertThat(tokenRevocations.isRevoked("valid")).isFalse();
+        assertThat(tokenRevocations.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    void testRevokesAtOnce() {
+        TokenRevocations tokenRevocations = tokenRevocations();
+
+        tokenRevocations.revoke("revoked", Instant.now().plus(10, ChronoUnit.MINUTES));
+
+        assertThat(tokenRevocations.isRevoked("revoked")).isTrue();
+        verify(revokedTokenRepository).save(any());
+    }
+
+    @Test
+    void testRevokesOnceTheTransactionCommits() {
+        TokenRevocations tokenRevocations = tokenRevocations();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tokenRevocations.revoke("committed", Instant.now().plus(10, ChronoUnit.MINUTES));
+            tokenRevocations.revoke("rolled-back", Instant.now().plus(10, ChronoUnit.MINUTES));
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+            assertThat(tokenRevocations.isRevoked("committed")).isFalse();
+            synchronizations.get(0).afterCommit();
+            synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+            assertThat(tokenRevocations.isRevoked("committed")).isTrue();
+            assertThat(tokenRevocations.isRevoked("rolled-back")).isFalse();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testReadsTheTokensRevokedByOtherNodes() {
+        TokenRevocations tokenRevocations = tokenRevocations();
+        tokenRevocations.refresh();
+        when(revokedTokenRepository.findAllByRevokedDateGreaterThanEqual(any())).thenReturn(List.of(revokedToken("revoked", 10)));
+
+        tokenRevocations.refresh();
+
+        assertThat(tokenRevocations.isRevoked("revoked")).isTrue();
+    }
+
+    @Test
+    void testForgetsExpiredTokens() {
+        TokenRevocations tokenRevocations = tokenRevocations();
+        tokenRevocations.revoke("expired", Instant.now().minus(1, ChronoUnit.MINUTES));
+        tokenRevocations.revoke("revoked", Instant.now().plus(10, ChronoUnit.MINUTES));
+
+        tokenRevocations.refresh();
+
+        assertThat(tokenRevocations.isRevoked("expired")).isFalse();
+        assertThat(tokenRevocations.isRevoked("revoked")).isTrue();
+    }
+
+    @Test
+    void testGrowsBeyondTheExpectedEntries() {
+        applicationProperties.getSecurity().getJwt().setRevocationExpectedEntries(10);
+        TokenRevocations tokenRevocations = tokenRevocations();
+        List<String> revoked = IntStream.range(0, 1000).mapToObj(i -> UUID.randomUUID().toString()).collect(Collectors.toList());
+
+        revoked.forEach(tokenId -> tokenRevocations.revoke(tokenId, Instant.now().plus(10, ChronoUnit.MINUTES)));
+
+        assertThat(revoked).allMatch(tokenRevocations::isRevoked);
+        assertThat(IntStream.range(0, 1000).mapToObj(i -> UUID.randomUUID().toString())).noneMatch(tokenRevocations::isRevoked);
+    }
+
+    private TokenRevocations tokenRevocations() {
+        return new TokenRevocations(revokedTokenRepository, applicationProperties);
+    }
+
+    private static RevokedToken revokedToken(String id, int minutesValid) {
+        return new RevokedToken().id(id).revokedDate(Instant.now()).expiresDate(Instant.now().plus(minutesValid, ChronoUnit.MINUTES));
+    }
+}
@@ -0,0 +1,136 @@
+package com.computacenter.yocoma.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.computacenter.yocoma.IntegrationTest;
+import com.computacenter.yocoma.domain.Team;
+import com.computacenter.yocoma.domain.User;
+import com.computacenter.yocoma.repository.TeamRepository;
+import com.computacenter.yocoma.repository.UserRepository;
+import com.computacenter.yocoma.service.event.EntityChangedEvent;
+import com.computacenter.yocoma.service.event.RemoteChangesEvent;
+import java.util.List;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link EntityCacheService}.
+ * <p>
+ * The changes are committed, as the second-level cache only holds committed entities.
+ */
+@IntegrationTest
+@RecordApplicationEvents
+class EntityCacheServiceIT {
+
+    private static final String REMOTE_NAME = "Renamed by another node";
+
+    @Autowired
+    private ChangeService changeService;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    private Team team;
+
+    @BeforeEach
+    public void initTest() {
+        changeService.followChanges();
+        team = teamRepository.save(new Team().name("Cached team"));
+        applicationEvents.clear();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        teamRepository.deleteById(team.getId());
+    }
+
+    @Test
+    void assertThatTheEntitiesChangedByOtherNodesAreEvicted() {
+        assertThat(teamRepository.findById(team.getId())).isPresent();
+        renameByAnotherNode();
+
+        // The entity is cached, but its representation is read from the database
+        assertThat(teamRepository.findById(team.getId())).get().extracting(Team::getName).isNotEqualTo(REMOTE_NAME);
+        assertThat(teamRepository.findOneWithEagerRelationships(team.getId())).get().extracting(Team::getName).isEqualTo(REMOTE_NAME);
+
+        changeService.followChanges();
+
+        assertThat(applicationEvents.stream(RemoteChangesEvent.class)).singleElement().matches(RemoteChangesEvent::isComplete);
+        assertThat(teamRepository.findById(team.getId())).get().extracting(Team::getName).isEqualTo(REMOTE_NAME);
+    }
+
+    @Test
+    void assertThatTheChangesOfThisNodeAreNotFollowed() {
+        teamService.update(team.name("Renamed by this node"));
+
+        changeService.followChanges();
+
+        assertThat(applicationEvents.stream(RemoteChangesEvent.class)).isEmpty();
+    }
+
+    @Test
+    void assertThatTheUsersChangedByOtherNodesAreEvicted() {
+        User user = new User();
+        user.setLogin("cached-user");
+        user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        user.setActivated(true);
+        user = userRepository.save(user);
+        String remotePassword = RandomStringUtils.randomAlphanumeric(60);
+        try {
+            assertThat(userDetailsService.loadUserByUsername(user.getLogin()).getPassword()).isEqualTo(user.getPassword());
+            changePasswordByAnotherNode(user, remotePassword);
+
+            // The details are cached until the change is followed
+            assertThat(userDetailsService.loadUserByUsername(user.getLogin()).getPassword()).isEqualTo(user.getPassword());
+
+            changeService.followChanges();
+
+            assertThat(userDetailsService.loadUserByUsername(user.getLogin()).getPassword()).isEqualTo(remotePassword);
+        } finally {
+            userRepository.deleteById(user.getId());
+        }
+    }
+
+    private void changePasswordByAnotherNode(User user, String password) {
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> {
+                jdbcTemplate.update("update jhi_user set password_hash = ? where id = ?", password, user.getId());
+                changeService.record(List.of(EntityChangedEvent.updated(User.class, user.getId(), user)));
+            });
+    }
+
+    private void renameByAnotherNode() {
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> {
+                jdbcTemplate.update("update team set name = ?, version = version + 1 where id = ?", REMOTE_NAME, team.getId());
+                changeService.record(List.of(EntityChangedEvent.updated(Team.class, team.getId(), team)));
+            });
+    }
+}
@@ -0,0 +1,91 @@
+package com.computacenter.yocoma.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.computacenter.yocoma.IntegrationTest;
+import com.computacenter.yocoma.domain.Team;
+import com.computacenter.yocoma.domain.Team_;
+import com.computacenter.yocoma.repository.TeamRepository;
+import com.computacenter.yocoma.service.event.EntityChangedEvent;
+import com.computacenter.yocoma.service.search.FullTextSearch;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link FullTextSearchService}.
+ * <p>
+ * The changes are committed, as the full-text index is only written on commit.
+ */
+@IntegrationTest
+class FullTextSearchServiceIT {
+
+    @Autowired
+    private FullTextSearchService fullTextSearchService;
+
+    @Autowired
+    private ChangeService changeService;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Team team;
+
+    @BeforeEach
+    public void initTest() {
+        changeService.followChanges();
+        team = teamRepository.save(new Team().name("Indexed team"));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        teamRepository.findById(team.getId()).ifPresent(teamRepository::delete);
+    }
+
+    @Test
+    void assertThatTheEntitiesChangedByOtherNodesAreIndexed() {
+        assertThat(searchTeams("Glimmerwald")).isEmpty();
+        changeByAnotherNode(
+            "update team set name = 'Glimmerwald', version = version + 1 where id = ?",
+            EntityChangedEvent.updated(Team.class, team.getId(), team)
+        );
+
+        changeService.followChanges();
+
+        assertThat(searchTeams("Glimmerwald")).containsExactly(team.getId());
+    }
+
+    @Test
+    void assertThatTheEntitiesDeletedByOtherNodesAreRemovedFromTheIndex() {
+        assertThat(searchTeams("Indexed")).contains(team.getId());
+        changeByAnotherNode("delete from team where id = ?", EntityChangedEvent.deleted(Team.class, team.getId()));
+
+        changeService.followChanges();
+
+        assertThat(searchTeams("Indexed")).doesNotContain(team.getId());
+    }
+
+    private void changeByAnotherNode(String sql, EntityChangedEvent event) {
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> {
+                jdbcTemplate.update(sql, team.getId());
+                changeService.record(List.of(event));
+            });
+    }
+
+    private List<Long> searchTeams(String text) {
+        return new TransactionTemplate(transactionManager)
+            .execute(status -> fullTextSearchService.search(Team.class, text, Team_.NAME).map(FullTextSearch::getBestHitIds).orElseThrow());
+    }
+}
@@ -0,0 +1,62 @@
+package com.computacenter.yocoma.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.computacenter.yocoma.domain.Contact;
+import com.computacenter.yocoma.domain.Team;
+import com.computacenter.yocoma.service.dto.SuggestionDTO;
+import com.computacenter.yocoma.service.event.EntityChangedEvent;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link SuggestService}, with changes made while the indexes are built again.
+ */
+class SuggestServiceTest {
+
+    private EntityManager entityManager;
+
+    private SuggestService suggestService;
+
+    @BeforeEach
+    public void setup() {
+        entityManager = mock(EntityManager.class);
+        suggestService = new SuggestService(entityManager);
+    }
+
+    @Test
+    void testKeepsTheChangesMadeWhileRebuilding() {
+        // The rows have been read before the changes, which are applied to the current indexes meanwhile
+        whenQueried("from Contact", () -> {
+            suggestService.onEntityChanged(EntityChangedEvent.deleted(Contact.class, 1L));
+            return Stream.<Object[]>of(new Object[] { 1L, "Ada", "Lovelace", null });
+        });
+        whenQueried("from Team", () -> {
+            Team team = new Team().name("Analytical Engine");
+            team.setId(2L);
+            suggestService.onEntityChanged(EntityChangedEvent.created(Team.class, team.getId(), team));
+            return Stream.empty();
+        });
+        whenQueried("from TeamContact", Stream::empty);
+
+        suggestService.rebuild();
+
+        assertThat(suggestService.suggestContacts("ada", 10)).isEmpty();
+        assertThat(suggestService.suggestTeams("analyt", 10)).extracting(SuggestionDTO::getId).containsExactly(2L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void whenQueried(String from, Supplier<Stream<Object[]>> rows) {
+        TypedQuery<Object[]> query = mock(TypedQuery.class);
+        when(query.getResultStream()).thenAnswer(invocation -> rows.get());
+        when(entityManager.createQuery(contains(from + " e"), eq(Object[].class))).thenReturn(query);
+    }
+}
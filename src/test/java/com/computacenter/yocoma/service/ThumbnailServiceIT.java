@@ -0,0 +1,149 @@
+package com.computacenter.yocoma.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import com.computacenter.yocoma.IntegrationTest;
+import com.computacenter.yocoma.domain.BinaryThumbnail;
+import com.computacenter.yocoma.domain.enumeration.ThumbnailSize;
+import com.computacenter.yocoma.repository.BinaryContentRepository;
+import com.computacenter.yocoma.repository.BinaryThumbnailRepository;
+import com.computacenter.yocoma.service.storage.BinaryStore;
+import com.computacenter.yocoma.service.storage.CreateThumbnailsEvent;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link ThumbnailService}.
+ */
+@IntegrationTest
+@Transactional
+class ThumbnailServiceIT {
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private BinaryContentService binaryContentService;
+
+    @Autowired
+    private BinaryContentRepository binaryContentRepository;
+
+    @Autowired
+    private BinaryThumbnailRepository binaryThumbnailRepository;
+
+    @Autowired
+    private BinaryStore binaryStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void assertThatThumbnailsAreScaledDown() throws IOException {
+        String hash = binaryContentService.store(createImage(1000, 500, BufferedImage.TYPE_INT_RGB, "png"));
+
+        List<BinaryThumbnail> thumbnails = thumbnailService.createThumbnails(hash);
+
+        assertThat(thumbnails).extracting(BinaryThumbnail::getThumbnailSize).containsExactly(ThumbnailSize.values());
+        for (BinaryThumbnail thumbnail : thumbnails) {
+            assertThat(thumbnail.getContentType()).isEqualTo("image/jpeg");
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(binaryContentRepository.findById(thumbnail.getHash()).get().getContent()));
+            assertThat(image.getWidth()).isEqualTo(thumbnail.getThumbnailSize().getPixels());
+            assertThat(image.getHeight()).isEqualTo(thumbnail.getThumbnailSize().getPixels() / 2);
+        }
+    }
+
+    @Test
+    void assertThatTransparencyIsKept() throws IOException {
+        String hash = binaryContentService.store(createImage(600, 600, BufferedImage.TYPE_INT_ARGB, "png"));
+
+        List<BinaryThumbnail> thumbnails = thumbnailService.createThumbnails(hash);
+
+        assertThat(thumbnails).extracting(BinaryThumbnail::getContentType).containsOnly("image/png");
+    }
+
+    @Test
+    void assertThatSmallImagesAreTheirOwnThumbnail() throws IOException {
+        String hash = binaryContentService.store(createImage(40, 30, BufferedImage.TYPE_INT_RGB, "png"));
+
+        List<BinaryThumbnail> thumbnails = thumbnailService.createThumbnails(hash);
+
+        assertThat(thumbnails).hasSize(ThumbnailSize.values().length);
+        assertThat(thumbnails).extracting(BinaryThumbnail::getHash).containsOnly(hash);
+        assertThat(thumbnails).extracting(BinaryThumbnail::getContentType).containsOnly("image/png");
+    }
+
+    @Test
+    void assertThatThumbnailsAreOnlyCreatedOnce() throws IOException {
+        String hash = binaryContentService.store(createImage(200, 200, BufferedImage.TYPE_INT_RGB, "png"));
+
+        assertThat(thumbnailService.createThumbnails(hash)).isNotEmpty();
+        assertThat(thumbnailService.createThumbnails(hash)).isEmpty();
+        assertThat(binaryThumbnailRepository.findAllByOriginalHash(hash)).hasSize(ThumbnailSize.values().length);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void assertThatThumbnailsCreatedConcurrentlyAreIgnored() throws IOException {
+        String hash = binaryStore.put(createImage(40, 40, BufferedImage.TYPE_INT_RGB, "png"));
+        try {
+            thumbnailService.createThumbnails(hash);
+            // Another generation which missed the thumbnails created meanwhile
+            BinaryThumbnailRepository racingRepository = mock(BinaryThumbnailRepository.class, delegatesTo(binaryThumbnailRepository));
+            doReturn(false).when(racingRepository).existsByOriginalHash(anyString());
+            ThumbnailService racingService = new ThumbnailService(binaryStore, racingRepository, transactionManager);
+
+            assertThatCode(() -> racingService.onCreateThumbnails(new CreateThumbnailsEvent(hash))).doesNotThrowAnyException();
+            assertThat(binaryThumbnailRepository.findAllByOriginalHash(hash)).hasSize(ThumbnailSize.values().length);
+        } finally {
+            binaryContentService.release(hash, null);
+        }
+    }
+
+    @Test
+    void assertThatUnsupportedContentHasNoThumbnails() {
+        String hash = binaryContentService.store(new byte[] { 1, 2, 3 });
+
+        assertThat(thumbnailService.createThumbnails(hash)).isEmpty();
+        assertThat(binaryThumbnailRepository.existsByOriginalHash(hash)).isFalse();
+    }
+
+    @Test
+    void assertThatReleaseDeletesThumbnails() throws IOException {
+        String hash = binaryContentService.store(createImage(1000, 1000, BufferedImage.TYPE_INT_RGB, "png"));
+        List<BinaryThumbnail> thumbnails = thumbnailService.createThumbnails(hash);
+
+        binaryContentService.release(hash, null);
+
+        assertThat(binaryThumbnailRepository.existsByOriginalHash(hash)).isFalse();
+        assertThat(binaryContentRepository.existsById(hash)).isFalse();
+        for (BinaryThumbnail thumbnail : thumbnails) {
+            assertThat(binaryContentRepository.existsById(thumbnail.getHash())).isFalse();
+        }
+    }
+
+    private static byte[] createImage(int width, int height, int type, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, type);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, (x * 31 + y * 17) | (type == BufferedImage.TYPE_INT_ARGB ? (x % 256) << 24 : 0xff000000));
+            }
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, format, output);
+        return output.toByteArray();
+    }
+}
@@ -1,13 +1,18 @@
 package com.computacenter.yocoma.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.Mockito.when;
 
 import com.computacenter.yocoma.IntegrationTest;
 import com.computacenter.yocoma.config.Constants;
 import com.computacenter.yocoma.domain.User;
 import com.computacenter.yocoma.repository.UserRepository;
+import com.computacenter.yocoma.security.DomainUserDetailsService;
+import com.computacenter.yocoma.security.UserNotActivatedException;
 import com.computacenter.yocoma.service.dto.AdminUserDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -18,10 +23,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.auditing.AuditingHandler;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.security.RandomUtil;
 
@@ -53,6 +64,15 @@ class UserServiceIT {
     @Autowired
     private AuditingHandler auditingHandler;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockBean
     private DateTimeProvider dateTimeProvider;
 
@@ -182,4 +202,61 @@ class UserServiceIT {
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
         assertThat(maybeDbUser).contains(dbUser);
     }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void assertThatUserCachesAreEvictedWhenTheUserChanges() {
+        userRepository.saveAndFlush(user);
+        try {
+            Cache usersByLogin = cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE);
+            assertThat(userRepository.findOneWithAuthoritiesByLogin(DEFAULT_LOGIN)).isPresent();
+            assertThat(usersByLogin.get(DEFAULT_LOGIN)).isNotNull();
+
+            userService.requestPasswordReset(DEFAULT_EMAIL);
+
+            assertThat(usersByLogin.get(DEFAULT_LOGIN)).isNull();
+            assertThat(userRepository.findOneWithAuthoritiesByLogin(DEFAULT_LOGIN).orElseThrow().getResetKey()).isNotNull();
+        } finally {
+            userRepository.deleteById(user.getId());
+            cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).clear();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void assertThatUserDetailsAreCachedUntilTheUserChanges() {
+        userRepository.saveAndFlush(user);
+        Cache userDetails = cacheManager.getCache(DomainUserDetailsService.USER_DETAILS_CACHE);
+        try {
+            FunctionCounter hits = meterRegistry
+                .get("cache.gets")
+                .tag("cache", DomainUserDetailsService.USER_DETAILS_CACHE)
+                .tag("result", "hit")
+                .functionCounter();
+            assertThat(userDetailsService.loadUserByUsername(DEFAULT_LOGIN).getPassword()).isEqualTo(user.getPassword());
+            assertThat(userDetailsService.loadUserByUsername(DEFAULT_EMAIL.toUpperCase()).getPassword()).isEqualTo(user.getPassword());
+            assertThat(userDetails.get(DEFAULT_LOGIN)).isNotNull();
+            assertThat(userDetails.get(DEFAULT_EMAIL)).isNotNull();
+
+            // Served from the cache, as a copy whose credentials may be erased
+            double hitsBefore = hits.count();
+            UserDetails cached = userDetailsService.loadUserByUsername(DEFAULT_LOGIN);
+            ((CredentialsContainer) cached).eraseCredentials();
+            assertThat(userDetailsService.loadUserByUsername(DEFAULT_LOGIN).getPassword()).isEqualTo(user.getPassword());
+            assertThat(hits.count()).isEqualTo(hitsBefore + 2);
+
+            AdminUserDTO userDTO = new AdminUserDTO(userRepository.findOneWithAuthoritiesByLogin(DEFAULT_LOGIN).orElseThrow());
+            userDTO.setActivated(false);
+            userService.updateUser(userDTO);
+
+            assertThat(userDetails.get(DEFAULT_LOGIN)).isNull();
+            assertThat(userDetails.get(DEFAULT_EMAIL)).isNull();
+            assertThatExceptionOfType(UserNotActivatedException.class).isThrownBy(() -> userDetailsService.loadUserByUsername(DEFAULT_LOGIN));
+        } finally {
+            userRepository.deleteById(user.getId());
+            cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).clear();
+            cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).clear();
+            userDetails.clear();
+        }
+    }
 }
@@ -0,0 +1,86 @@
+package com.computacenter.yocoma.service.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.computacenter.yocoma.domain.ContactImportRow;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link CsvContactRowReader}.
+ */
+class CsvContactRowReaderTest {
+
+    @Test
+    void testReadsColumnsByHeader() throws IOException {
+        List<ContactImportRow> rows = readAll(
+            "﻿E-Mail,Last Name,First Name,Company\r\n" + "jane@example.com,Doe,Jane,ACME\r\n" + ",Roe,Richard,\r\n"
+        );
+
+        assertThat(rows).extracting(ContactImportRow::getLineNumber).containsExactly(2, 3);
+        assertThat(rows.get(0).getFirstname()).isEqualTo("Jane");
+        assertThat(rows.get(0).getLastname()).isEqualTo("Doe");
+        assertThat(rows.get(0).getEmail()).isEqualTo("jane@example.com");
+        assertThat(rows.get(0).getPhone()).isNull();
+        assertThat(rows.get(1).getEmail()).isNull();
+    }
+
+    @Test
+    void testReadsQuotedFieldsOverSeveralLines() throws IOException {
+        List<ContactImportRow> rows = readAll(
+            "firstname,lastname,remark\n" + "Jane,Doe,\"says \"\"hi\"\", then\nleaves\"\n" + "\n" + "John, Doe ,\n"
+        );
+
+        assertThat(rows).extracting(ContactImportRow::getLineNumber).containsExactly(2, 5);
+        assertThat(rows.get(0).getRemark()).isEqualTo("says \"hi\", then\nleaves");
+        assertThat(rows.get(1).getLastname()).isEqualTo("Doe");
+        assertThat(rows.get(1).getRemark()).isNull();
+    }
+
+    @Test
+    void testDetectsSemicolonSeparator() throws IOException {
+        List<ContactImportRow> rows = readAll("Firstname;Lastname;Phone\nJane;Doe;+49 (0) 170-1234\n");
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getPhone()).isEqualTo("+49 (0) 170-1234");
+    }
+
+    @Test
+    void testDropsTheQuoteOfExportedFormulas() throws IOException {
+        List<ContactImportRow> rows = readAll(
+            "firstname,lastname,phone,remark\r\n" + "\"'@SUM(A1)\",'Doe,+49 89 1234,\"'=HYPERLINK(\"\"http://x\"\")\"\r\n"
+        );
+
+        assertThat(rows.get(0).getFirstname()).isEqualTo("@SUM(A1)");
+        assertThat(rows.get(0).getLastname()).isEqualTo("'Doe");
+        assertThat(rows.get(0).getPhone()).isEqualTo("+49 89 1234");
+        assertThat(rows.get(0).getRemark()).isEqualTo("=HYPERLINK(\"http://x\")");
+    }
+
+    @Test
+    void testRejectsMissingRequiredColumn() {
+        assertThatThrownBy(() -> readAll("firstname,email\nJane,jane@example.com\n"))
+            .isInstanceOf(InvalidContactFileException.class)
+            .hasMessageContaining("lastname");
+    }
+
+    @Test
+    void testRejectsUnclosedQuote() {
+        assertThatThrownBy(() -> readAll("firstname,lastname\nJane,\"Doe\n")).isInstanceOf(InvalidContactFileException.class);
+    }
+
+    private static List<ContactImportRow> readAll(String content) throws IOException {
+        List<ContactImportRow> rows = new ArrayList<>();
+        try (ContactRowReader reader = new CsvContactRowReader(new StringReader(content))) {
+            ContactImportRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
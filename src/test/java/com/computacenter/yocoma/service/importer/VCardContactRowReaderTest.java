@@ -0,0 +1,71 @@
+package com.computacenter.yocoma.service.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.computacenter.yocoma.domain.ContactImportRow;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link VCardContactRowReader}.
+ */
+class VCardContactRowReaderTest {
+
+    @Test
+    void testReadsCards() throws IOException {
+        List<ContactImportRow> rows = readAll(
+            "BEGIN:VCARD\r\n" +
+            "VERSION:4.0\r\n" +
+            "N:Doe;Jane;;;\r\n" +
+            "FN:Jane Doe\r\n" +
+            "item1.EMAIL;TYPE=work:jane@example.com\r\n" +
+            "EMAIL;TYPE=home:jane.doe@example.org\r\n" +
+            "TEL;VALUE=uri;TYPE=cell:tel:+49-170-1234\r\n" +
+            "NOTE:Met at the fair\\, twice\\nCalls back\r\n" +
+            "END:VCARD\r\n" +
+            "BEGIN:VCARD\r\n" +
+            "VERSION:3.0\r\n" +
+            "FN:Richard Mark Roe\r\n" +
+            "END:VCARD\r\n"
+        );
+
+        assertThat(rows).extracting(ContactImportRow::getLineNumber).containsExactly(1, 10);
+        assertThat(rows.get(0).getFirstname()).isEqualTo("Jane");
+        assertThat(rows.get(0).getLastname()).isEqualTo("Doe");
+        assertThat(rows.get(0).getEmail()).isEqualTo("jane@example.com");
+        assertThat(rows.get(0).getPhone()).isEqualTo("+49-170-1234");
+        assertThat(rows.get(0).getRemark()).isEqualTo("Met at the fair, twice\nCalls back");
+        assertThat(rows.get(1).getFirstname()).isEqualTo("Richard Mark");
+        assertThat(rows.get(1).getLastname()).isEqualTo("Roe");
+    }
+
+    @Test
+    void testUnfoldsContinuationLines() throws IOException {
+        List<ContactImportRow> rows = readAll("BEGIN:VCARD\nN:Doe;Jane\nNOTE:A very long\n  note\nEND:VCARD\n");
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getRemark()).isEqualTo("A very long note");
+    }
+
+    @Test
+    void testRejectsUnclosedCard() {
+        assertThatThrownBy(() -> readAll("BEGIN:VCARD\nN:Doe;Jane\n"))
+            .isInstanceOf(InvalidContactFileException.class)
+            .hasMessageContaining("line 1");
+    }
+
+    private static List<ContactImportRow> readAll(String content) throws IOException {
+        List<ContactImportRow> rows = new ArrayList<>();
+        try (ContactRowReader reader = new VCardContactRowReader(new StringReader(content))) {
+            ContactImportRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,62 @@
+package com.computacenter.yocoma.service.keyset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.computacenter.yocoma.service.InvalidKeysetRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Unit tests for {@link KeysetRequest}.
+ */
+class KeysetRequestTest {
+
+    @Test
+    void testFirstParsesSort() {
+        KeysetRequest request = KeysetRequest.first("lastname,desc", 10);
+
+        assertThat(request.isFirst()).isTrue();
+        assertThat(request.getProperty()).isEqualTo("lastname");
+        assertThat(request.getDirection()).isEqualTo(Sort.Direction.DESC);
+        assertThat(request.getSize()).isEqualTo(10);
+    }
+
+    @Test
+    void testFirstDefaultsToAscending() {
+        assertThat(KeysetRequest.first("id", 10).getDirection()).isEqualTo(Sort.Direction.ASC);
+    }
+
+    @Test
+    void testTokenRoundTrip() {
+        String token = KeysetRequest.first("lastname,desc", 10).toToken("Doe|Smith", 42L);
+
+        KeysetRequest next = KeysetRequest.fromToken(token, 5);
+
+        assertThat(next.isFirst()).isFalse();
+        assertThat(next.getProperty()).isEqualTo("lastname");
+        assertThat(next.getDirection()).isEqualTo(Sort.Direction.DESC);
+        assertThat(next.getAfterValue()).isEqualTo("Doe|Smith");
+        assertThat(next.getAfterId()).isEqualTo(42L);
+        assertThat(next.getSize()).isEqualTo(5);
+    }
+
+    @Test
+    void testTokenRoundTripSortedById() {
+        String token = KeysetRequest.first("id", 10).toToken(null, 7L);
+
+        KeysetRequest next = KeysetRequest.fromToken(token, 10);
+
+        assertThat(next.getProperty()).isEqualTo("id");
+        assertThat(next.getAfterValue()).isNull();
+        assertThat(next.getAfterId()).isEqualTo(7L);
+    }
+
+    @Test
+    void testInvalidRequests() {
+        assertThatThrownBy(() -> KeysetRequest.fromToken("not a token", 10)).isInstanceOf(InvalidKeysetRequestException.class);
+        assertThatThrownBy(() -> KeysetRequest.fromToken("bm9wZQ", 10)).isInstanceOf(InvalidKeysetRequestException.class);
+        assertThatThrownBy(() -> KeysetRequest.first("lastname,sideways", 10)).isInstanceOf(InvalidKeysetRequestException.class);
+        assertThatThrownBy(() -> KeysetRequest.first("id", 0)).isInstanceOf(InvalidKeysetRequestException.class);
+    }
+}
@@ -0,0 +1,97 @@
+package com.computacenter.yocoma.service.push;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.computacenter.yocoma.domain.enumeration.ChangeType;
+import com.computacenter.yocoma.service.dto.PushedChangeDTO;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Unit tests for {@link ChangeSubscription}.
+ */
+class ChangeSubscriptionTest {
+
+    private RecordingEmitter emitter;
+
+    private ChangeSubscription subscription;
+
+    @BeforeEach
+    void setup() {
+        emitter = new RecordingEmitter();
+        subscription = new ChangeSubscription(emitter, 2);
+    }
+
+    @Test
+    void testSendsTheQueuedChangesInOrder() {
+        assertThat(subscription.claimDrain()).isFalse();
+        assertThat(subscription.offer(change(1L))).isTrue();
+        assertThat(subscription.offer(change(2L))).isTrue();
+
+        assertThat(subscription.claimDrain()).isTrue();
+        assertThat(subscription.claimDrain()).isFalse();
+        subscription.drain();
+
+        assertThat(emitter.events).containsExactly("change Team 1", "change Team 2");
+        assertThat(subscription.claimDrain()).isFalse();
+    }
+
+    @Test
+    void testDropsThePendingChangesOfAFullQueueForAResync() {
+        subscription.offer(change(1L));
+        subscription.offer(change(2L));
+        assertThat(subscription.offer(change(3L))).isFalse();
+        assertThat(subscription.offer(change(4L))).isFalse();
+
+        assertThat(subscription.claimDrain()).isTrue();
+        subscription.drain();
+        assertThat(subscription.offer(change(5L))).isTrue();
+        assertThat(subscription.claimDrain()).isTrue();
+        subscription.drain();
+
+        assertThat(emitter.events).containsExactly("resync", "change Team 5");
+    }
+
+    @Test
+    void testStopsWhenTheClientIsGone() {
+        emitter.failing = true;
+        subscription.offer(change(1L));
+
+        assertThat(subscription.claimDrain()).isTrue();
+        subscription.drain();
+
+        assertThat(subscription.isClosed()).isTrue();
+        assertThat(subscription.offer(change(2L))).isFalse();
+        assertThat(subscription.claimDrain()).isFalse();
+    }
+
+    private static PushedChangeDTO change(Long id) {
+        return new PushedChangeDTO("Team", id, ChangeType.UPDATED);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new ArrayList<>();
+
+        private boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            List<Object> parts = builder.build().stream().map(DataWithMediaType::getData).collect(Collectors.toList());
+            Object data = parts.get(1);
+            events.add(
+                data instanceof PushedChangeDTO
+                    ? "change " + ((PushedChangeDTO) data).getEntityType() + " " + ((PushedChangeDTO) data).getEntityId()
+                    : String.valueOf(data)
+            );
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.computacenter.yocoma.service.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.computacenter.yocoma.IntegrationTest;
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.repository.BinaryContentRepository;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Integration tests for {@link DatabaseBinaryStore}, with concurrent transactions.
+ */
+@IntegrationTest
+class DatabaseBinaryStoreIT {
+
+    private static final byte[] CONTENT = new byte[] { 4, 8, 15, 16, 23, 42 };
+
+    @Autowired
+    private BinaryStore binaryStore;
+
+    @Autowired
+    private BinaryContentRepository binaryContentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        executor.shutdownNow();
+        transactionTemplate.executeWithoutResult(status -> binaryStore.delete(BinaryStore.hash(CONTENT)));
+    }
+
+    @Test
+    void assertThatContentIsReadWithItsLength() throws IOException {
+        String hash = transactionTemplate.execute(status -> binaryStore.put(CONTENT));
+
+        Resource resource = binaryStore.get(hash).orElseThrow();
+
+        assertThat(resource.contentLength()).isEqualTo(CONTENT.length);
+        try (InputStream content = resource.getInputStream()) {
+            assertThat(content.readAllBytes()).isEqualTo(CONTENT);
+        }
+        assertThat(binaryStore.get(BinaryStore.hash(new byte[] { 1 }))).isEmpty();
+    }
+
+    @Test
+    void assertThatContentLargerThanTheMaximumIsRefused() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getStorage().setMaxContentSize(DataSize.ofBytes(CONTENT.length - 1L));
+        BinaryStore smallStore = new DatabaseBinaryStore(binaryContentRepository, applicationProperties);
+
+        assertThatThrownBy(() -> transactionTemplate.execute(status -> smallStore.put(CONTENT)))
+            .isInstanceOf(BinaryContentTooLargeException.class);
+        assertThat(binaryStore.get(BinaryStore.hash(CONTENT))).isEmpty();
+    }
+
+    @Test
+    void assertThatContentStoredConcurrentlyIsKeptOnce() throws Exception {
+        CountDownLatch stored = new CountDownLatch(1);
+        CountDownLatch storedAgain = new CountDownLatch(1);
+        Future<String> concurrent = executor.submit(() ->
+            transactionTemplate.execute(status -> {
+                String hash = binaryStore.put(CONTENT);
+                stored.countDown();
+                // Commits while the content is being stored again
+                await(storedAgain);
+                sleep();
+                return hash;
+            })
+        );
+        await(stored);
+
+        String hash = transactionTemplate.execute(status -> {
+            storedAgain.countDown();
+            return binaryStore.put(CONTENT);
+        });
+
+        assertThat(concurrent.get(10, TimeUnit.SECONDS)).isEqualTo(hash);
+        assertThat(binaryStore.get(hash)).isPresent();
+    }
+
+    @Test
+    void assertThatContentDeletedConcurrentlyIsStoredAgain() throws Exception {
+        String hash = transactionTemplate.execute(status -> binaryStore.put(CONTENT));
+        CountDownLatch locked = new CountDownLatch(1);
+        Future<?> release = executor.submit(() ->
+            transactionTemplate.executeWithoutResult(status -> {
+                // Found unreferenced, and deleted while the content is being stored again
+                assertThat(binaryStore.lock(hash)).isTrue();
+                locked.countDown();
+                sleep();
+                binaryStore.delete(hash);
+            })
+        );
+        await(locked);
+
+        transactionTemplate.executeWithoutResult(status -> binaryStore.put(CONTENT));
+
+        release.get(10, TimeUnit.SECONDS);
+        assertThat(binaryStore.get(hash)).isPresent();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
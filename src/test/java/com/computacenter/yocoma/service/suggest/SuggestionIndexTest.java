@@ -0,0 +1,76 @@
+package com.computacenter.yocoma.service.suggest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.computacenter.yocoma.service.dto.SuggestionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link SuggestionIndex}.
+ */
+class SuggestionIndexTest {
+
+    private SuggestionIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new SuggestionIndex(false);
+        index.put(1L, "Müller, Jürgen", "Jürgen", "Müller", "j.mueller@example.com");
+        index.put(2L, "Jung, Anna", "Anna", "Jung", "anna.jung@example.com");
+        index.put(3L, "Meyer, Julia", "Julia", "Meyer", null);
+    }
+
+    @Test
+    void testSuggestsByPrefixOfAnyWord() {
+        assertThat(index.suggest("ju", 10)).extracting(SuggestionDTO::getId).containsExactly(2L, 3L, 1L);
+        assertThat(index.suggest("exam", 10)).extracting(SuggestionDTO::getId).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void testRanksLabelPrefixFirst() {
+        assertThat(index.suggest("jung", 10)).extracting(SuggestionDTO::getLabel).containsExactly("Jung, Anna");
+        assertThat(index.suggest("meyer ju", 10)).extracting(SuggestionDTO::getLabel).containsExactly("Meyer, Julia");
+    }
+
+    @Test
+    void testIgnoresCaseAndAccents() {
+        assertThat(index.suggest("JURG", 10)).extracting(SuggestionDTO::getId).containsExactly(1L);
+        assertThat(index.suggest("mül", 10)).extracting(SuggestionDTO::getId).containsExactly(1L);
+    }
+
+    @Test
+    void testRequiresEveryWord() {
+        assertThat(index.suggest("julia jung", 10)).isEmpty();
+        assertThat(index.suggest("julia mey", 10)).extracting(SuggestionDTO::getId).containsExactly(3L);
+    }
+
+    @Test
+    void testLimitsToTheBestSuggestions() {
+        assertThat(index.suggest("ju", 2)).extracting(SuggestionDTO::getId).containsExactly(2L, 3L);
+        assertThat(index.suggest("ju", 0)).isEmpty();
+        assertThat(index.suggest(" ", 10)).isEmpty();
+    }
+
+    @Test
+    void testReplacesAndRemovesEntries() {
+        index.put(2L, "Schmidt, Anna", "Anna", "Schmidt");
+        assertThat(index.suggest("jung", 10)).isEmpty();
+        assertThat(index.suggest("schm", 10)).extracting(SuggestionDTO::getId).containsExactly(2L);
+
+        index.remove(2L);
+        assertThat(index.suggest("anna", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testSuggestsDistinctLabelsOnceWithTheOldestSpelling() {
+        SuggestionIndex roles = new SuggestionIndex(true);
+        roles.put(2L, "developer", "developer");
+        roles.put(1L, "Developer", "Developer");
+        roles.put(3L, "Lead Developer", "Lead Developer");
+
+        assertThat(roles.suggest("dev", 10)).extracting(SuggestionDTO::getLabel).containsExactly("Developer", "Lead Developer");
+        assertThat(roles.suggest("dev", 10)).extracting(SuggestionDTO::getId).containsOnlyNulls();
+    }
+}
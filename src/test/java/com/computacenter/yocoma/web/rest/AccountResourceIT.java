@@ -9,8 +9,10 @@ import com.computacenter.yocoma.IntegrationTest;
 import com.computacenter.yocoma.config.Constants;
 import com.computacenter.yocoma.domain.User;
 import com.computacenter.yocoma.repository.AuthorityRepository;
+import com.computacenter.yocoma.repository.RefreshTokenRepository;
 import com.computacenter.yocoma.repository.UserRepository;
 import com.computacenter.yocoma.security.AuthoritiesConstants;
+import com.computacenter.yocoma.service.RefreshTokenService;
 import com.computacenter.yocoma.service.UserService;
 import com.computacenter.yocoma.service.dto.AdminUserDTO;
 import com.computacenter.yocoma.service.dto.PasswordChangeDTO;
@@ -24,6 +26,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -51,6 +54,12 @@ class AccountResourceIT {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
     @Autowired
     private MockMvc restAccountMockMvc;
 
@@ -578,6 +587,32 @@ class AccountResourceIT {
         assertThat(passwordEncoder.matches("new password", updatedUser.getPassword())).isTrue();
     }
 
+    @Test
+    @Transactional
+    @WithMockUser("change-password-sessions")
+    void testChangePasswordLogsOutTheSessions() throws Exception {
+        User user = new User();
+        String currentPassword = RandomStringUtils.random(60);
+        user.setPassword(passwordEncoder.encode(currentPassword));
+        user.setLogin("change-password-sessions");
+        user.setEmail("change-password-sessions@example.com");
+        userRepository.saveAndFlush(user);
+        refreshTokenService.issue(
+            new UsernamePasswordAuthenticationToken("change-password-sessions", null, Collections.emptyList()),
+            true
+        );
+
+        restAccountMockMvc
+            .perform(
+                post("/api/account/change-password")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(new PasswordChangeDTO(currentPassword, "new password")))
+            )
+            .andExpect(status().isOk());
+
+        assertThat(refreshTokenRepository.findAllByUserLogin("change-password-sessions")).isEmpty();
+    }
+
     @Test
     @Transactional
     @WithMockUser("change-password-too-small")
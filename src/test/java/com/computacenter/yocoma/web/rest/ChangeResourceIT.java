@@ -0,0 +1,203 @@
+package com.computacenter.yocoma.web.rest;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.computacenter.yocoma.IntegrationTest;
+import com.computacenter.yocoma.domain.Contact;
+import com.computacenter.yocoma.domain.Team;
+import com.computacenter.yocoma.domain.TeamContact;
+import com.computacenter.yocoma.domain.User;
+import com.computacenter.yocoma.repository.EntityChangeRepository;
+import com.computacenter.yocoma.service.ChangePushService;
+import com.computacenter.yocoma.service.ChangeService;
+import com.computacenter.yocoma.service.event.EntityChangedEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link ChangeResource} REST controller.
+ * <p>
+ * The changes are recorded right before a commit, which the transactions of the tests never reach, so the tests
+ * record them by calling {@link ChangeService#record} themselves.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ChangeResourceIT {
+
+    private static final String API_URL = "/api/_changes";
+
+    @Autowired
+    private ChangeService changeService;
+
+    @Autowired
+    private ChangePushService changePushService;
+
+    @Autowired
+    private EntityChangeRepository entityChangeRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restChangeMockMvc;
+
+    @Test
+    @Transactional
+    void syncReturnsTheLatestChangeOfEachEntity() throws Exception {
+        long since = entityChangeRepository.findLastPosition();
+        restChangeMockMvc
+            .perform(get(API_URL))
+            .andExpect(status().isOk())
+            .andExpect(header().string(ChangeResource.SYNC_TOKEN_HEADER, String.valueOf(since)))
+            .andExpect(jsonPath("$", hasSize(0)));
+
+        Team team = TeamResourceIT.createEntity(em);
+        em.persist(team);
+        Contact contact = ContactResourceIT.createEntity(em);
+        em.persist(contact);
+        TeamContact teamContact = TeamContactResourceIT.createEntity(em).team(team).contact(contact);
+        em.persist(teamContact);
+        em.flush();
+        changeService.record(
+            List.of(
+                EntityChangedEvent.created(Team.class, team.getId(), team),
+                EntityChangedEvent.created(Contact.class, contact.getId(), contact),
+                EntityChangedEvent.created(TeamContact.class, teamContact.getId(), teamContact)
+            )
+        );
+        team.setName("Renamed");
+        changeService.record(
+            List.of(
+                EntityChangedEvent.updated(Team.class, team.getId(), team),
+                EntityChangedEvent.deleted(TeamContact.class, teamContact.getId())
+            )
+        );
+
+        restChangeMockMvc
+            .perform(get(API_URL + "?since=" + since))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string(ChangeResource.SYNC_TOKEN_HEADER, String.valueOf(since + 5)))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.[*].position").value(contains((int) since + 2, (int) since + 4, (int) since + 5)))
+            .andExpect(jsonPath("$.[*].entityType").value(contains("Contact", "Team", "TeamContact")))
+            .andExpect(jsonPath("$.[*].changeType").value(contains("CREATED", "UPDATED", "DELETED")))
+            .andExpect(jsonPath("$.[0].entityId").value(contact.getId().intValue()))
+            .andExpect(jsonPath("$.[0].summary.lastname").value(contact.getLastname()))
+            .andExpect(jsonPath("$.[1].entityId").value(team.getId().intValue()))
+            .andExpect(jsonPath("$.[1].summary.name").value("Renamed"))
+            .andExpect(jsonPath("$.[2].entityId").value(teamContact.getId().intValue()))
+            .andExpect(jsonPath("$.[2].summary").doesNotExist());
+
+        restChangeMockMvc
+            .perform(get(API_URL + "?since=" + (since + 5)))
+            .andExpect(status().isOk())
+            .andExpect(header().string(ChangeResource.SYNC_TOKEN_HEADER, String.valueOf(since + 5)))
+            .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @Transactional
+    void syncSkipsTheChangesOfUsers() throws Exception {
+        long since = entityChangeRepository.findLastPosition();
+        Team team = TeamResourceIT.createEntity(em);
+        em.persist(team);
+        em.flush();
+        changeService.record(
+            List.of(EntityChangedEvent.deleted(User.class, Long.MAX_VALUE), EntityChangedEvent.created(Team.class, team.getId(), team))
+        );
+
+        restChangeMockMvc
+            .perform(get(API_URL + "?since=" + since + "&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(ChangeResource.SYNC_TOKEN_HEADER, String.valueOf(since + 1)))
+            .andExpect(jsonPath("$", hasSize(0)));
+        restChangeMockMvc
+            .perform(get(API_URL + "?since=" + (since + 1)))
+            .andExpect(status().isOk())
+            .andExpect(header().string(ChangeResource.SYNC_TOKEN_HEADER, String.valueOf(since + 2)))
+            .andExpect(jsonPath("$.[*].entityType").value(contains("Team")));
+    }
+
+    @Test
+    @Transactional
+    void syncContinuesWithTheNextLink() throws Exception {
+        long since = entityChangeRepository.findLastPosition();
+        Team team = TeamResourceIT.createEntity(em);
+        em.persist(team);
+        em.flush();
+        changeService.record(
+            List.of(EntityChangedEvent.created(Team.class, team.getId(), team), EntityChangedEvent.deleted(Contact.class, Long.MAX_VALUE))
+        );
+
+        restChangeMockMvc
+            .perform(get(API_URL + "?since=" + since + "&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(ChangeResource.SYNC_TOKEN_HEADER, String.valueOf(since + 1)))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("since=" + (since + 1))))
+            .andExpect(jsonPath("$.[*].entityType").value(contains("Team")));
+        restChangeMockMvc
+            .perform(get(API_URL + "?since=" + (since + 1) + "&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(ChangeResource.SYNC_TOKEN_HEADER, String.valueOf(since + 2)))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.[*].entityType").value(contains("Contact")));
+    }
+
+    @Test
+    @Transactional
+    void syncSincePurgedChangesIsGone() throws Exception {
+        long since = entityChangeRepository.findLastPosition();
+        changeService.record(List.of(EntityChangedEvent.deleted(Team.class, Long.MAX_VALUE)));
+        entityChangeRepository.findById(since + 1).orElseThrow().setChangedDate(Instant.now().minus(Duration.ofDays(31)));
+        changeService.record(List.of(EntityChangedEvent.deleted(Team.class, Long.MAX_VALUE - 1)));
+
+        restChangeMockMvc.perform(get(API_URL + "?since=" + since)).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(2)));
+
+        changeService.removeOldChanges();
+
+        restChangeMockMvc
+            .perform(get(API_URL + "?since=" + since))
+            .andExpect(status().isGone())
+            .andExpect(jsonPath("$.message").value("error.changesPurged"));
+        restChangeMockMvc.perform(get(API_URL + "?since=" + (since + 1))).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(1)));
+        restChangeMockMvc.perform(get(API_URL + "?since=" + (since + 3))).andExpect(status().isGone());
+    }
+
+    @Test
+    void streamPushesTheCommittedChanges() throws Exception {
+        MvcResult result = restChangeMockMvc
+            .perform(get(API_URL + "/stream").accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        changePushService.onEntityChanged(EntityChangedEvent.deleted(Team.class, Long.MAX_VALUE));
+
+        // The changes are sent by the pool of the push
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!result.getResponse().getContentAsString().contains("data:") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(result.getResponse().getContentType()).isEqualTo(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(result.getResponse().getContentAsString())
+            .contains("event:change")
+            .contains("\"entityType\":\"Team\",\"entityId\":" + Long.MAX_VALUE + ",\"changeType\":\"DELETED\"");
+    }
+}
@@ -1,28 +1,60 @@
 package com.computacenter.yocoma.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.computacenter.yocoma.IntegrationTest;
 import com.computacenter.yocoma.domain.Contact;
+import com.computacenter.yocoma.domain.Team;
+import com.computacenter.yocoma.domain.EntityChange;
 import com.computacenter.yocoma.domain.TeamContact;
+import com.computacenter.yocoma.repository.BinaryContentRepository;
+import com.computacenter.yocoma.repository.ContactImportRepository;
 import com.computacenter.yocoma.repository.ContactRepository;
+import com.computacenter.yocoma.repository.TeamContactRepository;
+import com.computacenter.yocoma.repository.TeamRepository;
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.service.ContactService;
+import com.computacenter.yocoma.service.CountService;
+import com.computacenter.yocoma.service.FullTextSearchService;
+import com.computacenter.yocoma.service.ThumbnailService;
 import com.computacenter.yocoma.service.criteria.ContactCriteria;
+import com.computacenter.yocoma.service.event.EntityChangedEvent;
+import com.computacenter.yocoma.service.storage.BinaryStore;
+import com.computacenter.yocoma.web.rest.util.PageableUtil;
+import com.jayway.jsonpath.JsonPath;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.search.mapper.orm.Search;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.Base64Utils;
 
 /**
  * Integration tests for the {@link ContactResource} REST controller.
@@ -49,6 +81,8 @@ class ContactResourceIT {
 
     private static final byte[] DEFAULT_IMAGE = TestUtil.createByteArray(1, "0");
     private static final byte[] UPDATED_IMAGE = TestUtil.createByteArray(1, "1");
+    private static final String DEFAULT_IMAGE_HASH = BinaryStore.hash(DEFAULT_IMAGE);
+    private static final String UPDATED_IMAGE_HASH = BinaryStore.hash(UPDATED_IMAGE);
     private static final String DEFAULT_IMAGE_CONTENT_TYPE = "image/jpg";
     private static final String UPDATED_IMAGE_CONTENT_TYPE = "image/png";
 
@@ -61,6 +95,33 @@ class ContactResourceIT {
     @Autowired
     private ContactRepository contactRepository;
 
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private CountService countService;
+
+    @Autowired
+    private FullTextSearchService fullTextSearchService;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private BinaryContentRepository binaryContentRepository;
+
+    @Autowired
+    private ContactImportRepository contactImportRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TeamContactRepository teamContactRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -83,6 +144,7 @@ class ContactResourceIT {
             .phone(DEFAULT_PHONE)
             .remark(DEFAULT_REMARK)
             .image(DEFAULT_IMAGE)
+            .imageHash(DEFAULT_IMAGE_HASH)
             .imageContentType(DEFAULT_IMAGE_CONTENT_TYPE);
         return contact;
     }
@@ -101,12 +163,15 @@ class ContactResourceIT {
             .phone(UPDATED_PHONE)
             .remark(UPDATED_REMARK)
             .image(UPDATED_IMAGE)
+            .imageHash(UPDATED_IMAGE_HASH)
             .imageContentType(UPDATED_IMAGE_CONTENT_TYPE);
         return contact;
     }
 
     @BeforeEach
     public void initTest() {
+        // The rolled back data of other tests does not clear the cached counts
+        countService.clear();
         contact = createEntity(em);
     }
 
@@ -128,7 +193,7 @@ class ContactResourceIT {
         assertThat(testContact.getEmail()).isEqualTo(DEFAULT_EMAIL);
         assertThat(testContact.getPhone()).isEqualTo(DEFAULT_PHONE);
         assertThat(testContact.getRemark()).isEqualTo(DEFAULT_REMARK);
-        assertThat(testContact.getImage()).isEqualTo(DEFAULT_IMAGE);
+        assertThat(testContact.getImageHash()).isEqualTo(DEFAULT_IMAGE_HASH);
         assertThat(testContact.getImageContentType()).isEqualTo(DEFAULT_IMAGE_CONTENT_TYPE);
     }
 
@@ -202,7 +267,83 @@ class ContactResourceIT {
             .andExpect(jsonPath("$.[*].phone").value(hasItem(DEFAULT_PHONE)))
             .andExpect(jsonPath("$.[*].remark").value(hasItem(DEFAULT_REMARK)))
             .andExpect(jsonPath("$.[*].imageContentType").value(hasItem(DEFAULT_IMAGE_CONTENT_TYPE)))
-            .andExpect(jsonPath("$.[*].image").value(hasItem(Base64Utils.encodeToString(DEFAULT_IMAGE))));
+            .andExpect(jsonPath("$.[*].imageHash").value(hasItem(DEFAULT_IMAGE_HASH)))
+            .andExpect(jsonPath("$.[*].imageUrl").value(hasItem("/api/contacts/" + contact.getId() + "/image")));
+    }
+
+    @Test
+    @Transactional
+    void getAllContactsPaginated() throws Exception {
+        // Initialize the database
+        contactRepository.saveAndFlush(contact);
+        long databaseSize = contactRepository.count();
+
+        // Get the first page of the contactList
+        restContactMockMvc
+            .perform(get(ENTITY_API_URL + "?page=0&size=1&sort=lastname,asc"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", String.valueOf(databaseSize)))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @Transactional
+    void getAllContactsWithTooLargePageSize() throws Exception {
+        // Initialize the database
+        contactRepository.saveAndFlush(contact);
+
+        // The page size is capped, so the response is still a regular page
+        restContactMockMvc
+            .perform(get(ENTITY_API_URL + "?page=0&size=100000"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(contact.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllContactsWithUnknownSortProperty() throws Exception {
+        restContactMockMvc.perform(get(ENTITY_API_URL + "?sort=unknown,asc")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void seekContacts() throws Exception {
+        // Initialize the database
+        contactRepository.saveAndFlush(contact);
+        Contact other = createEntity(em);
+        contactRepository.saveAndFlush(other);
+
+        // Get the first slice, which must point to the second one
+        MvcResult first = restContactMockMvc
+            .perform(get(ENTITY_API_URL + "/_seek?size=1&sort=id,asc&id.greaterThanOrEqual=" + contact.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(contact.getId().intValue()))
+            .andExpect(header().exists("X-Continuation-Token"))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andReturn();
+        String continuation = first.getResponse().getHeader("X-Continuation-Token");
+
+        // Get the second and last slice
+        restContactMockMvc
+            .perform(
+                get(ENTITY_API_URL + "/_seek?size=1&id.greaterThanOrEqual=" + contact.getId() + "&continuation=" + continuation)
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(other.getId().intValue()))
+            .andExpect(header().doesNotExist("X-Continuation-Token"));
+    }
+
+    @Test
+    @Transactional
+    void seekContactsWithInvalidContinuation() throws Exception {
+        restContactMockMvc.perform(get(ENTITY_API_URL + "/_seek?continuation=garbage")).andExpect(status().isBadRequest());
+        restContactMockMvc.perform(get(ENTITY_API_URL + "/_seek?sort=unknown")).andExpect(status().isBadRequest());
     }
 
     @Test
@@ -223,7 +364,9 @@ class ContactResourceIT {
             .andExpect(jsonPath("$.phone").value(DEFAULT_PHONE))
             .andExpect(jsonPath("$.remark").value(DEFAULT_REMARK))
             .andExpect(jsonPath("$.imageContentType").value(DEFAULT_IMAGE_CONTENT_TYPE))
-            .andExpect(jsonPath("$.image").value(Base64Utils.encodeToString(DEFAULT_IMAGE)));
+            .andExpect(jsonPath("$.imageHash").value(DEFAULT_IMAGE_HASH))
+            .andExpect(jsonPath("$.imageUrl").value("/api/contacts/" + contact.getId() + "/image"))
+            .andExpect(jsonPath("$.imageThumbnailUrls['48']").value("/api/contacts/" + contact.getId() + "/image/" + DEFAULT_IMAGE_HASH + "/48"));
     }
 
     @Test
@@ -660,6 +803,83 @@ class ContactResourceIT {
         defaultContactShouldNotBeFound("teamContactId.equals=" + (teamContactId + 1));
     }
 
+    @Test
+    @Transactional
+    void getAllContactsBySearchContainsSomething() throws Exception {
+        // Initialize the database, and the full-text index which is otherwise only written on commit
+        contactRepository.saveAndFlush(contact);
+        Search.session(em).indexingPlan().execute();
+
+        // Get all the contactList where a word, the prefix of a word or a word with a typo matches
+        defaultContactShouldBeFound("search.contains=" + DEFAULT_FIRSTNAME.toLowerCase());
+        defaultContactShouldBeFound("search.contains=" + DEFAULT_FIRSTNAME.substring(0, 3));
+        defaultContactShouldBeFound("search.contains=" + DEFAULT_FIRSTNAME.substring(1) + "X");
+
+        // Get all the contactList where nothing matches, or not every word
+        defaultContactShouldNotBeFound("search.contains=" + UPDATED_FIRSTNAME);
+        defaultContactShouldNotBeFound("search.contains=" + DEFAULT_FIRSTNAME + " " + UPDATED_FIRSTNAME);
+
+        // A blank search does not restrict the contactList
+        defaultContactShouldBeFound("search.contains=");
+    }
+
+    @Test
+    @Transactional
+    void getAllContactsBySearchSortedByRelevance() throws Exception {
+        // Initialize the database with a contact named like the searched word, and a contact only mentioning it
+        Contact mentioning = contactRepository.saveAndFlush(createEntity(em).remark("Knows Quaxolotl from school"));
+        contactRepository.saveAndFlush(contact.firstname("Quaxolotl").lastname("Quaxolotl"));
+        Search.session(em).indexingPlan().execute();
+
+        // The best match comes first, whether the hits are paged by the index or filtered by the database
+        for (String filter : List.of("search.contains=quaxolotl", "search.contains=quaxolotl&email.equals=" + DEFAULT_EMAIL)) {
+            restContactMockMvc
+                .perform(get(ENTITY_API_URL + "?sort=relevance&" + filter))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "2"))
+                .andExpect(header().doesNotExist(PageableUtil.SEARCH_TRUNCATED_HEADER))
+                .andExpect(jsonPath("$.[*].id").value(contains(contact.getId().intValue(), mentioning.getId().intValue())));
+            restContactMockMvc
+                .perform(get(ENTITY_API_URL + "?sort=relevance&page=1&size=1&" + filter))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "2"))
+                .andExpect(jsonPath("$.[*].id").value(contains(mentioning.getId().intValue())));
+        }
+    }
+
+    @Test
+    @Transactional
+    void getAllContactsBySearchWithMoreHitsThanTheMaximum() throws Exception {
+        // Initialize the database
+        contactRepository.saveAndFlush(contact.firstname("Zembrillo"));
+        contactRepository.saveAndFlush(createEntity(em).firstname("Zembrillo"));
+        Search.session(em).indexingPlan().execute();
+
+        setMaxHits(1);
+        try {
+            // Sorted by relevance alone, the hits are paged by the index, so all of them are found
+            restContactMockMvc
+                .perform(get(ENTITY_API_URL + "?sort=relevance&search.contains=zembrillo"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "2"))
+                .andExpect(header().doesNotExist(PageableUtil.SEARCH_TRUNCATED_HEADER));
+
+            // Sorted by the database, only the best ranked hit is, and the client is told so
+            restContactMockMvc
+                .perform(get(ENTITY_API_URL + "?sort=id&search.contains=zembrillo"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "1"))
+                .andExpect(header().string(PageableUtil.SEARCH_TRUNCATED_HEADER, "true"));
+        } finally {
+            setMaxHits(applicationProperties.getSearch().getMaxHits());
+        }
+    }
+
+    private void setMaxHits(int maxHits) {
+        FullTextSearchService target = AopTestUtils.getTargetObject(fullTextSearchService);
+        ReflectionTestUtils.setField(target, "maxHits", maxHits);
+    }
+
     /**
      * Executes the search, and checks that the default entity is returned.
      */
@@ -675,7 +895,8 @@ class ContactResourceIT {
             .andExpect(jsonPath("$.[*].phone").value(hasItem(DEFAULT_PHONE)))
             .andExpect(jsonPath("$.[*].remark").value(hasItem(DEFAULT_REMARK)))
             .andExpect(jsonPath("$.[*].imageContentType").value(hasItem(DEFAULT_IMAGE_CONTENT_TYPE)))
-            .andExpect(jsonPath("$.[*].image").value(hasItem(Base64Utils.encodeToString(DEFAULT_IMAGE))));
+            .andExpect(jsonPath("$.[*].imageHash").value(hasItem(DEFAULT_IMAGE_HASH)))
+            .andExpect(jsonPath("$.[*].imageUrl").value(hasItem("/api/contacts/" + contact.getId() + "/image")));
 
         // Check, that the count call also returns 1
         restContactMockMvc
@@ -704,6 +925,344 @@ class ContactResourceIT {
             .andExpect(content().string("0"));
     }
 
+    @Test
+    @Transactional
+    void getContactWithTeamContacts() throws Exception {
+        // Initialize the database
+        contactRepository.saveAndFlush(contact);
+        Team team = TeamResourceIT.createEntity(em);
+        em.persist(team);
+        TeamContact teamContact = TeamContactResourceIT.createEntity(em).contact(contact).team(team);
+        em.persist(teamContact);
+        em.flush();
+        em.clear();
+
+        // The lazy memberships and their teams are still part of the response
+        restContactMockMvc
+            .perform(get(ENTITY_API_URL_ID, contact.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.teamContacts.[*].id").value(hasItem(teamContact.getId().intValue())))
+            .andExpect(jsonPath("$.teamContacts.[*].team.id").value(hasItem(team.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllContactsSelectsOnlyTheListedColumns() throws Exception {
+        Contact newContact = createEntity(em);
+        em.persist(newContact);
+        for (int i = 0; i < 3; i++) {
+            Team team = TeamResourceIT.createEntity(em);
+            em.persist(team);
+            em.persist(TeamContactResourceIT.createEntity(em).contact(newContact).team(team));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            restContactMockMvc
+                .perform(get(ENTITY_API_URL + "?id.equals=" + newContact.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id").value(newContact.getId().intValue()))
+                .andExpect(jsonPath("$.[0].lastname").value(DEFAULT_LASTNAME))
+                .andExpect(jsonPath("$.[0].teamContacts").doesNotExist());
+            // One statement selecting the summaries, the count is skipped for a partial first page
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            assertThat(statistics.getEntityLoadCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    @Transactional
+    void getAllContactsReusesTheQueryPlanOfTheSameFilters() throws Exception {
+        contactRepository.saveAndFlush(contact);
+        restContactMockMvc.perform(get(ENTITY_API_URL + "?id.equals=" + contact.getId() + "&lastname.in=A,B,C")).andExpect(status().isOk());
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            // Other values and an in-list of similar length are the same shape
+            restContactMockMvc
+                .perform(get(ENTITY_API_URL + "?id.equals=" + (contact.getId() + 1) + "&lastname.in=A,B,C,D"))
+                .andExpect(status().isOk());
+            assertThat(statistics.getQueryPlanCacheHitCount()).isPositive();
+            assertThat(statistics.getQueryPlanCacheMissCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    @Transactional
+    void countContactsIsCachedUntilAContactChanges() throws Exception {
+        contactRepository.saveAndFlush(contact);
+        String countUrl = ENTITY_API_URL + "/count?lastname.equals=" + DEFAULT_LASTNAME;
+        long initialCount = Long.parseLong(restContactMockMvc.perform(get(countUrl)).andReturn().getResponse().getContentAsString());
+        Contact newContact = createEntity(em);
+        em.persist(newContact);
+        em.flush();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            // The cache does not see the new contact, as it has not been saved by the service
+            restContactMockMvc.perform(get(countUrl)).andExpect(status().isOk()).andExpect(content().string(String.valueOf(initialCount)));
+            assertThat(statistics.getPrepareStatementCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        countService.onEntityChanged(EntityChangedEvent.created(Contact.class, newContact.getId(), newContact));
+        restContactMockMvc.perform(get(countUrl)).andExpect(status().isOk()).andExpect(content().string(String.valueOf(initialCount + 1)));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void exportContactsAsCsv() throws Exception {
+        // The export is streamed by another thread, which only sees committed contacts
+        contactRepository.saveAndFlush(contact.image(null).imageHash(null).remark("says \"hi\", then\nleaves"));
+        Contact otherContact = contactRepository.saveAndFlush(createEntity(em).image(null).imageHash(null).lastname(UPDATED_LASTNAME));
+        String ids = contact.getId() + "," + otherContact.getId();
+        try {
+            MvcResult result = restContactMockMvc
+                .perform(get(ENTITY_API_URL + "/_export?format=csv&lastname.equals=" + DEFAULT_LASTNAME + "&id.in=" + ids))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            restContactMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"contacts.csv\""))
+                .andExpect(
+                    content()
+                        .string(
+                            "id,firstname,lastname,email,phone,remark,imageUrl\r\n" +
+                            contact.getId() + "," + DEFAULT_FIRSTNAME + "," + DEFAULT_LASTNAME + "," + DEFAULT_EMAIL + "," + DEFAULT_PHONE +
+                            ",\"says \"\"hi\"\", then\nleaves\",\r\n"
+                        )
+                );
+        } finally {
+            contactRepository.deleteAllById(List.of(contact.getId(), otherContact.getId()));
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void exportContactsBySearchWithMoreHitsThanTheMaximum() throws Exception {
+        // The full-text index is written on commit
+        contactRepository.saveAndFlush(contact.image(null).imageHash(null).firstname("Frobnitzel"));
+        Contact otherContact = contactRepository.saveAndFlush(createEntity(em).image(null).imageHash(null).firstname("Frobnitzel"));
+        try {
+            setMaxHits(1);
+            MvcResult result = restContactMockMvc
+                .perform(get(ENTITY_API_URL + "/_export?format=csv&search.contains=frobnitzel"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            // The export is not restricted to the best ranked hits
+            restContactMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\r\n" + contact.getId() + ",Frobnitzel,")))
+                .andExpect(content().string(containsString("\r\n" + otherContact.getId() + ",Frobnitzel,")));
+        } finally {
+            setMaxHits(applicationProperties.getSearch().getMaxHits());
+            contactRepository.deleteAllById(List.of(contact.getId(), otherContact.getId()));
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void exportContactsAsCsvWithoutFormulas() throws Exception {
+        contactRepository.saveAndFlush(
+            contact.image(null).imageHash(null).firstname("@SUM(A1)").phone("+49 (0) 89 1234-5").remark("=HYPERLINK(\"http://x\")")
+        );
+        try {
+            MvcResult result = restContactMockMvc
+                .perform(get(ENTITY_API_URL + "/_export?format=csv&id.equals=" + contact.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            // The fields starting like a formula are quoted text, phone numbers and the others are left as they are
+            restContactMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(
+                    content()
+                        .string(
+                            "id,firstname,lastname,email,phone,remark,imageUrl\r\n" +
+                            contact.getId() + ",\"'@SUM(A1)\"," + DEFAULT_LASTNAME + "," + DEFAULT_EMAIL + ",+49 (0) 89 1234-5" +
+                            ",\"'=HYPERLINK(\"\"http://x\"\")\",\r\n"
+                        )
+                );
+        } finally {
+            contactRepository.deleteById(contact.getId());
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void exportContactsAsNdjson() throws Exception {
+        contactRepository.saveAndFlush(contact.image(null).imageHash(null));
+        Contact otherContact = contactRepository.saveAndFlush(createEntity(em).image(null).imageHash(null));
+        try {
+            MvcResult result = restContactMockMvc
+                .perform(get(ENTITY_API_URL + "/_export?format=ndjson&id.in=" + contact.getId() + "," + otherContact.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            String[] lines = restContactMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .split("\n");
+            assertThat(lines).hasSize(2);
+            assertThat(JsonPath.<Integer>read(lines[0], "$.id")).isEqualTo(contact.getId().intValue());
+            assertThat(JsonPath.<String>read(lines[0], "$.firstname")).isEqualTo(DEFAULT_FIRSTNAME);
+            assertThat(JsonPath.<Integer>read(lines[1], "$.id")).isEqualTo(otherContact.getId().intValue());
+        } finally {
+            contactRepository.deleteAllById(List.of(contact.getId(), otherContact.getId()));
+        }
+    }
+
+    @Test
+    @Transactional
+    void exportContactsInAnUnsupportedFormat() throws Exception {
+        restContactMockMvc.perform(get(ENTITY_API_URL + "/_export?format=xlsx")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void importContactsFromCsv() throws Exception {
+        // The import runs on another thread, which only sees committed contacts
+        contactRepository.saveAndFlush(contact.image(null).imageHash(null).email("existing@example.com").phone(null));
+        String csv =
+            "First Name;Last Name;E-Mail;Phone\r\n" +
+            "Jane;Importee;jane@example.com;+49 170 1\r\n" +
+            ";Importee;nofirstname@example.com;\r\n" +
+            "Janet;Importee; JANE@example.com ;\r\n" +
+            "Existing;Importee;Existing@Example.com;\r\n" +
+            "Bad;Importee;not-an-email;\r\n" +
+            "John;Importee;;+49-170-2\r\n" +
+            "Johnny;Importee;;+49 (170) 2\r\n";
+        Long importId = null;
+        try {
+            String location = restContactMockMvc
+                .perform(post(ENTITY_API_URL + "/_import").contentType("text/csv").content(csv))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.format").value("CSV"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.LOCATION);
+            importId = Long.valueOf(location.substring(location.lastIndexOf('/') + 1));
+
+            awaitImport(location)
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.createdBy").value("user"))
+                .andExpect(jsonPath("$.readRows").value(7))
+                .andExpect(jsonPath("$.invalidRows").value(2))
+                .andExpect(jsonPath("$.duplicateRows").value(3))
+                .andExpect(jsonPath("$.importedRows").value(2))
+                .andExpect(jsonPath("$.firstInvalidRows[*].lineNumber").value(contains(3, 6)))
+                .andExpect(jsonPath("$.firstInvalidRows[0].errors").value(contains("firstname must not be null")))
+                .andExpect(jsonPath("$.firstInvalidRows[1].errors[0]").value(containsString("email must match")));
+
+            List<Contact> imported = importedContacts();
+            assertThat(imported).extracting(Contact::getFirstname).containsExactlyInAnyOrder("Jane", "John");
+            assertThat(imported).extracting(Contact::getCreatedBy).containsOnly("user");
+        } finally {
+            contactRepository.deleteAll(importedContacts());
+            contactRepository.deleteById(contact.getId());
+            if (importId != null) {
+                contactImportRepository.deleteById(importId);
+            }
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void importContactsFromVCard() throws Exception {
+        String vCard =
+            "BEGIN:VCARD\r\nVERSION:3.0\r\nN:Importee;Jürgen;;;\r\nEMAIL;TYPE=work:juergen@example.com\r\nEND:VCARD\r\n" +
+            "BEGIN:VCARD\r\nVERSION:3.0\r\nFN:Anna Importee\r\nTEL:+49 170 3\r\nEND:VCARD\r\n";
+        Long importId = null;
+        try {
+            String location = restContactMockMvc
+                .perform(
+                    post(ENTITY_API_URL + "/_import").contentType("text/vcard;charset=ISO-8859-1").content(vCard.getBytes(StandardCharsets.ISO_8859_1))
+                )
+                .andExpect(status().isAccepted())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.LOCATION);
+            importId = Long.valueOf(location.substring(location.lastIndexOf('/') + 1));
+
+            awaitImport(location)
+                .andExpect(jsonPath("$.format").value("VCARD"))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.importedRows").value(2))
+                .andExpect(jsonPath("$.firstInvalidRows").isEmpty());
+
+            assertThat(importedContacts()).extracting(Contact::getFirstname).containsExactlyInAnyOrder("Jürgen", "Anna");
+        } finally {
+            contactRepository.deleteAll(importedContacts());
+            if (importId != null) {
+                contactImportRepository.deleteById(importId);
+            }
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void importContactsFromMalformedFile() throws Exception {
+        String location = restContactMockMvc
+            .perform(post(ENTITY_API_URL + "/_import").contentType("text/csv").content("firstname,email\nJane,jane@example.com\n"))
+            .andExpect(status().isAccepted())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.LOCATION);
+        try {
+            awaitImport(location)
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.error").value("The CSV header has no column lastname"))
+                .andExpect(jsonPath("$.importedRows").value(0));
+        } finally {
+            contactImportRepository.deleteById(Long.valueOf(location.substring(location.lastIndexOf('/') + 1)));
+        }
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingContactImport() throws Exception {
+        restContactMockMvc.perform(get(ENTITY_API_URL + "/_import/{id}", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    private ResultActions awaitImport(String location) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            ResultActions result = restContactMockMvc.perform(get(location)).andExpect(status().isOk());
+            String status = JsonPath.read(result.andReturn().getResponse().getContentAsString(), "$.status");
+            if ("COMPLETED".equals(status) || "FAILED".equals(status)) {
+                return result;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("The import at " + location + " did not finish");
+    }
+
+    private List<Contact> importedContacts() {
+        return contactRepository.findAll().stream().filter(c -> "Importee".equals(c.getLastname())).collect(Collectors.toList());
+    }
+
     @Test
     @Transactional
     void getNonExistingContact() throws Exception {
@@ -711,6 +1270,159 @@ class ContactResourceIT {
         restContactMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getContactImage() throws Exception {
+        // Initialize the database, the service moves the image into the binary store
+        contactService.save(contact);
+
+        // Get the image
+        restContactMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/image", contact.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(DEFAULT_IMAGE_CONTENT_TYPE))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + DEFAULT_IMAGE_HASH + "\""))
+            .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, DEFAULT_IMAGE.length))
+            .andExpect(content().bytes(DEFAULT_IMAGE));
+    }
+
+    @Test
+    @Transactional
+    void getContactImageNotModified() throws Exception {
+        // Initialize the database
+        contactService.save(contact);
+
+        // Get the image with the ETag the client already has
+        restContactMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/image", contact.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"" + DEFAULT_IMAGE_HASH + "\""))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Transactional
+    void getContactImageRange() throws Exception {
+        // Initialize the database
+        byte[] image = new byte[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 };
+        contactService.save(contact.image(image));
+
+        // Get a part of the image
+        restContactMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/image", contact.getId()).header(HttpHeaders.RANGE, "bytes=2-5"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+            .andExpect(content().bytes(new byte[] { 2, 3, 4, 5 }));
+    }
+
+    @Test
+    @Transactional
+    void getContactImageThumbnail() throws Exception {
+        // Initialize the database with an image larger than the thumbnail
+        contactService.save(contact.image(TestUtil.createPngImage(200, 100)).imageContentType("image/png"));
+        thumbnailService.createThumbnails(contact.getImageHash());
+
+        // Get the thumbnail
+        restContactMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/image/{hash}/{size}", contact.getId(), contact.getImageHash(), 48))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("image/jpeg"))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+    }
+
+    @Test
+    @Transactional
+    void getContactImageThumbnailBeforeItIsCreated() throws Exception {
+        // Initialize the database
+        contactService.save(contact);
+
+        // The original is served, but must not be cached forever
+        restContactMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/image/{hash}/{size}", contact.getId(), DEFAULT_IMAGE_HASH, 128))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, not(containsString("immutable"))))
+            .andExpect(content().bytes(DEFAULT_IMAGE));
+    }
+
+    @Test
+    @Transactional
+    void getContactImageThumbnailOfReplacedImage() throws Exception {
+        // Initialize the database
+        contactService.save(contact);
+
+        // Ask for a thumbnail of another image, or in an unknown size
+        restContactMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/image/{hash}/{size}", contact.getId(), UPDATED_IMAGE_HASH, 48))
+            .andExpect(status().isNotFound());
+        restContactMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/image/{hash}/{size}", contact.getId(), DEFAULT_IMAGE_HASH, 49))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingContactImage() throws Exception {
+        // Initialize the database
+        contactService.save(contact.image(null).imageHash(null));
+
+        // Get the image
+        restContactMockMvc.perform(get(ENTITY_API_URL_ID + "/image", contact.getId())).andExpect(status().isNotFound());
+        restContactMockMvc.perform(get(ENTITY_API_URL_ID + "/image", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void putContactReleasesReplacedImage() throws Exception {
+        // Initialize the database
+        contactService.save(contact);
+        em.flush();
+        assertThat(binaryContentRepository.existsById(DEFAULT_IMAGE_HASH)).isTrue();
+
+        // Replace the image
+        Contact updatedContact = contactRepository.findById(contact.getId()).get();
+        em.detach(updatedContact);
+        updatedContact.image(UPDATED_IMAGE);
+
+        restContactMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedContact.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedContact))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imageHash").value(UPDATED_IMAGE_HASH))
+            .andExpect(jsonPath("$.image").doesNotExist());
+
+        // The previous image is no longer referenced
+        assertThat(binaryContentRepository.existsById(DEFAULT_IMAGE_HASH)).isFalse();
+        assertThat(binaryContentRepository.existsById(UPDATED_IMAGE_HASH)).isTrue();
+    }
+
+    @Test
+    @Transactional
+    void putContactKeepsImageWithoutUpload() throws Exception {
+        // Initialize the database
+        contactService.save(contact);
+        em.flush();
+
+        // Update the contact without sending the image again
+        Contact updatedContact = contactRepository.findById(contact.getId()).get();
+        em.detach(updatedContact);
+        updatedContact.firstname(UPDATED_FIRSTNAME);
+
+        restContactMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedContact.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedContact))
+            )
+            .andExpect(status().isOk());
+
+        Contact testContact = contactRepository.findById(contact.getId()).get();
+        assertThat(testContact.getFirstname()).isEqualTo(UPDATED_FIRSTNAME);
+        assertThat(testContact.getImageHash()).isEqualTo(DEFAULT_IMAGE_HASH);
+        assertThat(binaryContentRepository.existsById(DEFAULT_IMAGE_HASH)).isTrue();
+    }
+
     @Test
     @Transactional
     void putNewContact() throws Exception {
@@ -749,7 +1461,7 @@ class ContactResourceIT {
         assertThat(testContact.getEmail()).isEqualTo(UPDATED_EMAIL);
         assertThat(testContact.getPhone()).isEqualTo(UPDATED_PHONE);
         assertThat(testContact.getRemark()).isEqualTo(UPDATED_REMARK);
-        assertThat(testContact.getImage()).isEqualTo(UPDATED_IMAGE);
+        assertThat(testContact.getImageHash()).isEqualTo(UPDATED_IMAGE_HASH);
         assertThat(testContact.getImageContentType()).isEqualTo(UPDATED_IMAGE_CONTENT_TYPE);
     }
 
@@ -809,6 +1521,148 @@ class ContactResourceIT {
         assertThat(contactList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void bulkSaveContacts() throws Exception {
+        contactRepository.saveAndFlush(contact.image(null).imageHash(null));
+        Contact newContact = createEntity(em).image(null).imageHash(null);
+        Contact invalidContact = createEntity(em).image(null).imageHash(null).firstname(null);
+        Contact updatedContact = createUpdatedEntity(em).image(null).imageHash(null);
+        updatedContact.setId(contact.getId());
+        Contact nonExistingContact = createEntity(em).image(null).imageHash(null);
+        nonExistingContact.setId(Long.MAX_VALUE);
+
+        MvcResult result = restContactMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/_bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(newContact, invalidContact, updatedContact, nonExistingContact)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].index").value(contains(0, 1, 2, 3)))
+            .andExpect(jsonPath("$.[*].status").value(contains("CREATED", "INVALID", "UPDATED", "INVALID")))
+            .andExpect(jsonPath("$.[1].errors").value(contains("firstname must not be null")))
+            .andExpect(jsonPath("$.[2].id").value(contact.getId().intValue()))
+            .andExpect(jsonPath("$.[3].errors").value(contains("id " + Long.MAX_VALUE + " does not exist")))
+            .andReturn();
+        Long newId = ((Number) JsonPath.read(result.getResponse().getContentAsString(), "$.[0].id")).longValue();
+        try {
+            assertThat(contactRepository.findById(newId)).get().extracting(Contact::getFirstname).isEqualTo(DEFAULT_FIRSTNAME);
+            assertThat(contactRepository.findById(contact.getId())).get().extracting(Contact::getFirstname).isEqualTo(UPDATED_FIRSTNAME);
+        } finally {
+            contactRepository.deleteAllById(List.of(newId, contact.getId()));
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void bulkSaveContactsInJdbcBatches() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 60; i++) {
+            ndjson.append(new String(TestUtil.convertObjectToJsonBytes(createEntity(em).image(null).imageHash(null)))).append('\n');
+        }
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        List<Long> ids = List.of();
+        try {
+            MvcResult result = restContactMockMvc
+                .perform(post(ENTITY_API_URL + "/_bulk").contentType(MediaType.APPLICATION_NDJSON).content(ndjson.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(60))
+                .andExpect(jsonPath("$.[*].status").value(everyItem(is("CREATED"))))
+                .andReturn();
+            ids = JsonPath.<List<Number>>read(result.getResponse().getContentAsString(), "$.[*].id")
+                .stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+            assertThat(statistics.getEntityStatistics(Contact.class.getName()).getInsertCount()).isEqualTo(60);
+            assertThat(statistics.getEntityStatistics(EntityChange.class.getName()).getInsertCount()).isEqualTo(60);
+            // The inserts of the contacts and of their changes are sent in batches of 25, with a few sequence calls for the
+            // pooled ids and the positions of the changes
+            assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+            contactRepository.deleteAllById(ids);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void bulkSaveContactsReportsFailingItems() throws Exception {
+        Contact firstContact = createEntity(em).image(null).imageHash(null);
+        Contact tooLongContact = createEntity(em).image(null).imageHash(null).firstname("A".repeat(300));
+        Contact lastContact = createEntity(em).image(null).imageHash(null);
+
+        MvcResult result = restContactMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/_bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(firstContact, tooLongContact, lastContact)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].status").value(contains("CREATED", "FAILED", "CREATED")))
+            .andExpect(jsonPath("$.[1].id").doesNotExist())
+            .andExpect(jsonPath("$.[1].errors.length()").value(1))
+            .andReturn();
+        List<Long> ids = List.of(
+            ((Number) JsonPath.read(result.getResponse().getContentAsString(), "$.[0].id")).longValue(),
+            ((Number) JsonPath.read(result.getResponse().getContentAsString(), "$.[2].id")).longValue()
+        );
+        try {
+            assertThat(contactRepository.findAllById(ids)).hasSize(2);
+        } finally {
+            contactRepository.deleteAllById(ids);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void bulkDeleteContacts() throws Exception {
+        Contact contact = contactRepository.saveAndFlush(createEntity(em).image(null).imageHash(null));
+        Contact memberContact = contactRepository.saveAndFlush(createEntity(em).image(null).imageHash(null));
+        Team team = teamRepository.saveAndFlush(TeamResourceIT.createEntity(em).logo(null).logoHash(null));
+        TeamContact teamContact = teamContactRepository.saveAndFlush(
+            TeamContactResourceIT.createEntity(em).contact(memberContact).team(team)
+        );
+        try {
+            restContactMockMvc
+                .perform(
+                    delete(ENTITY_API_URL + "/_bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + contact.getId() + ", " + memberContact.getId() + ", " + Long.MAX_VALUE + ", null]")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].index").value(contains(0, 1, 2, 3)))
+                .andExpect(jsonPath("$.[*].status").value(contains("DELETED", "FAILED", "INVALID", "INVALID")))
+                .andExpect(jsonPath("$.[0].id").value(contact.getId().intValue()))
+                .andExpect(jsonPath("$.[1].id").value(memberContact.getId().intValue()))
+                .andExpect(jsonPath("$.[2].errors").value(contains("id " + Long.MAX_VALUE + " does not exist")))
+                .andExpect(jsonPath("$.[3].errors").value(contains("id must not be null")));
+
+            // The member of a team is kept, as its team contact refers to it
+            assertThat(contactRepository.findById(contact.getId())).isEmpty();
+            assertThat(contactRepository.findById(memberContact.getId())).isPresent();
+        } finally {
+            teamContactRepository.deleteById(teamContact.getId());
+            contactRepository.deleteById(memberContact.getId());
+            teamRepository.deleteById(team.getId());
+        }
+    }
+
+    @Test
+    @Transactional
+    void bulkSaveContactsWithInvalidBody() throws Exception {
+        int databaseSizeBeforeBulk = contactRepository.findAll().size();
+
+        restContactMockMvc
+            .perform(post(ENTITY_API_URL + "/_bulk").contentType(MediaType.APPLICATION_JSON).content("[{\"firstname\": "))
+            .andExpect(status().isBadRequest());
+
+        assertThat(contactRepository.findAll()).hasSize(databaseSizeBeforeBulk);
+    }
+
     @Test
     @Transactional
     void partialUpdateContactWithPatch() throws Exception {
@@ -840,7 +1694,7 @@ class ContactResourceIT {
         assertThat(testContact.getEmail()).isEqualTo(DEFAULT_EMAIL);
         assertThat(testContact.getPhone()).isEqualTo(UPDATED_PHONE);
         assertThat(testContact.getRemark()).isEqualTo(DEFAULT_REMARK);
-        assertThat(testContact.getImage()).isEqualTo(DEFAULT_IMAGE);
+        assertThat(testContact.getImageHash()).isEqualTo(DEFAULT_IMAGE_HASH);
         assertThat(testContact.getImageContentType()).isEqualTo(DEFAULT_IMAGE_CONTENT_TYPE);
     }
 
@@ -882,10 +1736,61 @@ class ContactResourceIT {
         assertThat(testContact.getEmail()).isEqualTo(UPDATED_EMAIL);
         assertThat(testContact.getPhone()).isEqualTo(UPDATED_PHONE);
         assertThat(testContact.getRemark()).isEqualTo(UPDATED_REMARK);
-        assertThat(testContact.getImage()).isEqualTo(UPDATED_IMAGE);
+        assertThat(testContact.getImageHash()).isEqualTo(UPDATED_IMAGE_HASH);
         assertThat(testContact.getImageContentType()).isEqualTo(UPDATED_IMAGE_CONTENT_TYPE);
     }
 
+    @Test
+    @Transactional
+    void partialUpdateContactWithIfMatch() throws Exception {
+        // Initialize the database
+        contactRepository.saveAndFlush(contact);
+        String eTag = restContactMockMvc
+            .perform(get(ENTITY_API_URL_ID, contact.getId()))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        Contact partialUpdatedContact = new Contact();
+        partialUpdatedContact.setId(contact.getId());
+        partialUpdatedContact.phone(UPDATED_PHONE);
+
+        restContactMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedContact.getId())
+                    .header(HttpHeaders.IF_MATCH, "W/" + eTag)
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedContact))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        restContactMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedContact.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"other\", " + eTag)
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedContact))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.phone").value(UPDATED_PHONE));
+    }
+
+    @Test
+    @Transactional
+    void partialUpdateContactBasedOnAnOutdatedVersion() {
+        // Initialize the database
+        contactRepository.saveAndFlush(contact);
+
+        // An update committed between the check of If-Match and the partial update
+        Contact partialUpdatedContact = new Contact().phone(UPDATED_PHONE);
+        partialUpdatedContact.setId(contact.getId());
+        partialUpdatedContact.setVersion(contact.getVersion() - 1);
+
+        assertThatThrownBy(() -> contactService.partialUpdate(partialUpdatedContact))
+            .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    }
+
     @Test
     @Transactional
     void patchNonExistingContact() throws Exception {
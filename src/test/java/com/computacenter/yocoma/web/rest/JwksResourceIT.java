@@ -0,0 +1,67 @@
+package com.computacenter.yocoma.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.computacenter.yocoma.IntegrationTest;
+import com.computacenter.yocoma.config.ApplicationProperties;
+import com.computacenter.yocoma.repository.JwtSigningKeyRepository;
+import com.computacenter.yocoma.security.jwt.JwtSigningKeys;
+import io.jsonwebtoken.SignatureAlgorithm;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Integration tests for the {@link JwksResource} REST controller.
+ */
+@AutoConfigureMockMvc
+@IntegrationTest
+class JwksResourceIT {
+
+    @Autowired
+    private JwtSigningKeyRepository jwtSigningKeyRepository;
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    @Autowired
+    private MockMvc restJwksMockMvc;
+
+    @Test
+    void getJwksWithoutAuthentication() throws Exception {
+        // The tests sign with the shared secret, which is never published
+        restJwksMockMvc
+            .perform(get("/.well-known/jwks.json"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"))
+            .andExpect(jsonPath("$.keys").isEmpty());
+    }
+
+    @Test
+    @Transactional
+    @SuppressWarnings("unchecked")
+    void keyPairsAreSharedByTheNodes() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getJwt().setAlgorithm(SignatureAlgorithm.ES256);
+        applicationProperties.getSecurity().getJwt().setPrivateKeySecret("q2vUz7cJ0m5hYk1Xb8fN3wR6tE9pL4sA2dG7jK0zV5c=");
+        JwtSigningKeys signingNode = new JwtSigningKeys(jwtSigningKeyRepository, applicationProperties, jHipsterProperties);
+        JwtSigningKeys otherNode = new JwtSigningKeys(jwtSigningKeyRepository, applicationProperties, jHipsterProperties);
+
+        String kid = signingNode.signingKey().getKid();
+
+        assertThat(jwtSigningKeyRepository.findById(kid)).isPresent();
+        assertThat(otherNode.verificationKey(kid)).isEqualTo(signingNode.signingKey().getPublicKey());
+        Map<String, Object> jwks = new JwksResource(otherNode, applicationProperties).getJwks().getBody();
+        assertThat((List<Map<String, Object>>) jwks.get("keys")).singleElement().extracting(jwk -> jwk.get("kid")).isEqualTo(kid);
+    }
+}
@@ -0,0 +1,143 @@
+package com.computacenter.yocoma.web.rest;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.computacenter.yocoma.IntegrationTest;
+import com.computacenter.yocoma.domain.Contact;
+import com.computacenter.yocoma.domain.EntityChange;
+import com.computacenter.yocoma.domain.Team;
+import com.computacenter.yocoma.domain.enumeration.ChangeType;
+import com.computacenter.yocoma.service.SuggestService;
+import com.computacenter.yocoma.service.event.EntityChangedEvent;
+import com.computacenter.yocoma.service.event.RemoteChangesEvent;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link SuggestResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class SuggestResourceIT {
+
+    private static final String API_URL = "/api/_suggest";
+
+    @Autowired
+    private SuggestService suggestService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restSuggestMockMvc;
+
+    @Test
+    @Transactional
+    void suggestContacts() throws Exception {
+        Contact contact = ContactResourceIT.createEntity(em).firstname("Quirinus").lastname("Zorglub").email("q.zorglub@example.com");
+        em.persist(contact);
+        em.persist(ContactResourceIT.createEntity(em).firstname("Zorah").lastname("Quast").email(null));
+        em.flush();
+        suggestService.rebuild();
+
+        restSuggestMockMvc
+            .perform(get(API_URL + "/contacts?q=zorg"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].id").value(contact.getId().intValue()))
+            .andExpect(jsonPath("$.[0].label").value("Zorglub, Quirinus"));
+        restSuggestMockMvc
+            .perform(get(API_URL + "/contacts?q=Q.Zorg"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].label").value(contains("Zorglub, Quirinus")));
+        restSuggestMockMvc
+            .perform(get(API_URL + "/contacts?q=zor qu"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].label").value(contains("Quast, Zorah", "Zorglub, Quirinus")));
+        restSuggestMockMvc
+            .perform(get(API_URL + "/contacts?q=zorglub qu&limit=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].label").value(contains("Zorglub, Quirinus")));
+        restSuggestMockMvc.perform(get(API_URL + "/contacts?q=zorglubb")).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @Transactional
+    void suggestTeamsAndRoles() throws Exception {
+        Team team = TeamResourceIT.createEntity(em).name("Xylophon Orchestra");
+        em.persist(team);
+        em.persist(TeamContactResourceIT.createEntity(em).role("Xylophonist").team(team));
+        em.persist(TeamContactResourceIT.createEntity(em).role("xylophonist").team(team));
+        em.flush();
+        suggestService.rebuild();
+
+        restSuggestMockMvc
+            .perform(get(API_URL + "/teams?q=orch xyl"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(team.getId().intValue())))
+            .andExpect(jsonPath("$.[*].label").value(contains("Xylophon Orchestra")));
+        restSuggestMockMvc
+            .perform(get(API_URL + "/roles?q=xylophoni"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].label").value("Xylophonist"));
+    }
+
+    @Test
+    @Transactional
+    void suggestionsFollowEntityChanges() throws Exception {
+        Team team = TeamResourceIT.createEntity(em).name("Vuvuzela Band");
+        em.persist(team);
+        em.flush();
+
+        suggestService.onEntityChanged(EntityChangedEvent.created(Team.class, team.getId(), team));
+        restSuggestMockMvc.perform(get(API_URL + "/teams?q=vuvu")).andExpect(jsonPath("$.[*].label").value(contains("Vuvuzela Band")));
+
+        team.setName("Vuvuzela Orchestra");
+        suggestService.onEntityChanged(EntityChangedEvent.updated(Team.class, team.getId(), team));
+        restSuggestMockMvc.perform(get(API_URL + "/teams?q=vuvu band")).andExpect(jsonPath("$", hasSize(0)));
+        restSuggestMockMvc.perform(get(API_URL + "/teams?q=vuvu")).andExpect(jsonPath("$.[*].label").value(contains("Vuvuzela Orchestra")));
+
+        suggestService.onEntityChanged(EntityChangedEvent.deleted(Team.class, team.getId()));
+        restSuggestMockMvc.perform(get(API_URL + "/teams?q=vuvu")).andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @Transactional
+    void suggestionsFollowTheChangesOfOtherNodes() throws Exception {
+        Team team = TeamResourceIT.createEntity(em).name("Theremin Ensemble");
+        em.persist(team);
+        em.flush();
+
+        suggestService.onRemoteChanges(remoteChange(team, ChangeType.CREATED));
+        restSuggestMockMvc.perform(get(API_URL + "/teams?q=therem")).andExpect(jsonPath("$.[*].label").value(contains("Theremin Ensemble")));
+
+        // Deleted again before the change has been followed
+        em.remove(team);
+        em.flush();
+        suggestService.onRemoteChanges(remoteChange(team, ChangeType.UPDATED));
+        restSuggestMockMvc.perform(get(API_URL + "/teams?q=therem")).andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void suggestRequiresText() throws Exception {
+        restSuggestMockMvc.perform(get(API_URL + "/contacts")).andExpect(status().isBadRequest());
+    }
+
+    private static RemoteChangesEvent remoteChange(Team team, ChangeType changeType) {
+        EntityChange change = new EntityChange().entityType(Team.class.getSimpleName()).entityId(team.getId()).changeType(changeType);
+        return new RemoteChangesEvent(List.of(change), true);
+    }
+}
@@ -1,6 +1,7 @@
 package com.computacenter.yocoma.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -10,19 +11,29 @@ import com.computacenter.yocoma.domain.Contact;
 import com.computacenter.yocoma.domain.Team;
 import com.computacenter.yocoma.domain.TeamContact;
 import com.computacenter.yocoma.domain.enumeration.RoleType;
+import com.computacenter.yocoma.repository.ContactRepository;
 import com.computacenter.yocoma.repository.TeamContactRepository;
+import com.computacenter.yocoma.repository.TeamRepository;
+import com.computacenter.yocoma.service.CountService;
 import com.computacenter.yocoma.service.criteria.TeamContactCriteria;
+import com.jayway.jsonpath.JsonPath;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.search.mapper.orm.Search;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -51,6 +62,15 @@ class TeamContactResourceIT {
     @Autowired
     private TeamContactRepository teamContactRepository;
 
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private CountService countService;
+
     @Autowired
     private EntityManager em;
 
@@ -83,6 +103,8 @@ class TeamContactResourceIT {
 
     @BeforeEach
     public void initTest() {
+        // The rolled back data of other tests does not clear the cached counts
+        countService.clear();
         teamContact = createEntity(em);
     }
 
@@ -156,6 +178,81 @@ class TeamContactResourceIT {
             .andExpect(jsonPath("$.[*].description").value(hasItem(DEFAULT_DESCRIPTION)));
     }
 
+    @Test
+    @Transactional
+    void getAllTeamContactsPaginated() throws Exception {
+        // Initialize the database
+        teamContactRepository.saveAndFlush(teamContact);
+        long databaseSize = teamContactRepository.count();
+
+        // Get the first page of the teamContactList
+        restTeamContactMockMvc
+            .perform(get(ENTITY_API_URL + "?page=0&size=1&sort=role,asc"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", String.valueOf(databaseSize)))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @Transactional
+    void getAllTeamContactsWithTooLargePageSize() throws Exception {
+        // Initialize the database
+        teamContactRepository.saveAndFlush(teamContact);
+
+        // The page size is capped, so the response is still a regular page
+        restTeamContactMockMvc
+            .perform(get(ENTITY_API_URL + "?page=0&size=100000"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(teamContact.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllTeamContactsWithUnknownSortProperty() throws Exception {
+        restTeamContactMockMvc.perform(get(ENTITY_API_URL + "?sort=unknown,asc")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void seekTeamContacts() throws Exception {
+        // Initialize the database
+        teamContactRepository.saveAndFlush(teamContact);
+        TeamContact other = createEntity(em);
+        teamContactRepository.saveAndFlush(other);
+
+        // Get the first slice, which must point to the second one
+        MvcResult first = restTeamContactMockMvc
+            .perform(get(ENTITY_API_URL + "/_seek?size=1&sort=id,asc&id.greaterThanOrEqual=" + teamContact.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(teamContact.getId().intValue()))
+            .andExpect(header().exists("X-Continuation-Token"))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andReturn();
+        String continuation = first.getResponse().getHeader("X-Continuation-Token");
+
+        // Get the second and last slice
+        restTeamContactMockMvc
+            .perform(
+                get(ENTITY_API_URL + "/_seek?size=1&id.greaterThanOrEqual=" + teamContact.getId() + "&continuation=" + continuation)
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(other.getId().intValue()))
+            .andExpect(header().doesNotExist("X-Continuation-Token"));
+    }
+
+    @Test
+    @Transactional
+    void seekTeamContactsWithInvalidContinuation() throws Exception {
+        restTeamContactMockMvc.perform(get(ENTITY_API_URL + "/_seek?continuation=garbage")).andExpect(status().isBadRequest());
+        restTeamContactMockMvc.perform(get(ENTITY_API_URL + "/_seek?sort=unknown")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getTeamContact() throws Exception {
@@ -173,6 +270,34 @@ class TeamContactResourceIT {
             .andExpect(jsonPath("$.description").value(DEFAULT_DESCRIPTION));
     }
 
+    @Test
+    @Transactional
+    void getTeamContactIsNotModifiedUntilItsTeamChanges() throws Exception {
+        // Initialize the database
+        Team team = TeamResourceIT.createEntity(em);
+        em.persist(team);
+        teamContactRepository.saveAndFlush(teamContact.team(team));
+
+        String eTag = restTeamContactMockMvc
+            .perform(get(ENTITY_API_URL_ID, teamContact.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restTeamContactMockMvc
+            .perform(get(ENTITY_API_URL_ID, teamContact.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        team.setName("Renamed");
+        em.flush();
+
+        restTeamContactMockMvc
+            .perform(get(ENTITY_API_URL_ID, teamContact.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.team.name").value("Renamed"));
+    }
+
     @Test
     @Transactional
     void getTeamContactsByIdFiltering() throws Exception {
@@ -451,6 +576,26 @@ class TeamContactResourceIT {
         defaultTeamContactShouldNotBeFound("teamId.equals=" + (teamId + 1));
     }
 
+    @Test
+    @Transactional
+    void getAllTeamContactsBySearchContainsSomething() throws Exception {
+        // Initialize the database, and the full-text index which is otherwise only written on commit
+        teamContactRepository.saveAndFlush(teamContact);
+        Search.session(em).indexingPlan().execute();
+
+        // Get all the teamContactList where a word, the prefix of a word or a word with a typo matches
+        defaultTeamContactShouldBeFound("search.contains=" + DEFAULT_ROLE.toLowerCase());
+        defaultTeamContactShouldBeFound("search.contains=" + DEFAULT_ROLE.substring(0, 3));
+        defaultTeamContactShouldBeFound("search.contains=" + DEFAULT_ROLE.substring(1) + "X");
+
+        // Get all the teamContactList where nothing matches, or not every word
+        defaultTeamContactShouldNotBeFound("search.contains=" + UPDATED_ROLE);
+        defaultTeamContactShouldNotBeFound("search.contains=" + DEFAULT_ROLE + " " + UPDATED_ROLE);
+
+        // A blank search does not restrict the teamContactList
+        defaultTeamContactShouldBeFound("search.contains=");
+    }
+
     /**
      * Executes the search, and checks that the default entity is returned.
      */
@@ -491,6 +636,107 @@ class TeamContactResourceIT {
             .andExpect(content().string("0"));
     }
 
+    @Test
+    @Transactional
+    void getAllTeamContactsWithContactAndTeam() throws Exception {
+        // Initialize the database
+        Contact contact = ContactResourceIT.createEntity(em);
+        em.persist(contact);
+        Team team = TeamResourceIT.createEntity(em);
+        em.persist(team);
+        teamContact.contact(contact).team(team);
+        teamContactRepository.saveAndFlush(teamContact);
+        em.clear();
+
+        // The lazy contact and team are still part of the response
+        restTeamContactMockMvc
+            .perform(get(ENTITY_API_URL + "?id.equals=" + teamContact.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].contact.id").value(contact.getId().intValue()))
+            .andExpect(jsonPath("$.[0].team.id").value(team.getId().intValue()));
+        restTeamContactMockMvc
+            .perform(get(ENTITY_API_URL_ID, teamContact.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.contact.id").value(contact.getId().intValue()))
+            .andExpect(jsonPath("$.team.id").value(team.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getAllTeamContactsSelectsContactAndTeamNames() throws Exception {
+        Contact contact = ContactResourceIT.createEntity(em);
+        em.persist(contact);
+        Team team = TeamResourceIT.createEntity(em);
+        em.persist(team);
+        teamContact.contact(contact).team(team);
+        em.persist(teamContact);
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            restTeamContactMockMvc
+                .perform(get(ENTITY_API_URL + "?id.equals=" + teamContact.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].role").value(DEFAULT_ROLE))
+                .andExpect(jsonPath("$.[0].contact.id").value(contact.getId().intValue()))
+                .andExpect(jsonPath("$.[0].contact.lastname").value(contact.getLastname()))
+                .andExpect(jsonPath("$.[0].contact.email").doesNotExist())
+                .andExpect(jsonPath("$.[0].team.id").value(team.getId().intValue()))
+                .andExpect(jsonPath("$.[0].team.name").value(team.getName()));
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            assertThat(statistics.getEntityLoadCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void exportTeamContactsAsCsv() throws Exception {
+        // The export is streamed by another thread, which only sees committed team contacts
+        Contact contact = contactRepository.saveAndFlush(ContactResourceIT.createEntity(em).image(null).imageHash(null));
+        Team team = teamRepository.saveAndFlush(TeamResourceIT.createEntity(em).logo(null).logoHash(null));
+        teamContactRepository.saveAndFlush(teamContact.contact(contact).team(team));
+        try {
+            MvcResult result = restTeamContactMockMvc
+                .perform(get(ENTITY_API_URL + "/_export?teamId.equals=" + team.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            restTeamContactMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"team-contacts.csv\""))
+                .andExpect(
+                    content()
+                        .string(
+                            "id,roleType,role,description,contactId,contactFirstname,contactLastname,teamId,teamName\r\n" +
+                            String.join(
+                                ",",
+                                teamContact.getId().toString(),
+                                DEFAULT_ROLE_TYPE.name(),
+                                DEFAULT_ROLE,
+                                DEFAULT_DESCRIPTION,
+                                contact.getId().toString(),
+                                contact.getFirstname(),
+                                contact.getLastname(),
+                                team.getId().toString(),
+                                team.getName()
+                            ) +
+                            "\r\n"
+                        )
+                );
+        } finally {
+            teamContactRepository.deleteById(teamContact.getId());
+            contactRepository.deleteById(contact.getId());
+            teamRepository.deleteById(team.getId());
+        }
+    }
+
     @Test
     @Transactional
     void getNonExistingTeamContact() throws Exception {
@@ -585,6 +831,64 @@ class TeamContactResourceIT {
         assertThat(teamContactList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void bulkSaveTeamContacts() throws Exception {
+        Contact contact = contactRepository.saveAndFlush(ContactResourceIT.createEntity(em).image(null).imageHash(null));
+        Team team = teamRepository.saveAndFlush(TeamResourceIT.createEntity(em).logo(null).logoHash(null));
+        TeamContact newTeamContact = createEntity(em).contact(new Contact().id(contact.getId())).team(new Team().id(team.getId()));
+        TeamContact unknownContactTeamContact = createEntity(em).contact(new Contact().id(Long.MAX_VALUE)).team(new Team().id(team.getId()));
+        TeamContact invalidTeamContact = createEntity(em).role(null);
+
+        MvcResult result = restTeamContactMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/_bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(newTeamContact, unknownContactTeamContact, invalidTeamContact)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].status").value(contains("CREATED", "INVALID", "INVALID")))
+            .andExpect(jsonPath("$.[1].errors").value(contains("contact " + Long.MAX_VALUE + " does not exist")))
+            .andExpect(jsonPath("$.[2].errors").value(contains("role must not be null")))
+            .andReturn();
+        Long newId = ((Number) JsonPath.read(result.getResponse().getContentAsString(), "$.[0].id")).longValue();
+        try {
+            TeamContact testTeamContact = teamContactRepository.findOneWithEagerRelationships(newId).orElseThrow();
+            assertThat(testTeamContact.getRole()).isEqualTo(DEFAULT_ROLE);
+            assertThat(testTeamContact.getContact().getId()).isEqualTo(contact.getId());
+            assertThat(testTeamContact.getTeam().getId()).isEqualTo(team.getId());
+        } finally {
+            teamContactRepository.deleteById(newId);
+            contactRepository.deleteById(contact.getId());
+            teamRepository.deleteById(team.getId());
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void bulkDeleteTeamContacts() throws Exception {
+        Contact contact = contactRepository.saveAndFlush(ContactResourceIT.createEntity(em).image(null).imageHash(null));
+        Team team = teamRepository.saveAndFlush(TeamResourceIT.createEntity(em).logo(null).logoHash(null));
+        TeamContact teamContact = teamContactRepository.saveAndFlush(createEntity(em).contact(contact).team(team));
+        try {
+            restTeamContactMockMvc
+                .perform(
+                    delete(ENTITY_API_URL + "/_bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(teamContact.getId() + "\n" + Long.MAX_VALUE + "\n")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].status").value(contains("DELETED", "INVALID")))
+                .andExpect(jsonPath("$.[0].id").value(teamContact.getId().intValue()))
+                .andExpect(jsonPath("$.[1].errors").value(contains("id " + Long.MAX_VALUE + " does not exist")));
+
+            assertThat(teamContactRepository.findById(teamContact.getId())).isEmpty();
+        } finally {
+            contactRepository.deleteById(contact.getId());
+            teamRepository.deleteById(team.getId());
+        }
+    }
+
     @Test
     @Transactional
     void partialUpdateTeamContactWithPatch() throws Exception {
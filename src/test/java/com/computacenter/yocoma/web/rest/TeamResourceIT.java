@@ -1,28 +1,41 @@
 package com.computacenter.yocoma.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.computacenter.yocoma.IntegrationTest;
+import com.computacenter.yocoma.domain.Contact;
 import com.computacenter.yocoma.domain.Team;
 import com.computacenter.yocoma.domain.TeamContact;
+import com.computacenter.yocoma.repository.BinaryContentRepository;
 import com.computacenter.yocoma.repository.TeamRepository;
+import com.computacenter.yocoma.service.CountService;
+import com.computacenter.yocoma.service.TeamService;
+import com.computacenter.yocoma.service.ThumbnailService;
 import com.computacenter.yocoma.service.criteria.TeamCriteria;
+import com.computacenter.yocoma.service.storage.BinaryStore;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.search.mapper.orm.Search;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.Base64Utils;
 
 /**
  * Integration tests for the {@link TeamResource} REST controller.
@@ -40,6 +53,8 @@ class TeamResourceIT {
 
     private static final byte[] DEFAULT_LOGO = TestUtil.createByteArray(1, "0");
     private static final byte[] UPDATED_LOGO = TestUtil.createByteArray(1, "1");
+    private static final String DEFAULT_LOGO_HASH = BinaryStore.hash(DEFAULT_LOGO);
+    private static final String UPDATED_LOGO_HASH = BinaryStore.hash(UPDATED_LOGO);
     private static final String DEFAULT_LOGO_CONTENT_TYPE = "image/jpg";
     private static final String UPDATED_LOGO_CONTENT_TYPE = "image/png";
 
@@ -55,6 +70,18 @@ class TeamResourceIT {
     @Autowired
     private TeamRepository teamRepository;
 
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private CountService countService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private BinaryContentRepository binaryContentRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -74,6 +101,7 @@ class TeamResourceIT {
             .name(DEFAULT_NAME)
             .motto(DEFAULT_MOTTO)
             .logo(DEFAULT_LOGO)
+            .logoHash(DEFAULT_LOGO_HASH)
             .logoContentType(DEFAULT_LOGO_CONTENT_TYPE)
             .description(DEFAULT_DESCRIPTION);
         return team;
@@ -90,6 +118,7 @@ class TeamResourceIT {
             .name(UPDATED_NAME)
             .motto(UPDATED_MOTTO)
             .logo(UPDATED_LOGO)
+            .logoHash(UPDATED_LOGO_HASH)
             .logoContentType(UPDATED_LOGO_CONTENT_TYPE)
             .description(UPDATED_DESCRIPTION);
         return team;
@@ -97,6 +126,8 @@ class TeamResourceIT {
 
     @BeforeEach
     public void initTest() {
+        // The rolled back data of other tests does not clear the cached counts
+        countService.clear();
         team = createEntity(em);
     }
 
@@ -115,7 +146,7 @@ class TeamResourceIT {
         Team testTeam = teamList.get(teamList.size() - 1);
         assertThat(testTeam.getName()).isEqualTo(DEFAULT_NAME);
         assertThat(testTeam.getMotto()).isEqualTo(DEFAULT_MOTTO);
-        assertThat(testTeam.getLogo()).isEqualTo(DEFAULT_LOGO);
+        assertThat(testTeam.getLogoHash()).isEqualTo(DEFAULT_LOGO_HASH);
         assertThat(testTeam.getLogoContentType()).isEqualTo(DEFAULT_LOGO_CONTENT_TYPE);
         assertThat(testTeam.getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
     }
@@ -170,10 +201,86 @@ class TeamResourceIT {
             .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
             .andExpect(jsonPath("$.[*].motto").value(hasItem(DEFAULT_MOTTO)))
             .andExpect(jsonPath("$.[*].logoContentType").value(hasItem(DEFAULT_LOGO_CONTENT_TYPE)))
-            .andExpect(jsonPath("$.[*].logo").value(hasItem(Base64Utils.encodeToString(DEFAULT_LOGO))))
+            .andExpect(jsonPath("$.[*].logoHash").value(hasItem(DEFAULT_LOGO_HASH)))
+            .andExpect(jsonPath("$.[*].logoUrl").value(hasItem("/api/teams/" + team.getId() + "/logo")))
             .andExpect(jsonPath("$.[*].description").value(hasItem(DEFAULT_DESCRIPTION)));
     }
 
+    @Test
+    @Transactional
+    void getAllTeamsPaginated() throws Exception {
+        // Initialize the database
+        teamRepository.saveAndFlush(team);
+        long databaseSize = teamRepository.count();
+
+        // Get the first page of the teamList
+        restTeamMockMvc
+            .perform(get(ENTITY_API_URL + "?page=0&size=1&sort=name,asc"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", String.valueOf(databaseSize)))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @Transactional
+    void getAllTeamsWithTooLargePageSize() throws Exception {
+        // Initialize the database
+        teamRepository.saveAndFlush(team);
+
+        // The page size is capped, so the response is still a regular page
+        restTeamMockMvc
+            .perform(get(ENTITY_API_URL + "?page=0&size=100000"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(team.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllTeamsWithUnknownSortProperty() throws Exception {
+        restTeamMockMvc.perform(get(ENTITY_API_URL + "?sort=unknown,asc")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void seekTeams() throws Exception {
+        // Initialize the database
+        teamRepository.saveAndFlush(team);
+        Team other = createEntity(em);
+        teamRepository.saveAndFlush(other);
+
+        // Get the first slice, which must point to the second one
+        MvcResult first = restTeamMockMvc
+            .perform(get(ENTITY_API_URL + "/_seek?size=1&sort=id,asc&id.greaterThanOrEqual=" + team.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(team.getId().intValue()))
+            .andExpect(header().exists("X-Continuation-Token"))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andReturn();
+        String continuation = first.getResponse().getHeader("X-Continuation-Token");
+
+        // Get the second and last slice
+        restTeamMockMvc
+            .perform(
+                get(ENTITY_API_URL + "/_seek?size=1&id.greaterThanOrEqual=" + team.getId() + "&continuation=" + continuation)
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(other.getId().intValue()))
+            .andExpect(header().doesNotExist("X-Continuation-Token"));
+    }
+
+    @Test
+    @Transactional
+    void seekTeamsWithInvalidContinuation() throws Exception {
+        restTeamMockMvc.perform(get(ENTITY_API_URL + "/_seek?continuation=garbage")).andExpect(status().isBadRequest());
+        restTeamMockMvc.perform(get(ENTITY_API_URL + "/_seek?sort=unknown")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getTeam() throws Exception {
@@ -189,7 +296,9 @@ class TeamResourceIT {
             .andExpect(jsonPath("$.name").value(DEFAULT_NAME))
             .andExpect(jsonPath("$.motto").value(DEFAULT_MOTTO))
             .andExpect(jsonPath("$.logoContentType").value(DEFAULT_LOGO_CONTENT_TYPE))
-            .andExpect(jsonPath("$.logo").value(Base64Utils.encodeToString(DEFAULT_LOGO)))
+            .andExpect(jsonPath("$.logoHash").value(DEFAULT_LOGO_HASH))
+            .andExpect(jsonPath("$.logoUrl").value("/api/teams/" + team.getId() + "/logo"))
+            .andExpect(jsonPath("$.logoThumbnailUrls['48']").value("/api/teams/" + team.getId() + "/logo/" + DEFAULT_LOGO_HASH + "/48"))
             .andExpect(jsonPath("$.description").value(DEFAULT_DESCRIPTION));
     }
 
@@ -471,6 +580,26 @@ class TeamResourceIT {
         defaultTeamShouldNotBeFound("teamContactId.equals=" + (teamContactId + 1));
     }
 
+    @Test
+    @Transactional
+    void getAllTeamsBySearchContainsSomething() throws Exception {
+        // Initialize the database, and the full-text index which is otherwise only written on commit
+        teamRepository.saveAndFlush(team);
+        Search.session(em).indexingPlan().execute();
+
+        // Get all the teamList where a word, the prefix of a word or a word with a typo matches
+        defaultTeamShouldBeFound("search.contains=" + DEFAULT_NAME.toLowerCase());
+        defaultTeamShouldBeFound("search.contains=" + DEFAULT_NAME.substring(0, 3));
+        defaultTeamShouldBeFound("search.contains=" + DEFAULT_NAME.substring(1) + "X");
+
+        // Get all the teamList where nothing matches, or not every word
+        defaultTeamShouldNotBeFound("search.contains=" + UPDATED_NAME);
+        defaultTeamShouldNotBeFound("search.contains=" + DEFAULT_NAME + " " + UPDATED_NAME);
+
+        // A blank search does not restrict the teamList
+        defaultTeamShouldBeFound("search.contains=");
+    }
+
     /**
      * Executes the search, and checks that the default entity is returned.
      */
@@ -483,7 +612,8 @@ class TeamResourceIT {
             .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
             .andExpect(jsonPath("$.[*].motto").value(hasItem(DEFAULT_MOTTO)))
             .andExpect(jsonPath("$.[*].logoContentType").value(hasItem(DEFAULT_LOGO_CONTENT_TYPE)))
-            .andExpect(jsonPath("$.[*].logo").value(hasItem(Base64Utils.encodeToString(DEFAULT_LOGO))))
+            .andExpect(jsonPath("$.[*].logoHash").value(hasItem(DEFAULT_LOGO_HASH)))
+            .andExpect(jsonPath("$.[*].logoUrl").value(hasItem("/api/teams/" + team.getId() + "/logo")))
             .andExpect(jsonPath("$.[*].description").value(hasItem(DEFAULT_DESCRIPTION)));
 
         // Check, that the count call also returns 1
@@ -513,6 +643,150 @@ class TeamResourceIT {
             .andExpect(content().string("0"));
     }
 
+    @Test
+    @Transactional
+    void getTeamWithTeamContacts() throws Exception {
+        // Initialize the database
+        teamRepository.saveAndFlush(team);
+        Contact contact = ContactResourceIT.createEntity(em);
+        em.persist(contact);
+        TeamContact teamContact = TeamContactResourceIT.createEntity(em).team(team).contact(contact);
+        em.persist(teamContact);
+        em.flush();
+        em.clear();
+
+        // The lazy memberships and their contacts are still part of the response
+        restTeamMockMvc
+            .perform(get(ENTITY_API_URL_ID, team.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.teamContacts.[*].id").value(hasItem(teamContact.getId().intValue())))
+            .andExpect(jsonPath("$.teamContacts.[*].contact.id").value(hasItem(contact.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getTeamIsNotModifiedUntilAMemberChanges() throws Exception {
+        // Initialize the database
+        teamRepository.saveAndFlush(team);
+        Contact contact = ContactResourceIT.createEntity(em);
+        em.persist(contact);
+        em.persist(TeamContactResourceIT.createEntity(em).team(team).contact(contact));
+        em.flush();
+        em.clear();
+
+        String eTag = restTeamMockMvc
+            .perform(get(ENTITY_API_URL_ID, team.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("\"");
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            restTeamMockMvc
+                .perform(get(ENTITY_API_URL_ID, team.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+            // One statement selecting the versions, no entity is loaded
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            assertThat(statistics.getEntityLoadCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        // The contacts of the members are part of the team
+        em.find(Contact.class, contact.getId()).setLastname("Changed");
+        em.flush();
+        em.clear();
+
+        restTeamMockMvc
+            .perform(get(ENTITY_API_URL_ID, team.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.teamContacts.[*].contact.lastname").value(hasItem("Changed")));
+    }
+
+    @Test
+    @Transactional
+    void getAllTeamsIsNotModifiedWithItsWeakETag() throws Exception {
+        // Initialize the database
+        teamRepository.saveAndFlush(team);
+
+        String url = ENTITY_API_URL + "?id.equals=" + team.getId();
+        String eTag = restTeamMockMvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("W/\"");
+
+        restTeamMockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag)).andExpect(status().isNotModified());
+
+        team.setName(UPDATED_NAME);
+        teamRepository.saveAndFlush(team);
+
+        restTeamMockMvc
+            .perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].name").value(UPDATED_NAME));
+    }
+
+    @Test
+    @Transactional
+    void getAllTeamsSelectsOnlyTheListedColumns() throws Exception {
+        Team newTeam = createEntity(em);
+        em.persist(newTeam);
+        for (int i = 0; i < 3; i++) {
+            Contact contact = ContactResourceIT.createEntity(em);
+            em.persist(contact);
+            em.persist(TeamContactResourceIT.createEntity(em).team(newTeam).contact(contact));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            restTeamMockMvc
+                .perform(get(ENTITY_API_URL + "?id.equals=" + newTeam.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id").value(newTeam.getId().intValue()))
+                .andExpect(jsonPath("$.[0].name").value(DEFAULT_NAME))
+                .andExpect(jsonPath("$.[0].teamContacts").doesNotExist());
+            // One statement selecting the summaries, the count is skipped for a partial first page
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            assertThat(statistics.getEntityLoadCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void exportTeamsAsNdjson() throws Exception {
+        // The export is streamed by another thread, which only sees committed teams
+        teamRepository.saveAndFlush(team.logo(null).logoHash(null));
+        try {
+            MvcResult result = restTeamMockMvc
+                .perform(get(ENTITY_API_URL + "/_export?format=ndjson&id.equals=" + team.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            restTeamMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"teams.ndjson\""))
+                .andExpect(jsonPath("$.id").value(team.getId().intValue()))
+                .andExpect(jsonPath("$.name").value(DEFAULT_NAME))
+                .andExpect(jsonPath("$.motto").value(DEFAULT_MOTTO));
+        } finally {
+            teamRepository.deleteById(team.getId());
+        }
+    }
+
     @Test
     @Transactional
     void getNonExistingTeam() throws Exception {
@@ -520,6 +794,66 @@ class TeamResourceIT {
         restTeamMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getTeamLogo() throws Exception {
+        // Initialize the database, the service moves the logo into the binary store
+        teamService.save(team);
+
+        // Get the logo
+        restTeamMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/logo", team.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(DEFAULT_LOGO_CONTENT_TYPE))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + DEFAULT_LOGO_HASH + "\""))
+            .andExpect(content().bytes(DEFAULT_LOGO));
+    }
+
+    @Test
+    @Transactional
+    void getTeamLogoWithUnsafeContentType() throws Exception {
+        // Initialize the database
+        teamService.save(team.logoContentType("image/svg+xml"));
+
+        // Get the logo
+        restTeamMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/logo", team.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM));
+    }
+
+    @Test
+    @Transactional
+    void getTeamLogoThumbnail() throws Exception {
+        // Initialize the database with a logo larger than the thumbnail
+        teamService.save(team.logo(TestUtil.createPngImage(1024, 1024)).logoContentType("image/png"));
+        thumbnailService.createThumbnails(team.getLogoHash());
+
+        // Get the thumbnail
+        restTeamMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/logo/{hash}/{size}", team.getId(), team.getLogoHash(), 512))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("image/jpeg"))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+    }
+
+    @Test
+    @Transactional
+    void deleteTeamReleasesLogo() throws Exception {
+        // Initialize the database, with a second team sharing the logo
+        teamService.save(team);
+        Team otherTeam = createEntity(em);
+        teamService.save(otherTeam);
+
+        // Delete the first team, the logo is still referenced by the other one
+        restTeamMockMvc.perform(delete(ENTITY_API_URL_ID, team.getId())).andExpect(status().isNoContent());
+        assertThat(binaryContentRepository.existsById(DEFAULT_LOGO_HASH)).isTrue();
+
+        // Delete the other team as well
+        restTeamMockMvc.perform(delete(ENTITY_API_URL_ID, otherTeam.getId())).andExpect(status().isNoContent());
+        assertThat(binaryContentRepository.existsById(DEFAULT_LOGO_HASH)).isFalse();
+    }
+
     @Test
     @Transactional
     void putNewTeam() throws Exception {
@@ -553,11 +887,58 @@ class TeamResourceIT {
         Team testTeam = teamList.get(teamList.size() - 1);
         assertThat(testTeam.getName()).isEqualTo(UPDATED_NAME);
         assertThat(testTeam.getMotto()).isEqualTo(UPDATED_MOTTO);
-        assertThat(testTeam.getLogo()).isEqualTo(UPDATED_LOGO);
+        assertThat(testTeam.getLogoHash()).isEqualTo(UPDATED_LOGO_HASH);
         assertThat(testTeam.getLogoContentType()).isEqualTo(UPDATED_LOGO_CONTENT_TYPE);
         assertThat(testTeam.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
     }
 
+    @Test
+    @Transactional
+    void putTeamWithIfMatch() throws Exception {
+        // Initialize the database
+        teamRepository.saveAndFlush(team);
+        String eTag = restTeamMockMvc.perform(get(ENTITY_API_URL_ID, team.getId())).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        Team updatedTeam = teamRepository.findById(team.getId()).get();
+        em.detach(updatedTeam);
+        updatedTeam.name(UPDATED_NAME);
+
+        restTeamMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedTeam.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"stale\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedTeam))
+            )
+            .andExpect(status().isPreconditionFailed());
+        assertThat(teamRepository.findById(team.getId()).get().getName()).isEqualTo(DEFAULT_NAME);
+
+        String updatedETag = restTeamMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedTeam.getId())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedTeam))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value(UPDATED_NAME))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(updatedETag).isNotEqualTo(eTag);
+
+        // The first update has outdated the version the second one is based on
+        restTeamMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedTeam.getId())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedTeam.motto(UPDATED_MOTTO)))
+            )
+            .andExpect(status().isPreconditionFailed());
+        assertThat(teamRepository.findById(team.getId()).get().getMotto()).isEqualTo(DEFAULT_MOTTO);
+    }
+
     @Test
     @Transactional
     void putNonExistingTeam() throws Exception {
@@ -642,7 +1023,7 @@ class TeamResourceIT {
         Team testTeam = teamList.get(teamList.size() - 1);
         assertThat(testTeam.getName()).isEqualTo(DEFAULT_NAME);
         assertThat(testTeam.getMotto()).isEqualTo(DEFAULT_MOTTO);
-        assertThat(testTeam.getLogo()).isEqualTo(UPDATED_LOGO);
+        assertThat(testTeam.getLogoHash()).isEqualTo(UPDATED_LOGO_HASH);
         assertThat(testTeam.getLogoContentType()).isEqualTo(UPDATED_LOGO_CONTENT_TYPE);
         assertThat(testTeam.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
     }
@@ -680,7 +1061,7 @@ class TeamResourceIT {
         Team testTeam = teamList.get(teamList.size() - 1);
         assertThat(testTeam.getName()).isEqualTo(UPDATED_NAME);
         assertThat(testTeam.getMotto()).isEqualTo(UPDATED_MOTTO);
-        assertThat(testTeam.getLogo()).isEqualTo(UPDATED_LOGO);
+        assertThat(testTeam.getLogoHash()).isEqualTo(UPDATED_LOGO_HASH);
         assertThat(testTeam.getLogoContentType()).isEqualTo(UPDATED_LOGO_CONTENT_TYPE);
         assertThat(testTeam.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
     }
@@ -6,11 +6,14 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import javax.imageio.ImageIO;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
@@ -64,6 +67,20 @@ public final class TestUtil {
         return byteArray;
     }
 
+    /**
+     * Create a PNG image with a specific size.
+     *
+     * @param width the width of the image.
+     * @param height the height of the image.
+     * @return the PNG encoded image.
+     * @throws IOException if the image could not be encoded.
+     */
+    public static byte[] createPngImage(int width, int height) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", output);
+        return output.toByteArray();
+    }
+
     /**
      * A matcher that tests that the examined string represents the same instant as the reference datetime.
      */
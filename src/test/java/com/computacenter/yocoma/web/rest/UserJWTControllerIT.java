@@ -1,9 +1,11 @@
 package com.computacenter.yocoma.web.rest;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -11,14 +13,27 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.computacenter.yocoma.IntegrationTest;
 import com.computacenter.yocoma.domain.User;
+import com.computacenter.yocoma.repository.AuthorityRepository;
+import com.computacenter.yocoma.repository.RefreshTokenRepository;
 import com.computacenter.yocoma.repository.UserRepository;
+import com.computacenter.yocoma.security.AuthoritiesConstants;
+import com.computacenter.yocoma.security.jwt.JwtAuthorities;
 import com.computacenter.yocoma.web.rest.vm.LoginVM;
+import com.jayway.jsonpath.JsonPath;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -31,6 +46,12 @@ class UserJWTControllerIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -60,6 +81,60 @@ class UserJWTControllerIT {
             .andExpect(header().string("Authorization", not(is(emptyString()))));
     }
 
+    @Test
+    @Transactional
+    void testAuthorizeCarriesTheAuthoritiesAsBitmask() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-authorities");
+        user.setEmail("user-jwt-controller-authorities@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+        user.setAuthorities(new HashSet<>(Set.of(authorityRepository.findById(AuthoritiesConstants.USER).orElseThrow())));
+
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-authorities");
+        login.setPassword("test");
+        String token = mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader("Authorization")
+            .substring("Bearer ".length());
+
+        // ROLE_USER has the token bit 1 in the Liquibase changelog
+        String payload = new String(Base64.getUrlDecoder().decode(token.split("\\.")[1]), StandardCharsets.UTF_8);
+        assertThat(payload)
+            .contains("\"" + JwtAuthorities.AUTHORITY_BITS_KEY + "\":2")
+            .doesNotContain("\"" + JwtAuthorities.AUTHORITIES_KEY + "\"");
+    }
+
+    @Test
+    @Transactional
+    void testAuthorizeUpgradesWeakerPasswordHash() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-weak-hash");
+        user.setEmail("user-jwt-controller-weak-hash@example.com");
+        user.setActivated(true);
+        user.setPassword(new BCryptPasswordEncoder(4).encode("test"));
+
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-weak-hash");
+        login.setPassword("test");
+        mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk());
+
+        String upgradedPassword = userRepository.findOneByLogin("user-jwt-controller-weak-hash").orElseThrow().getPassword();
+        assertThat(upgradedPassword).startsWith("$2a$10$");
+        assertThat(passwordEncoder.matches("test", upgradedPassword)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(upgradedPassword)).isFalse();
+    }
+
     @Test
     @Transactional
     void testAuthorizeWithRememberMe() throws Exception {
@@ -84,6 +159,65 @@ class UserJWTControllerIT {
             .andExpect(header().string("Authorization", not(is(emptyString()))));
     }
 
+    @Test
+    @Transactional
+    void testRefreshRotatesTheRefreshToken() throws Exception {
+        Map<String, String> tokens = login("user-jwt-controller-refresh");
+
+        Map<String, String> refreshed = refresh(tokens.get("refresh_token"), status().isOk());
+
+        assertThat(refreshed.get("refresh_token")).isNotEqualTo(tokens.get("refresh_token"));
+        assertThat(refreshed.get("id_token")).isNotEqualTo(tokens.get("id_token"));
+        mockMvc.perform(get("/api/account").header("Authorization", "Bearer " + refreshed.get("id_token"))).andExpect(status().isOk());
+        refresh(refreshed.get("refresh_token"), status().isOk());
+    }
+
+    // Not transactional, as the access tokens are only refused once their revocation has committed
+    @Test
+    void testRefreshTokenUsedTwiceRevokesItsSession() throws Exception {
+        try {
+            Map<String, String> tokens = login("user-jwt-controller-refresh-reuse");
+            Map<String, String> refreshed = refresh(tokens.get("refresh_token"), status().isOk());
+
+            refresh(tokens.get("refresh_token"), status().isUnauthorized());
+
+            refresh(refreshed.get("refresh_token"), status().isUnauthorized());
+            mockMvc
+                .perform(get("/api/account").header("Authorization", "Bearer " + refreshed.get("id_token")))
+                .andExpect(status().isUnauthorized());
+        } finally {
+            deleteUser("user-jwt-controller-refresh-reuse");
+        }
+    }
+
+    @Test
+    void testLogoutRevokesTheSession() throws Exception {
+        try {
+            Map<String, String> tokens = login("user-jwt-controller-logout");
+            mockMvc.perform(get("/api/account").header("Authorization", "Bearer " + tokens.get("id_token"))).andExpect(status().isOk());
+
+            mockMvc
+                .perform(
+                    post("/api/logout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtil.convertObjectToJsonBytes(Map.of("refresh_token", tokens.get("refresh_token"))))
+                )
+                .andExpect(status().isNoContent());
+
+            mockMvc
+                .perform(get("/api/account").header("Authorization", "Bearer " + tokens.get("id_token")))
+                .andExpect(status().isUnauthorized());
+            refresh(tokens.get("refresh_token"), status().isUnauthorized());
+        } finally {
+            deleteUser("user-jwt-controller-logout");
+        }
+    }
+
+    @Test
+    void testRefreshFailsWithAnUnknownToken() throws Exception {
+        refresh("unknown", status().isUnauthorized());
+    }
+
     @Test
     void testAuthorizeFails() throws Exception {
         LoginVM login = new LoginVM();
@@ -95,4 +229,51 @@ class UserJWTControllerIT {
             .andExpect(jsonPath("$.id_token").doesNotExist())
             .andExpect(header().doesNotExist("Authorization"));
     }
+
+    private Map<String, String> login(String username) throws Exception {
+        User user = new User();
+        user.setLogin(username);
+        user.setEmail(username + "@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername(username);
+        login.setPassword("test");
+        return tokens(
+            mockMvc
+                .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.refresh_token").isNotEmpty())
+                .andReturn()
+        );
+    }
+
+    private void deleteUser(String login) {
+        refreshTokenRepository.deleteAll(refreshTokenRepository.findAllByUserLogin(login));
+        userRepository.findOneByLogin(login).ifPresent(userRepository::delete);
+    }
+
+    private Map<String, String> refresh(String refreshToken, ResultMatcher expectedStatus) throws Exception {
+        return tokens(
+            mockMvc
+                .perform(
+                    post("/api/authenticate/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtil.convertObjectToJsonBytes(Map.of("refresh_token", refreshToken)))
+                )
+                .andExpect(expectedStatus)
+                .andReturn()
+        );
+    }
+
+    private static Map<String, String> tokens(MvcResult result) throws Exception {
+        String content = result.getResponse().getContentAsString();
+        if (result.getResponse().getStatus() != 200) {
+            return Map.of();
+        }
+        return Map.of("id_token", JsonPath.read(content, "$.id_token"), "refresh_token", JsonPath.read(content, "$.refresh_token"));
+    }
 }
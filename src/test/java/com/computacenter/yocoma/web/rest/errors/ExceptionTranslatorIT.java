@@ -3,6 +3,7 @@ package com.computacenter.yocoma.web.rest.errors;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -86,6 +87,17 @@ class ExceptionTranslatorIT {
             .andExpect(jsonPath("$.detail").value("test authentication failed!"));
     }
 
+    @Test
+    void testAuthenticationOverloaded() throws Exception {
+        mockMvc
+            .perform(get("/api/exception-translator-test/authentication-overloaded"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string("Retry-After", "5"))
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_AUTHENTICATION_OVERLOADED))
+            .andExpect(jsonPath("$.detail").value("test authentication overloaded!"));
+    }
+
     @Test
     void testMethodNotSupported() throws Exception {
         mockMvc
@@ -1,5 +1,7 @@
 package com.computacenter.yocoma.web.rest.errors;
 
+import com.computacenter.yocoma.security.AuthenticationOverloadedException;
+import java.time.Duration;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.springframework.dao.ConcurrencyFailureException;
@@ -36,6 +38,11 @@ public class ExceptionTranslatorTestController {
         throw new BadCredentialsException("test authentication failed!");
     }
 
+    @GetMapping("/authentication-overloaded")
+    public void authenticationOverloaded() {
+        throw new AuthenticationOverloadedException("test authentication overloaded!", Duration.ofSeconds(5));
+    }
+
     @GetMapping("/response-status")
     public void exceptionWithResponseStatus() {
         throw new TestResponseStatusException();